@@ -3,6 +3,7 @@ plugins {
 
     id(kotlinPlugin) version kotlinVersion apply false
     id(dokkaPlugin) version "1.9.20" apply true
+    id(jmhPlugin) version "0.7.2" apply false
 }
 
 // Project Info
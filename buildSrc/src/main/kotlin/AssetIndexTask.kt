@@ -0,0 +1,93 @@
+import org.gradle.api.*
+import org.gradle.api.file.*
+import org.gradle.api.tasks.*
+import java.io.*
+import java.security.*
+import java.util.zip.*
+
+/**
+ * Writes a sorted index of every file under `assets/` in the given
+ * resource folders and jars, so the engine can register assets at startup
+ * without scanning the classpath.
+ *
+ * Each line of the index holds a path, size in bytes, file type, and
+ * SHA-256 hash, separated by tabs. The format must match
+ * `mayonez.assets.AssetIndex`.
+ */
+abstract class AssetIndexTask : DefaultTask() {
+
+    /** The resource folders and jars to search for assets. */
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val sources: ConfigurableFileCollection
+
+    /** The folder to write the index into, which should be added as a resource folder. */
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun writeIndex() {
+        val entries = sortedMapOf<String, String>() // Earlier sources win, like the classpath
+        for (source in sources.files) {
+            when {
+                source.isDirectory -> indexFolder(source, entries)
+                source.isFile && source.name.endsWith(".jar") -> indexJar(source, entries)
+            }
+        }
+
+        val indexFile = outputDir.file(INDEX_PATH).get().asFile
+        indexFile.parentFile.mkdirs()
+        indexFile.bufferedWriter().use { writer ->
+            writer.write(INDEX_HEADER)
+            writer.newLine()
+            entries.values.forEach {
+                writer.write(it)
+                writer.newLine()
+            }
+        }
+        logger.info("Indexed ${entries.size} assets in $indexFile")
+    }
+
+    private fun indexFolder(folder: File, entries: MutableMap<String, String>) {
+        val assetsFolder = folder.resolve(ASSETS_ROOT_DIR)
+        if (!assetsFolder.isDirectory) return
+        assetsFolder.walkTopDown().filter { it.isFile && !it.isHidden }.forEach { file ->
+            val path = file.relativeTo(folder).invariantSeparatorsPath
+            if (path !in entries) entries[path] = file.inputStream().use { toEntry(path, it) }
+        }
+    }
+
+    private fun indexJar(jar: File, entries: MutableMap<String, String>) {
+        ZipFile(jar).use { zip ->
+            for (zipEntry in zip.entries()) {
+                val path = zipEntry.name
+                if (zipEntry.isDirectory || !path.startsWith("$ASSETS_ROOT_DIR/")) continue
+                if (path.substringAfterLast('/').startsWith(".") || path in entries) continue
+                entries[path] = zip.getInputStream(zipEntry).use { toEntry(path, it) }
+            }
+        }
+    }
+
+    private fun toEntry(path: String, stream: InputStream): String {
+        val digest = MessageDigest.getInstance("SHA-256")
+        val buffer = ByteArray(8192)
+        var size = 0L
+        while (true) {
+            val read = stream.read(buffer)
+            if (read < 0) break
+            digest.update(buffer, 0, read)
+            size += read
+        }
+        val hash = digest.digest().joinToString("") { "%02x".format(it) }
+        val type = path.substringAfterLast('/').substringAfterLast('.', "").lowercase()
+        return "$path\t$size\t$type\t$hash"
+    }
+
+    companion object {
+        /** Where the index is stored inside the jar. */
+        const val INDEX_PATH: String = "META-INF/mayonez/asset-index.tsv"
+        private const val INDEX_HEADER: String = "# Mayonez asset index v1: path, size, type, sha256"
+        private const val ASSETS_ROOT_DIR: String = "assets"
+    }
+
+}
@@ -5,4 +5,7 @@
 const val dokkaPlugin: String = "org.jetbrains.dokka"
 
 /** The Kotlin plugin for compiling Kotlin files to the JVM. */
-const val kotlinPlugin: String = "org.jetbrains.kotlin.jvm"
\ No newline at end of file
+const val kotlinPlugin: String = "org.jetbrains.kotlin.jvm"
+
+/** The JMH plugin for running microbenchmarks in the `jmh` source set. */
+const val jmhPlugin: String = "me.champeau.jmh"
\ No newline at end of file
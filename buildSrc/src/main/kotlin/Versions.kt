@@ -8,4 +8,7 @@ const val kotlinVersion: String = "2.0.21"
 const val junitVersion = "5.11.4"
 
 /** The version for the LWJGL framework. */
-const val lwjglVersion = "3.3.4"
\ No newline at end of file
+const val lwjglVersion = "3.3.4"
+
+/** The version for the JMH benchmarking libraries. */
+const val jmhLibraryVersion = "1.37"
\ No newline at end of file
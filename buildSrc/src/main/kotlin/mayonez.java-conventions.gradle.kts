@@ -13,4 +13,14 @@ java {
 // Enable Maven repository
 repositories {
     mavenCentral()
-}
\ No newline at end of file
+}
+
+// Index the assets in this project and its dependencies, so they don't need to be scanned at startup
+val generateAssetIndex = tasks.register<AssetIndexTask>("generateAssetIndex") {
+    group = "Build"
+    description = "Writes an index of all assets on the runtime classpath into the resources."
+    sources.from("src/main/resources", configurations["runtimeClasspath"])
+    outputDir = layout.buildDirectory.dir("generated/assetIndex")
+}
+
+sourceSets["main"].resources.srcDir(generateAssetIndex)
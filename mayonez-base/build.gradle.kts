@@ -3,6 +3,7 @@ plugins {
 
     id(kotlinPlugin)
     id(dokkaPlugin)
+    id(jmhPlugin)
 }
 
 description = "The core library for Mayonez Engine that contains the API classes."
@@ -26,6 +27,15 @@ dependencies {
     runtimeOnly("org.lwjgl:lwjgl-stb::$lwjglNatives")
 }
 
+// Benchmarks
+// Run with ./gradlew :mayonez-base:jmh, or add -Pjmh.includes=<regex> to pick benchmarks
+
+jmh {
+    jmhVersion = jmhLibraryVersion
+    profilers = listOf("gc") // Report allocations per operation
+    findProperty("jmh.includes")?.let { includes = listOf(it.toString()) }
+}
+
 // Plugins and Tasks
 
 tasks {
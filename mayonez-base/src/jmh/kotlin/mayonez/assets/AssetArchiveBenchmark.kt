@@ -0,0 +1,82 @@
+package mayonez.assets
+
+import org.openjdk.jmh.annotations.*
+import java.io.*
+import java.nio.*
+import java.util.concurrent.*
+
+/**
+ * Measures the time and memory to read every asset at startup, from loose
+ * files or from slices of a memory-mapped [AssetArchive].
+ *
+ * Loose files are read the same way [mayonez.assets.image.STBImageData]
+ * reads them: into a byte array, then copied into a direct buffer. Both
+ * benchmarks add up every byte so the mapped pages are actually read. Run
+ * with the GC profiler to compare allocations.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class AssetArchiveBenchmark {
+
+    @Param("100", "1000")
+    var numAssets: Int = 0
+
+    @Param("16384")
+    var assetSize: Int = 0
+
+    private lateinit var folder: File
+    private lateinit var archiveFile: File
+    private lateinit var paths: List<String>
+
+    @Setup
+    fun setUp() {
+        folder = File.createTempFile("assets", "").apply { delete(); mkdirs() }
+        val contents = LinkedHashMap<String, ByteArray>()
+        for (i in 0..<numAssets) {
+            val path = "assets/folder${i % 10}/asset$i.bin"
+            val bytes = ByteArray(assetSize) { (it * 31 + i).toByte() }
+            contents[path] = bytes
+            folder.resolve(path).apply { parentFile.mkdirs() }.writeBytes(bytes)
+        }
+        paths = contents.keys.toList()
+        archiveFile = folder.resolve(AssetArchive.DEFAULT_FILENAME)
+        AssetArchive.write(archiveFile, contents)
+    }
+
+    @TearDown
+    fun tearDown() {
+        folder.deleteRecursively()
+    }
+
+    @Benchmark
+    fun readLooseFiles(): Long {
+        var sum = 0L
+        for (path in paths) {
+            val bytes = folder.resolve(path).inputStream().use { it.readAllBytes() }
+            val buffer = ByteBuffer.allocateDirect(bytes.size).put(bytes).flip()
+            sum += buffer.sum()
+        }
+        return sum
+    }
+
+    @Benchmark
+    fun readArchive(): Long {
+        val archive = AssetArchive.open(archiveFile)
+        var sum = 0L
+        for (path in paths) sum += archive.getContents(path)!!.sum()
+        return sum
+    }
+
+    private fun ByteBuffer.sum(): Long {
+        var sum = 0L
+        for (i in position()..<limit()) sum += get(i)
+        return sum
+    }
+
+}
@@ -0,0 +1,85 @@
+package mayonez.assets
+
+import org.openjdk.jmh.annotations.*
+import org.reflections.vfs.*
+import java.io.*
+import java.net.*
+import java.util.concurrent.*
+import java.util.jar.*
+
+/**
+ * Measures the time to list every asset in a jar at startup, by scanning
+ * the jar's entries or by reading the asset index written at build time.
+ *
+ * The jar is generated with the given number of small assets spread across
+ * 100 folders, plus some class files to make the jar larger. Each
+ * invocation lists the assets from scratch, like a cold start.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class AssetIndexBenchmark {
+
+    @Param("1000", "10000")
+    var numAssets: Int = 0
+
+    private lateinit var jarFile: File
+    private lateinit var assetsURL: URL
+    private lateinit var indexURL: URL
+
+    @Setup
+    fun setUp() {
+        jarFile = File.createTempFile("assets", ".jar")
+        val entries = ArrayList<AssetIndex.Entry>()
+        JarOutputStream(jarFile.outputStream().buffered()).use { jar ->
+            // Add classes that the scanner has to skip
+            for (i in 0..<numAssets) {
+                jar.putNextEntry(JarEntry("mayonez/generated/Class$i.class"))
+                jar.write(ByteArray(64))
+                jar.closeEntry()
+            }
+
+            for (i in 0..<numAssets) {
+                val path = "assets/folder${i % 100}/asset$i.txt"
+                val contents = "asset $i".toByteArray()
+                jar.putNextEntry(JarEntry(path))
+                jar.write(contents)
+                jar.closeEntry()
+                entries.add(AssetIndex.Entry(path, contents.size.toLong(), "txt", "0".repeat(64)))
+            }
+
+            jar.putNextEntry(JarEntry(AssetIndex.INDEX_PATH))
+            val writer = jar.writer()
+            AssetIndex(entries).write(writer)
+            jar.closeEntry()
+        }
+
+        val jarURL = jarFile.toURI().toURL()
+        assetsURL = URI("jar:$jarURL!/assets").toURL()
+        indexURL = URI("jar:$jarURL!/${AssetIndex.INDEX_PATH}").toURL()
+    }
+
+    @TearDown
+    fun tearDown() {
+        jarFile.delete()
+    }
+
+    @Benchmark
+    fun scanJar(): Int {
+        Vfs.fromURL(assetsURL).use { dir ->
+            return dir.files.count { !it.name.contains(".DS_Store") }
+        }
+    }
+
+    @Benchmark
+    fun readIndex(): Int {
+        val connection = indexURL.openConnection().apply { useCaches = false } // Reopen the jar each time
+        return connection.getInputStream().bufferedReader().use { AssetIndex.read(it) }.getPaths("assets").size
+    }
+
+}
@@ -0,0 +1,114 @@
+package mayonez.assets.image
+
+import mayonez.graphics.*
+import org.openjdk.jmh.annotations.*
+import java.awt.image.*
+import java.util.concurrent.*
+
+/**
+ * Compares reading and recoloring a 4096x4096 image one [Color] at a time
+ * against the bulk pixel methods on [ImageData] and [PixelOps].
+ *
+ * The alpha scans measure the glyph widths of a 64-pixel bitmap font, like
+ * [mayonez.graphics.font.Font]. Run with the GC profiler to compare the
+ * memory allocated per operation.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class PixelBenchmark {
+
+    private val size: Int = 4096
+    private val glyphSize: Int = 64
+    private val tint: Color = Color(200, 150, 100, 255)
+
+    private lateinit var image: AWTImageData
+
+    @Setup
+    fun setUp() {
+        // Fill each glyph cell with a shape of a different width
+        val buffered = BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB)
+        val pixels = (buffered.raster.dataBuffer as DataBufferInt).data
+        for (y in 0..<size) {
+            for (x in 0..<size) {
+                val filled = (x % glyphSize) < (x / glyphSize + y / glyphSize) % glyphSize
+                pixels[x + y * size] = if (filled) 0xFF8040C0.toInt() else 0
+            }
+        }
+        image = AWTImageData("benchmark.png", buffered)
+    }
+
+    // Recolor
+
+    @Benchmark
+    fun recolorPerPixel(): AWTImageData {
+        for (y in 0..<size) {
+            for (x in 0..<size) {
+                image.setPixelColor(x, y, image.getPixelColor(x, y).combine(tint))
+            }
+        }
+        return image
+    }
+
+    @Benchmark
+    fun recolorBulk(): AWTImageData {
+        image.recolor(tint)
+        return image
+    }
+
+    // Alpha Scan
+
+    @Benchmark
+    fun glyphWidthsPerPixel(): Int {
+        var total = 0
+        for (glyphY in 0..<size step glyphSize) {
+            for (glyphX in 0..<size step glyphSize) {
+                var lastFilled = -1
+                for (col in 0..<glyphSize) {
+                    for (row in 0..<glyphSize) {
+                        if (image.getPixelColor(glyphX + col, glyphY + row).alpha > 0) {
+                            lastFilled = col
+                            break
+                        }
+                    }
+                }
+                total += lastFilled + 1
+            }
+        }
+        return total
+    }
+
+    @Benchmark
+    fun glyphWidthsBulk(): Int {
+        val pixels = image.getPixels()
+        var total = 0
+        for (glyphY in 0..<size step glyphSize) {
+            for (glyphX in 0..<size step glyphSize) {
+                total += PixelOps.findLastFilledColumn(pixels, size, glyphX, glyphY, glyphSize, glyphSize) + 1
+            }
+        }
+        return total
+    }
+
+    // Premultiply and Flip
+
+    @Benchmark
+    fun premultiplyBulk(): IntArray {
+        val pixels = image.getPixels()
+        PixelOps.premultiply(pixels)
+        return pixels
+    }
+
+    @Benchmark
+    fun flipBulk(): IntArray {
+        val pixels = image.getPixels()
+        PixelOps.flipVertically(pixels, size, size)
+        return pixels
+    }
+
+}
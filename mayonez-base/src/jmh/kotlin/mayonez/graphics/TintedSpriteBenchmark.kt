@@ -0,0 +1,106 @@
+package mayonez.graphics
+
+import mayonez.*
+import mayonez.graphics.textures.*
+import mayonez.math.*
+import org.openjdk.jmh.annotations.*
+import java.awt.Graphics2D
+import java.awt.image.*
+import java.util.concurrent.*
+
+/**
+ * Measures the time to draw one frame of tinted AWT sprites onto an
+ * offscreen image, with and without caching the recolored images.
+ *
+ * A cache capacity of 0 recolors every sprite each frame, like textures did
+ * before recolored images were cached. Run with the GC profiler and compare
+ * `gc.alloc.rate.norm` to see the images allocated per frame. The frames
+ * drawn and images recolored in each iteration are reported as the secondary
+ * results `frames` and `recolors`.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class TintedSpriteBenchmark {
+
+    /** How many different colors the sprites are tinted with. */
+    private val numColors = 16
+
+    @Param("100", "500", "1000")
+    var numSprites: Int = 0
+
+    @Param("0", "256")
+    var cacheCapacity: Int = 0
+
+    @Param("false", "true")
+    var compatibleImages: Boolean = false
+
+    private lateinit var texture: JTexture
+    private lateinit var frame: BufferedImage
+    private lateinit var g2: Graphics2D
+    private lateinit var transforms: List<Transform>
+    private lateinit var colors: List<Color>
+    private val spriteXf = Transform()
+
+    @Setup
+    fun setUp() {
+        Random.setSeed(0L)
+        texture = Textures.getJTexture("assets/fonts/font_pixel.png")
+        frame = BufferedImage(1280, 720, BufferedImage.TYPE_INT_ARGB)
+        g2 = frame.createGraphics()
+        transforms = List(numSprites) {
+            Transform(Random.randomVector(0f, 1280f, 0f, 720f), Random.randomAngle(), Vec2(32f))
+        }
+        colors = List(numColors) { Color(Random.randomInt(0, 255), Random.randomInt(0, 255), Random.randomInt(0, 255)) }
+
+        JTexture.getTintCache().apply {
+            clear()
+            capacity = cacheCapacity
+            useCompatibleImages = compatibleImages
+        }
+    }
+
+    @TearDown
+    fun tearDown() {
+        g2.dispose()
+        JTexture.getTintCache().apply {
+            clear()
+            capacity = TintedImageCache.DEFAULT_CAPACITY
+            useCompatibleImages = false
+        }
+    }
+
+    @Benchmark
+    fun drawTintedSprites(counters: CacheCounters) {
+        val cache = JTexture.getTintCache()
+        val misses = cache.misses
+        for (i in transforms.indices) {
+            texture.draw(g2, transforms[i], spriteXf, colors[i % numColors])
+        }
+        counters.frames++
+        counters.recolors += cache.misses - misses
+    }
+
+    /** How many frames were drawn and images recolored in each iteration. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    open class CacheCounters {
+        @JvmField
+        var frames: Long = 0
+
+        @JvmField
+        var recolors: Long = 0
+
+        @Setup(Level.Iteration)
+        fun reset() {
+            frames = 0
+            recolors = 0
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.physics.colliders.*
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.*
+import java.util.concurrent.*
+
+/**
+ * Measures the cost of the shape queries a collider receives in one physics
+ * step: one bounding box for the broadphase and several world shapes for
+ * the narrowphase and collision resolution.
+ *
+ * The uncached benchmark rebuilds the shape on every query, like colliders
+ * did before shapes were cached. Run with the GC profiler and compare
+ * `gc.alloc.rate.norm` to see the allocations per step.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class ColliderShapeBenchmark {
+
+    /** How many times the world shape is used in one step. */
+    private val shapeQueriesPerStep = 3
+
+    @Param("100", "1000")
+    var numColliders: Int = 0
+
+    private lateinit var colliders: List<Collider>
+    private lateinit var localShapes: List<Shape>
+
+    @Setup
+    fun setUp() {
+        Random.setSeed(0L)
+        localShapes = List(numColliders) {
+            if (it % 2 == 0) Polygon(Vec2(), 6, 1f)
+            else Rectangle(Vec2(), Vec2(2f, 1f))
+        }
+        colliders = localShapes.map {
+            val collider = if (it is Rectangle) BoxCollider(Vec2(2f, 1f)) else PolygonCollider(it as Polygon)
+            collider.transform = Transform(Random.randomVector(-50f, 50f, -50f, 50f), Random.randomAngle())
+            collider
+        }
+    }
+
+    @Benchmark
+    fun uncachedShapes(bh: Blackhole) {
+        for (i in colliders.indices) {
+            val xf = colliders[i].transform
+            val local = localShapes[i]
+            bh.consume(local.rotate(xf.rotation).scale(xf.scale).translate(xf.position).boundingRectangle())
+            repeat(shapeQueriesPerStep) {
+                bh.consume(local.rotate(xf.rotation).scale(xf.scale).translate(xf.position))
+            }
+        }
+    }
+
+    @Benchmark
+    fun cachedStaticShapes(bh: Blackhole) {
+        for (collider in colliders) collider.queryShapes(bh)
+    }
+
+    @Benchmark
+    fun cachedMovingShapes(bh: Blackhole) {
+        for (collider in colliders) {
+            collider.transform.move(Vec2(0.001f, 0f))
+            collider.queryShapes(bh)
+        }
+    }
+
+    private fun Collider.queryShapes(bh: Blackhole) {
+        bh.consume(getMinBounds())
+        repeat(shapeQueriesPerStep) { bh.consume(getShape()) }
+    }
+
+}
@@ -0,0 +1,80 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.physics.colliders.*
+import mayonez.physics.raycast.*
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.*
+import java.util.concurrent.*
+
+/**
+ * Measures the time per ray of casting rays into a world of colliders,
+ * comparing [PhysicsWorld.raycast] against testing every collider with
+ * [Raycasts.raycast].
+ *
+ * The grid benchmark casts all 10,000 rays each invocation, but the brute
+ * force benchmark only casts the first 100 rays so it finishes in a
+ * reasonable time. Both report the average time for one ray.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class RaycastBenchmark {
+
+    private val numColliders = 10000
+    private val numRays = 10000
+    private val numBruteForceRays = 100
+
+    private lateinit var world: PhysicsWorld
+    private lateinit var colliders: List<Collider>
+    private lateinit var rays: List<Ray>
+
+    @Setup
+    fun setUp() {
+        Random.setSeed(0L)
+        world = DefaultPhysicsWorld()
+        colliders = List(numColliders) {
+            val collider = if (it % 2 == 0) BoxCollider(Vec2(1f)) else BallCollider(0.5f)
+            val position = Random.randomVector(-250f, 250f, -250f, 250f)
+            GameObject("Body $it", Transform(position, Random.randomAngle())).addComponent(collider)
+            world.addCollisionBody(collider)
+            collider
+        }
+        rays = List(numRays) {
+            Ray(Random.randomVector(-250f, 250f, -250f, 250f), Random.randomVector(-1f, 1f, -1f, 1f))
+        }
+        world.raycast(rays[0], 0f) // Build query grid
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10000)
+    fun worldRaycast(bh: Blackhole) {
+        for (ray in rays) bh.consume(world.raycast(ray, RAY_LIMIT))
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    fun bruteForceRaycast(bh: Blackhole) {
+        for (r in 0..<numBruteForceRays) {
+            val ray = rays[r]
+            var closest: RaycastInfo? = null
+            for (collider in colliders) {
+                val info = Raycasts.raycast(collider.getShape(), ray, RAY_LIMIT) ?: continue
+                if (closest == null || info.distance < closest.distance) closest = info
+            }
+            bh.consume(closest)
+        }
+    }
+
+    private companion object {
+        private const val RAY_LIMIT: Float = 100f
+    }
+
+}
@@ -0,0 +1,66 @@
+package mayonez.physics
+
+import mayonez.math.*
+import mayonez.physics.dynamics.*
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.*
+
+/**
+ * Compares integrating rigidbodies one at a time with integrating them
+ * together in a [RigidbodyStore].
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class RigidbodyIntegrationBenchmark {
+
+    private val dt = 1f / 60f
+    private val gravity = Vec2(0f, -PhysicsWorld.GRAVITY_CONSTANT)
+
+    @Param("1000", "10000", "100000")
+    var numBodies: Int = 0
+
+    /** Whether bodies rotate, which recalculates their transform's sine and cosine. */
+    @Param("false", "true")
+    var fixedRotation: Boolean = false
+
+    private lateinit var bodies: List<Rigidbody>
+    private lateinit var store: RigidbodyStore
+
+    @Setup
+    fun setUp() {
+        bodies = createBodies()
+        store = RigidbodyStore(numBodies)
+        createBodies().forEach(store::add) // Stored bodies are integrated by the store
+    }
+
+    private fun createBodies(): List<Rigidbody> {
+        Random.setSeed(0L)
+        return List(numBodies) {
+            Rigidbody(Random.randomFloat(1f, 10f), 0.1f, 0.1f).setFixedRotation(fixedRotation).apply {
+                position = Random.randomVector(-100f, 100f, -100f, 100f)
+                velocity = Random.randomVector(-5f, 5f, -5f, 5f)
+                angVelocity = Random.randomFloat(-90f, 90f)
+            }
+        }
+    }
+
+    @Benchmark
+    fun perBodyIntegration() {
+        for (rb in bodies) {
+            rb.integrateForce(dt, gravity)
+            rb.integrateVelocity(dt)
+        }
+    }
+
+    @Benchmark
+    fun batchedIntegration() {
+        store.integrate(dt, gravity)
+    }
+
+}
@@ -0,0 +1,89 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.physics.colliders.*
+import mayonez.physics.dynamics.*
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.*
+import kotlin.math.*
+
+/**
+ * Measures the cost of one physics step for a stack of boxes resting on the
+ * ground with different numbers of solver iterations.
+ *
+ * Sleeping is turned off so every step is solved. How far the stack has
+ * drifted sideways and how far the top box has sunk are reported as the
+ * secondary results `driftMm` and `sinkMm`, so the step time can be compared
+ * against how stable the stack stayed.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class StackStabilityBenchmark {
+
+    private val dt = 1f / 60f
+    private val boxSize = 1f
+
+    @Param("1", "2", "4", "8")
+    var iterations: Int = 0
+
+    @Param("10")
+    var stackHeight: Int = 0
+
+    private lateinit var world: PhysicsWorld
+    private lateinit var boxes: List<Rigidbody>
+
+    @Setup
+    fun setUp() {
+        world = DefaultPhysicsWorld()
+        world.allowSleep = false
+        world.solverIterations = iterations
+
+        val ground = BoxCollider(Vec2(50f, 1f))
+        GameObject("Ground", Vec2(0f, -0.5f)).addComponent(ground)
+        world.addCollisionBody(ground)
+
+        boxes = List(stackHeight) {
+            val rb = Rigidbody(1f)
+            val collider = BoxCollider(Vec2(boxSize))
+            GameObject("Box $it", Vec2(0f, (it + 0.5f) * boxSize)).apply {
+                addComponent(rb)
+                addComponent(collider)
+            }
+            collider.physicsBody = rb
+            world.addPhysicsBody(rb)
+            world.addCollisionBody(collider)
+            rb
+        }
+    }
+
+    @Benchmark
+    fun step(stability: StabilityCounters) {
+        world.step(dt)
+        stability.driftMm = boxes.maxOf { abs(it.position.x) } * 1000.0
+        stability.sinkMm = (stackHeight * boxSize - (boxes.last().position.y + 0.5f * boxSize)) * 1000.0
+    }
+
+    /**
+     * The stack's stability at the end of each iteration, in millimeters. Only
+     * compares a few floats, so it barely adds to the step time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    open class StabilityCounters {
+        /** How far the box farthest from the center has drifted sideways. */
+        @JvmField
+        var driftMm: Double = 0.0
+
+        /** How far the top box has sunk below its starting height. */
+        @JvmField
+        var sinkMm: Double = 0.0
+    }
+
+}
@@ -0,0 +1,92 @@
+package mayonez.renderer.batch
+
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.*
+import java.util.concurrent.*
+
+/**
+ * Measures the time to fill a sprite batch's vertex array and clear it for
+ * the next frame, without a GL context.
+ *
+ * [heapArray] pushes into a `float[]` through varargs and clears the whole
+ * array each frame, like vertex arrays did before they were moved off-heap.
+ * Run with the GC profiler and compare `gc.alloc.rate.norm` to see the
+ * varargs arrays allocated per frame.
+ *
+ * @author SlavSquatSuperstar
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class VertexPushBenchmark {
+
+    /** How many sprites are drawn out of the batch's capacity. */
+    @Param("10", "100", "1000")
+    var numSprites: Int = 0
+
+    private val batchSize = 1000
+    private val primitive = DrawPrimitive.SPRITE
+
+    private lateinit var bufferArray: VertexBufferArray
+    private lateinit var heapArray: HeapVertexArray
+
+    @Setup
+    fun setUp() {
+        bufferArray = VertexBufferArray(primitive, batchSize)
+        heapArray = HeapVertexArray(primitive.vertexCount * primitive.totalComponents * batchSize)
+    }
+
+    @Benchmark
+    fun bufferArray(bh: Blackhole) {
+        val vertices = bufferArray
+        vertices.clear()
+        for (i in 0..<numSprites) {
+            val x = i.toFloat()
+            for (v in 0..<primitive.vertexCount) {
+                vertices.put2(x, x + v)
+                vertices.put4(1f, 0.5f, 0.25f, 1f)
+                vertices.put2(0f, 1f)
+                vertices.put1(1f)
+            }
+        }
+        bh.consume(vertices.size())
+    }
+
+    @Benchmark
+    fun heapArray(bh: Blackhole) {
+        val vertices = heapArray
+        vertices.clear()
+        for (i in 0..<numSprites) {
+            val x = i.toFloat()
+            for (v in 0..<primitive.vertexCount) {
+                vertices.push(x, x + v)
+                vertices.push(1f, 0.5f, 0.25f, 1f)
+                vertices.push(0f, 1f)
+                vertices.push(1f)
+            }
+        }
+        bh.consume(vertices.size)
+    }
+
+}
+
+/** A heap vertex array that fills itself with zeros when cleared. */
+private class HeapVertexArray(capacity: Int) {
+
+    private val vertexData: FloatArray = FloatArray(capacity)
+    var size: Int = 0
+        private set
+
+    fun clear() {
+        vertexData.fill(0f)
+        size = 0
+    }
+
+    fun push(vararg floats: Float) {
+        for (f in floats) vertexData[size++] = f
+    }
+
+}
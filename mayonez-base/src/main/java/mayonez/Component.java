@@ -193,6 +193,19 @@ public abstract class Component {
         this.transform = (transform != null) ? transform : new Transform();
     }
 
+    /**
+     * Get the transform renderers should draw this component with, which may be
+     * between physics steps. See {@link mayonez.GameObject#getRenderTransform}.
+     *
+     * @return the render transform
+     */
+    public Transform getRenderTransform() {
+        if (gameObject != null && transform == gameObject.transform) {
+            return gameObject.getRenderTransform();
+        }
+        return transform;
+    }
+
     int getUpdateOrder() {
         return updateOrder.order;
     }
@@ -33,6 +33,7 @@ public class GameObject {
     final long objectID; // UUID for this game object
     private final String name;
     public final Transform transform; // transform in world
+    private Transform renderTransform; // interpolated transform for drawing
     private Scene scene;
     private boolean destroyed;
     private int zIndex; // controls 3D "layering" of objects
@@ -237,6 +238,39 @@ public class GameObject {
         destroyed = true;
     }
 
+    /**
+     * Get the transform renderers should draw this object with. If physics runs on
+     * its own thread, this is between the last two physics steps, and otherwise it
+     * is the object's {@link #transform}.
+     *
+     * @return the render transform
+     */
+    public Transform getRenderTransform() {
+        return (renderTransform != null) ? renderTransform : transform;
+    }
+
+    /**
+     * Set the position and rotation to draw this object at without moving it.
+     * The scale is copied from the object's {@link #transform}.
+     *
+     * @param x the x position
+     * @param y the y position
+     * @param rotation the rotation in degrees
+     */
+    public void setRenderPose(float x, float y, float rotation) {
+        if (renderTransform == null) renderTransform = new Transform();
+        renderTransform.getPosition().set(x, y);
+        renderTransform.rotate(rotation - renderTransform.getRotation());
+        renderTransform.getScale().set(transform.getScale());
+    }
+
+    /**
+     * Draw this object at its {@link #transform} again.
+     */
+    public void clearRenderPose() {
+        renderTransform = null;
+    }
+
     /**
      * Get the game object's {@link mayonez.SceneLayer}, which specifies which objects
      * it interacts with. If the layer is null, the object will interact with all other
@@ -3,9 +3,12 @@ package mayonez;
 import mayonez.graphics.camera.*;
 import mayonez.graphics.debug.*;
 import mayonez.math.*;
+import mayonez.math.shapes.*;
 import mayonez.physics.*;
+import mayonez.physics.broadphase.*;
 import mayonez.physics.colliders.*;
 import mayonez.physics.dynamics.*;
+import mayonez.physics.raycast.*;
 import mayonez.renderer.*;
 import mayonez.util.*;
 
@@ -36,7 +39,7 @@ public abstract class Scene {
     // Scene Information
     final int sceneID; // UUID for this scene
     private final String name;
-    private SceneState state; // if paused or running
+    private volatile SceneState state; // if paused or running
 
     // Scene Objects
     private final BufferedList<GameObject> objects;
@@ -48,6 +51,8 @@ public abstract class Scene {
 
     // Physics
     private final PhysicsWorld physics;
+    private int physicsStepRate; // fixed steps per second on physics thread, or 0 for each update
+    private PhysicsThread physicsThread;
 
     /**
      * Creates an empty scene with a name.
@@ -64,6 +69,7 @@ public abstract class Scene {
         layers = new SceneLayer[SceneLayer.NUM_LAYERS];
         renderLayer = RendererFactory.createRenderLayer(Mayonez.getUseGL());
         physics = new DefaultPhysicsWorld();
+        physicsStepRate = 0;
     }
 
     // Initialization Methods
@@ -89,6 +95,7 @@ public abstract class Scene {
         state = SceneState.RUNNING;
         objects.forEach(this::startObject);
         objects.processBuffer();
+        startPhysicsThread();
     }
 
     /**
@@ -112,15 +119,22 @@ public abstract class Scene {
      * @param dt seconds since the last frame
      */
     final void update(float dt) {
+        // Don't change objects during a physics step
+        if (physicsThread != null) physicsThread.runLocked(() -> updateObjects(dt));
+        else updateObjects(dt);
+    }
+
+    private void updateObjects(float dt) {
+        if (physicsThread != null) physics.sendCollisionEvents(); // Run callbacks from the physics thread here
         onUserUpdate(dt);
         // Update all objects
-        // TODO physics update, late update
+        // TODO late update
         if (isRunning()) {
             objects.forEach(obj -> {
                 obj.update(dt);
                 if (obj.isDestroyed()) removeObject(obj);
             });
-            physics.step(dt);
+            if (physicsThread == null) physics.step(dt);
             camera.gameObject.update(dt); // Update camera last
         }
         objects.processBuffer();
@@ -142,11 +156,31 @@ public abstract class Scene {
      * @param g2 the window's graphics object
      */
     final void render(Graphics2D g2) {
-        onUserRender();
-        objects.forEach(GameObject::debugRender);
+        prepareRender();
         renderLayer.render(g2);
     }
 
+    /**
+     * Copies everything in the current scene into a snapshot that can be drawn
+     * on a separate render thread.
+     *
+     * @return the snapshot, or null if the renderer does not support snapshots
+     */
+    final RenderSnapshot captureRender() {
+        prepareRender();
+        return renderLayer.captureSnapshot();
+    }
+
+    private void prepareRender() {
+        onUserRender();
+        if (physicsThread != null) {
+            physicsThread.interpolate(); // Draw bodies between physics steps
+            physicsThread.runLocked(() -> objects.forEach(GameObject::debugRender)); // Colliders are read
+        } else {
+            objects.forEach(GameObject::debugRender);
+        }
+    }
+
     /**
      * Provide user-defined draw behavior for this scene.
      */
@@ -159,6 +193,8 @@ public abstract class Scene {
      * Destroys all objects and stop updating the scene.
      */
     final void stop() {
+        stopPhysicsThread();
+
         // Destroy all objects
         camera.setSubject(null);
         objects.forEach(GameObject::onDestroy);
@@ -202,7 +238,10 @@ public abstract class Scene {
         obj.start(); // Add components first so renderer and physics can access it
         for (var comp : obj.getComponents()) {
             if (comp instanceof Renderable r) renderLayer.addRenderable(r);
-            if (comp instanceof PhysicsBody b) physics.addPhysicsBody(b);
+            if (comp instanceof PhysicsBody b) {
+                physics.addPhysicsBody(b);
+                if (physicsThread != null) physicsThread.addBody(b);
+            }
             if (comp instanceof CollisionBody b) physics.addCollisionBody(b);
         }
     }
@@ -315,10 +354,158 @@ public abstract class Scene {
         return renderLayer.getDebugDraw();
     }
 
+    /**
+     * How many objects were drawn in the last frame, and how many were skipped
+     * because they were outside the camera's view.
+     *
+     * @return the culling stats
+     */
+    public CullingStats getCullingStats() {
+        return renderLayer.getCullingStats();
+    }
+
     public void setGravity(Vec2 gravity) {
         physics.setGravity(gravity);
     }
 
+    /**
+     * Set the algorithm the scene's physics world uses to find colliders that may
+     * be touching.
+     *
+     * @param broadPhase the broadphase algorithm
+     */
+    public void setBroadPhase(BroadPhase broadPhase) {
+        physics.setBroadPhase(broadPhase);
+    }
+
+    /**
+     * Set whether the scene's physics world integrates all rigidbodies together
+     * in packed arrays instead of one at a time.
+     *
+     * @param batchIntegration if bodies should be integrated in a batch
+     */
+    public void setBatchIntegration(boolean batchIntegration) {
+        physics.setBatchIntegration(batchIntegration);
+    }
+
+    /**
+     * Set whether the scene's physics world finds contacts between colliders on
+     * multiple threads. The simulation results are the same either way.
+     *
+     * @param parallelNarrowPhase if contacts should be found in parallel
+     */
+    public void setParallelNarrowPhase(boolean parallelNarrowPhase) {
+        physics.setParallelNarrowPhase(parallelNarrowPhase);
+    }
+
+    /**
+     * Set whether the scene's physics world resolves collisions between separate
+     * groups of touching bodies on multiple threads.
+     *
+     * @param parallelIslands if collisions should be resolved in parallel
+     */
+    public void setParallelIslands(boolean parallelIslands) {
+        physics.setParallelIslands(parallelIslands);
+    }
+
+    /**
+     * Set how many times the scene's physics world iterates over collisions each
+     * step. More iterations make stacks more stable but are slower.
+     *
+     * @param solverIterations the number of iterations, at least 1
+     */
+    public void setSolverIterations(int solverIterations) {
+        physics.setSolverIterations(solverIterations);
+    }
+
+    /**
+     * Set whether bodies that have come to rest fall asleep until something
+     * touches them. Sleeping is allowed by default.
+     *
+     * @param allowSleep if resting bodies should sleep
+     */
+    public void setAllowSleep(boolean allowSleep) {
+        physics.setAllowSleep(allowSleep);
+    }
+
+    /**
+     * Set how many times per second the scene's physics world is stepped on its own
+     * thread. With a fixed rate, the simulation does not depend on the frame rate,
+     * and rendering draws bodies between the last two physics steps. Set the rate to
+     * 0 to step physics once every update on the game thread instead, which is the
+     * default.
+     *
+     * @param stepsPerSecond the physics update rate, or 0 to not use a thread
+     */
+    public void setPhysicsStepRate(int stepsPerSecond) {
+        physicsStepRate = Math.max(stepsPerSecond, 0);
+        if (!isStopped()) {
+            stopPhysicsThread();
+            startPhysicsThread();
+        }
+    }
+
+    private void startPhysicsThread() {
+        if (physicsStepRate <= 0) return;
+        physicsThread = new PhysicsThread(physics, physicsStepRate, this::isRunning);
+        physicsThread.start();
+    }
+
+    private void stopPhysicsThread() {
+        if (physicsThread == null) return;
+        physicsThread.stop();
+        physicsThread = null;
+    }
+
+    // Physics Query Methods
+
+    /**
+     * Cast a ray into the scene's physics world and find the closest collider it
+     * hits.
+     *
+     * @param ray       the ray to cast
+     * @param limit     the max length the ray can travel, or 0 for no limit
+     * @param layerMask which layers the ray can hit, or {@link mayonez.util.Bitmask#ALL_TRUE} for all
+     * @return the closest hit, or null if the ray misses
+     */
+    public RaycastHit raycast(Ray ray, float limit, int layerMask) {
+        return physics.raycast(ray, limit, layerMask);
+    }
+
+    /**
+     * Cast a ray into the scene's physics world and find every collider it hits.
+     *
+     * @param ray       the ray to cast
+     * @param limit     the max length the ray can travel, or 0 for no limit
+     * @param layerMask which layers the ray can hit
+     * @return the hits, sorted from closest to farthest
+     */
+    public List<RaycastHit> raycastAll(Ray ray, float limit, int layerMask) {
+        return physics.raycastAll(ray, limit, layerMask);
+    }
+
+    /**
+     * Find all colliders in the scene whose bounding boxes overlap a box.
+     *
+     * @param box       the box to search
+     * @param layerMask which layers to include
+     * @return the colliders
+     */
+    public List<CollisionBody> queryAABB(BoundingBox box, int layerMask) {
+        return physics.queryAABB(box, layerMask);
+    }
+
+    /**
+     * Find all colliders in the scene that contain a point.
+     *
+     * @param point     the point
+     * @param layerMask which layers to include
+     * @return the colliders
+     */
+    public List<CollisionBody> queryPoint(Vec2 point, int layerMask) {
+        return physics.queryPoint(point, layerMask);
+    }
+
     boolean isRunning() {
         return state == SceneState.RUNNING;
     }
@@ -1,13 +1,22 @@
 package mayonez.application;
 
 import mayonez.*;
+import mayonez.assets.*;
+import mayonez.renderer.*;
 
 /**
  * An application that displays a window, receives input, and continuously updates and renders a scene.
+ * <p>
+ * With the "pipelined_rendering" preference, AWT and headless windows ({@link PipelinedWindow}s) capture
+ * a {@link RenderSnapshot} after each update and draw it on a separate {@link RenderThread} while the
+ * next update runs.
+ * <p>
+ * After each frame, the application evicts unused textures if they use more memory than the
+ * "image_memory_mb" and "texture_memory_mb" preferences allow.
  *
  * @author SlavSquatSuperstar
  */
-public abstract sealed class Application permits JApplication, GLApplication {
+public abstract sealed class Application permits JApplication, GLApplication, HeadlessApplication {
 
     // Constants
     private static final float DEBUG_INTERVAL_SECS = 1f;
@@ -15,6 +24,7 @@ public abstract sealed class Application permits JApplication, GLApplication {
 
     // Engine Fields
     private final Window window;
+    private final RenderThread renderThread; // Null if drawing on the game loop
     private boolean running;
 
     // Time Fields (Seconds)
@@ -31,10 +41,17 @@ public abstract sealed class Application permits JApplication, GLApplication {
     private int updateCount;
     private int averageUPS;
     private int averageFPS;
+    private PipelineStats pipelineStats;
 
     protected Application(Window window) {
         this.window = window;
         running = false;
+        renderThread = createRenderThread(window);
+        pipelineStats = PipelineStats.NONE;
+
+        var residency = Assets.getResidency();
+        residency.setCpuBudget(Preferences.getImageMemoryMB() * ResidencyManager.BYTES_PER_MB);
+        residency.setGpuBudget(Preferences.getTextureMemoryMB() * ResidencyManager.BYTES_PER_MB);
 
         frameSkip = Preferences.getFrameSkip();
         timeStepSecs = Time.getTimeStepSecs();
@@ -52,6 +69,7 @@ public abstract sealed class Application permits JApplication, GLApplication {
             window.start();
             Logger.debug("Started window");
             SceneManager.startScene();
+            if (renderThread != null) renderThread.start();
             run();
         }
     }
@@ -71,12 +89,21 @@ public abstract sealed class Application permits JApplication, GLApplication {
 
             // Render if updated
             if (hasUpdatedThisFrame) {
-                window.render();
-                frameCount += 1;
+                if (renderThread != null) {
+                    renderThread.submit(SceneManager.captureScene()); // Draw while the next update runs
+                } else {
+                    window.render();
+                    frameCount += 1;
+                }
+                Assets.getResidency().trim(); // Evict textures unused this frame if over budget
             }
 
             // Print frame count
             if (debugTimerSecs >= DEBUG_INTERVAL_SECS) {
+                if (renderThread != null) {
+                    pipelineStats = renderThread.takeStats();
+                    frameCount = pipelineStats.framesDrawn();
+                }
                 averageUPS = updateCount;
                 averageFPS = frameCount;
                 updateCount = 0;
@@ -85,6 +112,8 @@ public abstract sealed class Application permits JApplication, GLApplication {
                 if (LOG_FRAME_COUNTS) {
                     Logger.debug("Updates per second: %d", averageUPS);
                     Logger.debug("Frames per second: %d", averageFPS);
+                    if (renderThread != null) Logger.debug(pipelineStats);
+                    Logger.debug("Asset residency: %s", Assets.getResidency().getStats());
                 }
                 debugTimerSecs -= DEBUG_INTERVAL_SECS;
             }
@@ -98,11 +127,19 @@ public abstract sealed class Application permits JApplication, GLApplication {
     public final void stop() {
         if (running) {
             running = false;
+            if (renderThread != null) renderThread.stop();
             window.stop();
             Logger.debug("Closed window");
         }
     }
 
+    private static RenderThread createRenderThread(Window window) {
+        if (!Preferences.getPipelinedRendering()) return null;
+        if (window instanceof PipelinedWindow pipelinedWindow) return new RenderThread(pipelinedWindow);
+        Logger.warn("Pipelined rendering is not supported by the GL engine; drawing on the game loop");
+        return null;
+    }
+
     // Game Loop Helper Methods
 
     /*
@@ -121,7 +158,7 @@ public abstract sealed class Application permits JApplication, GLApplication {
         while (unprocessedTime > halfTimeStepSecs) { // Carry small slivers of time to next frame
             deltaTimeSecs = Math.min(unprocessedTime, timeStepSecs);
 
-            // TODO multi-thread physics with shorter fixed time step
+            // Physics may run on its own thread, see Scene.setPhysicsStepRate()
             window.beginFrame();
             SceneManager.updateScene(deltaTimeSecs);
             window.endFrame();
@@ -148,6 +185,15 @@ public abstract sealed class Application permits JApplication, GLApplication {
         return running ? "running" : "not running";
     }
 
+    /**
+     * Get the window the application draws to.
+     *
+     * @return the window
+     */
+    public Window getWindow() {
+        return window;
+    }
+
     // Time Getters
 
     /**
@@ -187,4 +233,14 @@ public abstract sealed class Application permits JApplication, GLApplication {
         return averageFPS;
     }
 
+    /**
+     * Get how long the render thread took to capture and draw snapshots in the
+     * last second, if pipelined rendering is enabled.
+     *
+     * @return the pipeline stats, or {@link PipelineStats#NONE} if drawing on the game loop
+     */
+    public PipelineStats getPipelineStats() {
+        return pipelineStats;
+    }
+
 }
@@ -28,6 +28,24 @@ public final class ApplicationFactory {
     public static Application createApplication(
             boolean useGL
     ) throws WindowInitException {
+        return createApplication(useGL, false, 0);
+    }
+
+    /**
+     * Creates a new {@link Application} object with the given
+     * engine type, which may draw to an offscreen image.
+     *
+     * @param useGL     whether to use OpenGL instead of Java's AWT library
+     * @param headless  whether to draw with AWT to an offscreen image instead of a window
+     * @param maxFrames how many frames to run in headless mode, or 0 to run until stopped
+     * @return the game engine
+     * @throws WindowInitException if the wrong thread is used on macOS
+     */
+    public static Application createApplication(
+            boolean useGL, boolean headless, int maxFrames
+    ) throws WindowInitException {
+        if (headless) return createHeadlessApplication(maxFrames);
+
         // Create window
         var title = String.format("%s (%s) %s",
                 Preferences.getTitle(), (useGL ? "GL" : "AWT"), Preferences.getVersion()
@@ -44,6 +62,19 @@ public final class ApplicationFactory {
                 : new JApplication(window);
     }
 
+    private static Application createHeadlessApplication(int maxFrames) {
+        // No display is needed, so use AWT in headless mode
+        System.setProperty("java.awt.headless", "true");
+        var title = String.format("%s (Headless) %s", Preferences.getTitle(), Preferences.getVersion());
+        var window = new HeadlessWindow(
+                title, Preferences.getScreenWidth(), Preferences.getScreenHeight(), maxFrames
+        );
+
+        KeyInput.setHandler(window.getKeyInputHandler());
+        MouseInput.setHandler(window.getMouseInputHandler());
+        return new HeadlessApplication(window);
+    }
+
     /**
      * Creates a new {@link Window} object with the given engine
      * type.
@@ -0,0 +1,38 @@
+package mayonez.application;
+
+import mayonez.*;
+import mayonez.graphics.*;
+
+/**
+ * An instance of the application that draws to an offscreen image and runs
+ * as fast as possible. The clock advances by exactly one time step whenever
+ * it is read, so the scene is updated and rendered once per loop without
+ * waiting, and every run steps the scene the same way.
+ *
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.AWT)
+final class HeadlessApplication extends Application {
+
+    private final float timeStepSecs;
+    private int ticks;
+
+    HeadlessApplication(Window window) {
+        super(window);
+        timeStepSecs = Time.getTimeStepSecs();
+        ticks = 0;
+    }
+
+    // Application Methods
+
+    @Override
+    public float getCurrentTimeSecs() {
+        return (ticks++) * timeStepSecs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Headless Game (%s)", getRunningString());
+    }
+
+}
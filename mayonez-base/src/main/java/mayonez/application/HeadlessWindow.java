@@ -0,0 +1,178 @@
+package mayonez.application;
+
+import mayonez.*;
+import mayonez.graphics.*;
+import mayonez.input.*;
+import mayonez.renderer.*;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * A window that draws the game to an offscreen image instead of the screen,
+ * using AWT. Can be used to run scenes on machines without a display, such
+ * as for benchmarks and rendering tests.
+ * <p>
+ * Frames may be drawn on a separate render thread. Each frame is drawn to a
+ * back image, which is swapped with the completed image once the frame is
+ * done, so the game loop only ever reads completed frames.
+ *
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.AWT)
+public final class HeadlessWindow implements PipelinedWindow {
+
+    // Constants
+    private final static AffineTransform FLIP_XF = AffineTransform.getScaleInstance(1.0, -1.0);
+
+    // Window Fields
+    private final String title;
+    private final int maxFrames;
+    private final AtomicInteger frameCount; // Read by the game loop, written by the drawing thread
+    private final Object frameLock; // guards completedFrame
+    private BufferedImage drawingFrame; // Only used by the drawing thread
+    private BufferedImage completedFrame;
+
+    // Input Fields
+    private final JKeyManager keyboard;
+    private final JMouseManager mouse;
+
+    /**
+     * Create the headless window.
+     *
+     * @param title     the window title
+     * @param width     the image width
+     * @param height    the image height
+     * @param maxFrames how many frames to draw before closing, or 0 to never close
+     */
+    HeadlessWindow(String title, int width, int height, int maxFrames) {
+        this.title = title;
+        this.maxFrames = maxFrames;
+        frameCount = new AtomicInteger();
+        frameLock = new Object();
+        drawingFrame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        completedFrame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        // Input listeners never receive events
+        keyboard = new JKeyManager();
+        mouse = new JMouseManager();
+    }
+
+    // Engine Methods
+
+    @Override
+    public void start() {
+        frameCount.set(0);
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    // Game Loop Methods
+
+    @Override
+    public boolean notClosedByUser() {
+        return (maxFrames <= 0) || (frameCount.get() < maxFrames);
+    }
+
+    @Override
+    public void beginFrame() {
+    }
+
+    @Override
+    public void endFrame() {
+        KeyInput.updateKeys();
+        MouseInput.updateMouse();
+    }
+
+    // Render Methods
+
+    @Override
+    public void render() {
+        drawFrame(SceneManager::renderScene);
+    }
+
+    @Override
+    public void render(RenderSnapshot snapshot) {
+        drawFrame(snapshot::draw);
+    }
+
+    private void drawFrame(Consumer<Graphics2D> drawer) {
+        var g2 = drawingFrame.createGraphics();
+        g2.clipRect(0, 0, getWidth(), getHeight());
+        g2.clearRect(0, 0, getWidth(), getHeight());
+        g2.transform(FLIP_XF);
+        g2.translate(0, -getHeight());
+        drawer.accept(g2);
+        g2.dispose();
+
+        synchronized (frameLock) { // Publish the finished frame
+            var finished = drawingFrame;
+            drawingFrame = completedFrame;
+            completedFrame = finished;
+        }
+        frameCount.incrementAndGet();
+    }
+
+    /**
+     * Copy the last completed frame. Safe to call while another thread is
+     * drawing the next frame.
+     *
+     * @return a copy of the frame
+     */
+    public BufferedImage getFrame() {
+        synchronized (frameLock) {
+            var copy = new BufferedImage(getWidth(), getHeight(), completedFrame.getType());
+            completedFrame.copyData(copy.getRaster());
+            return copy;
+        }
+    }
+
+    /**
+     * How many frames have been drawn since the window was started.
+     *
+     * @return the frame count
+     */
+    public int getFrameCount() {
+        return frameCount.get();
+    }
+
+    // Input Methods
+
+    @Override
+    public KeyInputHandler getKeyInputHandler() {
+        return keyboard;
+    }
+
+    @Override
+    public MouseInputHandler getMouseInputHandler() {
+        return mouse;
+    }
+
+    // Getters
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Override
+    public int getWidth() {
+        return completedFrame.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return completedFrame.getHeight();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Headless Window (%s, %dx%d)", getTitle(), getWidth(), getHeight());
+    }
+
+}
@@ -3,12 +3,14 @@ package mayonez.application;
 import mayonez.*;
 import mayonez.graphics.*;
 import mayonez.input.*;
+import mayonez.renderer.RenderSnapshot;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.*;
 import java.awt.image.*;
+import java.util.function.*;
 
 /**
  * The display component for the game, using AWT.
@@ -16,7 +18,7 @@ import java.awt.image.*;
  * @author SlavSquatSuperstar
  */
 @UsesEngine(EngineType.AWT)
-final class JWindow extends JFrame implements Window {
+final class JWindow extends JFrame implements PipelinedWindow {
 
     // Constants
     private final static int BUFFER_COUNT = 2;
@@ -96,6 +98,15 @@ final class JWindow extends JFrame implements Window {
 
     @Override
     public void render() {
+        drawFrame(SceneManager::renderScene);
+    }
+
+    @Override
+    public void render(RenderSnapshot snapshot) {
+        drawFrame(snapshot::draw);
+    }
+
+    private void drawFrame(Consumer<Graphics2D> drawer) {
         if (bs == null) {
             initGraphics();
             return;
@@ -106,7 +117,7 @@ final class JWindow extends JFrame implements Window {
             do {
                 clearScreen();
                 flipScreenVertically();
-                SceneManager.renderScene(g2);
+                drawer.accept(g2);
                 flushResources();
             } while (bs.contentsLost());
         } catch (IllegalStateException e) {
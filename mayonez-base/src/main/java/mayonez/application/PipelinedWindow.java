@@ -0,0 +1,22 @@
+package mayonez.application;
+
+import mayonez.renderer.*;
+
+/**
+ * A window that can also redraw a {@link RenderSnapshot} of the game from a
+ * separate render thread. Only windows drawn with AWT can be pipelined, since
+ * a GL context belongs to the thread that created it.
+ *
+ * @author SlavSquatSuperstar
+ */
+public sealed interface PipelinedWindow extends Window permits JWindow, HeadlessWindow {
+
+    /**
+     * Redraw a snapshot of the game captured after the last update, without
+     * reading the scene. May be called from a separate render thread.
+     *
+     * @param snapshot the snapshot
+     */
+    void render(RenderSnapshot snapshot);
+
+}
@@ -4,8 +4,8 @@ import mayonez.graphics.*;
 import mayonez.math.*;
 
 import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import java.awt.image.*;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 /**
@@ -19,8 +19,8 @@ public class AWTImageData extends ImageData {
 
     public AWTImageData(String filename) throws IOException {
         super(filename);
-        try (var stream = openInputStream()) {
-            image = ImageIO.read(new ByteArrayInputStream(stream.readAllBytes()));
+        try (var input = openInputStream()) {
+            image = ImageIO.read(new MemoryCacheImageInputStream(input)); // Closes the image stream
         } catch (IOException e) {
             throw new IOException("Error reading buffered image");
         }
@@ -57,14 +57,15 @@ public class AWTImageData extends ImageData {
 
     // Pixel Methods
 
+    /**
+     * Multiply every pixel in this image by a color.
+     *
+     * @param color the color
+     */
     public void recolor(Color color) {
-        for (var y = 0; y < getHeight(); y++) {
-            for (var x = 0; x < getWidth(); x++) {
-                var pixelColor = getPixelColor(x, y);
-                var combinedColor = pixelColor.combine(color);
-                setPixelColor(x, y, combinedColor);
-            }
-        }
+        var pixels = getPixels();
+        PixelOps.recolor(pixels, color.getRGBAValue());
+        setPixels(pixels);
     }
 
     @Override
@@ -78,14 +79,14 @@ public class AWTImageData extends ImageData {
         // AWT already restricts setting alpha for non-transparent images
     }
 
-    public int[] getPixels() {
-        int[] pixels = new int[getWidth() * getHeight()];
-        image.getRGB(0, 0, getWidth(), getHeight(), pixels, 0, getWidth());
-        return pixels;
+    @Override
+    public void getPixels(int x, int y, int width, int height, int[] dst, int offset, int scanline) {
+        image.getRGB(x, y, width, height, dst, offset, scanline);
     }
 
-    public void setPixels(int[] pixels) {
-        image.setRGB(0, 0, getWidth(), getHeight(), pixels, 0, getWidth());
+    @Override
+    public void setPixels(int x, int y, int width, int height, int[] src, int offset, int scanline) {
+        image.setRGB(x, y, width, height, src, offset, scanline);
     }
 
     // Sub-Image Methods
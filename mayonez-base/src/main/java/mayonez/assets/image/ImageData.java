@@ -4,8 +4,15 @@ import mayonez.assets.*;
 import mayonez.graphics.*;
 import mayonez.math.*;
 
+import java.nio.IntBuffer;
+
 /**
  * Stores the rasterized image contents of an image file used by the program.
+ * <p>
+ * Pixels can be read and written one at a time as {@link Color} objects, or
+ * many at a time as packed ARGB integers with {@link #getPixels} and
+ * {@link #setPixels}, which can then be modified with {@link PixelOps}. Reading
+ * many pixels in bulk avoids creating an object for each pixel.
  *
  * @author SlavSquatSuperstar
  */
@@ -75,6 +82,92 @@ public abstract class ImageData extends Asset {
      */
     public abstract void setPixelColor(int x, int y, Color color);
 
+    // Bulk Pixel Methods
+
+    /**
+     * Copy a region of pixels into an array as packed ARGB values, ordered from
+     * the top left. Images without alpha return an alpha of 255.
+     *
+     * @param x        the region's left column, in pixels
+     * @param y        the region's top row, in pixels
+     * @param width    the region's width, in pixels
+     * @param height   the region's height, in pixels
+     * @param dst      the array to copy into
+     * @param offset   the index to start copying at
+     * @param scanline the number of array elements between each row
+     */
+    public abstract void getPixels(int x, int y, int width, int height, int[] dst, int offset, int scanline);
+
+    /**
+     * Copy a region of pixels from an array of packed ARGB values, ordered from
+     * the top left. Images without alpha ignore the alpha value.
+     *
+     * @param x        the region's left column, in pixels
+     * @param y        the region's top row, in pixels
+     * @param width    the region's width, in pixels
+     * @param height   the region's height, in pixels
+     * @param src      the array to copy from
+     * @param offset   the index to start copying from
+     * @param scanline the number of array elements between each row
+     */
+    public abstract void setPixels(int x, int y, int width, int height, int[] src, int offset, int scanline);
+
+    /**
+     * Copy all the pixels in this image into a new array as packed ARGB values.
+     *
+     * @return the pixels, ordered from the top left
+     */
+    public int[] getPixels() {
+        var pixels = new int[getWidth() * getHeight()];
+        getPixels(0, 0, getWidth(), getHeight(), pixels, 0, getWidth());
+        return pixels;
+    }
+
+    /**
+     * Overwrite all the pixels in this image with packed ARGB values.
+     *
+     * @param pixels the pixels, ordered from the top left
+     */
+    public void setPixels(int[] pixels) {
+        setPixels(0, 0, getWidth(), getHeight(), pixels, 0, getWidth());
+    }
+
+    /**
+     * Copy one row of pixels into an array as packed ARGB values.
+     *
+     * @param y   the row, from the top, in pixels
+     * @param dst the array to copy into, at least as long as the image width
+     * @return the array
+     */
+    public int[] getRow(int y, int[] dst) {
+        getPixels(0, y, getWidth(), 1, dst, 0, getWidth());
+        return dst;
+    }
+
+    /**
+     * Copy a region of pixels into a buffer as packed ARGB values, ordered from
+     * the top left, and advance the buffer's position.
+     *
+     * @param x      the region's left column, in pixels
+     * @param y      the region's top row, in pixels
+     * @param width  the region's width, in pixels
+     * @param height the region's height, in pixels
+     * @param dst    the buffer to copy into
+     */
+    public void getPixels(int x, int y, int width, int height, IntBuffer dst) {
+        if (dst.hasArray()) {
+            getPixels(x, y, width, height, dst.array(), dst.arrayOffset() + dst.position(), width);
+            dst.position(dst.position() + width * height);
+        } else {
+            // Copy one row at a time into a direct buffer
+            var row = new int[width];
+            for (var r = 0; r < height; r++) {
+                getPixels(x, y + r, width, 1, row, 0, width);
+                dst.put(row);
+            }
+        }
+    }
+
     // Sub-Image Methods
 
     /**
@@ -0,0 +1,132 @@
+package mayonez.assets.image;
+
+/**
+ * Operates on many pixels at once, stored as packed ARGB integers with 8 bits
+ * per component. From most to least significant, the order is alpha, red, green,
+ * and blue, matching {@link mayonez.graphics.Color#getRGBAValue()}.
+ * <p>
+ * Each method loops over a plain {@code int} array without creating objects, so
+ * the JIT compiler can unroll and vectorize it. Pixel arrays can be read from and
+ * written to an image with {@link ImageData#getPixels} and {@link ImageData#setPixels}.
+ *
+ * @author SlavSquatSuperstar
+ */
+public final class PixelOps {
+
+    private static final int SELECT_8_BITS = 0xFF;
+
+    private PixelOps() {
+    }
+
+    // Color Methods
+
+    /**
+     * Multiply every pixel by a color, like {@link mayonez.graphics.Color#combine}.
+     *
+     * @param pixels the ARGB pixels to recolor
+     * @param argb   the ARGB color to multiply by
+     */
+    public static void recolor(int[] pixels, int argb) {
+        int a = (argb >>> 24) & SELECT_8_BITS;
+        int r = (argb >>> 16) & SELECT_8_BITS;
+        int g = (argb >>> 8) & SELECT_8_BITS;
+        int b = argb & SELECT_8_BITS;
+        for (var i = 0; i < pixels.length; i++) {
+            var p = pixels[i];
+            pixels[i] = (div255(((p >>> 24) & SELECT_8_BITS) * a) << 24)
+                    | (div255(((p >>> 16) & SELECT_8_BITS) * r) << 16)
+                    | (div255(((p >>> 8) & SELECT_8_BITS) * g) << 8)
+                    | div255((p & SELECT_8_BITS) * b);
+        }
+    }
+
+    /**
+     * Multiply the red, green, and blue of every pixel by its alpha.
+     *
+     * @param pixels the ARGB pixels to premultiply
+     */
+    public static void premultiply(int[] pixels) {
+        for (var i = 0; i < pixels.length; i++) {
+            var p = pixels[i];
+            var a = (p >>> 24) & SELECT_8_BITS;
+            pixels[i] = (a << 24)
+                    | (div255(((p >>> 16) & SELECT_8_BITS) * a) << 16)
+                    | (div255(((p >>> 8) & SELECT_8_BITS) * a) << 8)
+                    | div255((p & SELECT_8_BITS) * a);
+        }
+    }
+
+    /**
+     * Divide a product of two components by 255, rounding down. Exact for
+     * values from 0 to 255 * 255, and avoids integer division.
+     */
+    private static int div255(int x) {
+        return (x + 1 + (x >>> 8)) >>> 8;
+    }
+
+    // Alpha Methods
+
+    /**
+     * Whether every pixel in one column of a region is fully transparent.
+     *
+     * @param pixels   the ARGB pixels
+     * @param scanline the number of pixels in each row of the array
+     * @param x        the column's x coordinate
+     * @param y        the region's top row
+     * @param height   the number of rows in the region
+     * @return if the column has no alpha
+     */
+    public static boolean isColumnBlank(int[] pixels, int scanline, int x, int y, int height) {
+        var alpha = 0;
+        for (int row = 0, i = y * scanline + x; row < height; row++, i += scanline) {
+            alpha |= pixels[i] >>> 24; // Scan the whole column without branching
+        }
+        return alpha == 0;
+    }
+
+    /**
+     * Find the last column in a region with any pixels that are not fully
+     * transparent.
+     *
+     * @param pixels   the ARGB pixels
+     * @param scanline the number of pixels in each row of the array
+     * @param x        the region's left column
+     * @param y        the region's top row
+     * @param width    the number of columns in the region
+     * @param height   the number of rows in the region
+     * @return the last filled column, counted from the region's left, or -1 if the region is blank
+     */
+    public static int findLastFilledColumn(int[] pixels, int scanline, int x, int y, int width, int height) {
+        // OR each row together so every column is read in row order
+        var columnAlpha = new int[width];
+        for (int row = 0, start = y * scanline + x; row < height; row++, start += scanline) {
+            for (var col = 0; col < width; col++) {
+                columnAlpha[col] |= pixels[start + col] >>> 24;
+            }
+        }
+        for (var col = width - 1; col >= 0; col--) {
+            if (columnAlpha[col] != 0) return col;
+        }
+        return -1;
+    }
+
+    // Layout Methods
+
+    /**
+     * Flip the rows of an image upside down, such as to convert between AWT and
+     * GL image origins.
+     *
+     * @param pixels the ARGB pixels
+     * @param width  the image width
+     * @param height the image height
+     */
+    public static void flipVertically(int[] pixels, int width, int height) {
+        var temp = new int[width];
+        for (int top = 0, bottom = height - 1; top < bottom; top++, bottom--) {
+            System.arraycopy(pixels, top * width, temp, 0, width);
+            System.arraycopy(pixels, bottom * width, pixels, top * width, width);
+            System.arraycopy(temp, 0, pixels, bottom * width, width);
+        }
+    }
+
+}
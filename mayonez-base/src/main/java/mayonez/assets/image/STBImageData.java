@@ -53,6 +53,10 @@ public class STBImageData extends ImageData {
     // Read Image Methods
 
     private ByteBuffer readImageBytes() throws ImageReadException, IOException {
+        // Decode archived images straight from the mapped file
+        var mappedBytes = getMappedContents();
+        if (mappedBytes != null) return mappedBytes;
+
         var imageBytes = BinaryIOUtils.readBytes(openInputStream());
         if (imageBytes == null) {
             throw new ImageReadException("Image byte array is null");
@@ -105,6 +109,16 @@ public class STBImageData extends ImageData {
         }
     }
 
+    /**
+     * Whether the image's pixels were freed, such as after being uploaded to
+     * the GPU.
+     *
+     * @return if the image buffer is freed
+     */
+    public boolean isImageFreed() {
+        return imageFreed;
+    }
+
     @Override
     public void free() {
         freeImage();
@@ -136,8 +150,7 @@ public class STBImageData extends ImageData {
 
     @Override
     public Color getPixelColor(int x, int y) {
-        var flippedY = (height - 1) - y;
-        var index = (x + flippedY * width) * channels;
+        var index = getPixelIndex(x, y);
         int r = buffer.get(index) & SELECT_8_BYTES;
         int g = buffer.get(index + 1) & SELECT_8_BYTES;
         int b = buffer.get(index + 2) & SELECT_8_BYTES;
@@ -147,14 +160,62 @@ public class STBImageData extends ImageData {
 
     @Override
     public void setPixelColor(int x, int y, Color color) {
-        var flippedY = (height - 1) - y;
-        var index = (x + flippedY * width) * channels;
+        var index = getPixelIndex(x, y);
         buffer.put(index, (byte) color.getRed());
-        buffer.put(index + 1, (byte) color.getRed());
+        buffer.put(index + 1, (byte) color.getGreen());
         buffer.put(index + 2, (byte) color.getBlue());
         if (alpha) buffer.put(index + 3, (byte) color.getAlpha());
     }
 
+    @Override
+    public void getPixels(int x, int y, int width, int height, int[] dst, int offset, int scanline) {
+        var rowBytes = new byte[width * channels];
+        for (var row = 0; row < height; row++) {
+            buffer.get(getPixelIndex(x, y + row), rowBytes); // Copy the whole row at once
+            var i = offset + row * scanline;
+            for (var b = 0; b < rowBytes.length; b += channels) {
+                int red = rowBytes[b] & SELECT_8_BYTES;
+                int green = rowBytes[b + 1] & SELECT_8_BYTES;
+                int blue = rowBytes[b + 2] & SELECT_8_BYTES;
+                int alpha = this.alpha ? rowBytes[b + 3] & SELECT_8_BYTES : 255;
+                dst[i++] = (alpha << 24) | (red << 16) | (green << 8) | blue;
+            }
+        }
+    }
+
+    @Override
+    public void setPixels(int x, int y, int width, int height, int[] src, int offset, int scanline) {
+        var rowBytes = new byte[width * channels];
+        for (var row = 0; row < height; row++) {
+            var i = offset + row * scanline;
+            for (var b = 0; b < rowBytes.length; b += channels) {
+                var argb = src[i++];
+                rowBytes[b] = (byte) (argb >>> 16);
+                rowBytes[b + 1] = (byte) (argb >>> 8);
+                rowBytes[b + 2] = (byte) argb;
+                if (alpha) rowBytes[b + 3] = (byte) (argb >>> 24);
+            }
+            buffer.put(getPixelIndex(x, y + row), rowBytes);
+        }
+    }
+
+    /**
+     * Get a view of one row of this image's bytes, without copying. Each pixel
+     * takes up {@link #getChannels()} bytes in RGB or RGBA order. Writing to the
+     * view changes the image.
+     *
+     * @param y the row, from the top, in pixels
+     * @return the row's bytes
+     */
+    public ByteBuffer getRowView(int y) {
+        return buffer.slice(getPixelIndex(0, y), width * channels);
+    }
+
+    private int getPixelIndex(int x, int y) {
+        var flippedY = (height - 1) - y; // Stored from the bottom left
+        return (x + flippedY * width) * channels;
+    }
+
     // Sub-Image Methods
 
     public ByteBuffer getBuffer() {
@@ -167,16 +228,10 @@ public class STBImageData extends ImageData {
         var subImgWidth = (int) size.x;
         var subImgHeight = (int) size.y;
 
-        var buffer = BufferUtils.createByteBuffer(subImgWidth * subImgHeight * channels);
+        var rowBytes = subImgWidth * channels;
+        var buffer = BufferUtils.createByteBuffer(subImgHeight * rowBytes);
         for (var y = subImgY; y < subImgY + subImgHeight; y++) {
-            for (var x = subImgX; x < subImgX + subImgWidth; x++) {
-                var flippedY = (height - 1) - y;
-                var color = getPixelColor(x, flippedY);
-                buffer.put((byte) color.getRed());
-                buffer.put((byte) color.getGreen());
-                buffer.put((byte) color.getBlue());
-                if (alpha) buffer.put((byte) color.getAlpha());
-            }
+            buffer.put(this.buffer.slice((subImgX + y * width) * channels, rowBytes)); // Copy rows in stored order
         }
         return buffer;
     }
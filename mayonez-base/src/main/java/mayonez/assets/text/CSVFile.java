@@ -27,8 +27,8 @@ public class CSVFile extends Asset {
      */
     public List<Record> readCSV() {
         var records = new ArrayList<Record>();
-        try (var stream = openInputStream()) {
-            var lines = TextIOUtils.readLines(stream);
+        try {
+            var lines = readLines();
             this.headers = lines[0].split(","); // Get headers
             for (var row = 1; row < lines.length; row++) {
                 records.add(addRecordFromLine(lines[row]));
@@ -40,6 +40,14 @@ public class CSVFile extends Asset {
         }
     }
 
+    private String[] readLines() throws IOException {
+        var contents = getMappedContents();
+        if (contents != null) return TextIOUtils.readLines(contents);
+        try (var stream = openInputStream()) {
+            return TextIOUtils.readLines(stream);
+        }
+    }
+
     private Record addRecordFromLine(String line) {
         var csvVals = line.split(",");
         var numCols = Math.min(headers.length, csvVals.length);
@@ -27,8 +27,8 @@ public class JSONFile extends Asset {
      * @return a record, or blank if it does not exist
      */
     public Record readJSON() {
-        try (var stream = openInputStream()) {
-            var jsonString = TextIOUtils.readText(stream);
+        try {
+            var jsonString = readText();
             return new Record(new JSONObject(jsonString).toMap());
         } catch (JSONException e) {
             Logger.error("Could not parse JSON from %s", getFilename());
@@ -38,6 +38,14 @@ public class JSONFile extends Asset {
         return new Record();
     }
 
+    private String readText() throws IOException {
+        var contents = getMappedContents();
+        if (contents != null) return TextIOUtils.readText(contents);
+        try (var stream = openInputStream()) {
+            return TextIOUtils.readText(stream);
+        }
+    }
+
     /**
      * Saves JSON data to this file.
      *
@@ -38,6 +38,8 @@ public class TextFile extends Asset {
      * @return the text as a string, empty if the file does not exist
      */
     public String readText() {
+        var contents = getMappedContents();
+        if (contents != null) return TextIOUtils.readText(contents);
         try (var stream = openInputStream()) {
             return TextIOUtils.readText(stream);
         } catch (IOException e) {
@@ -52,6 +54,8 @@ public class TextFile extends Asset {
      * @return the text as an array, empty if the file does not exist
      */
     public String[] readLines() {
+        var contents = getMappedContents();
+        if (contents != null) return TextIOUtils.readLines(contents);
         try (var stream = openInputStream()) {
             return TextIOUtils.readLines(stream);
         } catch (IOException e) {
@@ -1,6 +1,8 @@
 package mayonez.assets.text;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -34,6 +36,25 @@ public final class TextIOUtils {
         }
     }
 
+    private static List<String> read(ByteBuffer input) {
+        // Decode without moving the caller's buffer
+        var chars = StandardCharsets.UTF_8.decode(input.duplicate());
+        List<String> lines = new ArrayList<>();
+
+        // Split lines like BufferedReader.readLine()
+        var start = 0;
+        var length = chars.length();
+        for (var i = 0; i < length; i++) {
+            var c = chars.get(i);
+            if (c != '\n' && c != '\r') continue;
+            lines.add(chars.subSequence(start, i).toString());
+            if (c == '\r' && i + 1 < length && chars.get(i + 1) == '\n') i++;
+            start = i + 1;
+        }
+        if (start < length) lines.add(chars.subSequence(start, length).toString());
+        return lines;
+    }
+
     /**
      * Reads text from a stream as a single string.
      *
@@ -42,8 +63,23 @@ public final class TextIOUtils {
      * @throws java.io.IOException if the file cannot be read
      */
     public static String readText(InputStream input) throws IOException {
+        return joinLines(read(input));
+    }
+
+    /**
+     * Reads UTF-8 text from a buffer as a single string, without moving the
+     * buffer's position.
+     *
+     * @param input the buffer
+     * @return the text as a string
+     */
+    public static String readText(ByteBuffer input) {
+        return joinLines(read(input));
+    }
+
+    private static String joinLines(List<String> lines) {
         StringBuilder contents = new StringBuilder();
-        read(input).forEach(line -> {
+        lines.forEach(line -> {
             contents.append(line);
             contents.append(NEW_LINE);
         });
@@ -62,6 +98,18 @@ public final class TextIOUtils {
         return read(input).toArray(new String[0]);
     }
 
+    /**
+     * Reads UTF-8 text from a buffer as a list of strings, without moving
+     * the buffer's position. The line separators are removed after every
+     * line.
+     *
+     * @param input the buffer
+     * @return the text as lines
+     */
+    public static String[] readLines(ByteBuffer input) {
+        return read(input).toArray(new String[0]);
+    }
+
     /**
      * Writes any number of lines of text to a stream. A new line character
      * ('\n') is inserted after every line.
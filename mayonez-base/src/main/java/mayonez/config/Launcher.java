@@ -13,6 +13,14 @@ import mayonez.util.Record;
  * of scenes using {@link #loadScenesToManager(Scene...)} and then start the game with
  * {@link #startGame(Scene)} or {@link #startGame(String)}.
  * <p>
+ * Arguments:
+ * <ul>
+ *     <li>{@code --engine gl|awt|headless}: the engine to use, where headless
+ *     draws with AWT to an offscreen image</li>
+ *     <li>{@code --frames <count>}: how many frames to run in headless mode
+ *     before stopping</li>
+ * </ul>
+ * <p>
  * See {@link mayonez.SceneManager} for more information.
  *
  * @author SlavSquatSuperstar
@@ -51,7 +59,7 @@ public class Launcher {
     }
 
     private RunConfig getRunConfigFromArgs() {
-        return new RunConfig(getUseGL());
+        return new RunConfig(getUseGL(), getHeadless(), getMaxFrames());
     }
 
     boolean getUseGL() throws IllegalArgumentException {
@@ -61,11 +69,29 @@ public class Launcher {
         return switch (engineArg) {
             case "" -> throw new IllegalArgumentException("Missing value for option \"engine\"");
             case "gl" -> true;
-            case "awt" -> false;
+            case "awt", "headless" -> false;
             default -> throw new IllegalArgumentException("Invalid value for option \"engine\"");
         };
     }
 
+    boolean getHeadless() {
+        if (!programArgs.contains("engine")) return RunConfig.DEFAULT_HEADLESS;
+        return "headless".equals(programArgs.getString("engine"));
+    }
+
+    int getMaxFrames() throws IllegalArgumentException {
+        if (!programArgs.contains("frames")) return 0;
+
+        var framesArg = programArgs.getString("frames");
+        try {
+            var frames = Integer.parseInt(framesArg);
+            if (frames < 0) throw new IllegalArgumentException("Option \"frames\" cannot be negative");
+            return frames;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for option \"frames\"");
+        }
+    }
+
     // Scene Manager Methods
 
     /**
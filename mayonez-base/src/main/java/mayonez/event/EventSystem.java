@@ -43,7 +43,10 @@ public class EventSystem<T extends Event> {
      * @param e the event data
      */
     public void broadcast(T e) {
-        listeners.forEach(l -> l.onEvent(e));
+        // Loop with an index so broadcasting every frame doesn't create a lambda
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onEvent(e);
+        }
     }
 
 }
@@ -3,6 +3,7 @@ package mayonez.graphics.camera;
 import mayonez.*;
 import mayonez.graphics.*;
 import mayonez.math.*;
+import mayonez.math.shapes.*;
 import mayonez.renderer.*;
 import mayonez.util.*;
 
@@ -208,6 +209,11 @@ public abstract class Camera extends Component implements Viewport {
         return screenSize.div(cameraScale * zoom);
     }
 
+    @Override
+    public BoundingBox getViewBounds() {
+        return new Rectangle(getPosition(), getSize(), rotation).boundingRectangle();
+    }
+
     // Camera Subject Methods
 
     /**
@@ -69,12 +69,14 @@ public class Font {
 
         var glyphSize = metadata.glyphHeight();
         var glyphTopLeft = new Vec2(0, 0);
+        var pixels = imgData.getPixels(); // Read the image once instead of every pixel
+        var scanline = imgData.getWidth();
 
         for (int i = 0; i < widths.length; i++) {
             if (metadata.startCharacter() + i == metadata.whitespaceCharacter()) {
                 widths[i] = metadata.whitespaceWidth();
             } else {
-                widths[i] = getGlyphWidth(imgData, glyphTopLeft, glyphSize);
+                widths[i] = getGlyphWidth(pixels, scanline, glyphTopLeft, glyphSize);
             }
 
             // Move to next glyph
@@ -90,26 +92,13 @@ public class Font {
     }
 
     // Auto set glyph width by finding the last filled column
-    private static int getGlyphWidth(ImageData imageData, Vec2 glyphBottomLeft, int glyphSize) {
-        var startX = (int) glyphBottomLeft.x;
-        var startY = (int) glyphBottomLeft.y;
-
-        // Find last column with all filled pixels
-        var lastFilled = -1;
-        for (var col = 0; col < glyphSize; col++) {
-            if (!isColumnBlank(imageData, startX, startY, glyphSize, col)) {
-                lastFilled = col;
-            }
-        }
-        return lastFilled + 1; // Get column after last filled
-    }
+    private static int getGlyphWidth(int[] pixels, int scanline, Vec2 glyphTopLeft, int glyphSize) {
+        var startX = (int) glyphTopLeft.x;
+        var startY = (int) glyphTopLeft.y;
 
-    private static boolean isColumnBlank(ImageData imageData, int startX, int startY, int glyphHeight, int col) {
-        for (var row = 0; row < glyphHeight; row++) {
-            var pixAlpha = imageData.getPixelColor(startX + col, startY + row).getAlpha();
-            if (pixAlpha > 0) return false; // Found a filled pixel
-        }
-        return true; // Found only blank pixels
+        // Find last column with any filled pixels
+        var lastFilled = PixelOps.findLastFilledColumn(pixels, scanline, startX, startY, glyphSize, glyphSize);
+        return lastFilled + 1; // Get column after last filled
     }
 
     // Metadata Getters
@@ -231,4 +231,26 @@ public abstract class TextLabel extends Script implements Renderable {
         return gameObject.getZIndex();
     }
 
+    @Override
+    public boolean getWorldBounds(float[] worldBounds) {
+        if (isInUI() || glyphSprites.isEmpty()) return false; // UI text is drawn in screen space
+
+        // Get the box around all glyphs
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        for (var sprite : glyphSprites) {
+            if (!(sprite instanceof GlyphSprite glyph)) continue;
+            var halfSize = glyph.size().mul(0.5f);
+            minX = Math.min(minX, glyph.position().x - halfSize.x);
+            minY = Math.min(minY, glyph.position().y - halfSize.y);
+            maxX = Math.max(maxX, glyph.position().x + halfSize.x);
+            maxY = Math.max(maxY, glyph.position().y + halfSize.y);
+        }
+        worldBounds[0] = minX;
+        worldBounds[1] = minY;
+        worldBounds[2] = maxX;
+        worldBounds[3] = maxY;
+        return true;
+    }
+
 }
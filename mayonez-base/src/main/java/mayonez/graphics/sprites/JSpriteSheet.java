@@ -27,6 +27,7 @@ public final class JSpriteSheet extends SpriteSheet {
      * @param spacing      the padding between sprites, in pixels
      */
     JSpriteSheet(JTexture sheetTexture, Vec2 spriteSize, int numSprites, int spacing) {
+        super(sheetTexture);
         this.sheetTexture = sheetTexture;
         this.spriteSize = spriteSize;
         textures = new ArrayList<>(numSprites);
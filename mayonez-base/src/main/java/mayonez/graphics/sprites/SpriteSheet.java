@@ -1,5 +1,6 @@
 package mayonez.graphics.sprites;
 
+import mayonez.assets.*;
 import mayonez.graphics.textures.*;
 import mayonez.math.*;
 
@@ -10,11 +11,34 @@ import mayonez.math.*;
  * Sprite sheets (also known as texture atlases) are often used to
  * store an animation or many frequently used textures in one file.
  * This increases batch performance by requiring fewer textures per draw call.
+ * <p>
+ * A sprite sheet holds a reference to its texture in the {@link ResidencyManager}
+ * until {@link #release} is called, so the sheet's image is not evicted.
  *
  * @author SlavSquatSuperstar
  */
 public abstract sealed class SpriteSheet permits JSpriteSheet, GLSpriteSheet {
 
+    private final Texture sheetTexture;
+    private boolean released;
+
+    protected SpriteSheet(Texture sheetTexture) {
+        this.sheetTexture = sheetTexture;
+        if (sheetTexture != null) Assets.getResidency().acquire(sheetTexture);
+    }
+
+    /**
+     * Stop holding a reference to the sheet's texture, so it may be evicted
+     * while no sprites are drawing it. Sprites and textures from this sheet
+     * may still be used afterward.
+     */
+    public void release() {
+        if (!released && sheetTexture != null) {
+            Assets.getResidency().release(sheetTexture);
+            released = true;
+        }
+    }
+
     // Create Sprite Methods
 
     /**
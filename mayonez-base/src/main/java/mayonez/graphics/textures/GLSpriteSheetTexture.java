@@ -6,7 +6,8 @@ import mayonez.math.shapes.*;
 
 /**
  * A GL texture created from a sprite sheet that represents a portion of another
- * texture.
+ * texture. If the parent texture is moved onto a {@link TextureAtlas}, this texture
+ * draws the same portion of the parent's atlas region.
  *
  * @author SlavSquatSuperstar
  */
@@ -16,6 +17,10 @@ public final class GLSpriteSheetTexture extends GLTexture {
     private final GLTexture parentTexture;
     private final int width, height;
 
+    // Atlas Fields
+    private AtlasRegion lastRegion; // Parent's region when atlas coords were computed
+    private Vec2[] atlasTexCoords;
+
     /**
      * Create a sprite sheet texture from a portion of another texture.
      *
@@ -38,12 +43,38 @@ public final class GLSpriteSheetTexture extends GLTexture {
     public void free() { // Don't do anything since we may need the parent texture
     }
 
+    @Override
+    public boolean needsFinishing() { // The parent texture uploads the image
+        return false;
+    }
+
     // Image Getters
 
     public GLTexture getParentTexture() {
         return parentTexture;
     }
 
+    @Override
+    public Vec2[] getTexCoords() {
+        var region = parentTexture.getAtlasRegion();
+        if (region == null) return super.getTexCoords();
+        if (region != lastRegion) {
+            atlasTexCoords = region.remap(super.getTexCoords());
+            lastRegion = region;
+        }
+        return atlasTexCoords;
+    }
+
+    @Override
+    public AtlasRegion getAtlasRegion() {
+        return parentTexture.getAtlasRegion();
+    }
+
+    @Override
+    public int getTexID() {
+        return parentTexture.getTexID();
+    }
+
     @Override
     public int getWidth() {
         return width;
@@ -1,6 +1,7 @@
 package mayonez.graphics.textures;
 
 import mayonez.*;
+import mayonez.assets.*;
 import mayonez.assets.image.*;
 import mayonez.graphics.*;
 import mayonez.math.*;
@@ -17,6 +18,17 @@ import static org.lwjgl.opengl.GL12.GL_TEXTURE_WRAP_R;
  * instantiated. Instead, call {@link mayonez.graphics.textures.Textures#getTexture}.
  * See {@link mayonez.graphics.textures.Texture} for more information.
  * <p>
+ * A texture created on a thread without a GL context, such as by an
+ * {@link mayonez.assets.AssetPreloader}, reads its image but waits to upload it
+ * until {@link #finishLoading()} is called on the main thread.
+ * <p>
+ * A texture may be moved onto a {@link TextureAtlas}, after which it draws from
+ * the atlas page and its texture coordinates point to its region on the page.
+ * A texture can only be moved onto an atlas before it is first drawn.
+ * Textures on an atlas are never evicted, since the atlas owns their pages.
+ * Otherwise, an evicted texture reads and uploads its image again the next time
+ * {@link #getTexID()} is called.
+ * <p>
  * Sources:
  * <ul>
  *    <li><a href="https://github.com/LWJGL/lwjgl3/blob/master/modules/samples/src/test/java/org/lwjgl/demo/stb/Image.java">org.lwjgl.demo.stb.Image</a></li>
@@ -27,16 +39,20 @@ import static org.lwjgl.opengl.GL12.GL_TEXTURE_WRAP_R;
  * @author SlavSquatSuperstar
  */
 @UsesEngine(EngineType.GL)
-public sealed class GLTexture extends Texture permits GLSpriteSheetTexture {
+public sealed class GLTexture extends Texture implements DeferredAsset permits GLSpriteSheetTexture {
 
     // Constants
     public static final Vec2[] DEFAULT_TEX_COORDS
             = Rectangle.rectangleVerticesMinMax(new Vec2(0f), new Vec2(1f));
 
     // Image Fields
-    private final STBImageData imageData;
+    private STBImageData imageData;
     private int texID;
-    private final Vec2[] texCoords;
+    private boolean evicted;
+    private long lastTouchedFrame = -1L;
+    private boolean texIDUsed; // Render batches may keep the ID
+    private Vec2[] texCoords;
+    private AtlasRegion atlasRegion; // Null if not on an atlas
 
     /**
      * Create a brand-new GLTexture with the given filename.
@@ -48,6 +64,7 @@ public sealed class GLTexture extends Texture permits GLSpriteSheetTexture {
         texCoords = DEFAULT_TEX_COORDS;
         imageData = readImage();
         createTexture();
+        if (imageData != null) Assets.getResidency().track(this);
     }
 
     /**
@@ -90,6 +107,58 @@ public sealed class GLTexture extends Texture permits GLSpriteSheetTexture {
         }
     }
 
+    // Deferred Asset Methods
+
+    @Override
+    public boolean needsFinishing() {
+        return imageData != null && texID == GL_NONE && atlasRegion == null && !evicted;
+    }
+
+    @Override
+    public void finishLoading() {
+        if (needsFinishing()) {
+            createTexture();
+            Assets.getResidency().track(this); // Image moved to the GPU
+        }
+    }
+
+    // Residency Methods
+
+    @Override
+    public long getResidentCpuBytes() {
+        if (imageData == null || imageData.isImageFreed()) return 0L;
+        return getImageBytes();
+    }
+
+    @Override
+    public long getResidentGpuBytes() {
+        if (imageData == null || texID == GL_NONE || atlasRegion != null) return 0L; // The atlas owns its pages
+        return getImageBytes();
+    }
+
+    private long getImageBytes() {
+        return (long) imageData.getWidth() * imageData.getHeight() * imageData.getChannels();
+    }
+
+    @Override
+    public boolean evict() {
+        if (atlasRegion != null || imageData == null) return false;
+        if (getResidentCpuBytes() == 0L && getResidentGpuBytes() == 0L) return false;
+        free();
+        imageData.freeImage();
+        evicted = true;
+        return true;
+    }
+
+    private void reloadTexture() {
+        var image = readImage();
+        evicted = false; // Don't read the file again every frame if it failed
+        if (image == null) return; // Keep the old size
+        imageData = image;
+        createTexture();
+        Assets.getResidency().track(this);
+    }
+
     private static void setTextureParameters() {
         // wrap if too big
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_R, GL_REPEAT);
@@ -113,7 +182,7 @@ public sealed class GLTexture extends Texture permits GLSpriteSheetTexture {
     // TODO can't test without initializing GL
     public STBImageData getImageFromTexture() {
         // Save texture into buffer
-        glBindTexture(GL_TEXTURE_2D, texID);
+        glBindTexture(GL_TEXTURE_2D, getTexID());
         var buffer = BufferUtils.createByteBuffer(getWidth() * getHeight() * imageData.getChannels());
         glGetTexImage(GL_TEXTURE_2D, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer); // TODO check rgba or rgb
         try {
@@ -126,10 +195,49 @@ public sealed class GLTexture extends Texture permits GLSpriteSheetTexture {
         }
     }
 
+    // Atlas Methods
+
+    /**
+     * Draw this texture from a region of an atlas page instead, and delete its
+     * own GPU texture.
+     *
+     * @param pageTexID the texture ID of the atlas page
+     * @param region    where this texture's image is on the page
+     */
+    void moveToAtlas(int pageTexID, AtlasRegion region) {
+        if (atlasRegion == null) free();
+        texID = pageTexID;
+        texCoords = region.remap(texCoords);
+        atlasRegion = region;
+        evicted = false;
+        Assets.getResidency().track(this); // Image moved to the atlas
+    }
+
+    /**
+     * Whether this texture's ID has been read, such as by a render batch. The
+     * texture can no longer be moved onto an atlas, since the batches would
+     * keep drawing its old texture.
+     *
+     * @return if the texture ID was read
+     */
+    boolean isTexIDUsed() {
+        return texIDUsed;
+    }
+
+    /**
+     * Where this texture's image is on an atlas page.
+     *
+     * @return the atlas region, or null if not on an atlas
+     */
+    public AtlasRegion getAtlasRegion() {
+        return atlasRegion;
+    }
+
     // Asset Methods
 
     @Override
     public void free() {
+        if (atlasRegion != null) return; // The atlas deletes its pages
         if (texID != GL_NONE && GLHelper.isGLInitialized()) {
             glDeleteTextures(texID);
             texID = GL_NONE;
@@ -158,11 +266,23 @@ public sealed class GLTexture extends Texture permits GLSpriteSheetTexture {
     }
 
     /**
-     * A unique ID for this texture in OpenGL.
+     * A unique ID for this texture in OpenGL. Reads and uploads the image again
+     * if the texture was evicted.
      *
      * @return the texture id
      */
     public int getTexID() {
+        texIDUsed = true;
+        if (evicted) {
+            reloadTexture();
+        } else {
+            var residency = Assets.getResidency();
+            var frame = residency.getFrame();
+            if (frame != lastTouchedFrame) { // Only lock the manager once per frame
+                lastTouchedFrame = frame;
+                residency.touch(this);
+            }
+        }
         return texID;
     }
 
@@ -25,6 +25,7 @@ public final class JSpriteSheetTexture extends JTexture {
     private JSpriteSheetTexture(String filename, JTexture parentTexture, Vec2 spritePos, Vec2 spriteSize) {
         super(filename, getSubImageData(filename, parentTexture.getImageData(), spritePos, spriteSize));
         this.parentTexture = parentTexture;
+        parentTexture.addSubTexture(this);
         this.width = (int) spriteSize.x; // get new image size in px
         this.height = (int) spriteSize.y; // get new image size in px
     }
@@ -1,6 +1,7 @@
 package mayonez.graphics.textures;
 
 import mayonez.*;
+import mayonez.assets.*;
 import mayonez.assets.image.*;
 import mayonez.graphics.*;
 import mayonez.graphics.Color;
@@ -8,20 +9,31 @@ import mayonez.math.*;
 
 import java.awt.*;
 import java.awt.geom.*;
-import java.awt.image.*;
+import java.lang.ref.*;
+import java.util.*;
+import java.util.List;
 
 /**
  * An image file used by the AWT engine. This class should not be directly
  * instantiated. Instead, call {@link mayonez.graphics.textures.Textures#getTexture}.
  * See {@link mayonez.graphics.textures.Texture} for more information.
+ * <p>
+ * Sprite sheet textures share their parent's pixels, so a texture is not
+ * evicted while any of its sprite sheet textures are still in memory. An evicted
+ * texture's recolored images are also removed from the tint cache.
  *
  * @author SlavSquatSuperstar
  */
 @UsesEngine(EngineType.AWT)
 public sealed class JTexture extends Texture permits JSpriteSheetTexture {
 
-    private final AWTImageData imageData;
+    private static final TintedImageCache tintCache = new TintedImageCache(TintedImageCache.DEFAULT_CAPACITY);
+
+    private volatile AWTImageData imageData; // Null if evicted or unreadable
     private final Vec2 imageSize;
+    private volatile boolean evicted;
+    private volatile long lastTouchedFrame = -1L;
+    private final List<Reference<JTexture>> subTextures; // sprite sheet textures sharing this image
 
     /**
      * Create a brand-new JTexture with the given filename.
@@ -30,11 +42,13 @@ public sealed class JTexture extends Texture permits JSpriteSheetTexture {
      */
     public JTexture(String filename) { // Needed for Assets.getJTexture()
         super(filename);
+        subTextures = new ArrayList<>();
         imageData = readImage();
         if (imageData == null) {
             imageSize = new Vec2();
         } else {
             imageSize = new Vec2(imageData.getWidth(), imageData.getHeight());
+            Assets.getResidency().track(this);
         }
     }
 
@@ -46,6 +60,7 @@ public sealed class JTexture extends Texture permits JSpriteSheetTexture {
      */
     protected JTexture(String filename, AWTImageData imageData) {
         super(filename);
+        subTextures = new ArrayList<>();
         this.imageData = imageData;
         imageSize = new Vec2(imageData.getWidth(), imageData.getHeight());
     }
@@ -76,6 +91,7 @@ public sealed class JTexture extends Texture permits JSpriteSheetTexture {
      * @param color    any recoloring of the image
      */
     public void draw(Graphics2D g2, Transform parentXf, Transform spriteXf, Color color) {
+        var imageData = getImageData();
         if (imageData == null) return;
 
         // Draw sprite at parent center with parent rotation and scale
@@ -83,7 +99,7 @@ public sealed class JTexture extends Texture permits JSpriteSheetTexture {
         var g2Xf = getImageTransform(texXf);
 
         // Recolor the image (without modifying the original)
-        var recoloredImage = getRecoloredImage(color);
+        var recoloredImage = tintCache.getImage(imageData.getImage(), color, g2.getDeviceConfiguration());
         g2.drawImage(recoloredImage, g2Xf, null); // Draw buffered image
     }
 
@@ -102,21 +118,83 @@ public sealed class JTexture extends Texture permits JSpriteSheetTexture {
         return g2Xf;
     }
 
-    // Source: https://docs.oracle.com/en/java/javase/17/docs/api/java.desktop/java/awt/image/RescaleOp.html
-    private BufferedImage getRecoloredImage(Color color) {
-        if (color == null) return imageData.getImage();
+    /**
+     * Get the cache of recolored images shared by all AWT textures, which can be
+     * used to resize the cache, convert images to the screen's format, or check
+     * how often images are reused.
+     *
+     * @return the tinted image cache
+     */
+    public static TintedImageCache getTintCache() {
+        return tintCache;
+    }
+
+    // Residency Methods
+
+    @Override
+    public long getResidentCpuBytes() {
+        var imageData = this.imageData;
+        return (imageData == null) ? 0L : 4L * imageData.getWidth() * imageData.getHeight(); // ARGB pixels
+    }
+
+    @Override
+    public long getResidentGpuBytes() {
+        return 0L;
+    }
 
-        var recolor = new RescaleOp(
-                new float[]{color.getFRed(), color.getFGreen(), color.getFBlue(), color.getFAlpha()},
-                new float[4], null
-        );
-        return recolor.filter(imageData.getImage(), null);
+    @Override
+    public synchronized boolean evict() {
+        if (imageData == null || isShared()) return false; // Evicting would not free shared pixels
+        tintCache.remove(imageData.getImage());
+        imageData = null;
+        evicted = true;
+        return true;
+    }
+
+    /**
+     * Record a sprite sheet texture that shares this texture's pixels.
+     *
+     * @param subTexture the sprite sheet texture
+     */
+    synchronized void addSubTexture(JTexture subTexture) {
+        subTextures.add(new WeakReference<>(subTexture));
+    }
+
+    private boolean isShared() {
+        subTextures.removeIf(ref -> ref.get() == null);
+        return !subTextures.isEmpty();
+    }
+
+    private AWTImageData reloadImage() {
+        AWTImageData image;
+        synchronized (this) { // The render thread may also draw this texture
+            if (!evicted) return imageData;
+            image = readImage();
+            imageData = image;
+            evicted = false;
+        }
+        Assets.getResidency().track(this); // Don't hold the lock while calling the manager
+        return image;
     }
 
     // Image Getters
 
+    /**
+     * Get the underlying image data associated with this texture, reading the
+     * image again if it was evicted.
+     *
+     * @return the image data, or null if the image could not be read
+     */
     @Override
     public AWTImageData getImageData() {
+        var imageData = this.imageData;
+        if (imageData == null && evicted) return reloadImage();
+        var residency = Assets.getResidency();
+        var frame = residency.getFrame();
+        if (frame != lastTouchedFrame) { // Only lock the manager once per frame
+            lastTouchedFrame = frame;
+            residency.touch(this);
+        }
         return imageData;
     }
 
@@ -8,10 +8,14 @@ import mayonez.math.*;
  * An image file used by this program. To instantiate a texture, call
  * {@link mayonez.graphics.textures.Textures#getTexture}. See
  * {@link mayonez.graphics.sprites.Sprite} for more information.
+ * <p>
+ * Textures that read their own image are tracked by the
+ * {@link mayonez.assets.ResidencyManager}, which may evict the image while no
+ * sprites use the texture. The image is read again the next time it is drawn.
  *
  * @author SlavSquatSuperstar
  */
-public abstract sealed class Texture extends Asset permits GLTexture, JTexture {
+public abstract sealed class Texture extends Asset implements ResidentAsset permits GLTexture, JTexture {
 
     public Texture(String filename) {
         super(filename);
@@ -31,6 +35,11 @@ public abstract sealed class Texture extends Asset permits GLTexture, JTexture {
      */
     public abstract ImageData getImageData();
 
+    @Override
+    public boolean isReadable() {
+        return getImageData() != null;
+    }
+
     /**
      * The parent texture of this texture, if any.
      *
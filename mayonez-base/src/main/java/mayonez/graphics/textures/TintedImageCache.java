@@ -0,0 +1,233 @@
+package mayonez.graphics.textures;
+
+import mayonez.graphics.*;
+import mayonez.graphics.Color;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Stores recolored copies of AWT images so tinted sprites don't filter a new
+ * image every frame. Images are looked up by their source image and tint color,
+ * and the least recently used image is removed once the cache is full.
+ * <p>
+ * The cache can also convert images to the format of the screen, which lets
+ * {@link java.awt.Graphics2D#drawImage} copy them without converting each pixel.
+ * <p>
+ * The cache is not thread-safe and should only be used on the render thread,
+ * except for {@link #remove}, which may be called from any thread.
+ *
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.AWT)
+public final class TintedImageCache {
+
+    /**
+     * How many recolored images the cache holds by default.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<TintKey, BufferedImage> images;
+    private final Map<BufferedImage, BufferedImage> compatibleImages; // untinted images in screen format
+    private final Queue<BufferedImage> removedSources; // sources to remove the next time the cache is used
+    private int capacity;
+    private boolean useCompatibleImages;
+    private long hits, misses;
+
+    /**
+     * Create a cache that holds the given number of recolored images.
+     *
+     * @param capacity the max number of images, or 0 to not store any
+     */
+    public TintedImageCache(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        images = new LinkedHashMap<>(16, 0.75f, true) { // Order by last access
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TintKey, BufferedImage> eldest) {
+                return size() > TintedImageCache.this.capacity;
+            }
+        };
+        compatibleImages = new WeakHashMap<>();
+        removedSources = new ConcurrentLinkedQueue<>();
+    }
+
+    // Image Methods
+
+    /**
+     * Get a copy of the image multiplied by the given color, recoloring the image
+     * only if it is not already cached.
+     *
+     * @param source the original image, which is not modified
+     * @param color  the tint color, or null for no tint
+     * @param gc     the configuration of the screen being drawn to, or null to not convert
+     * @return the recolored image
+     */
+    public BufferedImage getImage(BufferedImage source, Color color, GraphicsConfiguration gc) {
+        if (!removedSources.isEmpty()) removeSources();
+        if (color == null || color.getRGBAValue() == Colors.WHITE.getRGBAValue()) {
+            return getCompatibleImage(source, gc); // Tinting with white does nothing
+        }
+
+        var key = new TintKey(source, color.getRGBAValue());
+        var image = images.get(key);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+
+        misses++;
+        image = recolor(source, color);
+        if (useCompatibleImages && gc != null) image = toCompatibleImage(image, gc);
+        if (capacity > 0) images.put(key, image);
+        return image;
+    }
+
+    private BufferedImage getCompatibleImage(BufferedImage source, GraphicsConfiguration gc) {
+        if (!useCompatibleImages || gc == null) return source;
+        return compatibleImages.computeIfAbsent(source, img -> toCompatibleImage(img, gc));
+    }
+
+    // Source: https://docs.oracle.com/en/java/javase/17/docs/api/java.desktop/java/awt/image/RescaleOp.html
+    private static BufferedImage recolor(BufferedImage source, Color color) {
+        var recolor = new RescaleOp(
+                new float[]{color.getFRed(), color.getFGreen(), color.getFBlue(), color.getFAlpha()},
+                new float[4], null
+        );
+        return recolor.filter(source, null);
+    }
+
+    private static BufferedImage toCompatibleImage(BufferedImage image, GraphicsConfiguration gc) {
+        var compatible = gc.createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        var g2 = compatible.createGraphics();
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        return compatible;
+    }
+
+    // Cache Methods
+
+    /**
+     * Remove all recolored and converted copies of an image, such as when its
+     * texture is evicted, so the cache does not keep the image in memory. The
+     * copies are removed the next time the cache is used.
+     *
+     * @param source the original image
+     */
+    public void remove(BufferedImage source) {
+        if (source != null) removedSources.add(source);
+    }
+
+    private void removeSources() {
+        BufferedImage source;
+        while ((source = removedSources.poll()) != null) {
+            var removed = source;
+            images.keySet().removeIf(key -> key.source() == removed);
+            compatibleImages.remove(source);
+        }
+    }
+
+    /**
+     * Remove all images from the cache and reset the hit and miss counts.
+     */
+    public void clear() {
+        removedSources.clear();
+        images.clear();
+        compatibleImages.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * The number of recolored images in the cache.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        if (!removedSources.isEmpty()) removeSources();
+        return images.size();
+    }
+
+    /**
+     * The max number of recolored images the cache holds.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Set the max number of recolored images the cache holds, removing the least
+     * recently used images if there are too many.
+     *
+     * @param capacity the max number of images, or 0 to not store any
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        var iterator = images.keySet().iterator();
+        while (images.size() > this.capacity) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Whether images are converted to the screen's format before they are drawn.
+     *
+     * @return if images are converted
+     */
+    public boolean getUseCompatibleImages() {
+        return useCompatibleImages;
+    }
+
+    /**
+     * Set whether to convert images to the screen's format before they are drawn,
+     * so they can be drawn faster. Clears the cache if the setting changes.
+     *
+     * @param useCompatibleImages if images should be converted
+     */
+    public void setUseCompatibleImages(boolean useCompatibleImages) {
+        if (this.useCompatibleImages == useCompatibleImages) return;
+        this.useCompatibleImages = useCompatibleImages;
+        images.clear();
+        compatibleImages.clear();
+    }
+
+    // Cache Statistics
+
+    /**
+     * How many images were found in the cache since it was last cleared.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * How many images had to be recolored since the cache was last cleared.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * A recolored image's source image and tint color. Images are compared by
+     * identity, so each texture has its own entries.
+     *
+     * @param source the original image
+     * @param rgba   the tint color's RGBA value
+     */
+    private record TintKey(BufferedImage source, int rgba) {
+    }
+
+    @Override
+    public String toString() {
+        return "TintedImageCache (%d/%d images, %d hits, %d misses)".formatted(size(), capacity, hits, misses);
+    }
+
+}
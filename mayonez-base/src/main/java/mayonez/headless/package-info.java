@@ -0,0 +1,7 @@
+/**
+ * Runs scenes without a display, for benchmarking frame times and checking
+ * rendered frames against stored images.
+ *
+ * @author SlavSquatSuperstar
+ */
+package mayonez.headless;
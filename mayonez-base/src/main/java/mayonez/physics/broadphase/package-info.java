@@ -0,0 +1,7 @@
+/**
+ * Prunes pairs of colliders that are too far apart to collide before performing
+ * detailed collision detection.
+ *
+ * @author SlavSquatSuperstar
+ */
+package mayonez.physics.broadphase;
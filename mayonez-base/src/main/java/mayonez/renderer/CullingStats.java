@@ -0,0 +1,32 @@
+package mayonez.renderer;
+
+/**
+ * How many objects a renderer drew in the last frame, and how many it skipped
+ * because they were outside the camera's view.
+ *
+ * @param drawn  the number of objects inside the view
+ * @param culled the number of objects outside the view
+ * @author SlavSquatSuperstar
+ */
+public record CullingStats(int drawn, int culled) {
+
+    /**
+     * The stats before any frames have been drawn.
+     */
+    public static final CullingStats NONE = new CullingStats(0, 0);
+
+    /**
+     * The number of enabled objects in the scene.
+     *
+     * @return the drawn and culled objects
+     */
+    public int total() {
+        return drawn + culled;
+    }
+
+    @Override
+    public String toString() {
+        return "Culling Stats (%d drawn, %d culled)".formatted(drawn, culled);
+    }
+
+}
@@ -0,0 +1,32 @@
+package mayonez.renderer;
+
+/**
+ * How the render thread performed over the last second when frames are drawn
+ * from snapshots on a separate thread.
+ *
+ * @param framesDrawn          the number of snapshots drawn
+ * @param framesDropped        the number of snapshots replaced by a newer one before being drawn
+ * @param averageSize          the average number of objects in each snapshot
+ * @param averageCopyMillis    the average time to capture each snapshot, in milliseconds
+ * @param averageLatencyMillis the average time from capturing a snapshot to finishing
+ *                             drawing it, in milliseconds
+ * @author SlavSquatSuperstar
+ */
+public record PipelineStats(
+        int framesDrawn, int framesDropped, float averageSize,
+        float averageCopyMillis, float averageLatencyMillis
+) {
+
+    /**
+     * The stats when no frames have been drawn from snapshots.
+     */
+    public static final PipelineStats NONE = new PipelineStats(0, 0, 0f, 0f, 0f);
+
+    @Override
+    public String toString() {
+        return "Pipeline Stats (%d drawn, %d dropped, %.1f objects, %.3f ms copy, %.3f ms latency)".formatted(
+                framesDrawn, framesDropped, averageSize, averageCopyMillis, averageLatencyMillis
+        );
+    }
+
+}
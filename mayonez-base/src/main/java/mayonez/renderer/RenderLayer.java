@@ -53,6 +53,32 @@ public abstract class RenderLayer {
      */
     public abstract void removeRenderable(Renderable r);
 
+    /**
+     * How many scene objects were drawn and skipped for being off-screen in the
+     * last frame.
+     *
+     * @return the culling stats
+     */
+    public CullingStats getCullingStats() {
+        for (var r : renderers) {
+            if (r instanceof SceneRenderer sr) return sr.getCullingStats();
+        }
+        return CullingStats.NONE;
+    }
+
+    /**
+     * Copies all visible objects into a snapshot that can be drawn on another
+     * thread, and clears the debug shapes for the next frame.
+     *
+     * @return the snapshot, or null if no renderer supports snapshots
+     */
+    public RenderSnapshot captureSnapshot() {
+        for (var r : renderers) {
+            if (r instanceof SnapshotRenderer sr) return sr.captureSnapshot();
+        }
+        return null;
+    }
+
     // Helper Methods
 
     /**
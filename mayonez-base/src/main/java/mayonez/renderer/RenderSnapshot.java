@@ -0,0 +1,42 @@
+package mayonez.renderer;
+
+import java.awt.*;
+
+/**
+ * A copy of everything a renderer needs to draw one frame, captured after the
+ * scene updates. A snapshot does not change or read the scene after it is
+ * created, so it can be drawn on another thread while the next update runs.
+ *
+ * @author SlavSquatSuperstar
+ */
+public interface RenderSnapshot {
+
+    /**
+     * Draw the captured frame.
+     *
+     * @param g2 the window's graphics object
+     */
+    void draw(Graphics2D g2);
+
+    /**
+     * How many objects were copied into this snapshot.
+     *
+     * @return the number of objects
+     */
+    int size();
+
+    /**
+     * When this snapshot started being captured, from {@link System#nanoTime()}.
+     *
+     * @return the capture time in nanoseconds
+     */
+    long getCaptureTimeNanos();
+
+    /**
+     * How long it took to copy the scene into this snapshot.
+     *
+     * @return the copy duration in nanoseconds
+     */
+    long getCopyNanos();
+
+}
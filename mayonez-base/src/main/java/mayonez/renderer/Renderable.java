@@ -26,4 +26,15 @@ public interface Renderable {
      */
     boolean isInUI();
 
+    /**
+     * Get the bounds of this object in the world, so it can be skipped when it is
+     * outside the camera's view. Objects without bounds are always drawn.
+     *
+     * @param bounds an array to store the min x, min y, max x, and max y in
+     * @return if this object has bounds
+     */
+    default boolean getWorldBounds(float[] bounds) {
+        return false;
+    }
+
 }
@@ -1,5 +1,6 @@
 package mayonez.renderer;
 
+import mayonez.*;
 import mayonez.assets.*;
 import mayonez.graphics.debug.*;
 import mayonez.renderer.awt.*;
@@ -16,11 +17,6 @@ import java.util.*;
  */
 public final class RendererFactory {
 
-    private static final Shader defaultShader = Objects.requireNonNull
-            (Assets.getAsset("assets/shaders/default.glsl", Shader.class));
-    private static final Shader uiShader = Objects.requireNonNull(
-            Assets.getAsset("assets/shaders/ui.glsl", Shader.class));
-
     private RendererFactory() {
     }
 
@@ -28,7 +24,7 @@ public final class RendererFactory {
 
     public static RenderLayer createRenderLayer(boolean useGL) {
         // Scene
-        var sceneRenderer = useGL ? new GLDefaultRenderer(defaultShader) : new JDefaultRenderer();
+        var sceneRenderer = useGL ? createGLSceneRenderer() : new JDefaultRenderer();
 
         // Debug
         var debugRenderer = (DebugRenderer) sceneRenderer;
@@ -38,8 +34,13 @@ public final class RendererFactory {
                 : createJRenderLayer(sceneRenderer, debugDraw);
     }
 
+    private static SceneRenderer createGLSceneRenderer() {
+        var spriteShader = Preferences.getInstancedRendering() ? GLShaders.instancedShader : null;
+        return new GLDefaultRenderer(GLShaders.defaultShader, spriteShader);
+    }
+
     private static RenderLayer createGLRenderLayer(SceneRenderer sceneRenderer, DebugDraw debugDraw) {
-        var uiRenderer = new GLUIRenderer(uiShader);
+        var uiRenderer = new GLUIRenderer(GLShaders.uiShader);
 
         return new RenderLayer(List.of(sceneRenderer, uiRenderer), debugDraw) {
             @Override
@@ -70,4 +71,17 @@ public final class RendererFactory {
         };
     }
 
+    /**
+     * Holds the shaders so they are only loaded when creating a GL renderer,
+     * and AWT scenes can run without the OpenGL libraries.
+     */
+    private static final class GLShaders {
+        private static final Shader defaultShader = Objects.requireNonNull
+                (Assets.getAsset("assets/shaders/default.glsl", Shader.class));
+        private static final Shader uiShader = Objects.requireNonNull(
+                Assets.getAsset("assets/shaders/ui.glsl", Shader.class));
+        private static final Shader instancedShader = Objects.requireNonNull(
+                Assets.getAsset("assets/shaders/instanced.glsl", Shader.class));
+    }
+
 }
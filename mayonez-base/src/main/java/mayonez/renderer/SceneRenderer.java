@@ -21,4 +21,11 @@ public interface SceneRenderer extends Renderer {
      */
     void removeRenderable(Renderable r);
 
+    /**
+     * How many objects were drawn and skipped for being off-screen in the last frame.
+     *
+     * @return the culling stats
+     */
+    CullingStats getCullingStats();
+
 }
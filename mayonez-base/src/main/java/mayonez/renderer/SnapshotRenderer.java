@@ -0,0 +1,19 @@
+package mayonez.renderer;
+
+/**
+ * A renderer that can copy its objects into a {@link RenderSnapshot}, so the
+ * frame can be drawn on a separate render thread.
+ *
+ * @author SlavSquatSuperstar
+ */
+public interface SnapshotRenderer extends Renderer {
+
+    /**
+     * Copy all visible objects and the camera into a new snapshot, and remove
+     * all debug shapes like {@link #render} would.
+     *
+     * @return the snapshot
+     */
+    RenderSnapshot captureSnapshot();
+
+}
@@ -3,6 +3,7 @@ package mayonez.renderer;
 import mayonez.graphics.*;
 import mayonez.input.*;
 import mayonez.math.*;
+import mayonez.math.shapes.*;
 import org.joml.*;
 
 /**
@@ -76,6 +77,14 @@ public interface Viewport extends PointTransformer {
      */
     float getCameraScale();
 
+    /**
+     * The axis-aligned box around the area of the world this viewport can see,
+     * after zooming and rotating.
+     *
+     * @return the view bounds in world units
+     */
+    BoundingBox getViewBounds();
+
     // Camera Transformations
 
     /**
@@ -0,0 +1,26 @@
+package mayonez.renderer.batch;
+
+import mayonez.graphics.*;
+
+/**
+ * A group of objects that are drawn together in one GPU call.
+ *
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.GL)
+public interface DrawableBatch {
+
+    /**
+     * Upload any changed vertex data and draw the objects in this batch.
+     */
+    void drawBatch();
+
+    /**
+     * The draw order of this batch. Batches with lower draw orders are drawn
+     * first, and batches with higher orders are layered on top of others.
+     *
+     * @return the draw order
+     */
+    int getDrawOrder();
+
+}
@@ -15,7 +15,7 @@ import org.joml.*;
  * @author SlavSquatSuperstar
  */
 @UsesEngine(EngineType.GL)
-public class RenderBatch {
+public class RenderBatch implements DrawableBatch, VertexWriter {
 
     // TODO store shader per batch
 
@@ -76,6 +76,7 @@ public class RenderBatch {
      * Upload all vertex data and tell the GPU to draw all images buffered to
      * this batch.
      */
+    @Override
     public void drawBatch() {
         // Finalize batch
         vbo.bind();
@@ -104,16 +105,24 @@ public class RenderBatch {
 
     // Push Vertex Methods
 
+    @Override
     public void pushInt(int i) {
-        vertices.push((float) i);
+        vertices.put1((float) i);
     }
 
+    @Override
     public void pushVec2(Vec2 v) {
-        vertices.push(v.x, v.y);
+        vertices.put2(v.x, v.y);
+    }
+
+    @Override
+    public void pushVec2(float x, float y) {
+        vertices.put2(x, y);
     }
 
+    @Override
     public void pushVec4(Vector4f v) {
-        vertices.push(v.x, v.y, v.z, v.w);
+        vertices.put4(v.x, v.y, v.z, v.w);
     }
 
     /**
@@ -123,6 +132,7 @@ public class RenderBatch {
      * @param tex the texture
      * @return the batch texture ID, 0 if color, otherwise 1-8
      */
+    @Override
     public int getTextureSlot(GLTexture tex) {
         if (!hasTexture(tex)) textures.addTexture(tex); // add if don't have texture
         return textures.getTextureSlot(tex);
@@ -188,12 +198,7 @@ public class RenderBatch {
         return maxBatchObjects;
     }
 
-    /**
-     * The draw order of this render batch. Batches with lower draw orders are
-     * drawn first, and batches with higher orders are layered on top of others.
-     *
-     * @return the draw order
-     */
+    @Override
     public int getDrawOrder() {
         return 0;
     }
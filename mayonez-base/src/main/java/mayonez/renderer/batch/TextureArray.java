@@ -12,6 +12,11 @@ import static org.lwjgl.opengl.GL13.glActiveTexture;
 /**
  * Stores several integer {@link mayonez.graphics.textures.GLTexture} texture IDs
  * for a {@link RenderBatch}.
+ * <p>
+ * Batches that keep their vertices between frames can count how many sprites
+ * use each texture with {@link #retainTexture} and {@link #releaseTexture}.
+ * A texture's slot is freed once no sprites use it and is given to the next
+ * new texture, without moving the other textures' slots.
  *
  * @author SlavSquatSuperstar
  */
@@ -24,26 +29,77 @@ class TextureArray {
 
     // Array Fields
     private final int[] texIDs; // OpenGL texture IDs
+    private final int[] users; // Number of retained sprites using each texture
     private int size; // Current number of textures
+    private int numFreeSlots; // Released slots before size
+    private int lastIndex; // Index of the last texture looked up
 
     TextureArray(int textureCapacity) {
         this.texIDs = new int[textureCapacity];
+        this.users = new int[textureCapacity];
         size = 0;
+        numFreeSlots = 0;
+        lastIndex = -1;
     }
 
     // Texture Methods
 
     void clear() {
         Arrays.fill(texIDs, NO_TEXTURE_ID);
+        Arrays.fill(users, 0);
         size = 0;
+        numFreeSlots = 0;
+        lastIndex = -1;
     }
 
     void addTexture(GLTexture tex) {
+        if (numFreeSlots > 0) {
+            // Reuse a released slot
+            for (var i = 0; i < size; i++) {
+                if (texIDs[i] == NO_TEXTURE_ID) {
+                    texIDs[i] = tex.getTexID();
+                    numFreeSlots--;
+                    return;
+                }
+            }
+        }
         if (size < capacity()) {
             texIDs[size++] = tex.getTexID();
         }
     }
 
+    /**
+     * Add a user of the given texture, adding the texture if it is not in the array.
+     *
+     * @param tex the texture, or null if drawing a color
+     */
+    void retainTexture(GLTexture tex) {
+        if (tex == COLOR_TEXTURE) return;
+        if (!containsTexture(tex)) addTexture(tex);
+        var index = indexOfTexture(tex);
+        if (index > -1) users[index]++;
+    }
+
+    /**
+     * Remove a user of the texture with the given ID, and free its slot if it has
+     * no users left.
+     *
+     * @param texID the texture's ID when it was retained
+     */
+    void releaseTexture(int texID) {
+        if (texID == NO_TEXTURE_ID) return;
+        for (var i = 0; i < size; i++) {
+            if (texIDs[i] != texID) continue;
+            if (--users[i] <= 0) {
+                users[i] = 0;
+                texIDs[i] = NO_TEXTURE_ID;
+                numFreeSlots++;
+                if (lastIndex == i) lastIndex = -1;
+            }
+            return;
+        }
+    }
+
     boolean containsTexture(GLTexture tex) {
         if (tex == COLOR_TEXTURE) return true;
         else return indexOfTexture(tex) > -1;
@@ -62,8 +118,14 @@ class TextureArray {
     }
 
     private int indexOfTexture(GLTexture tex) {
+        var texID = tex.getTexID();
+        // Objects are sorted by texture, so they usually repeat the last one
+        if (lastIndex > -1 && texIDs[lastIndex] == texID) return lastIndex;
         for (var i = 0; i < size; i++) {
-            if (texIDs[i] == tex.getTexID()) return i;
+            if (texIDs[i] == texID) {
+                lastIndex = i;
+                return i;
+            }
         }
         return -1;
     }
@@ -84,7 +146,7 @@ class TextureArray {
     // Array Getters
 
     boolean hasRoom() {
-        return size < texIDs.length;
+        return size < texIDs.length || numFreeSlots > 0;
     }
 
     int capacity() {
@@ -16,12 +16,16 @@ import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 class VertexBuffer {
 
     private final DrawPrimitive primitive;
-    private final VertexBufferArray vertices;
+    private final long sizeBytes;
     private int vboID;
 
     VertexBuffer(DrawPrimitive primitive, VertexBufferArray vertices) {
+        this(primitive, vertices.getSizeBytes());
+    }
+
+    VertexBuffer(DrawPrimitive primitive, long sizeBytes) {
         this.primitive = primitive;
-        this.vertices = vertices;
+        this.sizeBytes = sizeBytes;
         vboID = GL_NONE;
     }
 
@@ -36,7 +40,7 @@ class VertexBuffer {
      * Sets the layout of vertex attributes for the active VAO.
      */
     void setVertexLayout() {
-        glBufferData(GL_ARRAY_BUFFER, vertices.getSizeBytes(), GL_DYNAMIC_DRAW);
+        glBufferData(GL_ARRAY_BUFFER, sizeBytes, GL_DYNAMIC_DRAW);
 
         var ptrOffset = 0;
         var attributes = primitive.getAttributes();
@@ -1,8 +1,9 @@
 package mayonez.renderer.batch;
 
 import mayonez.graphics.*;
+import org.lwjgl.BufferUtils;
 
-import java.util.*;
+import java.nio.FloatBuffer;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
@@ -11,6 +12,9 @@ import static org.lwjgl.opengl.GL15.glBufferSubData;
 /**
  * Stores vertex data, such as position, color, and texture (UV) coordinates, for a
  * {@link VertexBuffer} in float format.
+ * <p>
+ * Vertices are written to an off-heap buffer that is passed to OpenGL without
+ * copying, and only the part of the buffer in use is uploaded.
  *
  * @author SlavSquatSuperstar
  */
@@ -22,50 +26,74 @@ class VertexBufferArray {
     private final int totalComponentCount; // Precompute components per primitive
 
     // Array Fields
-    private final float[] vertexData;
-    private int size; // Current vertex index
+    private final FloatBuffer vertexData; // Current vertex index is the buffer position
 
     VertexBufferArray(DrawPrimitive primitive, int maxBatchObjects) {
         this.primitive = primitive;
         totalComponentCount = primitive.getVertexCount() * primitive.getTotalComponents();
-        vertexData = new float[totalComponentCount * maxBatchObjects];
-        size = 0;
+        vertexData = BufferUtils.createFloatBuffer(totalComponentCount * maxBatchObjects);
     }
 
     // Array Operations
 
     /**
-     * Clear all vertices from the buffer.
+     * Clear all vertices from the buffer. The old vertices are not erased, since only
+     * the vertices pushed afterward are uploaded.
      */
     void clear() {
-        Arrays.fill(vertexData, 0f);
-        size = 0;
+        vertexData.clear();
     }
 
     /**
-     * Upload all vertices in the buffer to the GPU and draw them.
+     * Upload the vertices in the buffer to the GPU and draw them.
      */
     void draw() {
-        glBufferSubData(GL_ARRAY_BUFFER, 0, vertexData);
+        var size = size();
+        glBufferSubData(GL_ARRAY_BUFFER, 0, vertexData.flip()); // Upload [0, size)
+        vertexData.limit(vertexData.capacity()).position(size); // Keep vertices until cleared
+
         var numIndices = (size * primitive.getElementCount()) / totalComponentCount;
         glDrawElements(primitive.getDrawMode(), numIndices,
                 GL_UNSIGNED_INT, GL_NONE);
     }
 
+    // TODO check for over capacity?
+
+    /**
+     * Push one float to the buffer.
+     *
+     * @param f the float
+     */
+    void put1(float f) {
+        vertexData.put(f);
+    }
+
+    /**
+     * Push two floats to the buffer.
+     *
+     * @param f1 the first float
+     * @param f2 the second float
+     */
+    void put2(float f1, float f2) {
+        vertexData.put(f1).put(f2);
+    }
+
     /**
-     * Push any number of floats to the buffer.
+     * Push four floats to the buffer.
      *
-     * @param floats the floats
+     * @param f1 the first float
+     * @param f2 the second float
+     * @param f3 the third float
+     * @param f4 the fourth float
      */
-    void push(float... floats) {
-        // TODO check for over capacity?
-        for (var f : floats) vertexData[size++] = f;
+    void put4(float f1, float f2, float f3, float f4) {
+        vertexData.put(f1).put(f2).put(f3).put(f4);
     }
 
     // Array Getters
 
     boolean hasRoom() {
-        return size < vertexData.length;
+        return vertexData.hasRemaining();
     }
 
     /**
@@ -74,7 +102,7 @@ class VertexBufferArray {
      * @return the size
      */
     int size() {
-        return size;
+        return vertexData.position();
     }
 
     /**
@@ -83,7 +111,7 @@ class VertexBufferArray {
      * @return the capacity in bytes
      */
     long getSizeBytes() {
-        return (long) vertexData.length * Float.BYTES;
+        return (long) vertexData.capacity() * Float.BYTES;
     }
 
 }
@@ -0,0 +1,42 @@
+package mayonez.renderer.batch;
+
+import mayonez.graphics.*;
+import mayonez.graphics.textures.*;
+import mayonez.math.*;
+import org.joml.*;
+
+/**
+ * Receives the vertex components of a drawable object, such as a
+ * {@link RenderBatch} buffering objects for one frame.
+ *
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.GL)
+public interface VertexWriter {
+
+    void pushInt(int i);
+
+    void pushVec2(Vec2 v);
+
+    /**
+     * Push a vector from its components, without creating a {@link Vec2}.
+     *
+     * @param x the x component
+     * @param y the y component
+     */
+    default void pushVec2(float x, float y) {
+        pushVec2(new Vec2(x, y));
+    }
+
+    void pushVec4(Vector4f v);
+
+    /**
+     * Get the texture slot of the given texture for the shader, adding the texture
+     * if it is not used yet.
+     *
+     * @param tex the texture, or null if drawing a color
+     * @return the texture slot, 0 if color, otherwise 1-8
+     */
+    int getTextureSlot(GLTexture tex);
+
+}
@@ -16,6 +16,12 @@ public interface GLQuad extends GLRenderable {
 
     int MAX_BATCH_SPRITES = 100;
 
+    /**
+     * The max number of sprites in a batch when drawing with instancing, which
+     * only uploads one transform per sprite instead of four vertices.
+     */
+    int MAX_BATCH_INSTANCES = 4096;
+
     // Quad Getters
 
     /**
@@ -32,20 +38,29 @@ public interface GLQuad extends GLRenderable {
      */
     Vec2[] getVertexPositions();
 
-    // TODO check vertex count
     @Override
     default void pushToBatch(RenderBatch batch) {
+        writeVertices(batch);
+    }
+
+    /**
+     * Write this quad's four vertices to a batch or other vertex storage.
+     *
+     * @param writer where to write the vertices
+     */
+    // TODO check vertex count
+    default void writeVertices(VertexWriter writer) {
         var glTex = getTexture();
         var texCoords = (glTex != null)
                 ? glTex.getTexCoords()
                 : GLTexture.DEFAULT_TEX_COORDS;
         // TODO default color
-        pushSprite(batch, getVertexPositions(), getColor(),
-                texCoords, batch.getTextureSlot(glTex));
+        pushSprite(writer, getVertexPositions(), getColor(),
+                texCoords, writer.getTextureSlot(glTex));
     }
 
     private static void pushSprite(
-            RenderBatch batch, Vec2[] positions, Color color, Vec2[] texCoords, int texSlot
+            VertexWriter batch, Vec2[] positions, Color color, Vec2[] texCoords, int texSlot
     ) {
         var glColor = ColorHelpers.toGLColor(color);
         for (int i = 0; i < positions.length; i++) {
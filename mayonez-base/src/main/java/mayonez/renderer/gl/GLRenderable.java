@@ -33,6 +33,16 @@ public interface GLRenderable extends Renderable {
      */
     int getBatchSize();
 
+    /**
+     * How many primitives this object pushes to a {@link RenderBatch}, which
+     * takes up that many places in the batch.
+     *
+     * @return the primitive count, at most the batch size
+     */
+    default int getPrimitiveCount() {
+        return 1;
+    }
+
     /**
      * Which GL primitive should be used to draw this object.
      *
@@ -28,6 +28,7 @@ module mayonez.base {
     exports mayonez.config;
     exports mayonez.event;
     exports mayonez.input;
+    exports mayonez.headless;
 
     // Assets
     exports mayonez.assets;
@@ -40,6 +41,7 @@ module mayonez.base {
 
     // Physics
     exports mayonez.physics;
+    exports mayonez.physics.broadphase;
     exports mayonez.physics.colliders;
     exports mayonez.physics.dynamics;
 
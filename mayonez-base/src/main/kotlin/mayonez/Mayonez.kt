@@ -5,6 +5,7 @@ import mayonez.Mayonez.start
 import mayonez.application.*
 import mayonez.assets.*
 import mayonez.config.*
+import mayonez.renderer.*
 import kotlin.system.exitProcess
 
 /**
@@ -44,6 +45,17 @@ object Mayonez {
     internal val useGL: Boolean
         @JvmName("getUseGL") get() = config.useGL
 
+    /**
+     * Whether the AWT engine draws to an offscreen image instead of a window.
+     */
+    @JvmStatic
+    internal val headless: Boolean
+        @JvmName("getHeadless") get() = config.headless
+
+    /** The window the application draws to, or null if it has not been created. */
+    internal val window: Window?
+        get() = if (this::application.isInitialized) application.window else null
+
     // Time Properties
     // TODO move to time
 
@@ -71,6 +83,13 @@ object Mayonez {
             return if (this::application.isInitialized) application.renderFPS else 0
         }
 
+    /** How the render thread performed in the last second, if pipelined rendering is enabled. */
+    @JvmStatic
+    val pipelineStats: PipelineStats
+        get() {
+            return if (this::application.isInitialized) application.pipelineStats else PipelineStats.NONE
+        }
+
     // Init Methods
 
     /**
@@ -83,7 +102,7 @@ object Mayonez {
         if (!initialized) {
             this.config = config
             initializeSingletons()
-            initializeGame(useGL)
+            initializeGame(useGL, headless)
             initialized = true
         }
     }
@@ -111,12 +130,12 @@ object Mayonez {
     /**
      * Initialize the game engine and input instances of the application.
      */
-    private fun initializeGame(useGL: Boolean) {
+    private fun initializeGame(useGL: Boolean, headless: Boolean) {
         if (!this::application.isInitialized) {
             // Create game engine instance
             try {
-                application = ApplicationFactory.createApplication(useGL)
-                Logger.debug("Using \"%s\" engine", if (useGL) "GL" else "AWT")
+                application = ApplicationFactory.createApplication(useGL, headless, config.maxFrames)
+                Logger.debug("Using \"%s\" engine", if (useGL) "GL" else if (headless) "Headless AWT" else "AWT")
             } catch (e: WindowInitException) {
                 Logger.printStackTrace(e)
                 exitWithErrorMessage("Fatal error while initializing engine")
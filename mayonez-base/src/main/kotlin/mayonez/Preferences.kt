@@ -28,9 +28,11 @@ object Preferences : GameConfig(PREFS_FILENAME, Defaults.preferences) {
     private fun getRules(): Array<PreferenceValidator<*>> {
         return arrayOf(
             StringValidator("title", "version", "log_directory"),
-            BooleanValidator("save_logs", "frame_skip"),
+            BooleanValidator("save_logs", "frame_skip", "retained_rendering", "instanced_rendering",
+                "pipelined_rendering", "texture_atlas"),
             IntValidator(240, 3840, "screen_height", "screen_width"),
             IntValidator(10, 250, "fps"),
+            IntValidator(0, 65536, "image_memory_mb", "texture_memory_mb"),
             IntValidator(0, 5, "log_level")
         )
     }
@@ -67,6 +69,58 @@ object Preferences : GameConfig(PREFS_FILENAME, Defaults.preferences) {
     val frameSkip: Boolean
         get() = getBoolean("frame_skip")
 
+    /**
+     * Keep sprite vertices on the GPU between frames and only re-upload
+     * sprites that changed, rather than rebuilding every sprite each frame.
+     * Only used by the GL engine.
+     */
+    @JvmStatic
+    val retainedRendering: Boolean
+        get() = getBoolean("retained_rendering")
+
+    /**
+     * Draw sprites as instances of one quad, uploading a transform per sprite
+     * rather than four vertices. Retained sprites are not instanced. Only
+     * used by the GL engine.
+     */
+    @JvmStatic
+    val instancedRendering: Boolean
+        get() = getBoolean("instanced_rendering")
+
+    /**
+     * Pack the textures loaded by each scene onto texture atlases when the
+     * scene starts, so sprites with different textures can share a render
+     * batch. Only used by the GL engine.
+     */
+    @JvmStatic
+    val textureAtlas: Boolean
+        get() = getBoolean("texture_atlas")
+
+    /**
+     * Draw each frame on a separate render thread from a snapshot captured
+     * after the scene updates, so a slow frame does not hold up the next
+     * update. Only used by the AWT engine.
+     */
+    @JvmStatic
+    val pipelinedRendering: Boolean
+        get() = getBoolean("pipelined_rendering")
+
+    /**
+     * The max megabytes of CPU memory for texture images before unused
+     * images are evicted, or 0 for no limit.
+     */
+    @JvmStatic
+    val imageMemoryMB: Int
+        get() = getInt("image_memory_mb")
+
+    /**
+     * The max megabytes of GPU memory for textures before unused textures
+     * are evicted, or 0 for no limit. Only used by the GL engine.
+     */
+    @JvmStatic
+    val textureMemoryMB: Int
+        get() = getInt("texture_memory_mb")
+
     // Logging
     internal fun getLoggerConfig(): LoggerConfig {
         return LoggerConfig(
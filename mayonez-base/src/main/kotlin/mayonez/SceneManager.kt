@@ -1,7 +1,9 @@
 package mayonez
 
 import mayonez.config.*
+import mayonez.graphics.textures.*
 import mayonez.input.*
+import mayonez.renderer.*
 import java.awt.Graphics2D
 
 /**
@@ -45,6 +47,12 @@ object SceneManager {
         currentScene.render(g2)
     }
 
+    @JvmStatic
+    @JvmName("captureScene")
+    internal fun captureScene(): RenderSnapshot? {
+        return currentScene.captureRender()
+    }
+
     // Scene Control Methods
 
     @JvmStatic
@@ -103,6 +111,7 @@ object SceneManager {
     internal fun startScene() {
         if (currentScene.isStopped) {
             currentScene.start()
+            if (Preferences.textureAtlas && Mayonez.useGL) TextureAtlas.packLoadedTextures() // Before the first draw
             MouseInput.setPointTransformer(currentScene.camera)
             Logger.debug("Started scene \"${currentScene.name}\"")
         }
@@ -0,0 +1,159 @@
+package mayonez.application
+
+import mayonez.*
+import mayonez.renderer.*
+import java.util.concurrent.locks.*
+import kotlin.concurrent.*
+
+/**
+ * Draws [RenderSnapshot]s to a window on its own thread, so a slow frame
+ * does not hold up the next scene update and a slow update does not hold up
+ * drawing.
+ *
+ * After each update, the game loop captures a new snapshot and passes it to
+ * [submit], which stores it in a single slot. The render thread takes the
+ * snapshot out of the slot and draws it while the game loop captures the
+ * next one. If the game loop submits a snapshot before the waiting one is
+ * taken, the waiting one is dropped, so the render thread always draws the
+ * newest frame. Snapshots are never reused, so the game loop and the
+ * render thread never share one.
+ *
+ * @param window the window to draw to
+ * @author SlavSquatSuperstar
+ */
+internal class RenderThread(private val window: PipelinedWindow) {
+
+    private var thread: Thread? = null
+
+    @Volatile
+    private var running: Boolean = false
+
+    // Snapshot Buffer
+    private val lock: ReentrantLock = ReentrantLock() // guards latest
+    private val snapshotReady: Condition = lock.newCondition()
+    private var latest: RenderSnapshot? = null
+
+    // Metrics
+    private val statsLock: Any = Any() // guards all metrics
+    private var framesDrawn: Int = 0
+    private var framesDropped: Int = 0
+    private var totalSize: Long = 0L
+    private var totalCopyNanos: Long = 0L
+    private var totalLatencyNanos: Long = 0L
+
+    // Thread Methods
+
+    /** Start drawing snapshots on a new thread. */
+    fun start() {
+        if (running) return
+        running = true
+        thread = Thread(::run, "Render").apply {
+            isDaemon = true
+            start()
+        }
+    }
+
+    /** Stop drawing snapshots and wait for the current frame to finish. */
+    fun stop() {
+        if (!running) return
+        running = false
+        lock.withLock { snapshotReady.signalAll() }
+        thread?.let {
+            try {
+                it.join()
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+            }
+        }
+        thread = null
+        latest = null
+    }
+
+    private fun run() {
+        while (running) {
+            val snapshot = take() ?: continue
+            try {
+                window.render(snapshot)
+            } catch (e: Exception) {
+                Logger.warn("Error drawing frame on the render thread: %s", e)
+                continue
+            }
+            record(snapshot, System.nanoTime() - snapshot.captureTimeNanos)
+        }
+    }
+
+    // Snapshot Methods
+
+    /**
+     * Pass the latest snapshot to the render thread, replacing the snapshot
+     * waiting to be drawn.
+     *
+     * @param snapshot the snapshot, or null to skip this frame
+     */
+    fun submit(snapshot: RenderSnapshot?) {
+        if (snapshot == null) return
+        val dropped: Boolean
+        lock.withLock {
+            dropped = latest != null
+            latest = snapshot
+            snapshotReady.signalAll()
+        }
+        if (dropped) synchronized(statsLock) { framesDropped++ }
+    }
+
+    /** Wait for a new snapshot, or return null if the thread was stopped. */
+    private fun take(): RenderSnapshot? {
+        lock.withLock {
+            while (running && latest == null) {
+                try {
+                    snapshotReady.await()
+                } catch (e: InterruptedException) {
+                    return null
+                }
+            }
+            val snapshot = latest
+            latest = null
+            return snapshot
+        }
+    }
+
+    // Metrics Methods
+
+    private fun record(snapshot: RenderSnapshot, latencyNanos: Long) {
+        synchronized(statsLock) {
+            framesDrawn++
+            totalSize += snapshot.size()
+            totalCopyNanos += snapshot.copyNanos
+            totalLatencyNanos += latencyNanos
+        }
+    }
+
+    /**
+     * Get the metrics for all frames drawn since the last call, then reset
+     * them.
+     *
+     * @return the pipeline stats
+     */
+    fun takeStats(): PipelineStats {
+        synchronized(statsLock) {
+            val stats = if (framesDrawn == 0) PipelineStats(0, framesDropped, 0f, 0f, 0f)
+            else PipelineStats(
+                framesDrawn, framesDropped,
+                totalSize.toFloat() / framesDrawn,
+                totalCopyNanos / (framesDrawn * NANOS_PER_MILLI),
+                totalLatencyNanos / (framesDrawn * NANOS_PER_MILLI)
+            )
+            framesDrawn = 0
+            framesDropped = 0
+            totalSize = 0L
+            totalCopyNanos = 0L
+            totalLatencyNanos = 0L
+            return stats
+        }
+    }
+
+    private companion object {
+        private const val NANOS_PER_MILLI: Float = 1e6f
+    }
+
+}
@@ -0,0 +1,68 @@
+package mayonez.assets
+
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.net.URL
+import java.nio.ByteBuffer
+
+/**
+ * An asset packed inside a memory-mapped [AssetArchive] that is read-only.
+ * Archive filenames use '/' separators like classpath filenames.
+ *
+ * @author SlavSquatSuperstar
+ */
+class ArchiveFilePath(filename: String, private val archive: AssetArchive) :
+    FilePath(PathUtil.convertPath(filename, PathUtil.CLASSPATH_SEPARATOR)) {
+
+    override fun exists(): Boolean = filename in archive
+
+    override fun isReadable(): Boolean = exists()
+
+    override fun isWritable(): Boolean = false
+
+    override fun openInputStream(): InputStream {
+        return ByteBufferInputStream(getByteBuffer() ?: throw IOException("Could not open input stream for $this"))
+    }
+
+    override fun openOutputStream(append: Boolean): OutputStream {
+        throw IOException("Archived assets are read-only")
+    }
+
+    override fun getURL(): URL? = null
+
+    override fun getByteBuffer(): ByteBuffer? = archive.getContents(filename)
+
+    override val typeName: String
+        get() = "Archive"
+
+}
+
+/**
+ * Reads from a [ByteBuffer] without copying its contents first.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class ByteBufferInputStream(private val buffer: ByteBuffer) : InputStream() {
+
+    override fun read(): Int {
+        return if (buffer.hasRemaining()) buffer.get().toInt() and 0xFF else -1
+    }
+
+    override fun read(b: ByteArray, off: Int, len: Int): Int {
+        if (len == 0) return 0
+        if (!buffer.hasRemaining()) return -1
+        val count = minOf(len, buffer.remaining())
+        buffer.get(b, off, count)
+        return count
+    }
+
+    override fun skip(n: Long): Long {
+        val count = minOf(n, buffer.remaining().toLong()).coerceAtLeast(0).toInt()
+        buffer.position(buffer.position() + count)
+        return count.toLong()
+    }
+
+    override fun available(): Int = buffer.remaining()
+
+}
@@ -3,6 +3,7 @@ package mayonez.assets
 import java.io.IOException
 import java.io.InputStream
 import java.io.OutputStream
+import java.nio.ByteBuffer
 
 /**
  * A resource or file used by this program. Stores a [FilePath] and opens
@@ -33,6 +34,16 @@ open class Asset(private val filePath: FilePath) {
         return filePath.openInputStream()
     }
 
+    /**
+     * Gets this asset's contents without copying them, if it is stored in
+     * a memory-mapped [AssetArchive]. The buffer is read-only.
+     *
+     * @return the contents, or null if the asset must be read from a stream
+     */
+    protected fun getMappedContents(): ByteBuffer? {
+        return filePath.getByteBuffer()
+    }
+
     /**
      * Opens the [OutputStream] for this asset. The output stream should be closed
      * after use.
@@ -47,6 +58,15 @@ open class Asset(private val filePath: FilePath) {
         return filePath.openOutputStream(append)
     }
 
+    /**
+     * Whether this asset's contents were read successfully when it was
+     * created. Subclasses that catch their own read errors should override
+     * this method.
+     *
+     * @return if the asset is usable
+     */
+    open fun isReadable(): Boolean = true
+
     /** Frees any resources used by this asset after use. */
     open fun free() {}
 
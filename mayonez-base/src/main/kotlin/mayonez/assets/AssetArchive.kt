@@ -0,0 +1,248 @@
+package mayonez.assets
+
+import mayonez.*
+import java.io.*
+import java.nio.*
+import java.nio.channels.*
+import java.nio.charset.StandardCharsets
+import java.nio.file.*
+import java.util.*
+import java.util.zip.*
+
+/**
+ * A single file that packs many assets together, written at build time by
+ * the `packAssets` Gradle task, which runs [main]. The whole archive is memory-mapped, so each
+ * asset can be read as a [ByteBuffer] slice of the archive without copying
+ * it onto the heap.
+ *
+ * The archive starts with a 16-byte header: the magic bytes `MZPK`, the
+ * format version, and the number of assets. The header is followed by a
+ * table with each asset's path, offset, and size, then by the asset
+ * contents. Each asset's contents start at a multiple of [ALIGNMENT] bytes.
+ * All numbers are big-endian.
+ *
+ * Usage: Call [Assets.mountArchive] to read assets from an archive instead
+ * of from the classpath or loose files. An archive named [DEFAULT_FILENAME]
+ * in the launch directory is mounted automatically.
+ *
+ * @author SlavSquatSuperstar
+ */
+class AssetArchive private constructor(private val file: File, private val data: ByteBuffer) {
+
+    private val offsets: MutableMap<String, Long> = HashMap()
+    private val sizes: MutableMap<String, Int> = HashMap()
+
+    init {
+        readTable()
+    }
+
+    private fun readTable() {
+        val buffer = data.duplicate().order(ByteOrder.BIG_ENDIAN)
+        val magic = ByteArray(MAGIC.size)
+        buffer.get(magic)
+        if (!magic.contentEquals(MAGIC)) throw IOException("$file is not an asset archive")
+        val version = buffer.getInt()
+        if (version != VERSION) throw IOException("Unsupported asset archive version $version in $file")
+        val numEntries = buffer.getInt()
+        buffer.getInt() // Reserved
+
+        for (i in 0..<numEntries) {
+            val pathBytes = ByteArray(buffer.getShort().toInt() and 0xFFFF)
+            buffer.get(pathBytes)
+            val path = String(pathBytes, StandardCharsets.UTF_8)
+            val offset = buffer.getLong()
+            val size = buffer.getLong()
+            if (offset < 0 || size < 0 || offset + size > data.capacity()) {
+                throw IOException("Asset \"$path\" is outside the archive $file")
+            }
+            offsets[path] = offset
+            sizes[path] = size.toInt()
+        }
+    }
+
+    // Archive Methods
+
+    /** The paths of all assets in the archive. */
+    val paths: Set<String>
+        get() = offsets.keys
+
+    /** The number of assets in the archive. */
+    val size: Int
+        get() = offsets.size
+
+    /**
+     * Whether the archive holds an asset.
+     *
+     * @param path the asset location
+     * @return if the asset is in the archive
+     */
+    operator fun contains(path: String): Boolean = path.toArchivePath() in offsets
+
+    /**
+     * Get the contents of an asset as a read-only view into the archive,
+     * without copying.
+     *
+     * @param path the asset location
+     * @return the contents, or null if the asset is not in the archive
+     */
+    fun getContents(path: String): ByteBuffer? {
+        val archivePath = path.toArchivePath()
+        val offset = offsets[archivePath] ?: return null
+        val size = sizes[archivePath]!!
+        return data.slice(offset.toInt(), size).asReadOnlyBuffer()
+    }
+
+    override fun toString(): String = "Asset Archive \"${file.path}\" (Size = $size)"
+
+    companion object {
+        /** The archive mounted automatically if it is in the launch directory. */
+        const val DEFAULT_FILENAME: String = "assets.pak"
+
+        /** The byte boundary that each asset's contents start on. */
+        const val ALIGNMENT: Int = 16
+
+        private const val VERSION: Int = 1
+        private const val HEADER_SIZE: Int = 16
+        private const val ASSETS_ROOT_DIR: String = "assets"
+        private val MAGIC: ByteArray = "MZPK".toByteArray(StandardCharsets.US_ASCII)
+
+        /** The archive that assets are currently read from, if any. */
+        @Volatile
+        internal var mounted: AssetArchive? = null
+
+        /**
+         * Open and memory-map an archive.
+         *
+         * @param file the archive file
+         * @return the archive
+         * @throws IOException if the file cannot be read or is not an archive
+         */
+        @JvmStatic
+        @Throws(IOException::class)
+        fun open(file: File): AssetArchive {
+            FileChannel.open(file.toPath(), StandardOpenOption.READ).use { channel ->
+                if (channel.size() > Int.MAX_VALUE) throw IOException("Asset archive $file is larger than 2 GB")
+                if (channel.size() < HEADER_SIZE) throw IOException("$file is not an asset archive")
+                val data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()) // Stays mapped after closing
+                return AssetArchive(file, data)
+            }
+        }
+
+        /**
+         * Write assets into a new archive.
+         *
+         * @param file the archive file
+         * @param contents the contents of each asset, by path
+         * @throws IOException if the archive cannot be written
+         */
+        @JvmStatic
+        @Throws(IOException::class)
+        fun write(file: File, contents: Map<String, ByteArray>) {
+            val entries = contents.entries.sortedBy { it.key }
+            val pathBytes = entries.map { it.key.toArchivePath().toByteArray(StandardCharsets.UTF_8) }
+            val tableSize = pathBytes.sumOf { Short.SIZE_BYTES + it.size + 2 * Long.SIZE_BYTES }
+
+            // Lay out the contents after the table
+            val offsets = LongArray(entries.size)
+            var offset = align(HEADER_SIZE.toLong() + tableSize)
+            entries.forEachIndexed { i, entry ->
+                offsets[i] = offset
+                offset = align(offset + entry.value.size)
+            }
+
+            DataOutputStream(BufferedOutputStream(FileOutputStream(file))).use { out ->
+                out.write(MAGIC)
+                out.writeInt(VERSION)
+                out.writeInt(entries.size)
+                out.writeInt(0) // Reserved
+                entries.forEachIndexed { i, entry ->
+                    out.writeShort(pathBytes[i].size)
+                    out.write(pathBytes[i])
+                    out.writeLong(offsets[i])
+                    out.writeLong(entry.value.size.toLong())
+                }
+                entries.forEachIndexed { i, entry ->
+                    while (out.size() < offsets[i]) out.write(0) // Pad to alignment
+                    out.write(entry.value)
+                }
+            }
+        }
+
+        /**
+         * Pack every file under `assets/` in the given resource folders and
+         * jars into a new archive. If more than one source has the same
+         * asset, the earlier source wins, like on the classpath.
+         *
+         * @param file the archive file
+         * @param sources the resource folders and jars to search for assets
+         * @return the number of assets packed
+         * @throws IOException if a source cannot be read or the archive cannot be written
+         */
+        @JvmStatic
+        @Throws(IOException::class)
+        fun pack(file: File, sources: List<File>): Int {
+            val contents = TreeMap<String, ByteArray>()
+            for (source in sources) {
+                when {
+                    source.isDirectory -> packFolder(source, contents)
+                    source.isFile && source.name.endsWith(".jar") -> packJar(source, contents)
+                }
+            }
+            file.absoluteFile.parentFile?.mkdirs()
+            write(file, contents)
+            return contents.size
+        }
+
+        private fun packFolder(folder: File, contents: MutableMap<String, ByteArray>) {
+            val assetsFolder = folder.resolve(ASSETS_ROOT_DIR)
+            if (!assetsFolder.isDirectory) return
+            assetsFolder.walkTopDown().filter { it.isFile && !it.isHidden }.forEach { file ->
+                val path = file.relativeTo(folder).invariantSeparatorsPath
+                if (path !in contents) contents[path] = file.readBytes()
+            }
+        }
+
+        private fun packJar(jar: File, contents: MutableMap<String, ByteArray>) {
+            ZipFile(jar).use { zip ->
+                for (zipEntry in zip.entries()) {
+                    val path = zipEntry.name
+                    if (zipEntry.isDirectory || !path.startsWith("$ASSETS_ROOT_DIR/")) continue
+                    if (path.substringAfterLast('/').startsWith(".") || path in contents) continue
+                    contents[path] = zip.getInputStream(zipEntry).use { it.readBytes() }
+                }
+            }
+        }
+
+        /**
+         * Pack assets into an archive from the command line. Run by the
+         * `packAssets` Gradle task, so the build and the engine share one
+         * writer.
+         *
+         * @param args the archive file, followed by the resource folders and jars to pack
+         */
+        @JvmStatic
+        fun main(args: Array<String>) {
+            require(args.isNotEmpty()) { "Usage: AssetArchive <archive> [resource folders and jars...]" }
+            val file = File(args[0])
+            val numAssets = pack(file, args.drop(1).map(::File))
+            println("Packed $numAssets assets into $file")
+        }
+
+        private fun align(offset: Long): Long = (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT
+
+        private fun String.toArchivePath(): String = PathUtil.convertPath(this, PathUtil.CLASSPATH_SEPARATOR)
+
+        /** Mount the default archive if it exists in the launch directory. */
+        internal fun mountDefault(): AssetArchive? {
+            val file = File(DEFAULT_FILENAME)
+            if (!file.isFile) return null
+            return try {
+                open(file).also { mounted = it }
+            } catch (e: IOException) {
+                Logger.warn("Could not open asset archive %s: %s", file, e.message)
+                null
+            }
+        }
+    }
+
+}
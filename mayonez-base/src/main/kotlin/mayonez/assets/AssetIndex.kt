@@ -0,0 +1,131 @@
+package mayonez.assets
+
+import java.io.*
+
+/**
+ * A sorted list of every asset on the classpath, written at build time by
+ * the `generateAssetIndex` Gradle task. Reading the index lets [Assets]
+ * register all assets without scanning the jar at startup.
+ *
+ * Each line of the index holds an asset's path, size in bytes, file type,
+ * and SHA-256 hash, separated by tabs. Lines starting with `#` are
+ * comments.
+ *
+ * @param entries the asset entries, sorted by path
+ * @author SlavSquatSuperstar
+ */
+class AssetIndex(entries: Collection<Entry>) {
+
+    /**
+     * One asset listed in an [AssetIndex].
+     *
+     * @param path the classpath location of the asset
+     * @param size the file size in bytes
+     * @param type the file extension, or an empty string if none
+     * @param hash the SHA-256 hash of the file contents, in hexadecimal
+     */
+    data class Entry(val path: String, val size: Long, val type: String, val hash: String) {
+        internal fun toLine(): String = "$path\t$size\t$type\t$hash"
+    }
+
+    private val entriesByPath: Map<String, Entry> = entries.associateByTo(sortedMapOf<String, Entry>()) { it.path }
+
+    /** All assets in the index, sorted by path. */
+    val entries: Collection<Entry>
+        get() = entriesByPath.values
+
+    /** The number of assets in the index. */
+    val size: Int
+        get() = entriesByPath.size
+
+    /**
+     * Find the entry for an asset.
+     *
+     * @param path the classpath location of the asset
+     * @return the entry, or null if the asset is not in the index
+     */
+    operator fun get(path: String): Entry? = entriesByPath[path]
+
+    /**
+     * Find the paths of all assets inside a folder and its subfolders.
+     *
+     * @param directory the folder location
+     * @return the asset paths, sorted alphabetically
+     */
+    fun getPaths(directory: String): List<String> {
+        val prefix = directory.trimEnd('/') + "/"
+        return entriesByPath.keys.filter { it.startsWith(prefix) }
+    }
+
+    /**
+     * Write this index in the same format it is read.
+     *
+     * @param writer the output
+     * @throws IOException if the index could not be written
+     */
+    @Throws(IOException::class)
+    fun write(writer: Writer) {
+        writer.write(HEADER)
+        writer.write("\n")
+        entries.forEach {
+            writer.write(it.toLine())
+            writer.write("\n")
+        }
+        writer.flush()
+    }
+
+    override fun toString(): String = "Asset Index (Size = $size)"
+
+    companion object {
+        /** Where the index is stored on the classpath. */
+        const val INDEX_PATH: String = "META-INF/mayonez/asset-index.tsv"
+        private const val HEADER: String = "# Mayonez asset index v1: path, size, type, sha256"
+        private const val NUM_COLUMNS: Int = 4
+
+        /**
+         * Read an index.
+         *
+         * @param reader the input
+         * @return the index
+         * @throws IOException if the index could not be read or a line is malformed
+         */
+        @JvmStatic
+        @Throws(IOException::class)
+        fun read(reader: BufferedReader): AssetIndex {
+            val entries = ArrayList<Entry>()
+            reader.lineSequence().forEachIndexed { i, line ->
+                if (line.isBlank() || line.startsWith("#")) return@forEachIndexed
+                val columns = line.split('\t')
+                val size = columns.getOrNull(1)?.toLongOrNull()
+                if (columns.size != NUM_COLUMNS || size == null) {
+                    throw IOException("Malformed asset index entry on line ${i + 1}: \"$line\"")
+                }
+                entries.add(Entry(columns[0], size, columns[2], columns[3]))
+            }
+            return AssetIndex(entries)
+        }
+
+        /**
+         * Read and combine every index on the classpath. If the same asset
+         * is listed more than once, the first entry is kept.
+         *
+         * @return the combined index, or null if there is no index or it could not be read
+         */
+        @JvmStatic
+        fun loadFromClasspath(): AssetIndex? {
+            return try {
+                val urls = ClassLoader.getSystemResources(INDEX_PATH).toList()
+                if (urls.isEmpty()) return null
+                val entries = LinkedHashMap<String, Entry>()
+                for (url in urls) {
+                    val index = url.openStream().bufferedReader().use { read(it) }
+                    index.entries.forEach { entries.putIfAbsent(it.path, it) }
+                }
+                AssetIndex(entries.values)
+            } catch (e: IOException) {
+                null
+            }
+        }
+    }
+
+}
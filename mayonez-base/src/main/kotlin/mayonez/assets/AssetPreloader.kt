@@ -0,0 +1,234 @@
+package mayonez.assets
+
+import mayonez.*
+import java.lang.reflect.*
+import java.util.ArrayDeque
+import java.util.Queue
+import java.util.concurrent.*
+import java.util.concurrent.atomic.*
+
+/**
+ * Reads groups of assets ahead of time on a pool of worker threads, so the
+ * game does not stall the first time it retrieves each asset. Assets that
+ * implement [DeferredAsset], such as GL textures, finish loading on the
+ * main thread a few at a time.
+ *
+ * Usage: Create a preloader in [mayonez.Scene.init], add assets with
+ * [add] or [addFolder], then call [start]. Call [update] once per frame,
+ * such as in [mayonez.Scene.onUserUpdate], to store each finished asset
+ * in [Assets] and finish uploads. Show [progress] on a loading screen until
+ * [isDone] is true. Afterward, [Assets.getAsset] returns the preloaded
+ * assets without reading them again. Any assets that could not be read are
+ * listed in [failures].
+ *
+ * @param numThreads how many worker threads read assets
+ * @param finishesPerFrame how many deferred assets to finish in each call to
+ * [update]
+ * @author SlavSquatSuperstar
+ */
+class AssetPreloader @JvmOverloads constructor(
+    private val numThreads: Int = DEFAULT_THREADS,
+    private val finishesPerFrame: Int = DEFAULT_FINISHES_PER_FRAME
+) {
+
+    private val requests: MutableMap<String, Class<out Asset>> = LinkedHashMap()
+    private var executor: ExecutorService? = null
+
+    // Loading Queues
+    private val readAssets: Queue<ReadResult> = ConcurrentLinkedQueue() // Read by workers, not stored yet
+    private val unfinishedAssets: Queue<DeferredAsset> = ArrayDeque() // Stored, waiting to be finished
+
+    // Progress Fields
+    private val numRead: AtomicInteger = AtomicInteger()
+    private var numCompleted: Int = 0
+    private val failedAssets: MutableList<PreloadFailure> = ArrayList()
+
+    /** Whether [start] has been called. */
+    var isStarted: Boolean = false
+        private set
+
+    // Request Methods
+
+    /**
+     * Preload an asset as the given subclass. Must be called before [start].
+     *
+     * @param filename the location of the asset
+     * @param assetClass the asset subclass
+     * @return this preloader
+     */
+    fun add(filename: String, assetClass: Class<out Asset>): AssetPreloader {
+        check(!isStarted) { "Cannot add assets after the preloader has started" }
+        requests[filename] = assetClass
+        return this
+    }
+
+    /**
+     * Preload all scanned assets inside a folder with any of the given file
+     * extensions as the given subclass. Must be called before [start].
+     *
+     * @param directory the folder location
+     * @param assetClass the asset subclass
+     * @param extensions the file extensions to include, such as "png", or
+     * none to include every file
+     * @return this preloader
+     */
+    fun addFolder(directory: String, assetClass: Class<out Asset>, vararg extensions: String): AssetPreloader {
+        Assets.getAssetNames(directory)
+            .filter { name -> extensions.isEmpty() || extensions.any { name.endsWith(".$it") } }
+            .forEach { add(it, assetClass) }
+        return this
+    }
+
+    // Loading Methods
+
+    /** Start reading all the requested assets on the worker threads. */
+    fun start() {
+        if (isStarted) return
+        isStarted = true
+
+        val pool = Executors.newFixedThreadPool(numThreads.coerceAtLeast(1), WorkerFactory())
+        for ((filename, assetClass) in requests) {
+            if (assetClass.isInstance(Assets.getAsset(filename))) {
+                numRead.incrementAndGet() // Already loaded
+                numCompleted++
+                continue
+            }
+            pool.execute {
+                readAssets.offer(readAsset(filename, assetClass))
+                numRead.incrementAndGet()
+            }
+        }
+        pool.shutdown() // Threads exit after the queue is empty
+        executor = pool
+        Logger.debug("Preloading %d assets on %d threads", requests.size, numThreads)
+    }
+
+    private fun readAsset(filename: String, assetClass: Class<out Asset>): ReadResult {
+        return try {
+            val asset = Assets.instantiateAsset(filename, assetClass)
+            if (asset == null || !asset.isReadable()) ReadResult(filename, null, null)
+            else ReadResult(filename, asset, null)
+        } catch (e: InvocationTargetException) {
+            ReadResult(filename, null, e.targetException)
+        } catch (e: Exception) {
+            ReadResult(filename, null, e)
+        }
+    }
+
+    /**
+     * Store the assets read since the last call and finish loading up to
+     * [finishesPerFrame] deferred assets. Must be called on the main thread,
+     * usually once per frame.
+     *
+     * @return if all assets have finished loading
+     */
+    fun update(): Boolean {
+        if (!isStarted) return false
+
+        // Store all assets read by the workers
+        while (true) {
+            val result = readAssets.poll() ?: break
+            val asset = result.asset
+            if (asset == null) {
+                fail(result.filename, result.error)
+                continue
+            }
+            Assets.putAsset(result.filename, asset)
+            if (asset is DeferredAsset && asset.needsFinishing()) unfinishedAssets.offer(asset)
+            else numCompleted++
+        }
+
+        // Finish a few assets per frame
+        repeat(finishesPerFrame.coerceAtLeast(1)) {
+            val asset = unfinishedAssets.poll() ?: return@repeat
+            try {
+                asset.finishLoading()
+            } catch (e: Exception) {
+                Logger.error("Could not finish loading asset %s", asset)
+                Logger.printStackTrace(e)
+            }
+            numCompleted++
+        }
+        return isDone
+    }
+
+    private fun fail(filename: String, error: Throwable?) {
+        val failure = PreloadFailure(filename, error?.toString() ?: "Could not read asset")
+        failedAssets.add(failure)
+        numCompleted++
+        Logger.error("Could not preload asset \"%s\": %s", filename, failure.reason)
+    }
+
+    /**
+     * Stop reading assets as soon as possible. Assets that were already read
+     * are discarded unless [update] is called again.
+     */
+    fun cancel() {
+        executor?.shutdownNow()
+    }
+
+    // Progress Getters
+
+    /** The number of assets requested. */
+    val numAssets: Int
+        get() = requests.size
+
+    /** The number of assets the workers have finished reading, including failures. */
+    val numAssetsRead: Int
+        get() = numRead.get()
+
+    /** The number of assets that are stored and ready to use, including failures. */
+    val numAssetsCompleted: Int
+        get() = numCompleted
+
+    /** The fraction of assets that are ready to use, from 0 to 1. */
+    val progress: Float
+        get() = if (requests.isEmpty()) 1f else numCompleted.toFloat() / requests.size
+
+    /** Whether all assets have been read, stored, and finished. */
+    val isDone: Boolean
+        get() = isStarted && numCompleted >= requests.size
+
+    /** The assets that could not be read. */
+    val failures: List<PreloadFailure>
+        get() = failedAssets
+
+    override fun toString(): String {
+        return "Asset Preloader (%d/%d completed, %d failed)".format(
+            numCompleted, requests.size, failedAssets.size
+        )
+    }
+
+    // Helper Classes
+
+    /** An asset read by a worker, or the reason it could not be read. */
+    private class ReadResult(val filename: String, val asset: Asset?, val error: Throwable?)
+
+    /** Creates daemon worker threads so preloading never keeps the program open. */
+    private class WorkerFactory : ThreadFactory {
+        private val count = AtomicInteger()
+
+        override fun newThread(r: Runnable): Thread {
+            return Thread(r, "Asset Preloader ${count.incrementAndGet()}").apply { isDaemon = true }
+        }
+    }
+
+    companion object {
+        /** The default number of worker threads, one less than the number of processors. */
+        @JvmField
+        val DEFAULT_THREADS: Int = (Runtime.getRuntime().availableProcessors() - 1).coerceAtLeast(1)
+
+        /** The default number of deferred assets to finish each frame. */
+        const val DEFAULT_FINISHES_PER_FRAME: Int = 4
+    }
+
+}
+
+/**
+ * An asset that could not be preloaded by an [AssetPreloader].
+ *
+ * @param filename the location of the asset
+ * @param reason why the asset could not be read
+ * @author SlavSquatSuperstar
+ */
+data class PreloadFailure(val filename: String, val reason: String)
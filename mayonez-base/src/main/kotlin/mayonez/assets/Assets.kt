@@ -3,14 +3,18 @@ package mayonez.assets
 import mayonez.*
 import mayonez.assets.scanner.ClasspathFolderScanner
 import mayonez.assets.scanner.ExternalFolderScanner
+import mayonez.graphics.textures.TextureAtlas
+import java.io.File
+import java.io.IOException
 
 /**
  * Manages the application's resources and allows users to create and
  * retrieve new [Asset] files.
  *
- * Usage: Upon startup, the program automatically scans the `assets/`
- * folder under `src/main/resources` or inside the .jar and adds all
- * files to the asset pool. The user can scan any classpath folders using
+ * Usage: Upon startup, the program automatically adds all files in the
+ * `assets/` folder under `src/main/resources` or inside the .jar to the
+ * asset pool. The files are read from the [AssetIndex] written by the
+ * build, or scanned if there is no index. The user can scan any classpath folders using
  * [Assets.scanFiles] or external folders using [Assets.scanResources].
  * All resource paths start inside the jar, while all external paths
  * are relative the folder containing the jar. To create an individual
@@ -23,11 +27,16 @@ import mayonez.assets.scanner.ExternalFolderScanner
  * calling `Assets.getAsset("info.txt", TextFile.class)` will return a
  * [mayonez.assets.text.TextFile] with the name `info.txt`.
  *
+ * Assets are read the first time they are retrieved as a subclass. To read
+ * many assets ahead of time without stalling the game, use an
+ * [AssetPreloader]. Large assets such as textures may be evicted by the
+ * [residency] manager while unused and are read again when next accessed.
+ *
  * See [Asset] for more details.
  *
  * @author SlavSquatSuperstar
  */
-// TODO preload stage, map extensions to subclass
+// TODO map extensions to subclass
 object Assets {
 
     // Initialization Fields
@@ -37,6 +46,14 @@ object Assets {
 
     // Asset Fields
     private val assets: MutableMap<String, Asset> = HashMap()
+    private var index: AssetIndex? = null
+
+    /**
+     * Limits the memory used by textures and other large assets, evicting
+     * unused assets once a budget is exceeded.
+     */
+    @JvmStatic
+    val residency: ResidencyManager = ResidencyManager()
 
     init {
         initialize()
@@ -53,11 +70,48 @@ object Assets {
     fun loadResources() {
         if (!loadedResources) {
             Logger.debug("Loading program assets...")
-            scanResources(ASSETS_ROOT_DIR)
+            AssetArchive.mountDefault()?.let { registerArchive(it) }
+            if (!loadIndex()) scanResources(ASSETS_ROOT_DIR)
             loadedResources = true
         }
     }
 
+    /** Add all the classpath assets listed in the asset index, if there is one. */
+    private fun loadIndex(): Boolean {
+        val index = AssetIndex.loadFromClasspath() ?: return false
+        val paths = index.getPaths(ASSETS_ROOT_DIR)
+        paths.forEach { createAsset(it) }
+        this.index = index
+        Logger.debug("Loaded ${paths.size} resources from the asset index")
+        return true
+    }
+
+    /**
+     * Reads assets from a packed [AssetArchive] instead of the classpath or
+     * loose files, and adds every asset inside the archive. Should be called
+     * before the assets are first retrieved.
+     *
+     * @param filename the location of the archive file
+     * @return if the archive was mounted
+     */
+    @JvmStatic
+    fun mountArchive(filename: String): Boolean {
+        val archive = try {
+            AssetArchive.open(File(filename))
+        } catch (e: IOException) {
+            Logger.error("Could not open asset archive \"$filename\": ${e.message}")
+            return false
+        }
+        AssetArchive.mounted = archive
+        registerArchive(archive)
+        return true
+    }
+
+    private fun registerArchive(archive: AssetArchive) {
+        archive.paths.forEach { createAsset(it) }
+        Logger.debug("Loaded ${archive.size} assets from $archive")
+    }
+
     // Search Folder Methods
 
     /**
@@ -126,13 +180,37 @@ object Assets {
      */
     @JvmStatic
     fun <T : Asset> createAsset(filename: String, assetClass: Class<T>): T? {
-        val ctor = assetClass.getDeclaredConstructor(String::class.java)
-        val asset = assetClass.cast(ctor.newInstance(filename)) ?: return null
-        assets[filename] = asset
-        Logger.debug("Loaded asset \"%s\" as %s", filename, assetClass.simpleName)
+        val asset = instantiateAsset(filename, assetClass) ?: return null
+        putAsset(filename, asset)
         return asset
     }
 
+    /**
+     * Instantiates an [Asset] under the given subclass without storing it.
+     * Does not touch the asset pool, so it may be called from any thread.
+     *
+     * @param filename the location of the asset
+     * @param assetClass the subclass of the asset
+     * @return the asset as a subclass instance, if successfully created
+     */
+    internal fun <T : Asset> instantiateAsset(filename: String, assetClass: Class<T>): T? {
+        val ctor = assetClass.getDeclaredConstructor(String::class.java)
+        return assetClass.cast(ctor.newInstance(filename))
+    }
+
+    /**
+     * Stores an instantiated asset, overwriting any asset with the same
+     * filename.
+     *
+     * @param filename the location of the asset
+     * @param asset the asset
+     */
+    internal fun putAsset(filename: String, asset: Asset) {
+        val oldAsset = assets.put(filename, asset)
+        if (oldAsset is ResidentAsset && oldAsset !== asset) residency.untrack(oldAsset)
+        Logger.debug("Loaded asset \"%s\" as %s", filename, asset.javaClass.simpleName)
+    }
+
     // Asset Getters
 
     /**
@@ -144,6 +222,27 @@ object Assets {
     @JvmStatic
     fun getAsset(filename: String): Asset? = assets[filename.toOS()]
 
+    /**
+     * Retrieves the filenames of all assets inside a folder and its
+     * subfolders.
+     *
+     * @param directory the folder location
+     * @return the asset filenames, sorted alphabetically
+     */
+    @JvmStatic
+    fun getAssetNames(directory: String): List<String> {
+        val osDirectory = directory.toOS()
+        return assets.keys.filter { it.startsWith(osDirectory) }.sorted()
+    }
+
+    /**
+     * Retrieves all stored assets that are instances of an [Asset] subclass.
+     *
+     * @param cls the asset subclass
+     * @return the assets
+     */
+    internal fun <T : Asset> getAssets(cls: Class<T>): List<T> = assets.values.filterIsInstance(cls)
+
     /**
      * Retrieves the [Asset] under the specified filename and re-instantiates
      * it under the given Asset subclass.
@@ -162,11 +261,26 @@ object Assets {
         else asset as? T
     }
 
+    /**
+     * Retrieves the size, type, and hash of a classpath asset recorded by the
+     * asset index.
+     *
+     * @param filename the asset location
+     * @return the index entry, or null if there is no index or the asset is
+     *     not in it
+     */
+    @JvmStatic
+    fun getIndexEntry(filename: String): AssetIndex.Entry? {
+        return index?.get(PathUtil.convertPath(filename, PathUtil.CLASSPATH_SEPARATOR))
+    }
+
     /** Empties all Assets from the asset pool. */
     @JvmStatic
     fun clearAssets() {
         assets.values.forEach(Asset::free)
+        if (Mayonez.useGL) TextureAtlas.freePackedAtlases() // The textures drew from the atlas pages
         assets.clear()
+        residency.clear()
         Logger.debug("Cleared all assets")
     }
 
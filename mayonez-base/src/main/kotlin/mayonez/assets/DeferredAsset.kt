@@ -0,0 +1,23 @@
+package mayonez.assets
+
+/**
+ * An asset that can be read on any thread, but must finish loading on the
+ * main thread, such as by uploading an image to the GPU. When preloaded with
+ * an [AssetPreloader], the asset is read on a worker thread and finished a
+ * few assets at a time on the main thread.
+ *
+ * @author SlavSquatSuperstar
+ */
+interface DeferredAsset {
+
+    /**
+     * Whether this asset was read but has not finished loading.
+     *
+     * @return if [finishLoading] still needs to be called
+     */
+    fun needsFinishing(): Boolean
+
+    /** Finish loading this asset. Must be called on the main thread. */
+    fun finishLoading()
+
+}
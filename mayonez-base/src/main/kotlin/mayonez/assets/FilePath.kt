@@ -2,6 +2,7 @@ package mayonez.assets
 
 import java.io.*
 import java.net.URL
+import java.nio.ByteBuffer
 
 /**
  * Represents the location of an [mayonez.assets.Asset] on the computer's
@@ -15,13 +16,16 @@ abstract class FilePath(val filename: String) {
     companion object {
         /**
          * Creates a FilePath and automatically determines the location type.
-         * Returns a classpath resource if one exists at this path, or otherwise
-         * defaults to an external file.
+         * Returns an archived asset if the mounted [AssetArchive] holds this
+         * path, or a classpath resource if one exists at this path, or
+         * otherwise defaults to an external file.
          *
          * @param filename the asset filename
          */
         @JvmStatic
         fun fromFilename(filename: String): FilePath {
+            val archive = AssetArchive.mounted
+            if (archive != null && filename in archive) return ArchiveFilePath(filename, archive)
             val classpathFilePath = ClasspathFilePath(filename)
             return if (classpathFilePath.exists()) classpathFilePath
             else ExternalFilePath(filename)
@@ -85,6 +89,14 @@ abstract class FilePath(val filename: String) {
      */
     abstract fun getURL(): URL?
 
+    /**
+     * Gets the file's contents as a read-only view of memory, if this path
+     * supports reading without copying.
+     *
+     * @return the contents, or null if they must be read from a stream
+     */
+    open fun getByteBuffer(): ByteBuffer? = null
+
     /**
      * Gets the file represented by this path.
      *
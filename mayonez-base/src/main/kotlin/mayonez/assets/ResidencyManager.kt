@@ -0,0 +1,234 @@
+package mayonez.assets
+
+import mayonez.*
+import java.util.*
+
+/**
+ * Limits the memory used by [ResidentAsset]s, such as textures, by evicting
+ * the least recently used assets once a CPU or GPU memory budget is
+ * exceeded. Evicted assets read their contents again the next time they
+ * are accessed.
+ *
+ * Usage: Sprites and sprite sheets call [acquire] and [release] on the
+ * textures they draw, and an asset with any references is never evicted.
+ * Assets call [track] after reading their contents and [touch] whenever they
+ * are accessed. The application calls [trim] once every frame, which only
+ * evicts assets that were not used during that frame. Assets accessed many
+ * times per frame can compare [frame] to only call [touch] once per frame.
+ *
+ * The manager is thread-safe, so assets may be read on worker threads.
+ *
+ * @author SlavSquatSuperstar
+ */
+class ResidencyManager {
+
+    private class Entry {
+        var refCount: Int = 0
+        var lastUsedFrame: Long = 0L
+        var cpuBytes: Long = 0L
+        var gpuBytes: Long = 0L
+        var evicted: Boolean = false
+    }
+
+    private val entries: MutableMap<ResidentAsset, Entry> = IdentityHashMap()
+    private var cpuBytes: Long = 0L
+    private var gpuBytes: Long = 0L
+    private var evictions: Long = 0L
+    private var reloads: Long = 0L
+
+    /**
+     * The number of frames trimmed so far. Can be read without locking the
+     * manager.
+     */
+    @Volatile
+    var frame: Long = 0L
+        private set
+
+    /** The max bytes of CPU memory for resident assets, or [NO_LIMIT]. */
+    @Volatile
+    var cpuBudget: Long = NO_LIMIT
+        set(value) {
+            field = if (value <= 0L) NO_LIMIT else value
+        }
+
+    /** The max bytes of GPU memory for resident assets, or [NO_LIMIT]. */
+    @Volatile
+    var gpuBudget: Long = NO_LIMIT
+        set(value) {
+            field = if (value <= 0L) NO_LIMIT else value
+        }
+
+    // Asset Methods
+
+    /**
+     * Record an asset's current memory use and mark it as used. Should be
+     * called whenever the asset reads, uploads, or frees its contents.
+     *
+     * @param asset the asset
+     */
+    @Synchronized
+    fun track(asset: ResidentAsset) {
+        val entry = entries.getOrPut(asset) { Entry() }
+        if (entry.evicted) {
+            entry.evicted = false
+            reloads++
+        }
+        setBytes(entry, asset.residentCpuBytes, asset.residentGpuBytes)
+        entry.lastUsedFrame = frame
+    }
+
+    /**
+     * Mark an asset as used during this frame, so it will not be evicted at
+     * the end of the frame.
+     *
+     * @param asset the asset
+     */
+    @Synchronized
+    fun touch(asset: ResidentAsset) {
+        entries[asset]?.lastUsedFrame = frame
+    }
+
+    /**
+     * Stop tracking an asset, such as when it is replaced or freed.
+     *
+     * @param asset the asset
+     */
+    @Synchronized
+    fun untrack(asset: ResidentAsset) {
+        val entry = entries.remove(asset) ?: return
+        setBytes(entry, 0L, 0L)
+    }
+
+    // Reference Methods
+
+    /**
+     * Add a reference to an asset so it will not be evicted.
+     *
+     * @param asset the asset
+     */
+    @Synchronized
+    fun acquire(asset: ResidentAsset) {
+        val entry = entries[asset] ?: return
+        entry.refCount++
+        entry.lastUsedFrame = frame
+    }
+
+    /**
+     * Remove a reference to an asset. Once no references remain, the asset
+     * may be evicted.
+     *
+     * @param asset the asset
+     */
+    @Synchronized
+    fun release(asset: ResidentAsset) {
+        val entry = entries[asset] ?: return
+        if (entry.refCount > 0) entry.refCount--
+    }
+
+    /**
+     * Get how many references an asset has.
+     *
+     * @param asset the asset
+     * @return the reference count, or 0 if the asset is not tracked
+     */
+    @Synchronized
+    fun getRefCount(asset: ResidentAsset): Int = entries[asset]?.refCount ?: 0
+
+    // Eviction Methods
+
+    /**
+     * Evict the least recently used assets without references until the
+     * memory use is within budget, then start a new frame. Assets used during
+     * the current frame are never evicted.
+     *
+     * @return the number of assets evicted
+     */
+    @Synchronized
+    fun trim(): Int {
+        var evicted = 0
+        if (isOverBudget()) {
+            val candidates = entries.entries
+                .filter { (_, entry) -> entry.refCount == 0 && entry.lastUsedFrame < frame && !entry.evicted }
+                .sortedBy { it.value.lastUsedFrame }
+            for ((asset, entry) in candidates) {
+                val overCpu = cpuBytes > cpuBudget
+                val overGpu = gpuBytes > gpuBudget
+                if (!overCpu && !overGpu) break
+                if (!(overCpu && entry.cpuBytes > 0L) && !(overGpu && entry.gpuBytes > 0L)) continue
+                if (!asset.evict()) continue
+
+                setBytes(entry, 0L, 0L)
+                entry.evicted = true
+                evictions++
+                evicted++
+            }
+            if (isOverBudget()) Logger.debug("Resident assets are over budget: %s", getStats())
+        }
+        frame++
+        return evicted
+    }
+
+    private fun isOverBudget(): Boolean = cpuBytes > cpuBudget || gpuBytes > gpuBudget
+
+    private fun setBytes(entry: Entry, cpu: Long, gpu: Long) {
+        cpuBytes += cpu - entry.cpuBytes
+        gpuBytes += gpu - entry.gpuBytes
+        entry.cpuBytes = cpu
+        entry.gpuBytes = gpu
+    }
+
+    /** Stop tracking all assets and reset the metrics. */
+    @Synchronized
+    fun clear() {
+        entries.clear()
+        cpuBytes = 0L
+        gpuBytes = 0L
+        evictions = 0L
+        reloads = 0L
+    }
+
+    // Metrics
+
+    /**
+     * Get the current memory use and how many assets have been evicted and
+     * reloaded.
+     *
+     * @return the residency stats
+     */
+    @Synchronized
+    fun getStats(): ResidencyStats {
+        val residentAssets = entries.values.count { it.cpuBytes > 0L || it.gpuBytes > 0L }
+        return ResidencyStats(cpuBytes, gpuBytes, residentAssets, evictions, reloads)
+    }
+
+    override fun toString(): String = "Residency Manager (${getStats()})"
+
+    companion object {
+        /** The budget that means memory use is not limited. */
+        const val NO_LIMIT: Long = Long.MAX_VALUE
+
+        /** The number of bytes in a megabyte. */
+        const val BYTES_PER_MB: Long = 1024L * 1024L
+    }
+
+}
+
+/**
+ * A summary of the memory used by resident assets.
+ *
+ * @param cpuBytes the bytes of CPU memory used by resident assets
+ * @param gpuBytes the bytes of GPU memory used by resident assets
+ * @param residentAssets the number of assets holding any memory
+ * @param evictions how many times assets were evicted
+ * @param reloads how many times evicted assets were read again
+ */
+data class ResidencyStats(
+    val cpuBytes: Long, val gpuBytes: Long, val residentAssets: Int, val evictions: Long, val reloads: Long
+) {
+    override fun toString(): String {
+        return "CPU: %.1f MB, GPU: %.1f MB, Resident: %d, Evictions: %d, Reloads: %d".format(
+            cpuBytes.toFloat() / ResidencyManager.BYTES_PER_MB, gpuBytes.toFloat() / ResidencyManager.BYTES_PER_MB,
+            residentAssets, evictions, reloads
+        )
+    }
+}
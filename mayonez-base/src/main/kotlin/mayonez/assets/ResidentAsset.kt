@@ -0,0 +1,27 @@
+package mayonez.assets
+
+/**
+ * An asset whose contents take up a large amount of memory and can be
+ * dropped while the asset is not in use, such as a texture's image. An
+ * evicted asset reads its contents again the next time it is accessed.
+ * Resident assets report their memory use to the [ResidencyManager].
+ *
+ * @author SlavSquatSuperstar
+ */
+interface ResidentAsset {
+
+    /** The bytes of CPU memory held by this asset's contents. */
+    val residentCpuBytes: Long
+
+    /** The bytes of GPU memory held by this asset's contents. */
+    val residentGpuBytes: Long
+
+    /**
+     * Drop this asset's contents to free memory. The contents should be read
+     * again the next time they are accessed.
+     *
+     * @return if any contents were dropped
+     */
+    fun evict(): Boolean
+
+}
@@ -18,6 +18,12 @@ object Defaults {
     private const val SCREEN_HEIGHT: Int = 600
     private const val FPS: Int = 60
     private const val FRAME_SKIP: Boolean = true
+    private const val RETAINED_RENDERING: Boolean = false
+    private const val INSTANCED_RENDERING: Boolean = false
+    private const val PIPELINED_RENDERING: Boolean = false
+    private const val TEXTURE_ATLAS: Boolean = false
+    private const val IMAGE_MEMORY_MB: Int = 0 // No limit
+    private const val TEXTURE_MEMORY_MB: Int = 0 // No limit
 
     val preferences: Record = Record()
 
@@ -31,6 +37,12 @@ object Defaults {
         preferences["screen_height"] = SCREEN_HEIGHT
         preferences["fps"] = FPS
         preferences["frame_skip"] = FRAME_SKIP
+        preferences["retained_rendering"] = RETAINED_RENDERING
+        preferences["instanced_rendering"] = INSTANCED_RENDERING
+        preferences["pipelined_rendering"] = PIPELINED_RENDERING
+        preferences["texture_atlas"] = TEXTURE_ATLAS
+        preferences["image_memory_mb"] = IMAGE_MEMORY_MB
+        preferences["texture_memory_mb"] = TEXTURE_MEMORY_MB
 
         // Logging
         preferences["log_level"] = LoggerConfig.DEFAULT_LOG_LEVEL
@@ -9,9 +9,17 @@ package mayonez.config
 data class RunConfig(
     /** Whether to use the LWJGL engine. */
     internal val useGL: Boolean,
+    /**
+     * Whether to render the AWT engine to an offscreen image instead of a
+     * window, and update the scene as fast as possible.
+     */
+    internal val headless: Boolean = DEFAULT_HEADLESS,
+    /** How many frames to run in headless mode before stopping, or 0 to run until stopped. */
+    internal val maxFrames: Int = 0,
 ) {
     companion object {
         const val DEFAULT_USE_GL: Boolean = true
+        const val DEFAULT_HEADLESS: Boolean = false
         val DEFAULT_CONFIG: RunConfig = RunConfig(DEFAULT_USE_GL)
     }
 }
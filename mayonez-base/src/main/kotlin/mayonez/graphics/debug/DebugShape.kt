@@ -8,7 +8,7 @@ import mayonez.renderer.gl.*
 import java.awt.*
 
 private const val MAX_BATCH_LINES: Int = 500
-private const val MAX_BATCH_TRIANGLES: Int = 1000
+internal const val MAX_BATCH_TRIANGLES: Int = 1000
 
 /**
  * Passes shape and color information to a [mayonez.renderer.DebugRenderer].
@@ -41,6 +41,16 @@ internal data class DebugShape(internal val shape: MShape, internal val brush: S
         if (fill) g2.fill(awtShape) else g2.draw(awtShape)
     }
 
+    /**
+     * Convert this shape to AWT so it can be drawn on another thread.
+     *
+     * @return the draw command, or null if the shape cannot be drawn
+     */
+    internal fun snapshot(): JDrawCommand? {
+        val awtShape = shape.toAWTShape() ?: return null
+        return JShapeCommand(awtShape, color.toAWT(), BasicStroke(strokeSize), fill)
+    }
+
     // GL Renderer Methods
 
     /**
@@ -89,6 +99,17 @@ internal data class DebugShape(internal val shape: MShape, internal val brush: S
 
     override fun isInUI(): Boolean = false
 
+    override fun getWorldBounds(bounds: FloatArray): Boolean {
+        val box = shape.boundingRectangle()
+        val min = box.min()
+        val max = box.max()
+        bounds[0] = min.x
+        bounds[1] = min.y
+        bounds[2] = max.x
+        bounds[3] = max.y
+        return true
+    }
+
     override fun toString(): String {
         return "Debug ${shape.javaClass.simpleName}, $brush"
     }
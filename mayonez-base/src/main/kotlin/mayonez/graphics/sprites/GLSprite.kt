@@ -51,6 +51,7 @@ internal class GLSprite private constructor(
 
     override fun setTexture(texture: Texture?) {
         this.texture = texture as? GLTexture
+        onTextureChanged()
     }
 
     override fun copy(): GLSprite = GLSprite(texture, color)
@@ -60,7 +61,7 @@ internal class GLSprite private constructor(
     override fun getVertexPositions(): Array<out Vec2?>? {
         // Render sprite at object center and rotate according to object
         // Background sprite will not have scale but will use spriteXf instead
-        val objXf = transform.combine(getSpriteTransform())
+        val objXf = renderTransform.combine(getSpriteTransform())
         return Rectangle(objXf.position, objXf.scale, objXf.rotation).vertices
     }
 
@@ -1,6 +1,8 @@
 package mayonez.graphics.sprites
 
+import mayonez.*
 import mayonez.graphics.*
+import mayonez.graphics.debug.*
 import mayonez.graphics.textures.*
 import mayonez.math.shapes.Rectangle
 import mayonez.renderer.awt.*
@@ -34,30 +36,52 @@ internal class JSprite private constructor(
 
     // Sprite Properties
 
-    override val imageWidth: Int = texture?.imageData?.width ?: 0
+    override val imageWidth: Int = texture?.width ?: 0
 
-    override val imageHeight: Int = texture?.imageData?.height ?: 0
+    override val imageHeight: Int = texture?.height ?: 0
 
     // Sprite Methods
 
     override fun render(g2: Graphics2D) {
+        val objXf = renderTransform
         if (texture != null) {
-            texture!!.draw(g2, transform, getSpriteTransform(), color)
+            texture!!.draw(g2, objXf, getSpriteTransform(), color)
         } else {
-            scene.debugDraw.fillShape(
-                Rectangle(transform.position, transform.scale), color
-            )
+            getColorShape(objXf).render(g2)
         }
     }
 
+    /**
+     * Copy this sprite's texture, transform, and color so it can be drawn on
+     * another thread.
+     *
+     * @return the draw command, or null if the sprite cannot be drawn
+     */
+    internal fun snapshot(): JDrawCommand? {
+        val objXf = renderTransform
+        val texture = this.texture
+        return if (texture != null) JSpriteCommand(texture, objXf.combine(getSpriteTransform()), color)
+        else getColorShape(objXf).snapshot()
+    }
+
+    private fun getColorShape(objXf: Transform): DebugShape {
+        return DebugShape(Rectangle(objXf.position, objXf.scale), ShapeBrush.createSolidBrush(color))
+    }
+
+    override fun getWorldBounds(bounds: FloatArray): Boolean {
+        if (texture != null) return super<Sprite>.getWorldBounds(bounds)
+        val objXf = renderTransform // Colors are drawn without the sprite transform
+        return setBoxBounds(bounds, objXf.position, objXf.scale, 0f)
+    }
+
     // Sprite Color Methods
 
     override fun getColor(): MColor = color
 
     /**
-     * Set the color of this sprite, or recolors the current texture. This
-     * method should be used sparingly, since it creates a new image in memory
-     * per draw call.
+     * Set the color of this sprite, or recolors the current texture. Each
+     * recolored image is kept in the [JTexture.getTintCache], so a texture
+     * drawn with many different colors may still create new images.
      *
      * @param color the color
      */
@@ -74,6 +98,7 @@ internal class JSprite private constructor(
     override fun setTexture(texture: Texture?) {
         if (texture is JTexture) {
             this.texture = texture
+            onTextureChanged()
         }
     }
 
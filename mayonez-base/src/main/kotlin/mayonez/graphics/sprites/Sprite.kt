@@ -1,14 +1,20 @@
 package mayonez.graphics.sprites
 
 import mayonez.*
+import mayonez.assets.*
 import mayonez.graphics.*
 import mayonez.graphics.textures.*
+import mayonez.math.*
 import mayonez.renderer.*
+import kotlin.math.*
 
 /**
  * Draws a [Texture] at a [GameObject]'s position. To instantiate a sprite,
  * use [Sprites.createSprite]. See [Texture] for more information.
  *
+ * While in a scene, a sprite holds a reference to its texture in the
+ * [ResidencyManager], so the texture's image is not evicted.
+ *
  * @author SlavSquatSuperstar
  */
 sealed class Sprite : Component(UpdateOrder.RENDER), Renderable {
@@ -21,6 +27,39 @@ sealed class Sprite : Component(UpdateOrder.RENDER), Renderable {
     // Sprite Properties
 
     private var spriteXf: Transform? = null
+    private var heldTexture: Texture? = null // Referenced in the residency manager
+    private var inScene: Boolean = false
+
+    // Component Methods
+
+    override fun start() {
+        super.start()
+        inScene = true
+        holdTexture(getTexture())
+    }
+
+    override fun onDestroy() {
+        inScene = false
+        holdTexture(null)
+        super.onDestroy()
+    }
+
+    /**
+     * Update the texture reference held by this sprite. Should be called by
+     * subclasses whenever the texture changes.
+     */
+    protected fun onTextureChanged() {
+        if (inScene) holdTexture(getTexture())
+    }
+
+    private fun holdTexture(texture: Texture?) {
+        // Sprite sheet textures share their parent's image
+        val rootTexture = texture?.parentTexture ?: texture
+        if (rootTexture === heldTexture) return
+        heldTexture?.let { Assets.residency.release(it) }
+        rootTexture?.let { Assets.residency.acquire(it) }
+        heldTexture = rootTexture
+    }
 
     /**
      * Get the width of this sprite's stored texture in pixels.
@@ -90,6 +129,34 @@ sealed class Sprite : Component(UpdateOrder.RENDER), Renderable {
 
     final override fun isInUI(): Boolean = false
 
+    override fun getWorldBounds(bounds: FloatArray): Boolean {
+        val spriteXf = getSpriteTransform()
+        val xf = if (spriteXf == null) renderTransform else renderTransform.combine(spriteXf)
+        return setBoxBounds(bounds, xf.position, xf.scale, xf.rotation)
+    }
+
+    /**
+     * Store the bounds of a rotated box drawn by this sprite.
+     *
+     * @param bounds the array to store the bounds in
+     * @param center the center of the box
+     * @param size the width and height of the box
+     * @param rotation the box's rotation in degrees
+     * @return true
+     */
+    protected fun setBoxBounds(bounds: FloatArray, center: Vec2, size: Vec2, rotation: Float): Boolean {
+        val angle = MathUtils.toRadians(rotation)
+        val absCos = abs(cos(angle))
+        val absSin = abs(sin(angle))
+        val halfWidth = 0.5f * (absCos * abs(size.x) + absSin * abs(size.y))
+        val halfHeight = 0.5f * (absSin * abs(size.x) + absCos * abs(size.y))
+        bounds[0] = center.x - halfWidth
+        bounds[1] = center.y - halfHeight
+        bounds[2] = center.x + halfWidth
+        bounds[3] = center.y + halfHeight
+        return true
+    }
+
     // Copy Methods
 
     /**
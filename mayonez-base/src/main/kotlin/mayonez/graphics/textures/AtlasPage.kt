@@ -0,0 +1,120 @@
+package mayonez.graphics.textures
+
+import mayonez.math.*
+import mayonez.math.shapes.*
+import org.lwjgl.BufferUtils
+import java.nio.ByteBuffer
+
+/** The number of bytes in each atlas pixel. */
+private const val RGBA_CHANNELS: Int = 4
+
+/**
+ * One image in a [TextureAtlas] that many smaller images are copied into.
+ * Pixels are stored as RGBA bytes with the bottom row first, like images
+ * read by STB, so they can be uploaded to OpenGL directly.
+ *
+ * Each image is surrounded by a border of padding pixels copied from its
+ * edges, so filtering or rounding near the edge of an image never samples
+ * its neighbors.
+ *
+ * @param width the page width in pixels
+ * @param height the page height in pixels
+ * @param padding the border around each image in pixels
+ * @author SlavSquatSuperstar
+ */
+internal class AtlasPage(val width: Int, val height: Int, val padding: Int) {
+
+    private val packer: SkylinePacker = SkylinePacker(width, height)
+
+    /** The RGBA pixels of the page, bottom row first. */
+    val pixels: ByteBuffer = BufferUtils.createByteBuffer(width * height * RGBA_CHANNELS)
+
+    /** How many images have been copied to this page. */
+    var numImages: Int = 0
+        private set
+
+    /** The fraction of the page covered by images and their padding, from 0 to 1. */
+    val occupancy: Float
+        get() = packer.occupancy
+
+    /**
+     * Copy an image into the page if there is room.
+     *
+     * @param image the image pixels, bottom row first
+     * @param imageWidth the image width
+     * @param imageHeight the image height
+     * @param channels 3 for RGB or 4 for RGBA pixels
+     * @return where the image was placed, or null if the page is full
+     */
+    fun add(image: ByteBuffer, imageWidth: Int, imageHeight: Int, channels: Int): AtlasRegion? {
+        val pos = packer.insert(imageWidth + 2 * padding, imageHeight + 2 * padding) ?: return null
+        val x = pos[0] + padding
+        val y = pos[1] + padding
+        copyImage(image, imageWidth, imageHeight, channels, x, y)
+        numImages++
+        return AtlasRegion(x, y, imageWidth, imageHeight, width, height)
+    }
+
+    /** Copy the image and extend its edge pixels into the padding. */
+    private fun copyImage(image: ByteBuffer, imageWidth: Int, imageHeight: Int, channels: Int, x: Int, y: Int) {
+        for (dy in -padding..<imageHeight + padding) {
+            val srcY = dy.coerceIn(0, imageHeight - 1)
+            for (dx in -padding..<imageWidth + padding) {
+                val srcX = dx.coerceIn(0, imageWidth - 1)
+                val src = (srcY * imageWidth + srcX) * channels
+                val dst = ((y + dy) * width + (x + dx)) * RGBA_CHANNELS
+                pixels.put(dst, image.get(src))
+                pixels.put(dst + 1, image.get(src + 1))
+                pixels.put(dst + 2, image.get(src + 2))
+                pixels.put(dst + 3, if (channels == RGBA_CHANNELS) image.get(src + 3) else OPAQUE)
+            }
+        }
+    }
+
+    private companion object {
+        private const val OPAQUE: Byte = 0xFF.toByte()
+    }
+
+}
+
+/**
+ * Where an image was placed on a [TextureAtlas] page, in pixels.
+ *
+ * @param x the left edge of the image
+ * @param y the bottom edge of the image
+ * @param width the image width
+ * @param height the image height
+ * @param pageWidth the width of the atlas page
+ * @param pageHeight the height of the atlas page
+ * @author SlavSquatSuperstar
+ */
+data class AtlasRegion(
+    val x: Int, val y: Int, val width: Int, val height: Int,
+    val pageWidth: Int, val pageHeight: Int
+) {
+
+    /** The bottom left corner of the region in texture coordinates. */
+    val texCoordMin: Vec2
+        get() = Vec2(x.toFloat() / pageWidth, y.toFloat() / pageHeight)
+
+    /** The top right corner of the region in texture coordinates. */
+    val texCoordMax: Vec2
+        get() = Vec2((x + width).toFloat() / pageWidth, (y + height).toFloat() / pageHeight)
+
+    /**
+     * Convert texture coordinates on the original image to coordinates on the
+     * atlas page.
+     *
+     * @param texCoords the coordinates on the image, from 0 to 1
+     * @return the coordinates on the page
+     */
+    fun remap(texCoords: Array<out Vec2>): Array<Vec2> {
+        val min = texCoordMin
+        val size = texCoordMax - min
+        return Array(texCoords.size) { min + texCoords[it] * size }
+    }
+
+    /** The texture coordinates of the whole region. */
+    fun getTexCoords(): Array<Vec2> = Rectangle.rectangleVerticesMinMax(texCoordMin, texCoordMax)
+
+}
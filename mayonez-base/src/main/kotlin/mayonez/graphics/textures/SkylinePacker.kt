@@ -0,0 +1,125 @@
+package mayonez.graphics.textures
+
+/**
+ * Packs rectangles into a fixed-size bin by tracking the skyline, or the
+ * top edge of all the rectangles placed so far. Each rectangle is placed
+ * where its top edge would be lowest, which keeps the packed area compact.
+ *
+ * Sources:
+ * - [Jukka Jylänki, A Thousand Ways to Pack the
+ *   Bin](https://github.com/juj/RectangleBinPack/blob/master/RectangleBinPack.pdf)
+ *
+ * @param width the width of the bin
+ * @param height the height of the bin
+ * @author SlavSquatSuperstar
+ */
+internal class SkylinePacker(val width: Int, val height: Int) {
+
+    // Each segment covers [x, x + width) at height y, from left to right
+    private val segmentX: MutableList<Int> = arrayListOf(0)
+    private val segmentY: MutableList<Int> = arrayListOf(0)
+    private val segmentWidth: MutableList<Int> = arrayListOf(width)
+
+    /** The total area of all rectangles packed so far. */
+    var usedArea: Long = 0L
+        private set
+
+    /** The fraction of the bin covered by rectangles, from 0 to 1. */
+    val occupancy: Float
+        get() = usedArea.toFloat() / (width.toLong() * height)
+
+    /**
+     * Find a place for a rectangle and add it to the skyline.
+     *
+     * @param rectWidth the rectangle width
+     * @param rectHeight the rectangle height
+     * @return the rectangle's bottom left corner as (x, y), or null if it does not fit
+     */
+    fun insert(rectWidth: Int, rectHeight: Int): IntArray? {
+        if (rectWidth <= 0 || rectHeight <= 0) return null
+
+        var bestIndex = -1
+        var bestTop = Int.MAX_VALUE
+        var bestWidth = Int.MAX_VALUE
+        var bestY = 0
+        for (i in segmentX.indices) {
+            val y = fitHeight(i, rectWidth, rectHeight)
+            if (y < 0) continue
+            val top = y + rectHeight
+            // Prefer the lowest top, then the narrowest segment
+            if (top < bestTop || (top == bestTop && segmentWidth[i] < bestWidth)) {
+                bestIndex = i
+                bestTop = top
+                bestWidth = segmentWidth[i]
+                bestY = y
+            }
+        }
+        if (bestIndex < 0) return null
+
+        val x = segmentX[bestIndex]
+        addSegment(bestIndex, x, bestTop, rectWidth)
+        usedArea += rectWidth.toLong() * rectHeight
+        return intArrayOf(x, bestY)
+    }
+
+    /**
+     * Get the lowest y where a rectangle starting at a segment rests on the
+     * skyline, or -1 if it goes past the bin's edge.
+     */
+    private fun fitHeight(index: Int, rectWidth: Int, rectHeight: Int): Int {
+        val x = segmentX[index]
+        if (x + rectWidth > width) return -1
+
+        var y = 0
+        var remaining = rectWidth
+        var i = index
+        while (remaining > 0) {
+            y = maxOf(y, segmentY[i])
+            if (y + rectHeight > height) return -1
+            remaining -= segmentWidth[i]
+            i++
+        }
+        return y
+    }
+
+    /** Add a segment on top of a placed rectangle and shrink the segments it covers. */
+    private fun addSegment(index: Int, x: Int, y: Int, segWidth: Int) {
+        segmentX.add(index, x)
+        segmentY.add(index, y)
+        segmentWidth.add(index, segWidth)
+
+        val right = x + segWidth
+        val i = index + 1
+        while (i < segmentX.size && segmentX[i] < right) {
+            val segRight = segmentX[i] + segmentWidth[i]
+            if (segRight <= right) {
+                removeSegment(i) // Covered completely
+            } else {
+                segmentWidth[i] = segRight - right // Covered partly
+                segmentX[i] = right
+                break
+            }
+        }
+        mergeSegments()
+    }
+
+    /** Join neighboring segments at the same height. */
+    private fun mergeSegments() {
+        var i = 0
+        while (i < segmentX.size - 1) {
+            if (segmentY[i] == segmentY[i + 1]) {
+                segmentWidth[i] += segmentWidth[i + 1]
+                removeSegment(i + 1)
+            } else {
+                i++
+            }
+        }
+    }
+
+    private fun removeSegment(index: Int) {
+        segmentX.removeAt(index)
+        segmentY.removeAt(index)
+        segmentWidth.removeAt(index)
+    }
+
+}
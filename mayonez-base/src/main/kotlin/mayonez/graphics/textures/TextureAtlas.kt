@@ -0,0 +1,237 @@
+package mayonez.graphics.textures
+
+import mayonez.*
+import mayonez.assets.*
+import mayonez.assets.image.*
+import mayonez.graphics.*
+import org.lwjgl.opengl.GL11.GL_NEAREST
+import org.lwjgl.opengl.GL11.GL_NONE
+import org.lwjgl.opengl.GL11.GL_RGBA
+import org.lwjgl.opengl.GL11.GL_TEXTURE_2D
+import org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER
+import org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER
+import org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S
+import org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T
+import org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE
+import org.lwjgl.opengl.GL11.glBindTexture
+import org.lwjgl.opengl.GL11.glDeleteTextures
+import org.lwjgl.opengl.GL11.glGenTextures
+import org.lwjgl.opengl.GL11.glTexImage2D
+import org.lwjgl.opengl.GL11.glTexParameteri
+import org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE
+import java.io.IOException
+import java.util.*
+import kotlin.math.*
+
+/**
+ * Packs many [GLTexture]s into a few large textures, so sprites with
+ * different textures can be drawn in the same render batch instead of
+ * being split up whenever a batch runs out of texture slots.
+ *
+ * Each texture's image is copied onto an atlas page and the texture is
+ * moved to its region on the page. Sprite sheet frames and font glyphs are
+ * portions of a parent texture, so packing the parent moves all of them.
+ * Textures that are too large for a page are left alone. Atlas pages do not
+ * repeat, so textures drawn with coordinates outside 0-1 should not be
+ * packed.
+ *
+ * Atlases must be created at load time with [TextureAtlas.create], before
+ * any of their textures are drawn. Render batches and texture arrays keep
+ * the texture IDs they were given, so a texture that was already drawn
+ * cannot be moved. With the "texture_atlas" preference, each scene packs
+ * the loaded textures that have not been drawn yet when it starts.
+ *
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.GL)
+class TextureAtlas private constructor(
+    private val pages: List<AtlasPage>,
+    private val pageTexIDs: IntArray,
+    /** The textures that were moved onto the atlas. */
+    val textures: List<GLTexture>
+) {
+
+    /** How many pages the atlas has. */
+    val numPages: Int
+        get() = pages.size
+
+    /**
+     * The fraction of a page covered by images and their padding.
+     *
+     * @param page the page index
+     * @return the occupancy, from 0 to 1
+     */
+    fun getOccupancy(page: Int): Float = pages[page].occupancy
+
+    /**
+     * The fewest batches needed to draw one sprite of every packed texture,
+     * before and after packing.
+     *
+     * @param maxTextureSlots how many textures each batch can hold
+     * @return the batch counts before and after
+     */
+    fun getMinBatches(maxTextureSlots: Int): Pair<Int, Int> {
+        val slots = maxTextureSlots.coerceAtLeast(1)
+        val before = ceil(textures.size.toFloat() / slots).toInt()
+        val after = ceil(pages.size.toFloat() / slots).toInt()
+        return Pair(before, after)
+    }
+
+    /**
+     * Describe the atlas's pages and how many fewer batches it needs.
+     *
+     * @param maxTextureSlots how many textures each batch can hold
+     * @return the report
+     */
+    @JvmOverloads
+    fun getReport(maxTextureSlots: Int = DEFAULT_TEXTURE_SLOTS): String {
+        val (before, after) = getMinBatches(maxTextureSlots)
+        val pageReports = pages.mapIndexed { i, page ->
+            "Page %d: %dx%d, %d images, %.1f%% full".format(
+                i, page.width, page.height, page.numImages, page.occupancy * 100f
+            )
+        }
+        return (listOf("Texture Atlas: ${textures.size} textures on ${pages.size} pages, " +
+                "min batches $before -> $after") + pageReports).joinToString("\n")
+    }
+
+    /** Delete the atlas pages from the GPU. Packed textures cannot be drawn afterward. */
+    fun free() {
+        if (!GLHelper.isGLInitialized()) return
+        for (texID in pageTexIDs) {
+            if (texID != GL_NONE) glDeleteTextures(texID)
+        }
+    }
+
+    override fun toString(): String = getReport()
+
+    companion object {
+        /** The default width and height of each page in pixels. */
+        const val DEFAULT_PAGE_SIZE: Int = 2048
+
+        /** The default border around each image in pixels. */
+        const val DEFAULT_PADDING: Int = 2
+
+        private const val DEFAULT_TEXTURE_SLOTS: Int = 8
+
+        private val packedAtlases: MutableList<TextureAtlas> = ArrayList() // created by packLoadedTextures
+
+        /**
+         * Pack textures onto as few pages as possible. Sprite sheet textures
+         * pack their parent texture, and textures already on an atlas are
+         * skipped.
+         *
+         * @param textures the textures to pack
+         * @param pageSize the width and height of each page in pixels
+         * @param padding the border around each image in pixels
+         * @return the atlas
+         * @throws IllegalStateException if any of the textures were already drawn
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun create(
+            textures: Collection<GLTexture>,
+            pageSize: Int = DEFAULT_PAGE_SIZE,
+            padding: Int = DEFAULT_PADDING
+        ): TextureAtlas {
+            // Get the textures that own their images
+            val seen = Collections.newSetFromMap(IdentityHashMap<GLTexture, Boolean>())
+            val parents = textures.map { if (it is GLSpriteSheetTexture) it.parentTexture else it }
+                .filter { it.atlasRegion == null && seen.add(it) }
+            val drawn = parents.firstOrNull { it.isTexIDUsed }
+            check(drawn == null) { "Cannot move texture ${drawn?.filename} onto an atlas after it was drawn" }
+
+            // Pack tallest images first
+            val images = parents.mapNotNull { tex -> readImage(tex)?.let { Pair(tex, it) } }
+                .sortedWith(compareByDescending<Pair<GLTexture, STBImageData>> { it.second.height }
+                    .thenByDescending { it.second.width })
+
+            val pages = ArrayList<AtlasPage>()
+            val placed = ArrayList<Pair<GLTexture, Pair<Int, AtlasRegion>>>()
+            for ((tex, image) in images) {
+                val placement = addToPages(pages, image, pageSize, padding)
+                if (placement != null) placed.add(Pair(tex, placement))
+                else Logger.debug("Texture %s is too large for the atlas", tex.filename)
+                image.freeImage()
+            }
+
+            // Upload pages and move textures
+            val pageTexIDs = IntArray(pages.size) { uploadPage(pages[it]) }
+            for ((tex, placement) in placed) {
+                val (page, region) = placement
+                tex.moveToAtlas(pageTexIDs[page], region)
+            }
+
+            val atlas = TextureAtlas(pages, pageTexIDs, placed.map { it.first })
+            Logger.debug("%s", atlas.getReport())
+            return atlas
+        }
+
+        /**
+         * Pack all loaded textures that are not on an atlas and have not been
+         * drawn yet. Called when a scene starts if the "texture_atlas"
+         * preference is set. The atlas is kept until [freePackedAtlases] is
+         * called, since the loaded textures still draw from its pages.
+         *
+         * @return the atlas, or null if there were no textures to pack
+         */
+        @JvmStatic
+        fun packLoadedTextures(): TextureAtlas? {
+            val textures = Assets.getAssets(GLTexture::class.java)
+                .map { if (it is GLSpriteSheetTexture) it.parentTexture else it } // Parents keep the texture IDs
+                .filter { it.atlasRegion == null && !it.isTexIDUsed && it.imageData != null }
+            if (textures.isEmpty()) return null
+            return create(textures).also { packedAtlases.add(it) }
+        }
+
+        /**
+         * Delete the pages of every atlas created by [packLoadedTextures].
+         * Called when the loaded textures are cleared.
+         */
+        @JvmStatic
+        internal fun freePackedAtlases() {
+            packedAtlases.forEach(TextureAtlas::free)
+            packedAtlases.clear()
+        }
+
+        private fun readImage(texture: GLTexture): STBImageData? {
+            // Textures free their pixels once uploaded, so read the file again
+            return try {
+                STBImageData(texture.filename)
+            } catch (e: IOException) {
+                Logger.error("Could not read image %s for the atlas", texture.filename)
+                null
+            }
+        }
+
+        /** Add the image to the first page with room, or to a new page. */
+        private fun addToPages(
+            pages: MutableList<AtlasPage>, image: STBImageData, pageSize: Int, padding: Int
+        ): Pair<Int, AtlasRegion>? {
+            for ((i, page) in pages.withIndex()) {
+                val region = page.add(image.buffer, image.width, image.height, image.channels)
+                if (region != null) return Pair(i, region)
+            }
+            val newPage = AtlasPage(pageSize, pageSize, padding)
+            val region = newPage.add(image.buffer, image.width, image.height, image.channels) ?: return null
+            pages.add(newPage)
+            return Pair(pages.size - 1, region)
+        }
+
+        private fun uploadPage(page: AtlasPage): Int {
+            if (!GLHelper.isGLInitialized()) return GL_NONE
+            val texID = glGenTextures()
+            glBindTexture(GL_TEXTURE_2D, texID)
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE)
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE)
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST)
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST)
+            glTexImage2D(
+                GL_TEXTURE_2D, 0, GL_RGBA, page.width, page.height,
+                0, GL_RGBA, GL_UNSIGNED_BYTE, page.pixels
+            )
+            return texID
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package mayonez.headless
+
+import mayonez.*
+import mayonez.application.*
+import mayonez.config.*
+import java.awt.image.*
+
+/**
+ * Renders a scene offscreen for a number of frames and times each one,
+ * without opening a window. The scene is updated by one fixed time step per
+ * frame, so the same frames are drawn on every run of a deterministic scene.
+ *
+ * Usage: Call [FrameHarness.configure] before creating any scenes, since
+ * scenes choose their renderer when they are created. Then create the
+ * harness, pass any frames to capture, and call [run].
+ *
+ * @author SlavSquatSuperstar
+ */
+class FrameHarness {
+
+    private val window: HeadlessWindow = Mayonez.window as? HeadlessWindow
+        ?: throw IllegalStateException("Call FrameHarness.configure() before creating the harness")
+
+    /** The width of each frame in pixels. */
+    val width: Int
+        get() = window.width
+
+    /** The height of each frame in pixels. */
+    val height: Int
+        get() = window.height
+
+    /**
+     * Run a scene and time each frame, including updating and drawing the
+     * scene. The scene is stopped afterward.
+     *
+     * @param scene the scene to run
+     * @param numFrames how many frames to time
+     * @param warmupFrames how many frames to run before timing
+     * @param captureFrames the timed frames to copy and pass to [onCapture], starting at 0
+     * @param onCapture receives each captured frame
+     * @return the frame times
+     */
+    @JvmOverloads
+    fun run(
+        scene: Scene, numFrames: Int, warmupFrames: Int = 0,
+        captureFrames: Set<Int> = emptySet(),
+        onCapture: FrameCapture = FrameCapture { _, _ -> }
+    ): FrameTimes {
+        val dt = Time.getTimeStepSecs()
+        val nanos = LongArray(numFrames)
+
+        window.start()
+        SceneManager.setScene(scene)
+        for (i in -warmupFrames..<numFrames) {
+            val start = System.nanoTime()
+            window.beginFrame()
+            SceneManager.updateScene(dt)
+            window.endFrame()
+            window.render()
+            val elapsed = System.nanoTime() - start
+
+            if (i < 0) continue
+            nanos[i] = elapsed
+            if (i in captureFrames) onCapture.onCapture(i, window.frame)
+        }
+        SceneManager.stopScene()
+        window.stop()
+
+        val times = FrameTimes(nanos)
+        Logger.debug("Scene \"%s\": %s", scene.name, times)
+        return times
+    }
+
+    companion object {
+        /**
+         * Set up the engine to draw offscreen with AWT. Must be called
+         * before creating any scenes and instead of starting the game with
+         * a [Launcher].
+         */
+        @JvmStatic
+        fun configure() {
+            Mayonez.setConfig(RunConfig(useGL = false, headless = true))
+        }
+    }
+
+}
+
+/**
+ * Receives frames copied during a [FrameHarness] run.
+ *
+ * @author SlavSquatSuperstar
+ */
+fun interface FrameCapture {
+    /**
+     * Receive a captured frame.
+     *
+     * @param frame the index of the timed frame, starting at 0
+     * @param image a copy of the frame
+     */
+    fun onCapture(frame: Int, image: BufferedImage)
+}
@@ -0,0 +1,51 @@
+package mayonez.headless
+
+import kotlin.math.*
+
+/**
+ * The time taken by each frame of a headless run.
+ *
+ * @param nanos the duration of each frame in nanoseconds
+ * @author SlavSquatSuperstar
+ */
+class FrameTimes(nanos: LongArray) {
+
+    private val sorted: LongArray = nanos.sortedArray()
+
+    /** How many frames were timed. */
+    val numFrames: Int
+        get() = sorted.size
+
+    /** The average frame time in milliseconds. */
+    val meanMillis: Double
+        get() = if (sorted.isEmpty()) 0.0 else sorted.average() / NANOS_PER_MILLI
+
+    /** The longest frame time in milliseconds. */
+    val maxMillis: Double
+        get() = if (sorted.isEmpty()) 0.0 else sorted.last() / NANOS_PER_MILLI
+
+    /**
+     * The frame time that the given percent of frames finished within, using
+     * the nearest-rank method.
+     *
+     * @param percent the percentile, from 0 to 100
+     * @return the frame time in milliseconds
+     */
+    fun percentileMillis(percent: Double): Double {
+        if (sorted.isEmpty()) return 0.0
+        val rank = ceil(percent.coerceIn(0.0, 100.0) / 100.0 * sorted.size).toInt()
+        return sorted[(rank - 1).coerceIn(0, sorted.size - 1)] / NANOS_PER_MILLI
+    }
+
+    override fun toString(): String {
+        return "Frame Times (%d frames): mean %.3f ms, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms".format(
+            numFrames, meanMillis, percentileMillis(50.0), percentileMillis(90.0),
+            percentileMillis(99.0), maxMillis
+        )
+    }
+
+    private companion object {
+        private const val NANOS_PER_MILLI: Double = 1e6
+    }
+
+}
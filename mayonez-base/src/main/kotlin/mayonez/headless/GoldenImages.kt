@@ -0,0 +1,143 @@
+package mayonez.headless
+
+import java.awt.image.*
+import java.io.File
+import java.io.IOException
+import javax.imageio.ImageIO
+import kotlin.math.*
+
+/**
+ * How much a rendered frame differs from its expected image.
+ *
+ * @param mismatchedPixels how many pixels differ by more than the tolerance
+ * @param totalPixels the number of pixels in the image
+ * @param maxChannelDiff the largest difference of any color channel, from 0 to 255
+ * @author SlavSquatSuperstar
+ */
+data class ImageDiff(val mismatchedPixels: Int, val totalPixels: Int, val maxChannelDiff: Int) {
+
+    /** The fraction of pixels that differ, from 0 to 1. */
+    val mismatchedFraction: Float
+        get() = if (totalPixels == 0) 0f else mismatchedPixels.toFloat() / totalPixels
+
+    override fun toString(): String {
+        return "%d/%d pixels differ (%.2f%%), max channel difference %d".format(
+            mismatchedPixels, totalPixels, mismatchedFraction * 100f, maxChannelDiff
+        )
+    }
+
+    companion object {
+        /**
+         * Compare two images pixel by pixel. Images with different sizes
+         * count every pixel as different.
+         *
+         * @param expected the expected image
+         * @param actual the rendered image
+         * @param channelTolerance how much each color channel may differ, from 0 to 255
+         * @return the difference
+         */
+        @JvmStatic
+        fun compare(expected: BufferedImage, actual: BufferedImage, channelTolerance: Int): ImageDiff {
+            val total = actual.width * actual.height
+            if (expected.width != actual.width || expected.height != actual.height) {
+                return ImageDiff(total, total, MAX_CHANNEL)
+            }
+
+            var mismatched = 0
+            var maxDiff = 0
+            val expectedRow = IntArray(actual.width)
+            val actualRow = IntArray(actual.width)
+            for (y in 0..<actual.height) {
+                expected.getRGB(0, y, actual.width, 1, expectedRow, 0, actual.width)
+                actual.getRGB(0, y, actual.width, 1, actualRow, 0, actual.width)
+                for (x in 0..<actual.width) {
+                    val diff = channelDiff(expectedRow[x], actualRow[x])
+                    if (diff > channelTolerance) mismatched++
+                    maxDiff = max(maxDiff, diff)
+                }
+            }
+            return ImageDiff(mismatched, total, maxDiff)
+        }
+
+        /** The largest difference between the RGB channels of two pixels. */
+        private fun channelDiff(rgb1: Int, rgb2: Int): Int {
+            var diff = 0
+            for (shift in intArrayOf(0, 8, 16)) {
+                val c1 = (rgb1 shr shift) and MAX_CHANNEL
+                val c2 = (rgb2 shr shift) and MAX_CHANNEL
+                diff = max(diff, abs(c1 - c2))
+            }
+            return diff
+        }
+
+        private const val MAX_CHANNEL: Int = 0xFF
+    }
+
+}
+
+/**
+ * A folder of expected frames stored as PNG images, used to check that
+ * rendering output has not changed. A frame without an expected image fails
+ * the check, unless the expected images are being updated.
+ *
+ * @param directory the folder containing the images
+ * @param channelTolerance how much each color channel may differ, from 0 to 255
+ * @param maxMismatchedFraction the fraction of pixels that may differ, from 0 to 1
+ * @author SlavSquatSuperstar
+ */
+class GoldenImages @JvmOverloads constructor(
+    private val directory: File,
+    private val channelTolerance: Int = DEFAULT_CHANNEL_TOLERANCE,
+    private val maxMismatchedFraction: Float = DEFAULT_MISMATCHED_FRACTION
+) {
+
+    /**
+     * The result of checking one frame.
+     *
+     * @param name the image name
+     * @param diff the difference, or null if the frame was not compared
+     * @param passed whether the frame matched its expected image, or was recorded
+     */
+    data class Result(val name: String, val diff: ImageDiff?, val passed: Boolean) {
+        override fun toString(): String {
+            return when {
+                diff != null -> "$name: ${if (passed) "passed" else "FAILED"}, $diff"
+                passed -> "$name: recorded"
+                else -> "$name: FAILED, no expected image"
+            }
+        }
+    }
+
+    /**
+     * Compare a frame to its expected image, or save the frame as the new
+     * expected image. Fails if there is no expected image and it is not
+     * being updated.
+     *
+     * @param name the image name, without the extension
+     * @param frame the rendered frame
+     * @param update whether to save the frame as the expected image instead of comparing
+     * @return the result
+     * @throws IOException if the image could not be read or written
+     */
+    @JvmOverloads
+    @Throws(IOException::class)
+    fun check(name: String, frame: BufferedImage, update: Boolean = false): Result {
+        val file = File(directory, "$name.png")
+        if (update) {
+            directory.mkdirs()
+            ImageIO.write(frame, "png", file)
+            return Result(name, null, true)
+        }
+        if (!file.exists()) return Result(name, null, false)
+
+        val expected = ImageIO.read(file) ?: throw IOException("Could not read image ${file.path}")
+        val diff = ImageDiff.compare(expected, frame, channelTolerance)
+        return Result(name, diff, diff.mismatchedFraction <= maxMismatchedFraction)
+    }
+
+    companion object {
+        const val DEFAULT_CHANNEL_TOLERANCE: Int = 8
+        const val DEFAULT_MISMATCHED_FRACTION: Float = 0.001f
+    }
+
+}
@@ -88,15 +88,7 @@ class Angle private constructor(
      */
     @Mutating
     fun rotateDegrees(degrees: Float) {
-        this.set(this + createDegrees(degrees))
-//        val radians = degrees.toRadiansDouble()
-//        val c1 = this.cosD
-//        val s1 = this.sinD
-//        val c2 = cos(radians)
-//        val s2 = sin(radians)
-//        this.radD += radians
-//        this.cosD = c1 * c2 - s1 * s2
-//        this.sinD = s1 * c2 + s2 * c1
+        addRadians(degrees.toRadiansDouble())
     }
 
     /**
@@ -106,14 +98,18 @@ class Angle private constructor(
      */
     @Mutating
     fun rotateRadians(radians: Float) {
-        this.set(this + createRadians(radians))
-//        val c1 = this.cosD
-//        val s1 = this.sinD
-//        val c2 = cos(radians)
-//        val s2 = sin(radians)
-//        this.radD += radians
-//        this.cosD = c1 * c2 - s1 * s2
-//        this.sinD = s1 * c2 + s2 * c1
+        addRadians(radians.toDouble())
+    }
+
+    /** Adds to this angle in place, using the same identities as [plus]. */
+    private fun addRadians(radians: Double) {
+        val c1 = this.cosD
+        val s1 = this.sinD
+        val c2 = cos(radians)
+        val s2 = sin(radians)
+        this.radD += radians
+        this.cosD = c1 * c2 - s1 * s2
+        this.sinD = s1 * c2 + s2 * c1
     }
 
     @Mutating
@@ -319,7 +319,11 @@ object MathUtils {
      * @return if the value is within range
      */
     @JvmStatic
-    fun inRange(value: Float, min: Float, max: Float): Boolean = value in Interval(min, max)
+    fun inRange(value: Float, min: Float, max: Float): Boolean {
+        // Same as value in Interval(min, max), without creating the interval
+        return (min.coerceAtMost(max) - value <= FLOAT_EPSILON)
+                && (value - min.coerceAtLeast(max) <= FLOAT_EPSILON)
+    }
 
     /**
      * Checks whether a number is within a provided range, including the
@@ -67,6 +67,131 @@ class Vec2(
     @Mutating
     fun set(v: Vec2) = set(v.x, v.y)
 
+    // In-Place Arithmetic
+    // These methods modify this vector instead of creating a new one, and
+    // return this vector so they can be chained.
+
+    /**
+     * Adds another vector to this vector in place.
+     *
+     * @param v another 2D vector
+     * @return this vector
+     */
+    @Mutating
+    fun addLocal(v: Vec2): Vec2 {
+        x += v.x
+        y += v.y
+        return this
+    }
+
+    /**
+     * Subtracts another vector from this vector in place.
+     *
+     * @param v another 2D vector
+     * @return this vector
+     */
+    @Mutating
+    fun subLocal(v: Vec2): Vec2 {
+        x -= v.x
+        y -= v.y
+        return this
+    }
+
+    /**
+     * Multiplies both components of this vector by a number in place.
+     *
+     * @param scalar any number
+     * @return this vector
+     */
+    @Mutating
+    fun scaleLocal(scalar: Float): Vec2 {
+        x *= scalar
+        y *= scalar
+        return this
+    }
+
+    /**
+     * Adds another vector multiplied by a number to this vector in place,
+     * equivalent to `this += v * scalar`.
+     *
+     * @param v another 2D vector
+     * @param scalar any number
+     * @return this vector
+     */
+    @Mutating
+    fun addScaledLocal(v: Vec2, scalar: Float): Vec2 {
+        x += v.x * scalar
+        y += v.y * scalar
+        return this
+    }
+
+    /**
+     * Negates this vector in place.
+     *
+     * @return this vector
+     */
+    @Mutating
+    fun negateLocal(): Vec2 {
+        x = -x
+        y = -y
+        return this
+    }
+
+    /**
+     * Rotates this vector counterclockwise by a given angle around the origin
+     * in place.
+     *
+     * @param degrees the angle, in degrees counterclockwise
+     * @return this vector
+     */
+    @Mutating
+    fun rotateLocal(degrees: Float): Vec2 {
+        if (equals(degrees % MAX_ANGLE_DEGREES, 0f)) return this // Trivial
+        val cos = MathUtils.cos(degrees)
+        val sin = MathUtils.sin(degrees)
+        set(x * cos - y * sin, x * sin + y * cos)
+        return this
+    }
+
+    /**
+     * Scales this vector to a length of 1 in place. Does nothing if this vector
+     * is (0, 0).
+     *
+     * @return this vector
+     */
+    @Mutating
+    fun unitLocal(): Vec2 {
+        val lenSq = lenSq()
+        return if (equals(lenSq, 1f) || equals(lenSq, 0f)) this
+        else scaleLocal(1f / sqrt(lenSq))
+    }
+
+    /**
+     * Sets this vector to the sum of two vectors.
+     *
+     * @param v1 the first vector
+     * @param v2 the second vector
+     * @return this vector
+     */
+    @Mutating
+    fun setSum(v1: Vec2, v2: Vec2): Vec2 {
+        set(v1.x + v2.x, v1.y + v2.y)
+        return this
+    }
+
+    /**
+     * Sets this vector to the difference of two vectors.
+     *
+     * @param v1 the first vector
+     * @param v2 the vector to subtract
+     * @return this vector
+     */
+    @Mutating
+    fun setDifference(v1: Vec2, v2: Vec2): Vec2 {
+        set(v1.x - v2.x, v1.y - v2.y)
+        return this
+    }
+
     // Arithmetic Operations
 
     /**
@@ -245,7 +370,11 @@ class Vec2(
      * @param v a 2D vector
      * @return the distance squared
      */
-    fun distanceSq(v: Vec2): Float = (v - this).lenSq()
+    fun distanceSq(v: Vec2): Float {
+        val dx = v.x - this.x
+        val dy = v.y - this.y
+        return (dx * dx) + (dy * dy)
+    }
 
     /**
      * Creates a vector with the same direction as this but with a length
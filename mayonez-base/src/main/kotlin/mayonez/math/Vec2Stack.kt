@@ -0,0 +1,101 @@
+package mayonez.math
+
+/**
+ * A stack of preallocated scratch vectors for storing temporary results in
+ * hot loops without creating new objects. Vectors are borrowed with [push]
+ * and all vectors borrowed after a [mark] are returned together with
+ * [reset]. The stack grows if more vectors are needed, so it stops
+ * allocating once it has warmed up.
+ *
+ * Usage:
+ * ```
+ * val stack = Vec2Stack.get()
+ * val mark = stack.mark()
+ * val temp = stack.push(x, y)
+ * // use temp
+ * stack.reset(mark)
+ * ```
+ *
+ * Scratch vectors must not be stored or returned after being reset. Stacks
+ * are not thread-safe, so each thread should use its own stack from [get].
+ *
+ * @param initialCapacity how many vectors to allocate at first
+ * @author SlavSquatSuperstar
+ */
+class Vec2Stack(initialCapacity: Int) {
+
+    constructor() : this(DEFAULT_CAPACITY)
+
+    private var vectors: Array<Vec2> = Array(initialCapacity.coerceAtLeast(1)) { Vec2() }
+
+    /** The number of vectors currently borrowed from the stack. */
+    var size: Int = 0
+        private set
+
+    // Stack Methods
+
+    /**
+     * Borrow a scratch vector set to (0, 0).
+     *
+     * @return the scratch vector
+     */
+    fun push(): Vec2 = push(0f, 0f)
+
+    /**
+     * Borrow a scratch vector set to the given components.
+     *
+     * @param x the x-component
+     * @param y the y-component
+     * @return the scratch vector
+     */
+    fun push(x: Float, y: Float): Vec2 {
+        if (size == vectors.size) grow()
+        val v = vectors[size++]
+        v.set(x, y)
+        return v
+    }
+
+    /**
+     * Borrow a scratch vector set to another vector's components.
+     *
+     * @param v the vector to copy
+     * @return the scratch vector
+     */
+    fun push(v: Vec2): Vec2 = push(v.x, v.y)
+
+    /**
+     * Record the current top of the stack.
+     *
+     * @return the mark to pass to [reset]
+     */
+    fun mark(): Int = size
+
+    /**
+     * Return all vectors borrowed since the given mark.
+     *
+     * @param mark the value from [mark]
+     */
+    fun reset(mark: Int) {
+        size = mark.coerceIn(0, size)
+    }
+
+    private fun grow() {
+        val oldSize = vectors.size
+        vectors = Array(oldSize * 2) { if (it < oldSize) vectors[it] else Vec2() }
+    }
+
+    companion object {
+        private const val DEFAULT_CAPACITY: Int = 32
+
+        private val threadStacks: ThreadLocal<Vec2Stack> = ThreadLocal.withInitial { Vec2Stack() }
+
+        /**
+         * Get the scratch vector stack for the current thread.
+         *
+         * @return the thread's stack
+         */
+        @JvmStatic
+        fun get(): Vec2Stack = threadStacks.get()
+    }
+
+}
@@ -35,7 +35,19 @@ class Edge(val start: Vec2, val end: Vec2) : Shape() {
      *
      * @return the left unit normal
      */
-    fun unitNormalLeft(): Vec2 = toVector().normal().unit()
+    fun unitNormalLeft(): Vec2 = unitNormalLeft(Vec2())
+
+    /**
+     * Stores the left unit normal vector of this edge in an existing vector
+     * instead of creating a new one.
+     *
+     * @param result the vector to store the normal in
+     * @return the result vector
+     */
+    fun unitNormalLeft(result: Vec2): Vec2 {
+        result.set(-(end.y - start.y), end.x - start.x)
+        return result.unitLocal()
+    }
 
     /**
      * The right unit normal vector of this edge, a vector perpendicular to
@@ -44,7 +56,16 @@ class Edge(val start: Vec2, val end: Vec2) : Shape() {
      *
      * @return the right unit normal
      */
-    fun unitNormalRight(): Vec2 = -toVector().normal().unit()
+    fun unitNormalRight(): Vec2 = unitNormalRight(Vec2())
+
+    /**
+     * Stores the right unit normal vector of this edge in an existing vector
+     * instead of creating a new one.
+     *
+     * @param result the vector to store the normal in
+     * @return the result vector
+     */
+    fun unitNormalRight(result: Vec2): Vec2 = unitNormalLeft(result).negateLocal()
 
     /**
      * The unit normal vector of this edge that points toward a certain
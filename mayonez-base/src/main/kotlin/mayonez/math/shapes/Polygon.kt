@@ -182,9 +182,10 @@ open class Polygon(sort: Boolean, vararg vertices: Vec2) : Shape() {
         if (point in vertices) return true
         // Check if point is "inside" or on each edge
         for (edge in edges) {
-            val vecAB = edge.toVector() // Start to end
-            val vecAP = point - edge.start // Start to point
-            val side = vecAP.cross(vecAB)
+            val start = edge.start
+            val end = edge.end
+            // Cross the start to point vector with the start to end vector
+            val side = (point.x - start.x) * (end.y - start.y) - (end.x - start.x) * (point.y - start.y)
             if (side > 0) return false // Outside of edge
         }
         return true
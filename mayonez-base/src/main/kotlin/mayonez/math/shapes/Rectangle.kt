@@ -84,8 +84,18 @@ open class Rectangle(private val center: Vec2, private val size: Vec2, val angle
     // Rectangle vs Point
 
     override fun contains(point: Vec2): Boolean {
-        return point.rotate(-angle, center)
-            .inRange(center - size * 0.5f, center + size * 0.5f)
+        // Rotate the point into the rectangle's frame using a scratch vector
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+        val localPoint = stack.push(point)
+        if (point != center) localPoint.subLocal(center).rotateLocal(-angle).addLocal(center)
+
+        val halfWidth = width * 0.5f
+        val halfHeight = height * 0.5f
+        val inside = MathUtils.inRange(localPoint.x, center.x - halfWidth, center.x + halfWidth)
+                && MathUtils.inRange(localPoint.y, center.y - halfHeight, center.y + halfHeight)
+        stack.reset(mark)
+        return inside
     }
 
     // Overrides
@@ -0,0 +1,64 @@
+package mayonez.physics
+
+import mayonez.physics.colliders.*
+
+/**
+ * Sends collision events to bodies, either right away or held until
+ * [dispatch] is called. Holding events lets a world stepped on the physics
+ * thread run its bodies' collision callbacks on the game thread instead.
+ *
+ * Events are delivered in the order they were sent. The queue is not
+ * thread-safe, so sending and dispatching must be guarded by the same lock.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class CollisionEventQueue {
+
+    /** Whether events are held until [dispatch] instead of being sent right away. */
+    var deferred: Boolean = false
+
+    private var bodies: MutableList<CollisionBody> = ArrayList()
+    private var events: MutableList<CollisionEvent> = ArrayList()
+    private var sendingBodies: MutableList<CollisionBody> = ArrayList() // swapped while dispatching
+    private var sendingEvents: MutableList<CollisionEvent> = ArrayList()
+
+    /** The number of held events. */
+    val size: Int
+        get() = events.size
+
+    /**
+     * Send an event to a body, or hold it if events are deferred.
+     *
+     * @param body the body receiving the event
+     * @param event the collision event
+     */
+    fun send(body: CollisionBody, event: CollisionEvent) {
+        if (deferred) {
+            bodies.add(body)
+            events.add(event)
+        } else {
+            body.onCollisionEvent(event)
+        }
+    }
+
+    /** Send all held events to their bodies in order. */
+    fun dispatch() {
+        if (events.isEmpty()) return
+        // Swap buffers in case a callback sends more events
+        val toBodies = bodies.also { bodies = sendingBodies; sendingBodies = it }
+        val toSend = events.also { events = sendingEvents; sendingEvents = it }
+        try {
+            for (i in toSend.indices) toBodies[i].onCollisionEvent(toSend[i])
+        } finally {
+            toBodies.clear()
+            toSend.clear()
+        }
+    }
+
+    /** Discard all held events. */
+    fun clear() {
+        bodies.clear()
+        events.clear()
+    }
+
+}
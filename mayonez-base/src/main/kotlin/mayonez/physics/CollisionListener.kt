@@ -4,17 +4,44 @@ import mayonez.math.*
 import mayonez.physics.colliders.*
 import mayonez.physics.manifold.*
 import mayonez.physics.resolution.*
+import kotlin.math.*
 
 /**
  * Detects when collisions start and stop between two
  * [mayonez.physics.colliders.CollisionBody] objects.
  *
+ * @param events the queue to send collision events through, or null to send
+ * them to the bodies directly
  * @author SlavSquatSuperstar
  */
-internal class CollisionListener(val c1: CollisionBody, val c2: CollisionBody) {
+internal class CollisionListener(
+    val c1: CollisionBody, val c2: CollisionBody,
+    private val events: CollisionEventQueue? = null
+) {
+
+    /** The key identifying this pair of bodies, regardless of their order. */
+    val key: Long = getPairKey(c1, c2)
+
     private var colliding: Boolean = false // was colliding last frame
     private var broadphase: Boolean = false // bounding boxes are colliding
     private var trigger: Boolean = false
+    private var solver: CollisionSolver? = null // reused every step
+    private val contacts: Manifold = Manifold() // refilled in the narrowphase every step
+    private var hasContacts: Boolean = false // whether the narrowphase found contacts
+    private var stayEvents: Array<CollisionEvent>? = null // same every step, so reused
+
+    /** The last physics step in which the broadphase reported this pair. */
+    var reportedStep: Int = -1
+
+    /** Whether neither body can move, so the pair does not need to be checked. */
+    val resting: Boolean
+        get() = c1.physicsBody.resting && c2.physicsBody.resting
+
+    /** Wake up any sleeping bodies in this pair. */
+    fun wakeBodies() {
+        c1.physicsBody?.wake()
+        c2.physicsBody?.wake()
+    }
 
     fun checkBroadphase(): Boolean {
         broadphase = Collisions.checkCollision(c1.getMinBounds(), c2.getMinBounds())
@@ -22,14 +49,33 @@ internal class CollisionListener(val c1: CollisionBody, val c2: CollisionBody) {
         return broadphase
     }
 
+    /**
+     * Calculate the contacts between the bodies without sending any events.
+     * Only reads the bodies' cached shapes, so listeners may find their
+     * contacts from different threads at the same time.
+     */
+    fun findContacts() {
+        hasContacts = broadphase && !(c1.trigger && c2.trigger) && c1.getContacts(c2, contacts)
+    }
+
+    /**
+     * Send collision events using the contacts from [findContacts].
+     *
+     * @return the contacts if the collision should be resolved, which are
+     * overwritten by the next call to [findContacts]
+     */
     fun checkNarrowphase(): Manifold? {
         if (!broadphase) return null // don't check if not broadphase
         if (c1.trigger && c2.trigger) return null // don't call or resolve if both are triggers
 
-        val manifold = c1.getContacts(c2)
+        val manifold = if (hasContacts) contacts else null
+        hasContacts = false
         when {
-            (manifold == null) -> stopCollision() // no longer colliding
-            !colliding -> startCollision(manifold.normal) // has not collided before
+            (manifold == null) -> {
+                solver?.clearContacts() // don't warm start next time
+                stopCollision() // no longer colliding
+            }
+            !colliding -> startCollision(Vec2(manifold.normal)) // has not collided before
             else -> continueCollision() // has collided before
         }
 
@@ -37,6 +83,19 @@ internal class CollisionListener(val c1: CollisionBody, val c2: CollisionBody) {
         return if (trigger) null else manifold
     }
 
+    /**
+     * Get the solver for this pair, creating it the first time the bodies
+     * collide, and give it the latest contacts.
+     *
+     * @param manifold the contacts from [checkNarrowphase]
+     * @return the collision solver
+     */
+    fun getSolver(manifold: Manifold): CollisionSolver {
+        val solver = this.solver ?: CollisionSolver(c1, c2).also { this.solver = it }
+        solver.manifold = manifold
+        return solver
+    }
+
     private fun startCollision(direction: Vec2) {
         if (!colliding) {
             colliding = true
@@ -47,7 +106,11 @@ internal class CollisionListener(val c1: CollisionBody, val c2: CollisionBody) {
 
     private fun continueCollision() {
         if (colliding) {
-            sendCollisionEvents(CollisionEventType.STAY)
+            // Stay events have no direction or velocity, so only create them again if trigger changes
+            val events = stayEvents?.takeIf { it[0].trigger == trigger }
+                ?: createCollisionEvents(CollisionEventType.STAY).also { stayEvents = it }
+            c1.send(events[0])
+            c2.send(events[1])
         }
     }
 
@@ -61,13 +124,19 @@ internal class CollisionListener(val c1: CollisionBody, val c2: CollisionBody) {
     private fun sendCollisionEvents(
         type: CollisionEventType, direction: Vec2? = null, velocity: Vec2? = null
     ) {
-        c1.onCollisionEvent(
+        val events = createCollisionEvents(type, direction, velocity)
+        c1.send(events[0])
+        c2.send(events[1])
+    }
+
+    private fun createCollisionEvents(
+        type: CollisionEventType, direction: Vec2? = null, velocity: Vec2? = null
+    ): Array<CollisionEvent> {
+        return arrayOf(
             CollisionEvent(
                 (c2 as Collider).gameObject, trigger, type,
                 direction, velocity
-            )
-        )
-        c2.onCollisionEvent(
+            ),
             CollisionEvent(
                 (c1 as Collider).gameObject, trigger, type,
                 direction?.unaryMinus(), velocity?.unaryMinus()
@@ -75,10 +144,33 @@ internal class CollisionListener(val c1: CollisionBody, val c2: CollisionBody) {
         )
     }
 
-    fun match(col: CollisionBody?): Boolean = (c1 == col) || (c2 == col)
+    private fun CollisionBody.send(event: CollisionEvent) {
+        if (events != null) events.send(this, event)
+        else onCollisionEvent(event)
+    }
+
+    // Object Overrides
+
+    override fun equals(other: Any?): Boolean {
+        return (other is CollisionListener) && (this.key == other.key)
+    }
 
-    fun match(c1: CollisionBody, c2: CollisionBody): Boolean {
-        return (this.c1 == c1 && this.c2 == c2) || (this.c1 == c2 && this.c2 == c1)
+    override fun hashCode(): Int = key.hashCode()
+
+    companion object {
+        /**
+         * Combine the IDs of two bodies into a single key, with the larger ID in
+         * the upper 32 bits, so that the key does not depend on the bodies' order.
+         *
+         * @param c1 the first body
+         * @param c2 the second body
+         * @return the pair key
+         */
+        internal fun getPairKey(c1: CollisionBody, c2: CollisionBody): Long {
+            val minID = min(c1.bodyID, c2.bodyID)
+            val maxID = max(c1.bodyID, c2.bodyID)
+            return (maxID.toLong() shl 32) or (minID.toLong() and 0xFFFFFFFFL)
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package mayonez.physics
+
+import mayonez.physics.colliders.*
+
+/**
+ * Stores the [CollisionListener] for each pair of bodies whose bounding
+ * boxes are overlapping. Pairs can be looked up by their bodies, and single
+ * pairs or all pairs belonging to a body can be removed without searching the
+ * whole table. Bodies with no pairs left are dropped from the table.
+ *
+ * Pairs are iterated in the order they were added. Pairs are stored in an
+ * open-addressing hash table keyed by primitive pair keys, so looking up
+ * and adding pairs every step does not create any objects.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class CollisionPairTable : Iterable<CollisionListener> {
+
+    // Hash table of listeners, probed linearly by pair key
+    private var slots: Array<CollisionListener?> = arrayOfNulls(INITIAL_CAPACITY)
+    private var removed: BooleanArray = BooleanArray(INITIAL_CAPACITY) // emptied slots that lookups probe past
+    private var previous: IntArray = IntArray(INITIAL_CAPACITY) // slot of the pair added before, or NONE
+    private var next: IntArray = IntArray(INITIAL_CAPACITY) // slot of the pair added after, or NONE
+    private var first: Int = NONE // slot of the oldest pair
+    private var last: Int = NONE // slot of the newest pair
+    private var usedSlots: Int = 0 // slots holding a pair or marked as removed
+
+    private val bodyPairs: MutableMap<Int, MutableList<CollisionListener>> = HashMap() // body ID -> listeners
+
+    /** The number of pairs in this table. */
+    var size: Int = 0
+        private set
+
+    // Pair Methods
+
+    /**
+     * Get the listener for the pair of bodies, in any order.
+     *
+     * @param c1 the first body
+     * @param c2 the second body
+     * @return the listener, or null if the pair is not in the table
+     */
+    operator fun get(c1: CollisionBody, c2: CollisionBody): CollisionListener? {
+        val slot = findSlot(CollisionListener.getPairKey(c1, c2))
+        return if (slot == NONE) null else slots[slot]
+    }
+
+    /**
+     * Whether the pair of bodies, in any order, is in the table.
+     *
+     * @param c1 the first body
+     * @param c2 the second body
+     * @return if the table contains the pair
+     */
+    fun contains(c1: CollisionBody, c2: CollisionBody): Boolean {
+        return findSlot(CollisionListener.getPairKey(c1, c2)) != NONE
+    }
+
+    /**
+     * Whether the given listener is the one stored for its pair.
+     *
+     * @param lis the listener
+     * @return if the table contains the listener
+     */
+    operator fun contains(lis: CollisionListener): Boolean {
+        val slot = findSlot(lis.key)
+        return (slot != NONE) && (slots[slot] === lis)
+    }
+
+    /** The number of bodies in at least one pair. */
+    val bodyCount: Int
+        get() = bodyPairs.size
+
+    /**
+     * Get all pairs containing the given body.
+     *
+     * @param body the collision body
+     * @return the body's listeners
+     */
+    fun getPairs(body: CollisionBody): List<CollisionListener> {
+        return bodyPairs[body.bodyID] ?: emptyList()
+    }
+
+    /**
+     * Add a listener to the table if its pair is not already present.
+     *
+     * @param lis the listener
+     * @return if the listener was added
+     */
+    fun add(lis: CollisionListener): Boolean {
+        if (findSlot(lis.key) != NONE) return false
+        insert(lis)
+        bodyPairs.getOrPut(lis.c1.bodyID) { ArrayList() }.add(lis)
+        bodyPairs.getOrPut(lis.c2.bodyID) { ArrayList() }.add(lis)
+        return true
+    }
+
+    /**
+     * Remove all pairs containing the given body, taking time proportional to
+     * the number of pairs the body is in.
+     *
+     * @param body the collision body
+     */
+    fun remove(body: CollisionBody) {
+        val removed = bodyPairs.remove(body.bodyID) ?: return
+        for (lis in removed) {
+            removeSlot(findSlot(lis.key))
+            detachFromBody(lis, if (lis.c1 == body) lis.c2 else lis.c1)
+        }
+    }
+
+    /**
+     * Remove a single pair, taking time proportional to the number of pairs
+     * its bodies are in.
+     *
+     * @param lis the listener
+     * @return if the listener was removed
+     */
+    fun remove(lis: CollisionListener): Boolean {
+        val slot = findSlot(lis.key)
+        if ((slot == NONE) || (slots[slot] != lis)) return false
+        removeSlot(slot)
+        detachFromBody(lis, lis.c1)
+        detachFromBody(lis, lis.c2)
+        return true
+    }
+
+    private fun detachFromBody(lis: CollisionListener, body: CollisionBody) {
+        val listeners = bodyPairs[body.bodyID] ?: return
+        listeners.remove(lis)
+        if (listeners.isEmpty()) bodyPairs.remove(body.bodyID)
+    }
+
+    /** Remove all pairs from the table. */
+    fun clear() {
+        slots.fill(null)
+        removed.fill(false)
+        first = NONE
+        last = NONE
+        usedSlots = 0
+        size = 0
+        bodyPairs.clear()
+    }
+
+    override fun iterator(): Iterator<CollisionListener> {
+        return object : Iterator<CollisionListener> {
+            private var slot = first
+
+            override fun hasNext(): Boolean = slot != NONE
+
+            override fun next(): CollisionListener {
+                if (slot == NONE) throw NoSuchElementException()
+                val lis = slots[slot]!!
+                slot = this@CollisionPairTable.next[slot]
+                return lis
+            }
+        }
+    }
+
+    // Hash Table Methods
+
+    /** Find the slot holding the pair key, or [NONE]. */
+    private fun findSlot(key: Long): Int {
+        val mask = slots.size - 1
+        var slot = hash(key) and mask
+        while (true) {
+            val lis = slots[slot]
+            if (lis == null) {
+                if (!removed[slot]) return NONE // Reached the end of the probe sequence
+            } else if (lis.key == key) {
+                return slot
+            }
+            slot = (slot + 1) and mask
+        }
+    }
+
+    /** Put a listener whose key is not in the table into the first free slot and append it to the order. */
+    private fun insert(lis: CollisionListener) {
+        if ((usedSlots + 1) * 4 > slots.size * 3) resize()
+        val mask = slots.size - 1
+        var slot = hash(lis.key) and mask
+        while (slots[slot] != null) slot = (slot + 1) and mask
+
+        if (removed[slot]) removed[slot] = false
+        else usedSlots++
+        slots[slot] = lis
+        previous[slot] = last
+        next[slot] = NONE
+        if (last == NONE) first = slot else next[last] = slot
+        last = slot
+        size++
+    }
+
+    /** Empty a slot and unlink it from the order. */
+    private fun removeSlot(slot: Int) {
+        if (slot == NONE) return
+        slots[slot] = null
+        removed[slot] = true
+        val prev = previous[slot]
+        val nextSlot = next[slot]
+        if (prev == NONE) first = nextSlot else next[prev] = nextSlot
+        if (nextSlot == NONE) last = prev else previous[nextSlot] = prev
+        size--
+    }
+
+    /** Grow the table if it is at least half full, and reinsert pairs in order to clear removed slots. */
+    private fun resize() {
+        val capacity = if (size * 2 >= slots.size) slots.size * 2 else slots.size
+        val oldSlots = slots
+        val oldNext = next
+        var slot = first
+
+        slots = arrayOfNulls(capacity)
+        removed = BooleanArray(capacity)
+        previous = IntArray(capacity)
+        next = IntArray(capacity)
+        first = NONE
+        last = NONE
+        usedSlots = 0
+        size = 0
+        while (slot != NONE) {
+            insert(oldSlots[slot]!!)
+            slot = oldNext[slot]
+        }
+    }
+
+    private companion object {
+        private const val INITIAL_CAPACITY: Int = 16 // must be a power of two
+        private const val NONE: Int = -1
+
+        /** Mix the bits of a pair key, since the IDs in keys are usually small and close together. */
+        private fun hash(key: Long): Int = ((key * -0x61c8864680b583ebL) ushr 32).toInt()
+    }
+
+}
@@ -1,5 +1,6 @@
 package mayonez.physics
 
+import mayonez.math.*
 import mayonez.math.shapes.*
 import mayonez.physics.detection.*
 import mayonez.physics.manifold.*
@@ -18,24 +19,43 @@ object Collisions {
 
     @JvmStatic
     fun getContacts(shape1: Shape?, shape2: Shape?): Manifold? {
+        val result = Manifold()
+        return if (getContacts(shape1, shape2, result)) result else null
+    }
+
+    /**
+     * Calculates the contacts between two shapes and stores them in an
+     * existing manifold. Does not create any objects when colliding circles
+     * and polygons that prefer SAT.
+     *
+     * @param shape1 the first shape
+     * @param shape2 the second shape
+     * @param result the manifold to fill
+     * @return if the shapes are colliding
+     */
+    @JvmStatic
+    fun getContacts(shape1: Shape?, shape2: Shape?, result: Manifold): Boolean {
         return when {
-            (shape1 == null) || (shape2 == null) -> null
+            (shape1 == null) || (shape2 == null) -> false
             (shape1 is Circle) && (shape2 is Circle) -> {
-                CircleDetector.getContacts(shape1, shape2)
+                CircleDetector.getContacts(shape1, shape2, result)
             }
 
-            else -> {
-                val pen = getPenetration(shape1, shape2)
-                ClippingManifoldSolver().getContacts(shape1, shape2, pen)
+            shape1.isSATPreferred() && shape2.isSATPreferred() -> {
+                val stack = Vec2Stack.get()
+                val mark = stack.mark()
+                val normal = stack.push()
+                val depth = SATDetector.getPenetration(shape1, shape2, normal)
+                val colliding = !depth.isNaN()
+                        && ClippingManifoldSolver.getContacts(shape1, shape2, normal, depth, result)
+                stack.reset(mark)
+                colliding
             }
-        }
-    }
 
-    private fun getPenetration(shape1: Shape, shape2: Shape): Penetration? {
-        return if (shape1.isSATPreferred() && shape2.isSATPreferred()) {
-            SATDetector().getPenetration(shape1, shape2)
-        } else {
-            GJKDetector().getPenetration(shape1, shape2)
+            else -> {
+                val pen = GJKDetector().getPenetration(shape1, shape2)
+                ClippingManifoldSolver.getContacts(shape1, shape2, pen, result)
+            }
         }
     }
 
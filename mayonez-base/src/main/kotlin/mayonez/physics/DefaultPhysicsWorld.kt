@@ -1,9 +1,14 @@
 package mayonez.physics
 
+import mayonez.*
 import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.physics.broadphase.*
 import mayonez.physics.colliders.*
 import mayonez.physics.dynamics.*
+import mayonez.physics.raycast.*
 import mayonez.physics.resolution.*
+import java.util.concurrent.*
 
 /**
  * The default implementation of a [PhysicsWorld].
@@ -20,103 +25,317 @@ class DefaultPhysicsWorld : PhysicsWorld {
 
     // World Properties
     override var gravity: Vec2 = Vec2()
+    override var broadPhase: BroadPhase = SweepAndPruneBroadPhase()
+    override var batchIntegration: Boolean = false
+        set(batchIntegration) {
+            if (batchIntegration == field) return
+            field = batchIntegration
+            if (batchIntegration) bodies.forEach { if (it is Rigidbody) bodyStore.add(it) }
+            else bodyStore.clear() // Give bodies their state back
+        }
+    override var parallelNarrowPhase: Boolean = false
+    override var parallelIslands: Boolean = false
+    override var solverIterations: Int = CollisionSolver.DEFAULT_IMPULSE_ITERATIONS
+        set(solverIterations) {
+            field = solverIterations.coerceAtLeast(1)
+        }
+    override var allowSleep: Boolean = true
+        set(allowSleep) {
+            field = allowSleep
+            if (!allowSleep) bodies.forEach(PhysicsBody::wake)
+        }
+    override var deferCollisionEvents: Boolean
+        get() = events.deferred
+        set(deferCollisionEvents) {
+            events.deferred = deferCollisionEvents
+            if (!deferCollisionEvents) events.dispatch()
+        }
 
     // Bodies and Collisions
     private val bodies: MutableList<PhysicsBody> // physical objects in the world
+    private val bodyStore: RigidbodyStore // packed rigidbodies while batch integrating
     private val colliders: MutableList<CollisionBody> // shapes in the world
-    private val listeners: MutableSet<CollisionListener> // all collision listeners
+    private val listeners: CollisionPairTable // listeners for overlapping pairs
+    private val narrowPhasePairs: MutableList<CollisionListener> // listeners sorted by pair key
+    private val activePairs: MutableList<CollisionListener> // pairs checked in the last step
+    private val restingPairs: MutableSet<CollisionListener> // pairs set aside while their bodies rest
+    private var broadPhaseStep: Int // stamp for pairs reported this step
+    private val wakeFlag: WakeFlag // check resting pairs when a body wakes
+    private val events: CollisionEventQueue // collision events held for the game thread
 
     // TODO use adjacency list?
     private val collisions: MutableList<CollisionSolver> // confirmed narrowphase collisions
+    private val islandGraph: IslandGraph // groups of touching bodies
+    private var bodiesChanged: Boolean // need to update island graph
+    private val queryGrid: QueryGrid // spatial index for raycasts and queries
+    private var collidersChanged: Boolean // need to update query grid
 
     init {
         gravity = Vec2(0f, -PhysicsWorld.GRAVITY_CONSTANT)
         bodies = ArrayList()
+        bodyStore = RigidbodyStore()
         colliders = ArrayList()
-        listeners = HashSet()
+        listeners = CollisionPairTable()
+        narrowPhasePairs = ArrayList()
+        activePairs = ArrayList()
+        restingPairs = LinkedHashSet()
+        broadPhaseStep = 0
+        wakeFlag = WakeFlag()
+        events = CollisionEventQueue()
         collisions = ArrayList()
+        islandGraph = IslandGraph()
+        bodiesChanged = true
+        queryGrid = QueryGrid()
+        collidersChanged = true
     }
 
     // Body Methods
 
+    override val physicsBodies: List<PhysicsBody>
+        get() = bodies
+
     // TODO make sure not adding duplicates
     override fun addCollisionBody(body: CollisionBody?) {
         colliders.add(body ?: return)
+        collidersChanged = true
     }
 
     override fun addPhysicsBody(body: PhysicsBody?) {
         bodies.add(body ?: return)
+        if (batchIntegration && body is Rigidbody) bodyStore.add(body)
+        bodiesChanged = true
     }
 
     override fun removeCollisionBody(body: CollisionBody?) {
         colliders.remove(body ?: return)
-        listeners.removeIf { it.match(body) }
+        for (lis in listeners.getPairs(body)) {
+            lis.wakeBodies() // Wake bodies resting on this one
+            restingPairs.remove(lis)
+        }
+        listeners.remove(body)
+        collidersChanged = true
     }
 
     override fun removePhysicsBody(body: PhysicsBody?) {
         bodies.remove(body ?: return)
+        if (body is Rigidbody) bodyStore.remove(body)
+        body.wake() // Wake the rest of the island
+        bodiesChanged = true
     }
 
     override fun clear() {
         bodies.clear()
+        bodyStore.clear()
         colliders.clear()
         listeners.clear()
+        narrowPhasePairs.clear()
+        activePairs.clear()
+        restingPairs.clear()
+        events.clear()
         collisions.clear()
+        bodiesChanged = true
+        collidersChanged = true
+    }
+
+    override fun sendCollisionEvents() {
+        events.dispatch()
     }
 
     // Game Object Methods
 
+    // Lists are looped over with indices so stepping does not create iterators
     override fun step(dt: Float) {
         // Update bodies
-        bodies.forEach {
-            it.integrateForce(dt, gravity)
-            it.integrateVelocity(dt)
-        }
+        if (batchIntegration) integrateBatched(dt)
+        else for (i in bodies.indices) bodies[i].integrate(dt)
 
         // Detect collisions
-        // TODO Pre-collision optimizations and spatial partitioning
         collisions.clear()
         detectBroadPhase()
         detectNarrowPhase()
 
         // Resolve Collisions
-        collisions.forEach(CollisionSolver::solveCollision)
+        solveIslands()
+        collidersChanged = true // Bodies have moved
+    }
+
+    private fun PhysicsBody.integrate(dt: Float) {
+        integrateForce(dt, gravity)
+        integrateVelocity(dt)
+    }
+
+    /** Integrate rigidbodies in the packed store and any other bodies separately. */
+    private fun integrateBatched(dt: Float) {
+        bodyStore.integrate(dt, gravity)
+        for (i in bodies.indices) {
+            val body = bodies[i]
+            if (body !is Rigidbody) body.integrate(dt)
+        }
     }
 
     // Collision Detection Methods
 
     /**
      * Detect potential collisions between bounding boxes while avoiding
-     * expensive contact calculations.
+     * expensive contact calculations. Only pairs reported by the broadphase
+     * and pairs it stopped reporting since the last step are checked, so
+     * the cost does not grow with the number of sleeping pairs. Pairs whose
+     * bodies are all resting are set aside until one of the bodies wakes up.
      */
     private fun detectBroadPhase() {
-        for (i in colliders.indices) {
-            // Avoid duplicate collisions between two objects and checking against self
-            for (j in i + 1..<colliders.size) {
-                val c1 = colliders[i]
-                val c2 = colliders[j]
-
-                // Reset collision flags
-                c1.collisionResolved = false
-                c2.collisionResolved = false
-
-                if (c1.canCollide(c2)) {
-                    val lis = listeners.find { it.match(c1, c2) }
-                        ?: CollisionListener(c1, c2)
-                    if (lis.checkBroadphase()) listeners.add(lis)
-                }
+        val step = ++broadPhaseStep
+        narrowPhasePairs.clear()
+        broadPhase.findPairs(colliders, reportPair) // Update reported pairs and find new ones
+
+        // Check pairs that are no longer reported
+        for (i in activePairs.indices) {
+            val lis = activePairs[i]
+            if (lis.reportedStep == step || lis !in listeners) continue
+            if (lis.resting) restingPairs.add(lis) // Keep until a body wakes up
+            else keepOrEvict(lis)
+        }
+
+        // Check resting pairs whose bodies woke up but are no longer reported
+        if (wakeFlag.clear()) {
+            val iter = restingPairs.iterator()
+            while (iter.hasNext()) {
+                val lis = iter.next()
+                if (lis.resting) continue
+                iter.remove()
+                if (lis in listeners) keepOrEvict(lis)
             }
         }
+
+        activePairs.clear()
+        for (i in narrowPhasePairs.indices) activePairs.add(narrowPhasePairs[i])
+    }
+
+    /** Stored once so the broadphase callback is not recreated each step. */
+    private val reportPair: (CollisionBody, CollisionBody) -> Unit = { c1, c2 -> onPairReported(c1, c2) }
+
+    private fun onPairReported(c1: CollisionBody, c2: CollisionBody) {
+        if (c1.physicsBody.resting && c2.physicsBody.resting) return // Neither can move
+        val lis = listeners[c1, c2]
+            ?: if (c1.canCollide(c2)) CollisionListener(c1, c2, events) else return
+        lis.reportedStep = broadPhaseStep
+        restingPairs.remove(lis)
+        if (lis.checkBroadphase()) {
+            listeners.add(lis)
+            narrowPhasePairs.add(lis)
+        } else {
+            listeners.remove(lis)
+        }
+    }
+
+    /** Check a pair again if its bounding boxes still overlap, otherwise discard it. */
+    private fun keepOrEvict(lis: CollisionListener) {
+        if (lis.checkBroadphase()) narrowPhasePairs.add(lis)
+        else listeners.remove(lis)
     }
 
-    /** Check broadphase pairs for collisions and calculate contact points. */
+    /**
+     * Check broadphase pairs for collisions and calculate contact points.
+     * Events are sent and collisions are resolved in order of pair key, so
+     * finding contacts in parallel gives the same results. Pairs of sleeping
+     * or static bodies are skipped.
+     */
     private fun detectNarrowPhase() {
-        for (lis in listeners) {
-            val collision = lis.checkNarrowphase() ?: continue // Get contacts
-            val c1 = lis.c1
-            val c2 = lis.c2
-            collisions.add(CollisionSolver(c1, c2, collision)) // Resolve collisions
+        narrowPhasePairs.sortWith(PAIR_KEY_ORDER)
+
+        // Get contacts
+        if (parallelNarrowPhase && narrowPhasePairs.size > MIN_PARALLEL_PAIRS) {
+            colliders.forEach { it.getShape() } // Update shape caches before reading from other threads
+            ForkJoinPool.commonPool().invoke(NarrowPhaseTask(narrowPhasePairs, 0, narrowPhasePairs.size))
+        } else {
+            for (i in narrowPhasePairs.indices) narrowPhasePairs[i].findContacts()
         }
+
+        for (i in narrowPhasePairs.indices) {
+            val lis = narrowPhasePairs[i]
+            val collision = lis.checkNarrowphase() ?: continue // Send events
+            lis.wakeBodies() // Moving body hit a sleeping one
+            collisions.add(lis.getSolver(collision)) // Resolve collisions
+        }
+    }
+
+    // Collision Resolution Methods
+
+    /**
+     * Resolve collisions in each island of touching bodies, then put islands
+     * that have come to rest to sleep. Islands do not share any moving bodies,
+     * so solving them in parallel gives the same results.
+     */
+    private fun solveIslands() {
+        if (bodiesChanged) {
+            islandGraph.setBodies(bodies)
+            bodiesChanged = false
+        }
+        val islands = islandGraph.build(collisions, solverIterations)
+
+        if (parallelIslands && collisions.size > MIN_PARALLEL_SOLVERS) {
+            ForkJoinPool.commonPool().invoke(IslandTask(islands, 0, islands.size))
+        } else {
+            for (i in islands.indices) islands[i].solve()
+        }
+
+        if (allowSleep) {
+            for (i in islands.indices) {
+                islands[i].updateSleep(SLEEP_LINEAR_SPEED, SLEEP_ANGULAR_SPEED, STEPS_TO_SLEEP, wakeFlag)
+            }
+        }
+    }
+
+    // Query Methods
+
+    override fun raycast(ray: Ray, limit: Float, layerMask: Int): RaycastHit? {
+        return getQueryGrid().raycast(ray, limit) { it.isQueryable(layerMask) }
+    }
+
+    override fun raycastAll(ray: Ray, limit: Float, layerMask: Int): List<RaycastHit> {
+        return getQueryGrid().raycastAll(ray, limit) { it.isQueryable(layerMask) }
+    }
+
+    override fun queryAABB(box: BoundingBox, layerMask: Int): List<CollisionBody> {
+        return getQueryGrid().queryBox(box.min(), box.max()) { it.isQueryable(layerMask) }
+    }
+
+    override fun queryPoint(point: Vec2, layerMask: Int): List<CollisionBody> {
+        return getQueryGrid().queryPoint(point) { it.isQueryable(layerMask) }
+    }
+
+    /** Rebuild the query grid if bodies have moved or changed since the last query. */
+    private fun getQueryGrid(): QueryGrid {
+        if (collidersChanged) {
+            queryGrid.build(colliders)
+            collidersChanged = false
+        }
+        return queryGrid
+    }
+
+    /** Whether a query should include this body. */
+    private fun CollisionBody.isQueryable(layerMask: Int): Boolean {
+        if (this is Component && !this.isEnabled) return false
+        val layer = layerIndex
+        return (layer < 0) || ((layerMask ushr layer) and 1) == 1
+    }
+
+    private companion object {
+        /** Check fewer pairs than this on one thread. */
+        private const val MIN_PARALLEL_PAIRS: Int = 64
+
+        /** Solve fewer collisions than this on one thread. */
+        private const val MIN_PARALLEL_SOLVERS: Int = 64
+
+        /** Bodies slower than this may fall asleep, in m/s. */
+        private const val SLEEP_LINEAR_SPEED: Float = 0.05f
+
+        /** Bodies spinning slower than this may fall asleep, in degrees/s. */
+        private const val SLEEP_ANGULAR_SPEED: Float = 2f
+
+        /** How many steps an island must rest before it falls asleep. */
+        private const val STEPS_TO_SLEEP: Int = 30
+
+        private val PAIR_KEY_ORDER: Comparator<CollisionListener> = compareBy { it.key }
     }
 
 }
\ No newline at end of file
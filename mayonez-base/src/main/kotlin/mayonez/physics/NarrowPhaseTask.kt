@@ -0,0 +1,29 @@
+package mayonez.physics
+
+import java.util.concurrent.*
+
+/** The most pairs a task will check before it splits into two tasks. */
+private const val PAIRS_PER_TASK: Int = 32
+
+/**
+ * Finds the contacts for a range of collision pairs, splitting the range
+ * in half across a [ForkJoinPool] until each task has only a few pairs.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class NarrowPhaseTask(
+    private val pairs: List<CollisionListener>,
+    private val start: Int,
+    private val end: Int
+) : RecursiveAction() {
+
+    override fun compute() {
+        if (end - start <= PAIRS_PER_TASK) {
+            for (i in start..<end) pairs[i].findContacts()
+            return
+        }
+        val mid = (start + end) ushr 1
+        invokeAll(NarrowPhaseTask(pairs, start, mid), NarrowPhaseTask(pairs, mid, end))
+    }
+
+}
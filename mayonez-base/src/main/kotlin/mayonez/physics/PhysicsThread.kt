@@ -0,0 +1,242 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.physics.dynamics.*
+import java.util.concurrent.locks.*
+import java.util.function.*
+
+/**
+ * Steps a [PhysicsWorld] at a fixed rate on its own thread, so the
+ * simulation gives the same results at any frame rate and a slow step does
+ * not hold up rendering.
+ *
+ * Game logic that touches bodies must run inside [runLocked] so it never
+ * overlaps with a physics step. Collision events are held while the thread
+ * runs, and the game thread sends them with
+ * [PhysicsWorld.sendCollisionEvents] inside [runLocked], so collision
+ * callbacks never run on the physics thread.
+ *
+ * After each step, the bodies' positions and rotations are copied into a
+ * buffer and published alongside the previous step's buffer. The render
+ * thread calls [interpolate] to draw each body between the last two steps
+ * without waiting for the physics lock.
+ *
+ * Threading: The physics thread only writes the transforms of physics
+ * bodies and the colliders' cached shapes. Renderers, including sprite
+ * culling bounds and retained sprite poses, read objects through
+ * [GameObject.getRenderTransform], which for physics bodies is the
+ * interpolated pose owned by the render thread, never the transform being
+ * stepped. Transforms of other objects are only written by the game thread.
+ * Collider shapes must only be read inside [runLocked].
+ *
+ * Sources:
+ * - [Gaffer on Games, Fix Your Timestep!](https://gafferongames.com/post/fix_your_timestep/)
+ *
+ * @param world the physics world to step
+ * @param stepsPerSecond how many physics steps to run each second
+ * @param canStep whether the world should be stepped right now, such as
+ * when the scene is not paused
+ * @author SlavSquatSuperstar
+ */
+class PhysicsThread(
+    private val world: PhysicsWorld,
+    stepsPerSecond: Int,
+    private val canStep: BooleanSupplier
+) {
+
+    /** The time step of each physics update, in seconds. */
+    val timeStep: Float = 1f / stepsPerSecond.coerceAtLeast(1)
+    private val timeStepNanos: Long = (timeStep * NANOS_PER_SECOND).toLong()
+
+    private val lock: ReentrantLock = ReentrantLock()
+    private var thread: Thread? = null
+
+    @Volatile
+    private var running: Boolean = false
+
+    /** How many steps the world has taken on this thread. */
+    @Volatile
+    var stepCount: Long = 0L
+        private set
+
+    // Double-Buffered Body State
+    private val stateLock: Any = Any() // guards previous, current, and publishTime
+    private var previous: BodyStates = BodyStates()
+    private var current: BodyStates = BodyStates()
+    private var back: BodyStates = BodyStates() // only touched by the physics thread
+    private var publishTimeNanos: Long = 0L
+
+    // Thread Methods
+
+    /** Start stepping the world on a new thread. */
+    fun start() {
+        if (running) return
+        running = true
+        world.deferCollisionEvents = true
+        world.physicsBodies.forEach(::addBody) // Draw at the starting poses until the first step
+        publishTimeNanos = System.nanoTime()
+        thread = Thread(::run, "Physics").apply {
+            isDaemon = true
+            start()
+        }
+    }
+
+    /** Stop stepping the world and wait for the thread to finish. */
+    fun stop() {
+        if (!running) return
+        running = false
+        thread?.let {
+            LockSupport.unpark(it)
+            try {
+                it.join()
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+            }
+        }
+        thread = null
+        world.deferCollisionEvents = false // Send the remaining events
+        world.physicsBodies.forEach { it.asComponent()?.gameObject?.clearRenderPose() }
+    }
+
+    /**
+     * Draw a body added while the thread is running at its current pose until
+     * the next step captures it, so renderers never read its transform while
+     * the physics thread moves it. Must be called inside [runLocked].
+     *
+     * @param body the new physics body
+     */
+    fun addBody(body: PhysicsBody) {
+        val obj = body.asComponent()?.gameObject ?: return
+        val xf = obj.transform
+        obj.setRenderPose(xf.position.x, xf.position.y, xf.rotation)
+    }
+
+    private fun run() {
+        var nextStepNanos = System.nanoTime()
+        while (running) {
+            val now = System.nanoTime()
+            if (now < nextStepNanos) {
+                LockSupport.parkNanos(nextStepNanos - now) // Returns early if stopped
+                continue
+            }
+
+            var stepped = false
+            runLocked {
+                if (canStep.asBoolean) {
+                    world.step(timeStep)
+                    stepCount++
+                    back.capture(world.physicsBodies)
+                    stepped = true
+                }
+            }
+            if (stepped) publish()
+
+            // Skip steps instead of spiraling if a step took too long
+            nextStepNanos = maxOf(nextStepNanos + timeStepNanos, System.nanoTime() - timeStepNanos)
+        }
+    }
+
+    /**
+     * Run an action while no physics step is in progress. Game logic that
+     * reads or changes bodies should run inside this method.
+     *
+     * @param action the action
+     */
+    fun runLocked(action: Runnable) {
+        lock.lock()
+        try {
+            action.run()
+        } finally {
+            lock.unlock()
+        }
+    }
+
+    // Interpolation Methods
+
+    /** Make the back buffer the current state and the current state the previous. */
+    private fun publish() {
+        synchronized(stateLock) {
+            val oldPrevious = previous
+            previous = current
+            current = back
+            back = oldPrevious
+            publishTimeNanos = System.nanoTime()
+        }
+    }
+
+    /**
+     * Set each body's render pose between its last two physics states, based
+     * on how much time has passed since the last step.
+     */
+    fun interpolate() {
+        synchronized(stateLock) {
+            val elapsed = (System.nanoTime() - publishTimeNanos).toFloat() / timeStepNanos
+            current.interpolateFrom(previous, elapsed.coerceIn(0f, 1f))
+        }
+    }
+
+    private companion object {
+        private const val NANOS_PER_SECOND: Float = 1e9f
+    }
+
+}
+
+/** The positions and rotations of all bodies after one physics step. */
+private class BodyStates {
+
+    private var bodies: Array<PhysicsBody?> = arrayOfNulls(0)
+    private var x: FloatArray = FloatArray(0)
+    private var y: FloatArray = FloatArray(0)
+    private var rotation: FloatArray = FloatArray(0)
+    private var size: Int = 0
+
+    fun capture(bodies: List<PhysicsBody>) {
+        if (this.bodies.size < bodies.size) {
+            val capacity = bodies.size * 2
+            this.bodies = arrayOfNulls(capacity)
+            x = FloatArray(capacity)
+            y = FloatArray(capacity)
+            rotation = FloatArray(capacity)
+        }
+        for (i in bodies.indices) {
+            val body = bodies[i]
+            this.bodies[i] = body
+            x[i] = body.position.x
+            y[i] = body.position.y
+            rotation[i] = body.rotation
+        }
+        this.bodies.fill(null, bodies.size, size.coerceAtLeast(bodies.size))
+        size = bodies.size
+    }
+
+    /**
+     * Set the render pose of each body between the previous and this state.
+     * Bodies that were not in the same slot last step are drawn at this
+     * state.
+     */
+    fun interpolateFrom(previous: BodyStates, alpha: Float) {
+        for (i in 0..<size) {
+            val obj = bodies[i]?.asComponent()?.gameObject ?: continue
+            if (i < previous.size && previous.bodies[i] === bodies[i]) {
+                obj.setRenderPose(
+                    lerp(previous.x[i], x[i], alpha),
+                    lerp(previous.y[i], y[i], alpha),
+                    lerpAngle(previous.rotation[i], rotation[i], alpha)
+                )
+            } else {
+                obj.setRenderPose(x[i], y[i], rotation[i])
+            }
+        }
+    }
+
+    private fun lerp(start: Float, end: Float, alpha: Float): Float = start + (end - start) * alpha
+
+    /** Interpolate along the shortest direction around the circle. */
+    private fun lerpAngle(start: Float, end: Float, alpha: Float): Float {
+        val diff = ((end - start) % 360f + 540f) % 360f - 180f
+        return start + diff * alpha
+    }
+
+}
+
+private fun PhysicsBody.asComponent(): Component? = this as? Component
@@ -1,8 +1,12 @@
 package mayonez.physics
 
 import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.physics.broadphase.*
 import mayonez.physics.colliders.*
 import mayonez.physics.dynamics.*
+import mayonez.physics.raycast.*
+import mayonez.util.*
 
 /**
  * A simulation containing bodies that approximate real-world physics.
@@ -24,8 +28,61 @@ interface PhysicsWorld {
     /** The acceleration due to gravity, in m/s/s. */
     var gravity: Vec2
 
+    /**
+     * The algorithm used to find pairs of colliders that may be touching
+     * before calculating contacts.
+     */
+    var broadPhase: BroadPhase
+
+    /**
+     * Whether to integrate rigidbodies together in a
+     * [mayonez.physics.dynamics.RigidbodyStore], which holds their velocities
+     * and forces in packed arrays, instead of one at a time.
+     */
+    var batchIntegration: Boolean
+
+    /**
+     * Whether to find the contacts between colliding pairs on multiple
+     * threads. Collision events and resolution still happen in a fixed order,
+     * so the results do not change.
+     */
+    var parallelNarrowPhase: Boolean
+
+    /**
+     * Whether to resolve collisions in separate groups of touching bodies on
+     * multiple threads. The results do not change.
+     */
+    var parallelIslands: Boolean
+
+    /**
+     * How many times to iterate over the collisions in each step. More
+     * iterations make stacks of bodies more stable but take longer.
+     */
+    var solverIterations: Int
+
+    /**
+     * Whether groups of touching bodies that have come to rest should fall
+     * asleep and stop being simulated until something else touches them.
+     * Moving a sleeping body or setting its velocity also wakes it up.
+     */
+    var allowSleep: Boolean
+
+    /**
+     * Whether collision events found during [step] are held until
+     * [sendCollisionEvents] is called instead of being sent right away. Used
+     * when the world is stepped on its own thread, so collision callbacks
+     * still run on the game thread. Turning this off sends any held events.
+     */
+    var deferCollisionEvents: Boolean
+
+    /** Send any collision events held since the last call to their bodies. */
+    fun sendCollisionEvents()
+
     // Game Object Methods
 
+    /** All the physics bodies in this simulation. */
+    val physicsBodies: List<PhysicsBody>
+
     /**
      * Add a collision body to this simulation.
      *
@@ -57,6 +114,51 @@ interface PhysicsWorld {
     /** Removes all objects and frees any resources from the physics world. */
     fun clear()
 
+    // Query Methods
+
+    /**
+     * Casts a ray into the world and finds the closest collision body it hits.
+     * Bodies are found at their positions after the last step.
+     *
+     * @param ray the ray to cast
+     * @param limit the max length the ray can travel, or 0 for no limit
+     * @param layerMask which scene layers the ray can hit, where bit i is
+     *     set to hit layer i. Bodies without a layer can always be hit.
+     * @return the closest hit, or null if the ray misses
+     */
+    fun raycast(ray: Ray, limit: Float, layerMask: Int = Bitmask.ALL_TRUE): RaycastHit?
+
+    /**
+     * Casts a ray into the world and finds every collision body it hits.
+     * Bodies are found at their positions after the last step.
+     *
+     * @param ray the ray to cast
+     * @param limit the max length the ray can travel, or 0 for no limit
+     * @param layerMask which scene layers the ray can hit
+     * @return the hits, sorted from closest to farthest
+     */
+    fun raycastAll(ray: Ray, limit: Float, layerMask: Int = Bitmask.ALL_TRUE): List<RaycastHit>
+
+    /**
+     * Finds all collision bodies whose bounding boxes overlap a box. Bodies
+     * are found at their positions after the last step.
+     *
+     * @param box the box to search
+     * @param layerMask which scene layers to include
+     * @return the bodies, in the order they were added
+     */
+    fun queryAABB(box: BoundingBox, layerMask: Int = Bitmask.ALL_TRUE): List<CollisionBody>
+
+    /**
+     * Finds all collision bodies whose shapes contain a point. Bodies are
+     * found at their positions after the last step.
+     *
+     * @param point the point
+     * @param layerMask which scene layers to include
+     * @return the bodies, in the order they were added
+     */
+    fun queryPoint(point: Vec2, layerMask: Int = Bitmask.ALL_TRUE): List<CollisionBody>
+
     // Physics Methods
 
     /**
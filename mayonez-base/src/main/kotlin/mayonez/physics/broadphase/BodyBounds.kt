@@ -0,0 +1,66 @@
+package mayonez.physics.broadphase
+
+import mayonez.physics.colliders.*
+
+/**
+ * Stores the bounding box corners of a list of collision bodies in flat
+ * arrays, so each body's bounds are only calculated once per step.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class BodyBounds {
+
+    internal var minX: FloatArray = FloatArray(0)
+        private set
+    internal var minY: FloatArray = FloatArray(0)
+        private set
+    internal var maxX: FloatArray = FloatArray(0)
+        private set
+    internal var maxY: FloatArray = FloatArray(0)
+        private set
+
+    /** The number of bodies stored. */
+    internal var size: Int = 0
+        private set
+
+    /**
+     * Recalculate the bounding boxes of the given bodies.
+     *
+     * @param bodies the collision bodies
+     */
+    internal fun update(bodies: List<CollisionBody>) {
+        size = bodies.size
+        if (minX.size < size) {
+            minX = FloatArray(size)
+            minY = FloatArray(size)
+            maxX = FloatArray(size)
+            maxY = FloatArray(size)
+        }
+
+        for (i in 0..<size) {
+            // Read the center and size to avoid creating corner vectors
+            val box = bodies[i].getMinBounds()
+            val center = box.center()
+            val halfWidth = box.width * 0.5f
+            val halfHeight = box.height * 0.5f
+            minX[i] = center.x - halfWidth
+            minY[i] = center.y - halfHeight
+            maxX[i] = center.x + halfWidth
+            maxY[i] = center.y + halfHeight
+        }
+    }
+
+    /** Whether the bounding boxes of the ith and jth bodies overlap on the x-axis. */
+    internal fun overlapsX(i: Int, j: Int): Boolean {
+        return (minX[i] <= maxX[j]) && (minX[j] <= maxX[i])
+    }
+
+    /** Whether the bounding boxes of the ith and jth bodies overlap on the y-axis. */
+    internal fun overlapsY(i: Int, j: Int): Boolean {
+        return (minY[i] <= maxY[j]) && (minY[j] <= maxY[i])
+    }
+
+    /** Whether the bounding boxes of the ith and jth bodies overlap. */
+    internal fun overlaps(i: Int, j: Int): Boolean = overlapsX(i, j) && overlapsY(i, j)
+
+}
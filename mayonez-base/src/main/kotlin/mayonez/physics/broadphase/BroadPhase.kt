@@ -0,0 +1,23 @@
+package mayonez.physics.broadphase
+
+import mayonez.physics.colliders.*
+
+/**
+ * Finds pairs of collision bodies whose bounding boxes may be overlapping.
+ * Pruning pairs that are too far apart to collide is the first step in
+ * collision detection, before the narrowphase.
+ *
+ * @author SlavSquatSuperstar
+ */
+fun interface BroadPhase {
+    /**
+     * Finds all pairs of bodies whose bounding boxes may be overlapping. Each
+     * pair is reported at most once, and no body is paired with itself. Pairs
+     * that do not overlap may also be reported, but no overlapping pair may
+     * be missed.
+     *
+     * @param bodies the collision bodies in the world
+     * @param callback the action to perform on each candidate pair
+     */
+    fun findPairs(bodies: List<CollisionBody>, callback: (CollisionBody, CollisionBody) -> Unit)
+}
@@ -0,0 +1,23 @@
+package mayonez.physics.broadphase
+
+import mayonez.physics.colliders.*
+
+/**
+ * Reports every pair of bodies in the world without any pruning, taking
+ * O(n^2) time. Serves as a reference implementation for the other broadphase
+ * algorithms.
+ *
+ * @author SlavSquatSuperstar
+ */
+class BruteForceBroadPhase : BroadPhase {
+
+    override fun findPairs(bodies: List<CollisionBody>, callback: (CollisionBody, CollisionBody) -> Unit) {
+        for (i in bodies.indices) {
+            // Avoid duplicate collisions between two objects and checking against self
+            for (j in i + 1..<bodies.size) {
+                callback(bodies[i], bodies[j])
+            }
+        }
+    }
+
+}
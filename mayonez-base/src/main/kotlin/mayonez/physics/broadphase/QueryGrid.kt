@@ -0,0 +1,378 @@
+package mayonez.physics.broadphase
+
+import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.physics.colliders.*
+import mayonez.physics.raycast.*
+import kotlin.math.*
+
+/** Bodies spanning more than this many grid cells are tested by every query. */
+private const val MAX_CELLS_PER_BODY: Int = 64
+
+/** The most grid cells to create per body, so sparse worlds don't use too much memory. */
+private const val MAX_CELLS_PER_BODY_AVG: Int = 4
+
+/**
+ * Divides the bounds of a list of bodies into a uniform grid so raycasts
+ * and area queries only need to test the bodies near them, instead of
+ * every body in the world.
+ *
+ * The grid is stored in flat arrays: the body indices of each cell are
+ * packed one cell after another, and each cell's start index is stored
+ * separately. The cell size is picked from the average size of the bodies.
+ * Very large bodies, such as the ground, are tested by every query instead
+ * of being added to the grid.
+ *
+ * Raycasts walk through the cells along the ray in order and stop once the
+ * next cell is farther than the closest hit.
+ *
+ * Sources:
+ * - Real-Time Collision Detection by Christer Ericson, Ch. 7.1 and 7.4
+ * - [Amanatides and Woo, A Fast Voxel Traversal Algorithm for Ray
+ *   Tracing](http://www.cse.yorku.ca/~amana/research/grid.pdf)
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class QueryGrid {
+
+    private var bodies: List<CollisionBody> = emptyList()
+    private val bounds: BodyBounds = BodyBounds()
+    private val largeBodies: MutableList<Int> = ArrayList() // indices of bodies outside the grid
+
+    // Grid Cells
+    private var cellSize: Float = 1f
+    private var gridMinX: Float = 0f
+    private var gridMinY: Float = 0f
+    private var gridMaxX: Float = 0f
+    private var gridMaxY: Float = 0f
+    private var cellsX: Int = 0
+    private var cellsY: Int = 0
+    private var cellStart: IntArray = IntArray(1) // start of each cell in cellItems, plus the end
+    private var cellItems: IntArray = IntArray(0) // body indices in each cell
+
+    // Query State
+    private var visited: IntArray = IntArray(0) // last query that tested each body
+    private var queryID: Int = 0
+
+    // Build Methods
+
+    /**
+     * Add the given bodies to the grid at their current positions, replacing
+     * the previous bodies.
+     *
+     * @param bodies the collision bodies
+     */
+    fun build(bodies: List<CollisionBody>) {
+        this.bodies = bodies
+        bounds.update(bodies)
+        largeBodies.clear()
+        val size = bounds.size
+        if (visited.size < size) {
+            visited = IntArray(size)
+            queryID = 0
+        }
+
+        cellsX = 0
+        cellsY = 0
+        if (size == 0) return
+
+        // Make cells about twice as large as the average body
+        var totalExtent = 0f
+        for (i in 0..<size) totalExtent += max(bounds.maxX[i] - bounds.minX[i], bounds.maxY[i] - bounds.minY[i])
+        cellSize = max(2f * totalExtent / size, MIN_CELL_SIZE)
+
+        // Find the bounds of all small bodies
+        gridMinX = Float.POSITIVE_INFINITY
+        gridMinY = Float.POSITIVE_INFINITY
+        gridMaxX = Float.NEGATIVE_INFINITY
+        gridMaxY = Float.NEGATIVE_INFINITY
+        for (i in 0..<size) {
+            val cellsWide = (bounds.maxX[i] - bounds.minX[i]) / cellSize + 1f
+            val cellsTall = (bounds.maxY[i] - bounds.minY[i]) / cellSize + 1f
+            if (cellsWide * cellsTall > MAX_CELLS_PER_BODY) {
+                largeBodies.add(i)
+                continue
+            }
+            gridMinX = min(gridMinX, bounds.minX[i])
+            gridMinY = min(gridMinY, bounds.minY[i])
+            gridMaxX = max(gridMaxX, bounds.maxX[i])
+            gridMaxY = max(gridMaxY, bounds.maxY[i])
+        }
+        if (largeBodies.size == size) return // No small bodies
+
+        // Grow cells if bodies are spread far apart
+        val maxCells = size.toLong() * MAX_CELLS_PER_BODY_AVG + 16L
+        while (countCells(gridMaxX - gridMinX) * countCells(gridMaxY - gridMinY) > maxCells) cellSize *= 2f
+        cellsX = countCells(gridMaxX - gridMinX).toInt()
+        cellsY = countCells(gridMaxY - gridMinY).toInt()
+        fillCells()
+    }
+
+    private fun countCells(length: Float): Long = floor(length / cellSize).toLong() + 1L
+
+    /** Count the bodies in each cell, then store each body's index in its cells. */
+    private fun fillCells() {
+        val numCells = cellsX * cellsY
+        if (cellStart.size < numCells + 1) cellStart = IntArray(numCells + 1)
+        cellStart.fill(0, 0, numCells + 1)
+
+        // Count bodies after each cell's start
+        forEachSmallBodyCell { _, cell -> cellStart[cell + 1]++ }
+        for (c in 0..<numCells) cellStart[c + 1] += cellStart[c]
+
+        // Fill each cell from its start
+        val total = cellStart[numCells]
+        if (cellItems.size < total) cellItems = IntArray(total)
+        val next = cellStart.copyOf(numCells)
+        forEachSmallBodyCell { i, cell -> cellItems[next[cell]++] = i }
+    }
+
+    private inline fun forEachSmallBodyCell(action: (Int, Int) -> Unit) {
+        var large = 0
+        for (i in 0..<bounds.size) {
+            if (large < largeBodies.size && largeBodies[large] == i) {
+                large++
+                continue
+            }
+            for (y in cellY(bounds.minY[i])..cellY(bounds.maxY[i])) {
+                for (x in cellX(bounds.minX[i])..cellX(bounds.maxX[i])) action(i, x + y * cellsX)
+            }
+        }
+    }
+
+    private fun cellX(x: Float): Int = floor((x - gridMinX) / cellSize).toInt().coerceIn(0, cellsX - 1)
+
+    private fun cellY(y: Float): Int = floor((y - gridMinY) / cellSize).toInt().coerceIn(0, cellsY - 1)
+
+    // Raycast Methods
+
+    /**
+     * Cast a ray onto the bodies and find the closest hit.
+     *
+     * @param ray the ray to cast
+     * @param limit the max length the ray can travel, or 0 for no limit
+     * @param filter which bodies the ray can hit
+     * @return the closest hit, or null if the ray misses
+     */
+    fun raycast(ray: Ray, limit: Float, filter: (CollisionBody) -> Boolean): RaycastHit? {
+        var closest: RaycastHit? = null
+        var closestDist = if (limit > 0f) limit else Float.POSITIVE_INFINITY
+        traverseRay(ray, closestDist) { i ->
+            val body = bodies[i]
+            if (filter(body) && rayHitsBounds(ray, i, closestDist)) {
+                val info = Raycasts.raycast(body.getShape(), ray, limit)
+                if (info != null && info.distance < closestDist) {
+                    closest = RaycastHit(body, info)
+                    closestDist = info.distance
+                }
+            }
+            closestDist
+        }
+        return closest
+    }
+
+    /**
+     * Cast a ray onto the bodies and find every hit.
+     *
+     * @param ray the ray to cast
+     * @param limit the max length the ray can travel, or 0 for no limit
+     * @param filter which bodies the ray can hit
+     * @return the hits, sorted by distance
+     */
+    fun raycastAll(ray: Ray, limit: Float, filter: (CollisionBody) -> Boolean): List<RaycastHit> {
+        val hits = ArrayList<RaycastHit>()
+        val maxDist = if (limit > 0f) limit else Float.POSITIVE_INFINITY
+        traverseRay(ray, maxDist) { i ->
+            val body = bodies[i]
+            if (filter(body) && rayHitsBounds(ray, i, maxDist)) {
+                val info = Raycasts.raycast(body.getShape(), ray, limit)
+                if (info != null) hits.add(RaycastHit(body, info))
+            }
+            maxDist
+        }
+        hits.sortBy { it.distance }
+        return hits
+    }
+
+    /**
+     * Visit the large bodies, then each body in the cells the ray passes
+     * through, in order along the ray. Stops once the next cell starts past
+     * the distance returned by the last visit.
+     */
+    private inline fun traverseRay(ray: Ray, maxDist: Float, visit: (Int) -> Float) {
+        startQuery()
+        var limit = maxDist
+        for (i in largeBodies) {
+            visited[i] = queryID
+            limit = visit(i)
+        }
+        if (cellsX == 0) return
+
+        val ox = ray.origin.x
+        val oy = ray.origin.y
+        val dx = ray.direction.x
+        val dy = ray.direction.y
+        if (dx == 0f && dy == 0f) return
+
+        // Clip the ray to the grid
+        var tEnter = 0f
+        var tExit = limit
+        if (dx == 0f) {
+            if (ox < gridMinX || ox > gridMaxX) return
+        } else {
+            val t1 = (gridMinX - ox) / dx
+            val t2 = (gridMaxX - ox) / dx
+            tEnter = max(tEnter, min(t1, t2))
+            tExit = min(tExit, max(t1, t2))
+        }
+        if (dy == 0f) {
+            if (oy < gridMinY || oy > gridMaxY) return
+        } else {
+            val t1 = (gridMinY - oy) / dy
+            val t2 = (gridMaxY - oy) / dy
+            tEnter = max(tEnter, min(t1, t2))
+            tExit = min(tExit, max(t1, t2))
+        }
+        if (tEnter > tExit) return
+
+        // Find the first cell and the distance to the next cell on each axis
+        var x = cellX(ox + dx * tEnter)
+        var y = cellY(oy + dy * tEnter)
+        val stepX = if (dx > 0f) 1 else -1
+        val stepY = if (dy > 0f) 1 else -1
+        val deltaX = if (dx == 0f) Float.POSITIVE_INFINITY else cellSize / abs(dx)
+        val deltaY = if (dy == 0f) Float.POSITIVE_INFINITY else cellSize / abs(dy)
+        var nextX = if (dx == 0f) Float.POSITIVE_INFINITY
+        else (gridMinX + (x + max(stepX, 0)) * cellSize - ox) / dx
+        var nextY = if (dy == 0f) Float.POSITIVE_INFINITY
+        else (gridMinY + (y + max(stepY, 0)) * cellSize - oy) / dy
+
+        var tCell = tEnter
+        while (tCell <= min(limit, tExit)) {
+            val cell = x + y * cellsX
+            for (k in cellStart[cell]..<cellStart[cell + 1]) {
+                val i = cellItems[k]
+                if (visited[i] == queryID) continue
+                visited[i] = queryID
+                limit = visit(i)
+            }
+
+            // Step to the closer cell boundary
+            if (nextX < nextY) {
+                x += stepX
+                if (x !in 0..<cellsX) break
+                tCell = nextX
+                nextX += deltaX
+            } else {
+                y += stepY
+                if (y !in 0..<cellsY) break
+                tCell = nextY
+                nextY += deltaY
+            }
+        }
+    }
+
+    /** Whether the ray passes through a body's bounding box before the given distance. */
+    private fun rayHitsBounds(ray: Ray, i: Int, maxDist: Float): Boolean {
+        var tEnter = 0f
+        var tExit = maxDist
+        val ox = ray.origin.x
+        val oy = ray.origin.y
+        val dx = ray.direction.x
+        val dy = ray.direction.y
+        if (dx == 0f) {
+            if (ox < bounds.minX[i] || ox > bounds.maxX[i]) return false
+        } else {
+            val t1 = (bounds.minX[i] - ox) / dx
+            val t2 = (bounds.maxX[i] - ox) / dx
+            tEnter = max(tEnter, min(t1, t2))
+            tExit = min(tExit, max(t1, t2))
+        }
+        if (dy == 0f) {
+            if (oy < bounds.minY[i] || oy > bounds.maxY[i]) return false
+        } else {
+            val t1 = (bounds.minY[i] - oy) / dy
+            val t2 = (bounds.maxY[i] - oy) / dy
+            tEnter = max(tEnter, min(t1, t2))
+            tExit = min(tExit, max(t1, t2))
+        }
+        return tEnter <= tExit
+    }
+
+    // Area Query Methods
+
+    /**
+     * Find all bodies whose bounding boxes overlap a box.
+     *
+     * @param min the bottom left corner of the box
+     * @param max the top right corner of the box
+     * @param filter which bodies to include
+     * @return the bodies, in the order they were added
+     */
+    fun queryBox(min: Vec2, max: Vec2, filter: (CollisionBody) -> Boolean): List<CollisionBody> {
+        return queryRange(min.x, min.y, max.x, max.y) { i -> filter(bodies[i]) }
+    }
+
+    /**
+     * Find all bodies whose shapes contain a point.
+     *
+     * @param point the point
+     * @param filter which bodies to include
+     * @return the bodies, in the order they were added
+     */
+    fun queryPoint(point: Vec2, filter: (CollisionBody) -> Boolean): List<CollisionBody> {
+        return queryRange(point.x, point.y, point.x, point.y) { i ->
+            val body = bodies[i]
+            filter(body) && (point in body.getShape())
+        }
+    }
+
+    /** Find the bodies whose bounds overlap a range and pass the test. */
+    private inline fun queryRange(
+        minX: Float, minY: Float, maxX: Float, maxY: Float, test: (Int) -> Boolean
+    ): List<CollisionBody> {
+        startQuery()
+        val found = ArrayList<Int>()
+        for (i in largeBodies) {
+            visited[i] = queryID
+            if (boundsOverlap(i, minX, minY, maxX, maxY) && test(i)) found.add(i)
+        }
+
+        val inGrid = (cellsX > 0) && (minX <= gridMaxX) && (maxX >= gridMinX)
+                && (minY <= gridMaxY) && (maxY >= gridMinY)
+        if (inGrid) {
+            for (y in cellY(minY)..cellY(maxY)) {
+                for (x in cellX(minX)..cellX(maxX)) {
+                    val cell = x + y * cellsX
+                    for (k in cellStart[cell]..<cellStart[cell + 1]) {
+                        val i = cellItems[k]
+                        if (visited[i] == queryID) continue
+                        visited[i] = queryID
+                        if (boundsOverlap(i, minX, minY, maxX, maxY) && test(i)) found.add(i)
+                    }
+                }
+            }
+        }
+
+        found.sort()
+        return found.map { bodies[it] }
+    }
+
+    private fun boundsOverlap(i: Int, minX: Float, minY: Float, maxX: Float, maxY: Float): Boolean {
+        return (bounds.minX[i] <= maxX) && (minX <= bounds.maxX[i])
+                && (bounds.minY[i] <= maxY) && (minY <= bounds.maxY[i])
+    }
+
+    /** Start a new query so each body is only tested once. */
+    private fun startQuery() {
+        if (++queryID == Int.MAX_VALUE) {
+            visited.fill(0)
+            queryID = 1
+        }
+    }
+
+    private companion object {
+        private const val MIN_CELL_SIZE: Float = 0.0001f
+    }
+
+}
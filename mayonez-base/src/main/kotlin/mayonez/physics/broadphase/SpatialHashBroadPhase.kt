@@ -0,0 +1,103 @@
+package mayonez.physics.broadphase
+
+import mayonez.physics.colliders.*
+import kotlin.math.*
+
+/** Bodies spanning more than this many grid cells are checked against all bodies. */
+private const val MAX_CELLS_PER_BODY: Int = 64
+
+/**
+ * Divides the world into a uniform grid of square cells and only pairs
+ * bodies that share a cell. Cells are stored in a hash map, so the grid has
+ * no bounds and empty cells use no memory.
+ *
+ * Works best when bodies are similar in size and the cell size is slightly
+ * larger than a typical body. Very large bodies, such as the ground, are
+ * tested against every other body instead of being added to the grid.
+ *
+ * Source: Real-Time Collision Detection by Christer Ericson, Ch. 7.1
+ *
+ * @param cellSize the width and height of each grid cell, in world units
+ * @author SlavSquatSuperstar
+ */
+class SpatialHashBroadPhase(cellSize: Float) : BroadPhase {
+
+    private val cellSize: Float = cellSize.coerceAtLeast(0.0001f)
+    private val bounds: BodyBounds = BodyBounds()
+    private val cells: MutableMap<Long, MutableList<Int>> = HashMap() // indices of bodies in each cell
+    private val largeBodies: MutableList<Int> = ArrayList() // indices of bodies outside the grid
+    private var isLarge: BooleanArray = BooleanArray(0)
+
+    override fun findPairs(bodies: List<CollisionBody>, callback: (CollisionBody, CollisionBody) -> Unit) {
+        bounds.update(bodies)
+        clearCells()
+        insertBodies()
+
+        // Check bodies sharing each cell
+        for ((key, cell) in cells) {
+            for (a in cell.indices) {
+                for (b in a + 1..<cell.size) {
+                    val i = cell[a]
+                    val j = cell[b]
+                    // Only report the pair in the cell with the lower corner of the overlap
+                    if (bounds.overlaps(i, j) && getOverlapCell(i, j) == key) {
+                        callback(bodies[i], bodies[j])
+                    }
+                }
+            }
+        }
+
+        // Check large bodies against all others
+        for (i in largeBodies) {
+            for (j in bodies.indices) {
+                if (i == j || (isLarge[j] && j < i)) continue // Avoid checking large pairs twice
+                if (bounds.overlaps(i, j)) callback(bodies[i], bodies[j])
+            }
+        }
+    }
+
+    /** Reuse the previous step's cells, and remove cells that were empty. */
+    private fun clearCells() {
+        cells.values.removeIf { it.isEmpty() }
+        cells.values.forEach { it.clear() }
+        largeBodies.clear()
+        if (isLarge.size < bounds.size) isLarge = BooleanArray(bounds.size)
+        isLarge.fill(false)
+    }
+
+    private fun insertBodies() {
+        for (i in 0..<bounds.size) {
+            val minCellX = toCell(bounds.minX[i])
+            val minCellY = toCell(bounds.minY[i])
+            val maxCellX = toCell(bounds.maxX[i])
+            val maxCellY = toCell(bounds.maxY[i])
+
+            val numCells = (maxCellX - minCellX + 1L) * (maxCellY - minCellY + 1L)
+            if (numCells > MAX_CELLS_PER_BODY) {
+                largeBodies.add(i)
+                isLarge[i] = true
+                continue
+            }
+
+            for (x in minCellX..maxCellX) {
+                for (y in minCellY..maxCellY) {
+                    cells.getOrPut(getKey(x, y)) { ArrayList() }.add(i)
+                }
+            }
+        }
+    }
+
+    /** Get the key of the cell containing the bottom left corner of two bodies' overlap. */
+    private fun getOverlapCell(i: Int, j: Int): Long {
+        val overlapMinX = max(bounds.minX[i], bounds.minX[j])
+        val overlapMinY = max(bounds.minY[i], bounds.minY[j])
+        return getKey(toCell(overlapMinX), toCell(overlapMinY))
+    }
+
+    private fun toCell(coord: Float): Int = floor(coord / cellSize).toInt()
+
+    private fun getKey(cellX: Int, cellY: Int): Long {
+        return (cellX.toLong() shl 32) or (cellY.toLong() and 0xFFFFFFFFL)
+    }
+
+}
@@ -0,0 +1,53 @@
+package mayonez.physics.broadphase
+
+import mayonez.physics.colliders.*
+
+/**
+ * Sorts bodies by the left edge of their bounding boxes, then sweeps along
+ * the x-axis and only pairs bodies whose x-intervals overlap. The sort order
+ * is kept between steps, so the insertion sort runs in close to O(n) time
+ * when bodies move small distances each frame.
+ *
+ * Works best when bodies are spread out horizontally.
+ *
+ * Source: [Wikipedia](https://en.wikipedia.org/wiki/Sweep_and_prune)
+ *
+ * @author SlavSquatSuperstar
+ */
+class SweepAndPruneBroadPhase : BroadPhase {
+
+    private val bounds: BodyBounds = BodyBounds()
+    private var order: IntArray = IntArray(0) // body indices sorted by min x
+
+    override fun findPairs(bodies: List<CollisionBody>, callback: (CollisionBody, CollisionBody) -> Unit) {
+        bounds.update(bodies)
+        val size = bodies.size
+        if (order.size != size) order = IntArray(size) { it } // Bodies were added or removed
+        sortByMinX()
+
+        // Sweep along x-axis
+        for (a in 0..<size) {
+            val i = order[a]
+            for (b in a + 1..<size) {
+                val j = order[b]
+                if (bounds.minX[j] > bounds.maxX[i]) break // No more bodies overlap on x
+                if (bounds.overlapsY(i, j)) callback(bodies[i], bodies[j])
+            }
+        }
+    }
+
+    /** Insertion sort the body indices, which are mostly sorted from last step. */
+    private fun sortByMinX() {
+        val minX = bounds.minX
+        for (a in 1..<order.size) {
+            val i = order[a]
+            var b = a - 1
+            while (b >= 0 && minX[order[b]] > minX[i]) {
+                order[b + 1] = order[b]
+                b--
+            }
+            order[b + 1] = i
+        }
+    }
+
+}
@@ -15,12 +15,12 @@ open class BallCollider(val size: Vec2) : Collider(Ellipse(Vec2(), size)) {
     /** Constructs a circle with the given radius (not diameter)q */
     constructor(radius: Float) : this(Vec2(radius * 2f))
 
-    override fun getMinBounds(): BoundingBox {
-        return getShape().boundingCircle().boundingRectangle() // max is quicker than trig
+    override fun calculateBounds(worldShape: Shape): BoundingBox {
+        return worldShape.boundingCircle().boundingRectangle() // max is quicker than trig
     }
 
-    override fun getShape(): Shape { // use circle when possible
-        val worldShape = super.getShape()
+    override fun transformShape(): Shape { // use circle when possible
+        val worldShape = super.transformShape()
         return if (worldShape is Ellipse && worldShape.isCircle) worldShape.boundingCircle()
         else worldShape
     }
@@ -7,12 +7,19 @@ import mayonez.math.shapes.*
 import mayonez.physics.*
 import mayonez.physics.dynamics.*
 import mayonez.physics.manifold.*
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * A shape centered around the object's position
  * that detects collisions. Colliders require a
  * [mayonez.physics.dynamics.Rigidbody] to respond to collisions properly.
  *
+ * The world shape and bounding box are cached and only recalculated after
+ * the object's transform changes. To change how they are calculated while
+ * keeping the cache, override [transformShape] and [calculateBounds].
+ * Overriding [getShape] or [getMinBounds] directly replaces the cached
+ * value entirely.
+ *
  * @param shape the shape object that stores the vertices and the shape's
  *     properties
  * @constructor Constructs a collider from a [Shape] object
@@ -21,6 +28,8 @@ import mayonez.physics.manifold.*
 abstract class Collider(private val shape: Shape) :
     Component(UpdateOrder.COLLISION), CollisionBody {
 
+    final override val bodyID: Int = colliderCounter.getAndIncrement()
+
     // Collision Event Fields
 
     private var collisionCallbacks: EventSystem<CollisionEvent> = EventSystem()
@@ -46,11 +55,8 @@ abstract class Collider(private val shape: Shape) :
         return this
     }
 
-    /**
-     * Whether the position or velocity of this collider has been modified in
-     * this frame.
-     */
-    override var collisionResolved: Boolean = false
+    override val layerIndex: Int
+        get() = gameObject?.layer?.index ?: -1
 
     // Game Loop Methods
 
@@ -62,6 +68,21 @@ abstract class Collider(private val shape: Shape) :
         collisionCallbacks.unsubscribeAll()
     }
 
+    // World Shape Cache
+
+    private var worldShape: Shape? = null // local shape transformed into world space
+    private var worldBounds: BoundingBox? = null // bounding box of world shape
+    private var scaledShape: Shape? = null // local shape scaled to world size
+    private var unitAngMass: Float = Float.NaN // angular mass of scaled shape per unit mass
+
+    // Transform values the cached shapes were built with
+    private var cachedTransform: Transform? = null
+    private var cachedX: Float = 0f
+    private var cachedY: Float = 0f
+    private var cachedRotation: Float = 0f
+    private var cachedScaleX: Float = 0f
+    private var cachedScaleY: Float = 0f
+
     // Shape Properties
 
     // TODO convert to property
@@ -69,23 +90,95 @@ abstract class Collider(private val shape: Shape) :
 
     open fun getRotation(): Float = transform!!.rotation
 
-    override fun getMinBounds(): BoundingBox = getShape().boundingRectangle()
+    override fun getMinBounds(): BoundingBox {
+        updateShapeCache()
+        return worldBounds ?: calculateBounds(getShape()).also { worldBounds = it }
+    }
 
     override fun getMass(density: Float): Float {
-        return shape.scale(transform!!.scale).mass(density)
+        return getScaledShape().mass(density)
     }
 
     override fun getAngMass(mass: Float): Float {
-        return shape.scale(transform!!.scale).angularMass(mass)
+        // Angular mass is proportional to mass
+        val scaledShape = getScaledShape()
+        if (unitAngMass.isNaN()) unitAngMass = scaledShape.angularMass(1f)
+        return unitAngMass * mass
+    }
+
+    private fun getScaledShape(): Shape {
+        updateShapeCache()
+        return scaledShape ?: shape.scale(transform!!.scale).also { scaledShape = it }
     }
 
     // Transform Methods
 
-    // TODO save as mutable field
+    /**
+     * Transforms this shape into world space. The shape is only recalculated
+     * when the object's transform has changed since the last call.
+     *
+     * @return the shape
+     */
     override fun getShape(): Shape {
-        return shape.rotate(getRotation())
-            .scale(transform!!.scale)
-            .translate(center())
+        updateShapeCache()
+        return worldShape ?: transformShape().also { worldShape = it }
+    }
+
+    /**
+     * Rotates, scales, then translates the local shape into world space.
+     * Subclasses may override this method to convert the transformed shape.
+     *
+     * @return the world shape
+     */
+    protected open fun transformShape(): Shape {
+        return if (shape.javaClass == Polygon::class.java) {
+            (shape as Polygon).transformVertices(getRotation(), transform!!.scale, center())
+        } else {
+            shape.rotate(getRotation())
+                .scale(transform!!.scale)
+                .translate(center())
+        }
+    }
+
+    /**
+     * Calculates the axis-aligned bounding box of the world shape.
+     *
+     * @param worldShape the shape in world space
+     * @return the bounding box
+     */
+    protected open fun calculateBounds(worldShape: Shape): BoundingBox = worldShape.boundingRectangle()
+
+    /**
+     * Clears the cached shapes if the transform has been changed or replaced.
+     * Transforms are compared by value, since their vectors may be mutated
+     * directly.
+     */
+    private fun updateShapeCache() {
+        val xf = transform!!
+        val position = xf.position
+        val scale = xf.scale
+        val rotation = getRotation()
+
+        val replaced = (xf !== cachedTransform)
+        val scaleChanged = replaced || (scale.x != cachedScaleX) || (scale.y != cachedScaleY)
+        val moved = replaced || (position.x != cachedX) || (position.y != cachedY)
+                || (rotation != cachedRotation)
+        if (!scaleChanged && !moved) return
+
+        // Mark dirty and save transform
+        worldShape = null
+        worldBounds = null
+        if (scaleChanged) {
+            scaledShape = null
+            unitAngMass = Float.NaN
+        }
+
+        cachedTransform = xf
+        cachedX = position.x
+        cachedY = position.y
+        cachedRotation = rotation
+        cachedScaleX = scale.x
+        cachedScaleY = scale.y
     }
 
     // Shape vs Point Collisions
@@ -104,6 +197,10 @@ abstract class Collider(private val shape: Shape) :
         return Collisions.getContacts(this.getShape(), collider?.getShape())
     }
 
+    override fun getContacts(collider: CollisionBody?, result: Manifold): Boolean {
+        return Collisions.getContacts(this.getShape(), collider?.getShape(), result)
+    }
+
     override fun canCollide(collider: CollisionBody): Boolean {
         // This assumes colliders aren't disabled during a collision
         if (collider is Collider) {
@@ -134,4 +231,24 @@ abstract class Collider(private val shape: Shape) :
         collisionCallbacks.subscribe(callback)
     }
 
+    companion object {
+        private val colliderCounter: AtomicInteger = AtomicInteger() // total number of colliders created across all scenes
+    }
+
+}
+
+/**
+ * Rotates and scales this polygon around its center, then translates it, in
+ * a single pass over the vertices. The vertices keep their order, so the
+ * convex hull does not need to be recalculated.
+ */
+private fun Polygon.transformVertices(angle: Float, scale: Vec2, translation: Vec2): Polygon {
+    val center = this.center()
+    val rot = Mat22(angle)
+    val worldVertices = Array(numVertices) {
+        (rot * (vertices[it] - center)) * scale + center + translation
+    }
+    // Reflecting over one axis reverses the winding order
+    if (scale.x * scale.y < 0f) worldVertices.reverse()
+    return Polygon(false, *worldVertices)
 }
\ No newline at end of file
@@ -15,6 +15,12 @@ interface CollisionBody {
 
     // Collider Properties
 
+    /**
+     * A unique number identifying this body, used to look up pairs of colliding
+     * bodies.
+     */
+    val bodyID: Int
+
     /** The [PhysicsBody] attached to this shape. */
     var physicsBody: PhysicsBody?
 
@@ -25,10 +31,11 @@ interface CollisionBody {
     val trigger: Boolean
 
     /**
-     * Whether the position or velocity of this collider has been modified in
-     * this frame.
+     * The index of the [mayonez.SceneLayer] this body is in, or -1 if it is
+     * not in a layer.
      */
-    var collisionResolved: Boolean
+    val layerIndex: Int
+        get() = -1
 
     // Shape Properties
 
@@ -84,6 +91,21 @@ interface CollisionBody {
      */
     fun getContacts(collider: CollisionBody?): Manifold?
 
+    /**
+     * Calculates the contacts between this collider and another like
+     * [getContacts], but fills an existing manifold instead of creating a new
+     * one, so it can be reused every step.
+     *
+     * @param collider another collider
+     * @param result the manifold to store the collision info in
+     * @return if there is an intersection
+     */
+    fun getContacts(collider: CollisionBody?, result: Manifold): Boolean {
+        val contacts = getContacts(collider) ?: return false
+        result.set(contacts)
+        return true
+    }
+
     // Collision Event Methods
 
     /**
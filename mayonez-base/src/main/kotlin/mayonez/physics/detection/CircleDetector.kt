@@ -1,7 +1,9 @@
 package mayonez.physics.detection
 
+import mayonez.math.*
 import mayonez.math.shapes.*
 import mayonez.physics.manifold.*
+import kotlin.math.*
 
 /**
  * Performs collision checks between circles.
@@ -33,18 +35,39 @@ internal object CircleDetector: CollisionDetector<Circle> {
      * @return the collision information, or null if no collision
      */
     internal fun getContacts(circle1: Circle?, circle2: Circle?): Manifold? {
-        if (circle1 == null || circle2 == null) return null
+        val result = Manifold()
+        return if (getContacts(circle1, circle2, result)) result else null
+    }
+
+    /**
+     * Detects a collision between two circles and stores the contact and
+     * penetration in an existing manifold.
+     *
+     * @param circle1 the first circle
+     * @param circle2 the second circle
+     * @param result the manifold to fill
+     * @return if the circles are colliding
+     */
+    internal fun getContacts(circle1: Circle?, circle2: Circle?, result: Manifold): Boolean {
+        if (circle1 == null || circle2 == null) return false
         val sumRadii = circle1.radius + circle2.radius
-        val vecDist = circle2.center() - circle1.center() // Distance between centers
-        if (vecDist.lenSq() > sumRadii * sumRadii) return null // Circles too far away
+        val center1 = circle1.center()
+        val distSq = center1.distanceSq(circle2.center()) // Distance between centers
+        if (distSq > sumRadii * sumRadii) return false // Circles too far away
 
         // Calculate manifold
-        val dist = vecDist.len()
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+        val dist = sqrt(distSq)
         val depth = sumRadii - dist // Penetration depth
-        val normal = vecDist / dist
-        val result = Manifold(circle1, circle2, normal, depth)
-        result.addContact(circle1.center() + (normal * (circle1.radius - depth)))
-        return result
+        val normal = stack.push(circle2.center()).subLocal(center1)
+        if (dist == 0f) normal.set(0f, 0f) else normal.scaleLocal(1f / dist)
+        result.set(circle1, circle2, normal, depth)
+
+        val contact = stack.push(result.normal).scaleLocal(circle1.radius - depth).addLocal(center1)
+        result.addContact(contact)
+        stack.reset(mark)
+        return true
     }
 
 }
\ No newline at end of file
@@ -71,19 +71,23 @@ internal object IntersectionDetector : CollisionDetector<Shape> {
         return if (rect1.isAxisAligned && rect2.isAxisAligned) {
             return intersectAABBs(rect1, rect2)
         } else {
-            SATDetector().checkIntersection(rect1, rect2)
+            SATDetector.checkIntersection(rect1, rect2)
         }
     }
 
     private fun intersectAABBs(rect1: Rectangle, rect2: Rectangle): Boolean {
-        // Perform SAT on x-axis
-        val min1 = rect1.min()
-        val max1 = rect1.max()
-        val min2 = rect2.min()
-        val max2 = rect2.max()
+        // Perform SAT on x-axis, using the bounds' components instead of creating min() and max()
+        val center1 = rect1.center()
+        val center2 = rect2.center()
+        val halfWidth1 = rect1.width * 0.5f
+        val halfWidth2 = rect2.width * 0.5f
+        val halfHeight1 = rect1.height * 0.5f
+        val halfHeight2 = rect2.height * 0.5f
         // a.min <= b.max && a.max <= b.min
-        val overlapsX = (min1.x <= max2.x) && (min2.x <= max1.x)
-        val overlapsY = (min1.y <= max2.y) && (min2.y <= max1.y)
+        val overlapsX = (center1.x - halfWidth1 <= center2.x + halfWidth2)
+                && (center2.x - halfWidth2 <= center1.x + halfWidth1)
+        val overlapsY = (center1.y - halfHeight1 <= center2.y + halfHeight2)
+                && (center2.y - halfHeight2 <= center1.y + halfHeight1)
         return overlapsX && overlapsY
     }
 
@@ -6,105 +6,152 @@ import kotlin.math.*
 
 /**
  * Detects if two shapes are colliding and finds their penetration using
- * the separating-axis theorem (SAT).
+ * the separating-axis theorem (SAT). Projections and normals are calculated
+ * with scratch vectors, so no objects are created unless a [Penetration] is
+ * requested.
  *
  * @author SlavSquatSuperstar
  */
-internal class SATDetector : CollisionDetector<Shape>, PenetrationSolver {
+internal object SATDetector : CollisionDetector<Shape>, PenetrationSolver {
 
     override fun checkIntersection(shape1: Shape?, shape2: Shape?): Boolean {
-        return when {
-            shape1 is Circle && shape2 is Circle ->
-                CircleDetector.checkIntersection(shape1, shape2)
-
-            shape1 is Circle && shape2 is Polygon ->
-                getCirclePolygonPenetration(shape1, shape2, false) != null
-
-            shape1 is Polygon && shape2 is Circle ->
-                getCirclePolygonPenetration(shape2, shape1, true) != null
+        if (shape1 is Circle && shape2 is Circle) return CircleDetector.checkIntersection(shape1, shape2)
 
-            shape1 is Polygon && shape2 is Polygon ->
-                checkPolygonPolygonIntersection(shape1, shape2)
-
-            else -> false // cannot solve using SAT
-        }
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+        val depth = getPenetration(shape1, shape2, stack.push())
+        stack.reset(mark)
+        return !depth.isNaN()
     }
 
     override fun getPenetration(shape1: Shape?, shape2: Shape?): Penetration? {
+        val normal = Vec2()
+        val depth = getPenetration(shape1, shape2, normal)
+        return if (depth.isNaN()) null else Penetration(normal, depth)
+    }
+
+    /**
+     * Calculates the minimum penetration between two shapes like
+     * [getPenetration], but stores the direction in an existing vector.
+     *
+     * @param shape1 the first shape
+     * @param shape2 the second shape
+     * @param normal the vector to store the penetration direction in
+     * @return the penetration depth, or NaN if no collision
+     */
+    internal fun getPenetration(shape1: Shape?, shape2: Shape?, normal: Vec2): Float {
         return when {
-            shape1 is Circle && shape2 is Polygon -> getCirclePolygonPenetration(shape1, shape2, false)
-            shape1 is Polygon && shape2 is Circle -> getCirclePolygonPenetration(shape2, shape1, true)
-            shape1 is Polygon && shape2 is Polygon -> getPolygonPolygonPenetration(shape1, shape2)
-            else -> null // cannot solve using SAT
+            shape1 is Circle && shape2 is Polygon -> getCirclePolygonPenetration(shape1, shape2, false, normal)
+            shape1 is Polygon && shape2 is Circle -> getCirclePolygonPenetration(shape2, shape1, true, normal)
+            shape1 is Polygon && shape2 is Polygon -> getPolygonPolygonPenetration(shape1, shape2, normal)
+            else -> Float.NaN // cannot solve using SAT
         }
     }
 
 }
 
 // Circle vs Polygon: 1 contact point
-private fun getCirclePolygonPenetration(circle: Circle, polygon: Polygon, flip: Boolean): Penetration? {
-    val closestToCircle = polygon.nearestPoint(circle.center()) // Point from shape deepest in circle
-    if (closestToCircle !in circle) return null
-
-    val depth = circle.radius - closestToCircle.distance(circle.center())
-    val normal = (closestToCircle - circle.center()).unit()
-    return Penetration(if (flip) -normal else normal, depth)
+private fun getCirclePolygonPenetration(circle: Circle, polygon: Polygon, flip: Boolean, normal: Vec2): Float {
+    val center = circle.center()
+    polygon.nearestPoint(center, normal) // Point from shape deepest in circle
+    if (normal !in circle) return Float.NaN
+
+    val depth = circle.radius - normal.distance(center)
+    normal.subLocal(center).unitLocal()
+    if (flip) normal.negateLocal()
+    return depth
 }
 
-// Polygon vs Polygon: 1-2 contact points
+/** Find the nearest point to a position on this polygon and store it in the result. */
+private fun Polygon.nearestPoint(position: Vec2, result: Vec2) {
+    if (position in this) {
+        result.set(position)
+        return
+    }
 
-private fun checkPolygonPolygonIntersection(polygon1: Polygon, polygon2: Polygon): Boolean {
-    // Project shapes onto axes and test for a separating axis
-    val axes = polygon1.normals + polygon2.normals
-    for (axis in axes) {
-        if (!axis.hasOverlap(polygon1, polygon2)) return false
+    val stack = Vec2Stack.get()
+    val mark = stack.mark()
+    val edgePoint = stack.push()
+    var minDistance = Float.POSITIVE_INFINITY
+    for (edge in edges) {
+        edge.nearestPoint(position, edgePoint)
+        val distance = position.distance(edgePoint)
+        if (distance < minDistance) {
+            minDistance = distance
+            result.set(edgePoint)
+        }
     }
-    return true
+    stack.reset(mark)
 }
 
-private fun getPolygonPolygonPenetration(polygon1: Polygon, polygon2: Polygon): Penetration? {
+/** Find the nearest point to a position on this edge and store it in the result. */
+private fun Edge.nearestPoint(position: Vec2, result: Vec2) {
+    val edgeX = end.x - start.x
+    val edgeY = end.y - start.y
+    val projLength = ((position.x - start.x) * edgeX + (position.y - start.y) * edgeY) / length
+    when {
+        projLength > length -> result.set(end) // past line end
+        projLength < 0 -> result.set(start) // behind line start
+        else -> {
+            val t = projLength / length
+            result.set(start.x + edgeX * t, start.y + edgeY * t) // inside line
+        }
+    }
+}
+
+// Polygon vs Polygon: 1-2 contact points
+
+private fun getPolygonPolygonPenetration(polygon1: Polygon, polygon2: Polygon, normal: Vec2): Float {
     // Track minimum penetration vector
     var minOverlap = Float.MAX_VALUE
-    var minAxis = Vec2()
 
-    // Project shapes onto axes and test for a separating axis
-    val axes = polygon1.normals + polygon2.normals
-    for (axis in axes) {
-        val overlap = axis.getOverlap(polygon1, polygon2) ?: return null
+    // Project shapes onto both polygons' edge normals and test for a separating axis
+    val stack = Vec2Stack.get()
+    val mark = stack.mark()
+    val axis = stack.push()
+    val numAxes = polygon1.numVertices + polygon2.numVertices
+    for (i in 0..<numAxes) {
+        val edge = if (i < polygon1.numVertices) polygon1.edges[i]
+        else polygon2.edges[i - polygon1.numVertices]
+        edge.unitNormalRight(axis)
+
+        val overlap = axis.getOverlap(polygon1, polygon2)
+        if (overlap.isNaN()) {
+            stack.reset(mark)
+            return Float.NaN
+        }
         if (overlap < minOverlap) {
             minOverlap = overlap
-            minAxis = axis
+            normal.set(axis)
         }
     }
-    return Penetration(minAxis, minOverlap)
+    stack.reset(mark)
+    return minOverlap
 }
 
 // SAT Axis Helpers
 
-/** Whether two intervals overlap each other on this axis. */
-private fun Vec2.hasOverlap(poly1: Polygon, poly2: Polygon): Boolean {
-    val range1 = poly1.projectOnAxis(this)
-    val range2 = poly2.projectOnAxis(this)
-    return range1.overlaps(range2)
-}
-
 /**
- * Calculate the overlap between two intervals on this axis, or return null
- * if they do not overlap.
+ * Calculate the overlap between two polygons' projections on this axis, or
+ * return NaN if they do not overlap.
  */
-private fun Vec2.getOverlap(poly1: Polygon, poly2: Polygon): Float? {
-    val range1 = poly1.projectOnAxis(this)
-    val range2 = poly2.projectOnAxis(this)
-    if (!range1.overlaps(range2)) return null
-    return min(range2.max - range1.min, range1.max - range2.min)
+private fun Vec2.getOverlap(poly1: Polygon, poly2: Polygon): Float {
+    val min1 = poly1.minProjection(this)
+    val max1 = poly1.maxProjection(this)
+    val min2 = poly2.minProjection(this)
+    val max2 = poly2.maxProjection(this)
+    if ((min1 > max2) || (max1 < min2)) return Float.NaN
+    return min(max2 - min1, max1 - min2)
 }
 
-private fun Polygon.projectOnAxis(axis: Vec2): Interval { // positive is in axis direction
-    val projections = this.vertices.map { it.dot(axis) }.toFloatArray()
-    return Interval(MathUtils.min(*projections), MathUtils.max(*projections))
+private fun Polygon.minProjection(axis: Vec2): Float { // positive is in axis direction
+    var min = Float.POSITIVE_INFINITY
+    for (vertex in vertices) min = min(min, vertex.dot(axis))
+    return min
 }
 
-/** Whether two intervals overlap each other. */
-private fun Interval.overlaps(other: Interval): Boolean {
-    return (this.min <= other.max) && (this.max >= other.min)
-}
\ No newline at end of file
+private fun Polygon.maxProjection(axis: Vec2): Float {
+    var max = Float.NEGATIVE_INFINITY
+    for (vertex in vertices) max = max(max, vertex.dot(axis))
+    return max
+}
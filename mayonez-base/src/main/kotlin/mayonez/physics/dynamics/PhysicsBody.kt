@@ -69,6 +69,18 @@ interface PhysicsBody {
      */
     val material: PhysicsMaterial
 
+    /**
+     * Whether the body has come to rest with the other bodies it is touching.
+     * Sleeping bodies are not moved or checked for collisions until they are
+     * woken up, either by a force or collision or by changing their position,
+     * rotation, or velocity directly.
+     */
+    val sleeping: Boolean
+        get() = false
+
+    /** Wake up this body and all the bodies it fell asleep with. */
+    fun wake() {}
+
     // Physics Loop Methods
 
     /**
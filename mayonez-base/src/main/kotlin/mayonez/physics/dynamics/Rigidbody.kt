@@ -49,29 +49,46 @@ class Rigidbody(mass: Float, drag: Float, angDrag: Float)
         get() = transform.position
         set(position) {
             transform.position.set(position)
+            wake()
         }
     override var rotation: Float
         get() = transform.rotation
         set(rotation) {
             transform.rotation = rotation
+            wake()
         }
 
-    override var velocity: Vec2 = Vec2()
+    override var velocity: Vec2
+        get() {
+            store?.lendVelocity(storeIndex)
+            return velocityVector
+        }
         set(velocity) {
-            field.set(velocity)
+            this.velocity.set(velocity)
+            wake()
         }
     override val speed: Float
         get() = velocity.len()
 
+    /** The vector returned by [velocity], which is only up to date in a store after being lent. */
+    internal val velocityVector: Vec2 = Vec2()
 
     override var angVelocity: Float = 0f
+        get() {
+            val store = store
+            return if (store == null) field else store.getAngVelocity(storeIndex)
+        }
+        set(angVelocity) {
+            val store = store
+            if (store == null) field = angVelocity else store.setAngVelocity(storeIndex, angVelocity)
+        }
     override val angSpeed: Float
         get() = abs(angVelocity)
 
     // Dynamics Properties (Force, Drag)
 
-    private var netForce: Vec2 = Vec2()
-    private var netTorque: Float = 0f
+    internal val netForce: Vec2 = Vec2()
+    internal var netTorque: Float = 0f
 
     /**
      * The body's drag, which represents a damping force proportional to its
@@ -79,10 +96,12 @@ class Rigidbody(mass: Float, drag: Float, angDrag: Float)
      * during motion and 1 means all velocity is quickly lost without
      * acceleration.
      */
-    private var drag: Float = clamp(drag, 0f, 1f)
+    internal var drag: Float = clamp(drag, 0f, 1f)
+        private set
 
     fun setDrag(drag: Float): Rigidbody {
         this.drag = clamp(drag, 0f, 1f)
+        store?.updateProperties(this)
         return this
     }
 
@@ -92,7 +111,8 @@ class Rigidbody(mass: Float, drag: Float, angDrag: Float)
      * conserved during motion and 1 means all velocity is quickly lost without
      * acceleration.
      */
-    private var angDrag: Float = clamp(angDrag, 0f, 1f)
+    internal var angDrag: Float = clamp(angDrag, 0f, 1f)
+        private set
 
     fun setAngDrag(angDrag: Float): Rigidbody {
         this.angDrag = clamp(angDrag, 0f, 1f)
@@ -109,7 +129,8 @@ class Rigidbody(mass: Float, drag: Float, angDrag: Float)
         return this
     }
 
-    private var followsGravity: Boolean = true
+    internal var followsGravity: Boolean = true
+        private set
 
     /**
      * Set whether this object is affected by gravity.
@@ -119,10 +140,12 @@ class Rigidbody(mass: Float, drag: Float, angDrag: Float)
      */
     fun setFollowsGravity(followsGravity: Boolean): Rigidbody {
         this.followsGravity = followsGravity
+        store?.updateProperties(this)
         return this
     }
 
-    private var fixedRotation: Boolean = false
+    internal var fixedRotation: Boolean = false
+        private set
 
     /**
      * Set whether this object should rotate.
@@ -132,29 +155,133 @@ class Rigidbody(mass: Float, drag: Float, angDrag: Float)
      */
     fun setFixedRotation(fixedRotation: Boolean): Rigidbody {
         this.fixedRotation = fixedRotation
+        store?.updateProperties(this)
         return this
     }
 
+    // Batch Integration Properties
+
+    /** The store holding this body's velocity and forces, if it is batched. */
+    internal var store: RigidbodyStore? = null
+
+    /** This body's index in its store. */
+    internal var storeIndex: Int = -1
+
+    /** The scale of the parent object, which changes the collider's angular mass. */
+    internal val scale: Vec2
+        get() = transform.scale
+
+    // Sleep Properties
+
+    override var sleeping: Boolean = false
+        private set
+
+    /** How many steps in a row this body has been almost still. */
+    internal var restingSteps: Int = 0
+        private set
+
+    private var sleepingIsland: List<Rigidbody>? = null // bodies that fell asleep together
+    private var wakeFlag: WakeFlag? = null // set by the world when this body wakes
+
+    // Pose when the body fell asleep
+    private var sleepX: Float = 0f
+    private var sleepY: Float = 0f
+    private var sleepRotation: Float = 0f
+
+    /**
+     * Count how long this body has been moving slower than the given speeds.
+     *
+     * @param linearSpeed the most linear speed considered resting
+     * @param angularSpeed the most angular speed considered resting
+     * @return how many steps in a row the body has been resting
+     */
+    internal fun updateRestingSteps(linearSpeed: Float, angularSpeed: Float): Int {
+        val store = store
+        val speedSq = if (store == null) velocityVector.lenSq() else store.getSpeedSq(storeIndex)
+        val resting = (speedSq <= linearSpeed * linearSpeed) && (abs(angVelocity) <= angularSpeed)
+        restingSteps = if (resting) restingSteps + 1 else 0
+        return restingSteps
+    }
+
+    /**
+     * Put this body to sleep and stop it moving.
+     *
+     * @param island the bodies falling asleep with this body
+     * @param wakeFlag the flag to set when this body wakes, owned by its world
+     */
+    internal fun sleep(island: List<Rigidbody>, wakeFlag: WakeFlag?) {
+        sleeping = true
+        sleepingIsland = island
+        this.wakeFlag = wakeFlag
+        store?.stop(storeIndex)
+        velocityVector.set(0f, 0f)
+        angVelocity = 0f
+        netForce.set(0f, 0f)
+        netTorque = 0f
+        sleepX = transform.position.x
+        sleepY = transform.position.y
+        sleepRotation = transform.rotation
+    }
+
+    /**
+     * Wake this body if it was moved or given a velocity since it fell asleep,
+     * such as by changing its transform or velocity vector directly.
+     */
+    internal fun wakeIfMoved() {
+        if (!sleeping) return
+        val position = transform.position
+        val moved = (position.x != sleepX) || (position.y != sleepY) || (transform.rotation != sleepRotation)
+        val store = store
+        val pushed = if (store == null) {
+            (velocityVector.x != 0f) || (velocityVector.y != 0f) || (angVelocity != 0f)
+        } else {
+            store.isMoving(storeIndex)
+        }
+        if (moved || pushed) wake()
+    }
+
+    override fun wake() {
+        val island = sleepingIsland ?: return
+        wakeFlag?.set()
+        for (rb in island) {
+            rb.sleeping = false
+            rb.restingSteps = 0
+            rb.sleepingIsland = null
+            rb.wakeFlag = null
+        }
+    }
+
     // Game Loop Methods
 
     override fun start() {
         collider = gameObject.getComponent(Collider::class.java)
+        store?.updateProperties(this) // Angular mass depends on collider
     }
 
+    /**
+     * Integrates this body's forces into its velocity. If the body is in a
+     * [RigidbodyStore], both its forces and velocity are integrated in the
+     * store, and [integrateVelocity] does nothing.
+     */
     override fun integrateForce(dt: Float, gravity: Vec2) {
-        if (static) return
+        store?.let {
+            it.integrate(this, dt, gravity)
+            return
+        }
+        wakeIfMoved()
+        if (static || sleeping) return
 
-        if (followsGravity) applyForce(gravity * mass)
+        if (followsGravity) netForce.addScaledLocal(gravity, mass)
 
         if (MathUtils.equals(velocity.lenSq(), 0f, 0.0005f)) {
             // Zero out velocity for small speeds
-            velocity.set(Vec2(0f))
+            velocity.set(0f, 0f)
         } else {
             // Apply drag first
-            netForce -= velocity * drag
+            netForce.addScaledLocal(velocity, -drag)
         }
         // Solve for velocity
-        velocity += netForce * (invMass * dt)
+        velocity.addScaledLocal(netForce, invMass * dt)
 
         if (!fixedRotation) {
             if (MathUtils.equals(angVelocity, 0f, 0.0005f)) {
@@ -172,37 +299,56 @@ class Rigidbody(mass: Float, drag: Float, angDrag: Float)
 
 
     override fun integrateVelocity(dt: Float) {
-        if (static) return
-        transform.move(velocity * dt)
+        if (static || sleeping || store != null) return
+        transform.position.addScaledLocal(velocity, dt)
         if (!fixedRotation) transform.rotate(angVelocity * dt)
     }
 
+    /**
+     * Rotate the parent object in place after integrating in a
+     * [RigidbodyStore].
+     *
+     * @param degrees the counterclockwise angle
+     */
+    internal fun rotate(degrees: Float) {
+        transform.rotate(degrees)
+    }
+
     // Apply Force Methods
 
     override fun applyForce(force: Vec2?) {
-        netForce += force ?: return
+        if (force == null) return
+        val store = store
+        if (store == null) netForce.addLocal(force) else store.addForce(storeIndex, force.x, force.y)
+        wake()
     }
 
     override fun applyImpulse(impulse: Vec2?) {
-        velocity += (impulse ?: return) * invMass // dv = J/m = m*dv/m
+        velocity.addScaledLocal(impulse ?: return, invMass) // dv = J/m = m*dv/m
+        wake()
     }
 
     override fun addVelocity(velocity: Vec2?) {
-        this.velocity += velocity ?: return
+        this.velocity.addLocal(velocity ?: return)
+        wake()
     }
 
     // Apply Torque Methods
 
     override fun applyTorque(torque: Float) {
-        netTorque += torque
+        val store = store
+        if (store == null) netTorque += torque else store.addTorque(storeIndex, torque)
+        wake()
     }
 
     override fun applyAngularImpulse(angImpulse: Float) {
         angVelocity += MathUtils.toDegrees(angImpulse) * invAngMass // dw = L/I = I*dw/I
+        wake()
     }
 
     override fun addAngularVelocity(angVelocity: Float) {
         this.angVelocity += angVelocity
+        wake()
     }
 
-}
\ No newline at end of file
+}
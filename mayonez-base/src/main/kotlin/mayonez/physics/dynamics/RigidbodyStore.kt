@@ -0,0 +1,323 @@
+package mayonez.physics.dynamics
+
+import mayonez.math.*
+import kotlin.math.*
+
+/** Bodies slower than this are brought to rest. */
+private const val REST_THRESHOLD: Float = 0.0005f
+
+/**
+ * Integrates many [Rigidbody] objects together by keeping their state in
+ * parallel float arrays.
+ *
+ * While a body is in the store, the arrays hold its velocity, angular
+ * velocity, and accumulated forces, and the body reads and writes them
+ * there. Mass properties are only copied when a body is added, when one of
+ * its properties changes, or when its scale changes. Each step, every
+ * dynamic body is integrated in one pass and its transform is written once.
+ * The integration gives the same results as calling
+ * [Rigidbody.integrateForce] and [Rigidbody.integrateVelocity] on each body.
+ *
+ * The velocity vector of a body is lent out when it is accessed, since it
+ * may be modified directly, and is read back at the start of the next step.
+ * A reference to the vector kept across steps should be accessed again
+ * through [Rigidbody.velocity] before being modified.
+ *
+ * @param initialCapacity how many bodies to allocate space for at first
+ * @author SlavSquatSuperstar
+ */
+class RigidbodyStore(initialCapacity: Int) {
+
+    constructor() : this(DEFAULT_CAPACITY)
+
+    private var capacity: Int = initialCapacity.coerceAtLeast(1)
+
+    /** The number of bodies in this store. */
+    var size: Int = 0
+        private set
+
+    /** The number of dynamic bodies integrated in the last step. */
+    var numDynamicBodies: Int = 0
+        private set
+
+    // Packed Body State
+    private var bodies: Array<Rigidbody?> = arrayOfNulls(capacity) // bodies in slot order
+    private var velX: FloatArray = FloatArray(capacity)
+    private var velY: FloatArray = FloatArray(capacity)
+    private var angVel: FloatArray = FloatArray(capacity) // degrees/s
+    private var forceX: FloatArray = FloatArray(capacity)
+    private var forceY: FloatArray = FloatArray(capacity)
+    private var torque: FloatArray = FloatArray(capacity)
+    private var velocityLent: BooleanArray = BooleanArray(capacity) // body's vector is newer
+
+    // Packed Mass Properties
+    private var mass: FloatArray = FloatArray(capacity)
+    private var invMass: FloatArray = FloatArray(capacity)
+    private var drag: FloatArray = FloatArray(capacity)
+    private var invAngMass: FloatArray = FloatArray(capacity)
+    private var gravityScale: FloatArray = FloatArray(capacity) // 1 if follows gravity, 0 if not
+    private var fixedRotation: BooleanArray = BooleanArray(capacity)
+    private var dynamic: BooleanArray = BooleanArray(capacity)
+    private var scaleX: FloatArray = FloatArray(capacity) // scale angular mass was found with
+    private var scaleY: FloatArray = FloatArray(capacity)
+
+    // Body Methods
+
+    /**
+     * Add a body to this store, which then holds its velocity and forces. A
+     * body can only be in one store at a time.
+     *
+     * @param body the rigidbody
+     */
+    fun add(body: Rigidbody) {
+        if (body.store != null) return
+        if (size == capacity) grow(size + 1)
+        val i = size++
+        bodies[i] = body
+        velX[i] = body.velocityVector.x
+        velY[i] = body.velocityVector.y
+        angVel[i] = body.angVelocity
+        forceX[i] = body.netForce.x
+        forceY[i] = body.netForce.y
+        torque[i] = body.netTorque
+        velocityLent[i] = false
+        body.store = this
+        body.storeIndex = i
+        updateProperties(body)
+    }
+
+    /**
+     * Remove a body from this store and give its velocity and forces back to
+     * it.
+     *
+     * @param body the rigidbody
+     */
+    fun remove(body: Rigidbody) {
+        if (body.store !== this) return
+        val i = body.storeIndex
+        release(i)
+
+        // Move the last body into the empty slot
+        val last = --size
+        if (i != last) moveSlot(last, i)
+        bodies[last] = null
+    }
+
+    /** Remove all bodies from this store. */
+    fun clear() {
+        for (i in 0..<size) {
+            release(i)
+            bodies[i] = null
+        }
+        size = 0
+        numDynamicBodies = 0
+    }
+
+    /** Copy the mass properties of a body after they have changed. */
+    internal fun updateProperties(body: Rigidbody) {
+        val i = body.storeIndex
+        mass[i] = body.mass
+        invMass[i] = body.invMass
+        drag[i] = body.drag
+        invAngMass[i] = body.invAngMass
+        gravityScale[i] = if (body.followsGravity) 1f else 0f
+        fixedRotation[i] = body.fixedRotation
+        dynamic[i] = !body.static
+        scaleX[i] = body.scale.x
+        scaleY[i] = body.scale.y
+    }
+
+    /** Give a body its state back before it leaves this store. */
+    private fun release(i: Int) {
+        val body = bodies[i]!!
+        if (!velocityLent[i]) body.velocityVector.set(velX[i], velY[i])
+        body.netForce.set(forceX[i], forceY[i])
+        body.netTorque = torque[i]
+        body.store = null
+        body.storeIndex = -1
+        body.angVelocity = angVel[i]
+    }
+
+    private fun moveSlot(from: Int, to: Int) {
+        val body = bodies[from]!!
+        bodies[to] = body
+        body.storeIndex = to
+        velX[to] = velX[from]
+        velY[to] = velY[from]
+        angVel[to] = angVel[from]
+        forceX[to] = forceX[from]
+        forceY[to] = forceY[from]
+        torque[to] = torque[from]
+        velocityLent[to] = velocityLent[from]
+        mass[to] = mass[from]
+        invMass[to] = invMass[from]
+        drag[to] = drag[from]
+        invAngMass[to] = invAngMass[from]
+        gravityScale[to] = gravityScale[from]
+        fixedRotation[to] = fixedRotation[from]
+        dynamic[to] = dynamic[from]
+        scaleX[to] = scaleX[from]
+        scaleY[to] = scaleY[from]
+    }
+
+    // Body State Accessors
+
+    /** Copy a body's velocity into its vector, which may then be modified. */
+    internal fun lendVelocity(i: Int) {
+        if (velocityLent[i]) return
+        bodies[i]!!.velocityVector.set(velX[i], velY[i])
+        velocityLent[i] = true
+    }
+
+    /** Get the squared speed of a body without lending its velocity. */
+    internal fun getSpeedSq(i: Int): Float {
+        if (velocityLent[i]) return bodies[i]!!.velocityVector.lenSq()
+        return velX[i] * velX[i] + velY[i] * velY[i]
+    }
+
+    /** Get whether a body has any velocity without lending its velocity. */
+    internal fun isMoving(i: Int): Boolean {
+        val velocity = bodies[i]!!.velocityVector
+        val moving = if (velocityLent[i]) (velocity.x != 0f) || (velocity.y != 0f)
+        else (velX[i] != 0f) || (velY[i] != 0f)
+        return moving || (angVel[i] != 0f)
+    }
+
+    internal fun getAngVelocity(i: Int): Float = angVel[i]
+
+    internal fun setAngVelocity(i: Int, angVelocity: Float) {
+        angVel[i] = angVelocity
+    }
+
+    internal fun addForce(i: Int, x: Float, y: Float) {
+        forceX[i] += x
+        forceY[i] += y
+    }
+
+    internal fun addTorque(i: Int, torque: Float) {
+        this.torque[i] += torque
+    }
+
+    /** Stop a body from moving and clear its forces. */
+    internal fun stop(i: Int) {
+        velocityLent[i] = false
+        velX[i] = 0f
+        velY[i] = 0f
+        angVel[i] = 0f
+        forceX[i] = 0f
+        forceY[i] = 0f
+        torque[i] = 0f
+    }
+
+    // Integration Methods
+
+    /**
+     * Integrate the forces and velocities of all dynamic bodies by the given
+     * time step, then update their transforms.
+     *
+     * @param dt seconds since the last step
+     * @param gravity the world's gravitational acceleration
+     */
+    fun integrate(dt: Float, gravity: Vec2) {
+        // Integrate each body in one pass so its transform is only visited once
+        var count = 0
+        for (i in 0..<size) {
+            if (integrate(i, dt, gravity.x, gravity.y)) count++
+        }
+        numDynamicBodies = count
+    }
+
+    /**
+     * Integrate the forces and velocity of one body, like calling
+     * [Rigidbody.integrateForce] and then [Rigidbody.integrateVelocity].
+     */
+    internal fun integrate(body: Rigidbody, dt: Float, gravity: Vec2) {
+        integrate(body.storeIndex, dt, gravity.x, gravity.y)
+    }
+
+    /** Integrate the body in a slot and return whether it was moved. */
+    private fun integrate(i: Int, dt: Float, gravityX: Float, gravityY: Float): Boolean {
+        val rb = bodies[i]!!
+        if (velocityLent[i]) {
+            velX[i] = rb.velocityVector.x
+            velY[i] = rb.velocityVector.y
+            velocityLent[i] = false
+        }
+        rb.wakeIfMoved()
+        if (!dynamic[i] || rb.sleeping) return false
+
+        val scale = rb.scale
+        if (scale.x != scaleX[i] || scale.y != scaleY[i]) updateProperties(rb)
+        integrateForce(i, dt, gravityX, gravityY)
+        integrateAngularForce(i, dt)
+        integrateVelocity(rb, i, dt)
+        return true
+    }
+
+    private fun integrateForce(i: Int, dt: Float, gravityX: Float, gravityY: Float) {
+        var fx = forceX[i] + gravityX * mass[i] * gravityScale[i]
+        var fy = forceY[i] + gravityY * mass[i] * gravityScale[i]
+        if (velX[i] * velX[i] + velY[i] * velY[i] <= REST_THRESHOLD) {
+            // Zero out velocity for small speeds
+            velX[i] = 0f
+            velY[i] = 0f
+        } else {
+            // Apply drag first
+            fx -= velX[i] * drag[i]
+            fy -= velY[i] * drag[i]
+        }
+        val impulse = invMass[i] * dt
+        velX[i] += fx * impulse
+        velY[i] += fy * impulse
+        forceX[i] = 0f
+        forceY[i] = 0f
+    }
+
+    private fun integrateAngularForce(i: Int, dt: Float) {
+        if (!fixedRotation[i]) {
+            var t = torque[i]
+            if (abs(angVel[i]) <= REST_THRESHOLD) {
+                angVel[i] = 0f
+            } else {
+                t -= MathUtils.toRadians(angVel[i]) * drag[i]
+            }
+            angVel[i] += MathUtils.toDegrees(t) * invAngMass[i] * dt
+        }
+        torque[i] = 0f
+    }
+
+    /** Move a body's transform by its velocity. */
+    private fun integrateVelocity(rb: Rigidbody, i: Int, dt: Float) {
+        val position = rb.position
+        position.set(position.x + velX[i] * dt, position.y + velY[i] * dt)
+        if (!fixedRotation[i]) rb.rotate(angVel[i] * dt)
+    }
+
+    private fun grow(minCapacity: Int) {
+        var newCapacity = capacity
+        while (newCapacity < minCapacity) newCapacity *= 2
+        bodies = bodies.copyOf(newCapacity)
+        velX = velX.copyOf(newCapacity)
+        velY = velY.copyOf(newCapacity)
+        angVel = angVel.copyOf(newCapacity)
+        forceX = forceX.copyOf(newCapacity)
+        forceY = forceY.copyOf(newCapacity)
+        torque = torque.copyOf(newCapacity)
+        velocityLent = velocityLent.copyOf(newCapacity)
+        mass = mass.copyOf(newCapacity)
+        invMass = invMass.copyOf(newCapacity)
+        drag = drag.copyOf(newCapacity)
+        invAngMass = invAngMass.copyOf(newCapacity)
+        gravityScale = gravityScale.copyOf(newCapacity)
+        fixedRotation = fixedRotation.copyOf(newCapacity)
+        dynamic = dynamic.copyOf(newCapacity)
+        scaleX = scaleX.copyOf(newCapacity)
+        scaleY = scaleY.copyOf(newCapacity)
+        capacity = newCapacity
+    }
+
+    private companion object {
+        private const val DEFAULT_CAPACITY: Int = 64
+    }
+
+}
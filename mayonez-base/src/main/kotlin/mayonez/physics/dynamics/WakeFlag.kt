@@ -0,0 +1,32 @@
+package mayonez.physics.dynamics
+
+/**
+ * Records when any body that fell asleep in a world wakes up, so the world
+ * knows when to check its pairs of sleeping bodies again. Each world owns
+ * its own flag, so waking a body in one world does not affect another.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class WakeFlag {
+
+    /** Whether a body woke up since the flag was last cleared. */
+    var woke: Boolean = false
+        private set
+
+    /** Mark that a sleeping body woke up. */
+    fun set() {
+        woke = true
+    }
+
+    /**
+     * Clear the flag.
+     *
+     * @return if a body woke up since the last call
+     */
+    fun clear(): Boolean {
+        val wasSet = woke
+        woke = false
+        return wasSet
+    }
+
+}
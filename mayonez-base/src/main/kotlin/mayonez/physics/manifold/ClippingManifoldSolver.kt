@@ -7,7 +7,8 @@ import kotlin.math.*
 
 /**
  * Calculates the contact points between two intersecting shapes finding
- * and clipping intersecting features.
+ * and clipping intersecting features. Features are found with scratch
+ * vectors, so filling an existing manifold does not create any objects.
  *
  * Sources:
  * - [dyn4j](https://dyn4j.org/2011/11/contact-points-using-clipping/)
@@ -15,127 +16,164 @@ import kotlin.math.*
  *
  * @author SlavSquatSuperstar
  */
-internal class ClippingManifoldSolver : ContactSolver {
+internal object ClippingManifoldSolver : ContactSolver {
 
     override fun getContacts(shape1: Shape, shape2: Shape, penetration: Penetration?): Manifold? {
+        val result = Manifold()
+        return if (getContacts(shape1, shape2, penetration, result)) result else null
+    }
+
+    /**
+     * Calculates the contact points between two shapes and stores them in an
+     * existing manifold.
+     *
+     * @param shape1 the first shape
+     * @param shape2 the second shape
+     * @param penetration the penetration vector
+     * @param result the manifold to fill
+     * @return if there are any contacts
+     */
+    fun getContacts(shape1: Shape, shape2: Shape, penetration: Penetration?, result: Manifold): Boolean {
+        if (penetration == null) return false
+        return getContacts(shape1, shape2, penetration.normal, penetration.depth, result)
+    }
+
+    /**
+     * Calculates the contact points between two shapes and stores them in an
+     * existing manifold.
+     *
+     * @param shape1 the first shape
+     * @param shape2 the second shape
+     * @param normal the penetration direction, which is not modified
+     * @param depth the penetration depth
+     * @param result the manifold to fill
+     * @return if there are any contacts
+     */
+    fun getContacts(shape1: Shape, shape2: Shape, normal: Vec2, depth: Float, result: Manifold): Boolean {
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+
         // 1. Point the normal in the correct direction
-        val normal = penetration?.normal ?: return null
-        val vecAB = shape2.center() - shape1.center()
-        if (normal.dot(vecAB) < 0f) normal.set(-normal)
+        val colNormal = stack.push(normal)
+        val center1 = shape1.center()
+        val center2 = shape2.center()
+        if (normal.x * (center2.x - center1.x) + normal.y * (center2.y - center1.y) < 0f) {
+            colNormal.negateLocal()
+        }
 
         // 2. Find the farthest features along normals
-        val feature1 = shape1.getFurthestFeature(normal)
-        val feature2 = shape2.getFurthestFeature(-normal)
+        val point1 = stack.push()
+        val point2 = stack.push()
+        val edge1 = shape1.getFurthestFeature(colNormal, point1)
+        val edge2 = shape2.getFurthestFeature(stack.push(colNormal).negateLocal(), point2)
 
         // 3. Calculate contact points
-        val collision = when {
+        when {
             // Case 1A: One point on first shape (circle vs polygon)
-            feature1 is Vec2 ->
-                createManifoldWithOnePoint(shape1, shape2, feature1, penetration)
+            edge1 == NO_EDGE -> result.set(shape1, shape2, colNormal, depth).addContact(point1)
 
             // Case 1B: One point on second shape (polygon vs circle)
-            feature2 is Vec2 ->
-                createManifoldWithOnePoint(shape2, shape1, feature2, penetration)
+            edge2 == NO_EDGE -> result.set(shape2, shape1, colNormal, depth).addContact(point2)
 
             // Case 2: Two intersecting edges (polygon vs polygon)
-            feature1 is Edge && feature2 is Edge ->
-                createManifoldWithTwoPoints(shape1, shape2, feature1, feature2, penetration)
-
-            else -> return null
+            else -> result.setContactsFromEdges(
+                shape1, shape2,
+                (shape1 as Polygon).edges[edge1], (shape2 as Polygon).edges[edge2],
+                colNormal, depth
+            )
         }
-        return if (collision.numContacts() > 0) collision else null
+        stack.reset(mark)
+        return result.numContacts() > 0
     }
 
-}
+    // Feature Helper Methods
+
+    /**
+     * Return the index of the furthest edge if this shape is a polygon, or
+     * store the furthest point in the given vector and return [NO_EDGE].
+     */
+    private fun Shape.getFurthestFeature(direction: Vec2, point: Vec2): Int {
+        when (this) {
+            is Polygon -> return this.getFurthestEdge(direction)
+            is Circle -> {
+                point.set(direction)
+                point.unitLocal().scaleLocal(radius).addLocal(center())
+            }
+            else -> point.set(this.supportPoint(direction))
+        }
+        return NO_EDGE
+    }
 
-// Feature Helper Methods
+    private fun Polygon.getFurthestEdge(direction: Vec2): Int {
+        // Find the furthest vertex and check left and right edges
+        var farthest = 0
+        var maxDot = vertices[0].dot(direction)
+        for (i in 1..<numVertices) {
+            val dot = vertices[i].dot(direction)
+            if (dot > maxDot) {
+                maxDot = dot
+                farthest = i
+            }
+        }
+        val leftEdge = farthest // use this edge index
+        val rightEdge = if (farthest > 0) farthest - 1 else numVertices - 1 // get previous edge index
+
+        // Check which normal is more perpendicular
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+        val leftDot = edges[leftEdge].unitNormalRight(stack.push()).dot(direction)
+        val rightDot = edges[rightEdge].unitNormalRight(stack.push()).dot(direction)
+        stack.reset(mark)
+        return if (leftDot > rightDot) leftEdge else rightEdge
+    }
 
-private fun Shape.getFurthestFeature(direction: Vec2): Any {
-    return if (this is Polygon) this.getFurthestEdge(direction)
-    else this.supportPoint(direction)
-}
+    /** The feature index returned for shapes that have a point instead of an edge. */
+    private const val NO_EDGE: Int = -1
 
-private fun Polygon.getFurthestEdge(direction: Vec2): Edge {
-    // Find the furthest vertex and check left and right edges
-    val dots = vertices.map { it.dot(direction) }.toFloatArray()
-    val farthest = MathUtils.maxIndex(*dots)
-    val leftEdge = edges[farthest] // use this edge index
-    val rightEdge = edges[if (farthest > 0) farthest - 1 else numVertices - 1]  // get previous edge index
-
-    // Check which normal is more perpendicular
-    return if (
-        leftEdge.unitNormalRight().dot(direction) > rightEdge.unitNormalRight().dot(direction)
-    ) leftEdge else rightEdge
 }
 
-// Manifold Helper Methods (1 Point)
-
-private fun createManifoldWithOnePoint(
-    shape1: Shape, shape2: Shape, point: Vec2, penetration: Penetration
-): Manifold {
-    val (normal, depth) = penetration
-    val manifold = Manifold(shape1, shape2, normal, depth)
-    manifold.addContact(point)
-    return manifold
-}
+// Manifold Helper Methods (2 Points)
 
 private fun shouldUseShape2Normal(feature1: Edge, feature2: Edge, normal: Vec2): Boolean {
     return feature1.getLengthAlongNormal(normal) > feature2.getLengthAlongNormal(normal)
 }
 
 private fun Edge.getLengthAlongNormal(normal: Vec2): Float {
-    return abs(this.toVector().dot(normal))
+    return abs((end.x - start.x) * normal.x + (end.y - start.y) * normal.y)
 }
 
-// Manifold Helper Methods (2 Points)
-
-private fun createManifoldWithTwoPoints(
+private fun Manifold.setContactsFromEdges(
     shape1: Shape, shape2: Shape,
     edge1: Edge, edge2: Edge,
-    penetration: Penetration
-): Manifold {
-    val (normal, depth) = penetration
-
+    normal: Vec2, depth: Float
+) {
     val swapShapes = shouldUseShape2Normal(edge1, edge2, normal)
-    val (refEdge, incEdge) = getEdgesFromFeatures(swapShapes, edge1, edge2)
-
-    val colNormal = if (swapShapes) -normal else normal
-    val manifold = createManifoldForTwoEdges(shape1, shape2, swapShapes, colNormal, depth)
+    val refEdge = if (swapShapes) edge2 else edge1
+    val incEdge = if (swapShapes) edge1 else edge2
+
+    val stack = Vec2Stack.get()
+    val mark = stack.mark()
+    val colNormal = stack.push(normal)
+    if (swapShapes) {
+        colNormal.negateLocal()
+        this.set(shape2, shape1, normal, depth)
+    } else {
+        this.set(shape1, shape2, normal, depth)
+    }
 
     // Clip incident edge
-    val clippedEdge = incEdge.clipToSegment(refEdge)
+    val clipStart = stack.push()
+    val clipEnd = stack.push()
+    incEdge.clipToSegment(refEdge, clipStart, clipEnd)
     val incShape = if (swapShapes) shape2 else shape1
-    manifold.addContactsFromEdges(incShape, refEdge, clippedEdge, colNormal)
-    return manifold
-}
-
-private fun getEdgesFromFeatures(
-    swapShapes: Boolean, feature1: Edge, feature2: Edge
-): Pair<Edge, Edge> {
-    return if (swapShapes) Pair(feature2, feature1) else Pair(feature1, feature2)
-}
-
-private fun createManifoldForTwoEdges(
-    shape1: Shape, shape2: Shape, swapShapes: Boolean,
-    colNormal: Vec2, depth: Float
-): Manifold {
-    return if (swapShapes) Manifold(shape2, shape1, -colNormal, depth)
-    else Manifold(shape1, shape2, colNormal, depth)
-}
-
-private fun Manifold.addContactsFromEdges(
-    incShape: Shape, refEdge: Edge, clippedEdge: Edge, colNormal: Vec2
-) {
     val incEdgeLength = refEdge.start.dot(colNormal)
-    for (pt in arrayOf(clippedEdge.start, clippedEdge.end)) {
-        if (pt.isClippedInsideShape(incShape, colNormal, incEdgeLength)) {
-            this.addContact(pt)
-        }
-    }
+    if (clipStart.isClippedInsideShape(incShape, colNormal, incEdgeLength)) this.addContact(clipStart)
+    if (clipEnd.isClippedInsideShape(incShape, colNormal, incEdgeLength)) this.addContact(clipEnd)
+    stack.reset(mark)
 }
 
 private fun Vec2.isClippedInsideShape(
     incShape: Shape, colNormal: Vec2, incEdgeLength: Float
 ): Boolean {
     return (dot(colNormal) <= incEdgeLength) && (this in incShape)
-}
\ No newline at end of file
+}
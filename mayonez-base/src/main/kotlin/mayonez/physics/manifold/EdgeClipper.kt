@@ -12,26 +12,50 @@ import kotlin.math.*
  * other.
  */
 internal fun Edge.clipToSegment(segment: Edge): Edge {
-    val edge = Ray(start, toVector() / length)
-    val (contact1, contact2) = edge.getIntersectionsWithPlanes(segment)
-    if (contact1 == null || contact2 == null) return Edge(start, end) // plane is parallel to line
+    val clipStart = Vec2()
+    val clipEnd = Vec2()
+    clipToSegment(segment, clipStart, clipEnd)
+    return Edge(clipStart, clipEnd)
+}
+
+/**
+ * Clips this segment like [clipToSegment], but stores the endpoints of the
+ * clipped edge in existing vectors.
+ */
+internal fun Edge.clipToSegment(segment: Edge, clipStart: Vec2, clipEnd: Vec2) {
+    val stack = Vec2Stack.get()
+    val mark = stack.mark()
+    val direction = stack.push(end).subLocal(start)
+    if (length == 0f) direction.set(0f, 0f) else direction.scaleLocal(1f / length).unitLocal()
+    val planeDir = segment.unitNormalLeft(stack.push())
+
+    // Intersect this edge's line with the planes
+    val cross = direction.cross(planeDir)
+    if (MathUtils.equals(cross, 0f)) { // plane is parallel to line
+        clipStart.set(start)
+        clipEnd.set(end)
+        stack.reset(mark)
+        return
+    }
+    val dist1 = direction.getDistanceToPlane(start, segment.start, planeDir, cross)
+    val dist2 = direction.getDistanceToPlane(start, segment.end, planeDir, cross)
 
     // Clip edge to new endpoints
-    val distances = Interval(
-        (contact1 - start).dot(edge.direction),
-        (contact2 - start).dot(edge.direction)
-    )
-    val minDist = max(0f, distances.min)
-    val maxDist = min(length, distances.max)
-    return Edge(edge.getPoint(minDist), edge.getPoint(maxDist))
+    val minDist = max(0f, dist1.coerceAtMost(dist2))
+    val maxDist = min(length, dist1.coerceAtLeast(dist2))
+    clipStart.set(start.x + direction.x * minDist, start.y + direction.y * minDist)
+    clipEnd.set(start.x + direction.x * maxDist, start.y + direction.y * maxDist)
+    stack.reset(mark)
 }
 
-private fun Ray.getIntersectionsWithPlanes(segment: Edge): Pair<Vec2?, Vec2?> {
-    val planeDir = segment.unitNormalLeft()
-    val plane1 = Ray(segment.start, planeDir)
-    val plane2 = Ray(segment.end, planeDir)
-
-    val contact1 = this.getIntersection(plane1)
-    val contact2 = this.getIntersection(plane2)
-    return Pair(contact1, contact2)
-}
\ No newline at end of file
+/**
+ * Find where a line from the origin along this direction meets a plane, and
+ * return the point's distance along this direction.
+ */
+private fun Vec2.getDistanceToPlane(origin: Vec2, planeStart: Vec2, planeDir: Vec2, cross: Float): Float {
+    // Parametric length along line using cross product
+    val length = ((planeStart.x - origin.x) * planeDir.y - planeDir.x * (planeStart.y - origin.y)) / cross
+    val contactX = origin.x + this.x * length
+    val contactY = origin.y + this.y * length
+    return (contactX - origin.x) * this.x + (contactY - origin.y) * this.y
+}
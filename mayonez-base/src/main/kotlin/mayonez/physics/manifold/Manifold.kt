@@ -7,21 +7,68 @@ import mayonez.math.shapes.*
  * Stores information about a collision between two objects, including
  * contacts and penetration.
  *
+ * A manifold can be filled again for each step using
+ * [mayonez.physics.colliders.CollisionBody.getContacts], so colliding
+ * bodies don't need to create a new one every time. It keeps its own
+ * copies of the normal and contact points.
+ *
  * @author SlavSquatSuperstar
  */
-class Manifold(
-    private val shape1: Shape,
-    private val shape2: Shape,
-    internal val normal: Vec2, // collision normal facing out from the first shape
-    internal val depth: Float // positive penetration (overlap) distance along normal
-) {
+class Manifold() {
+
+    constructor(shape1: Shape, shape2: Shape, normal: Vec2, depth: Float) : this() {
+        set(shape1, shape2, normal, depth)
+    }
 
     // Collision Fields
-    init {
-        normal.set(normal.unit())
+
+    private var shape1: Shape? = null
+    private var shape2: Shape? = null
+
+    /** The collision normal facing out from the first shape. */
+    internal val normal: Vec2 = Vec2()
+
+    /** The positive penetration (overlap) distance along normal. */
+    internal var depth: Float = 0f
+        private set
+
+    private val contacts = ArrayList<Vec2>(MAX_POOLED_CONTACTS)
+    private val contactPool: Array<Vec2> = Array(MAX_POOLED_CONTACTS) { Vec2() }
+
+    /**
+     * Set the shapes and penetration and remove all contacts.
+     *
+     * @param shape1 the first shape
+     * @param shape2 the second shape
+     * @param normal the collision normal, which is copied and normalized
+     * @param depth the penetration depth
+     * @return this manifold
+     */
+    internal fun set(shape1: Shape, shape2: Shape, normal: Vec2, depth: Float): Manifold {
+        this.shape1 = shape1
+        this.shape2 = shape2
+        this.normal.set(normal)
+        this.normal.unitLocal()
+        this.depth = depth
+        contacts.clear()
+        return this
     }
 
-    private val contacts = ArrayList<Vec2>(2)
+    /**
+     * Copy another manifold's shapes, penetration, and contacts.
+     *
+     * @param manifold the manifold to copy
+     * @return this manifold
+     */
+    internal fun set(manifold: Manifold): Manifold {
+        shape1 = manifold.shape1
+        shape2 = manifold.shape2
+        normal.set(manifold.normal)
+        depth = manifold.depth
+        contacts.clear()
+        for (i in 0..<manifold.numContacts()) addContact(manifold.getContact(i))
+        return this
+    }
 
     // Contact Methods
 
@@ -31,7 +78,24 @@ class Manifold(
 
     fun getContact(index: Int): Vec2 = contacts[index]
 
-    fun addContact(contactPoint: Vec2) = contacts.add(contactPoint)
+    /**
+     * Add a copy of a contact point.
+     *
+     * @param contactPoint the contact point
+     * @return true
+     */
+    fun addContact(contactPoint: Vec2): Boolean {
+        val size = contacts.size
+        val contact = if (size < contactPool.size) contactPool[size] else Vec2()
+        contact.set(contactPoint)
+        return contacts.add(contact)
+    }
 
     override fun toString(): String = "Collision ($shape1 and $shape2, ${numContacts()} points)"
-}
\ No newline at end of file
+
+    companion object {
+        /** Shapes have at most two contact points with each other. */
+        private const val MAX_POOLED_CONTACTS: Int = 2
+    }
+
+}
@@ -0,0 +1,29 @@
+package mayonez.physics.raycast
+
+import mayonez.math.*
+import mayonez.physics.colliders.*
+
+/**
+ * The result of casting a ray into a [mayonez.physics.PhysicsWorld],
+ * including which body the ray hit.
+ *
+ * @author SlavSquatSuperstar
+ */
+data class RaycastHit(
+    /** The collision body the ray hit. */
+    val body: CollisionBody,
+    /** Where the ray hit the body's shape. */
+    val info: RaycastInfo
+) {
+    /** The intersection point of the raycast. */
+    val contact: Vec2
+        get() = info.contact
+
+    /** The contact normal, facing out of the body. */
+    val normal: Vec2
+        get() = info.normal
+
+    /** The length along the ray to the contact. */
+    val distance: Float
+        get() = info.distance
+}
@@ -6,26 +6,63 @@ import mayonez.physics.dynamics.*
 import mayonez.physics.manifold.*
 import kotlin.math.*
 
-//private const val DEFAULT_IMPULSE_ITERATIONS = 4
+/** The most contact points a 2D manifold can have. */
+private const val MAX_CONTACTS: Int = 2
+
+/** How far a contact can move between steps and keep its impulses, in meters. */
+private const val WARM_START_DISTANCE: Float = 0.1f
+
+/** How much overlap is allowed before correcting positions, in meters. */
+private const val PENETRATION_SLOP: Float = 0.005f
+
+/** The fraction of the overlap corrected each step. */
+private const val POSITION_CORRECTION: Float = 0.8f
+
+/** The slowest normal speed that will bounce, in m/s. */
+private const val RESTITUTION_VELOCITY: Float = 0.5f
 
 /**
  * Applies linear and angular impulses to two intersecting bodies to
- * resolve a collision.
+ * resolve a collision. A solver is kept for each pair of colliding bodies
+ * and reused every step with the latest manifold, so resolving collisions
+ * does not create any new objects.
+ *
+ * Collisions are solved with sequential impulses. The solver accumulates
+ * the impulse at each contact over several iterations, clamping the total
+ * instead of each step, so that contacts in a stack can share their load.
+ * The accumulated impulses are kept for the next step and applied up front
+ * (warm starting), so stacks settle with fewer iterations.
+ *
+ * Sources:
+ * - [Erin Catto, Fast and Simple Physics using Sequential
+ *   Impulses](https://box2d.org/files/ErinCatto_SequentialImpulses_GDC2006.pdf)
  *
  * @author SlavSquatSuperstar
  */
 internal class CollisionSolver(
     private val c1: CollisionBody,
-    private val c2: CollisionBody,
-    private var manifold: Manifold
+    private val c2: CollisionBody
 ) {
 
-    private val b1: PhysicsBody? = c1.physicsBody
-    private val b2: PhysicsBody? = c2.physicsBody
+    internal val b1: PhysicsBody? = c1.physicsBody
+    internal val b2: PhysicsBody? = c2.physicsBody
+
+    /** The contacts, normal, and depth of the collision. */
+    internal lateinit var manifold: Manifold
 
     // Collision Properties
     private lateinit var normal: Vec2 // Collision direction
-    private lateinit var tangent: Vec2 // Collision plane
+    private val tangent: Vec2 = Vec2() // Collision plane
+    private var active: Boolean = false // Whether this collision is being solved this step
+
+    // Reused Data
+    private var contacts: Array<ContactPoint> = Array(MAX_CONTACTS) { ContactPoint() }
+    private var oldContacts: Array<ContactPoint> = Array(MAX_CONTACTS) { ContactPoint() }
+    private var numContacts: Int = 0
+    private val massData: MassData = MassData()
+    private var matData: MaterialData = MaterialData.combine(b1.material, b2.material)
+    private var mat1: PhysicsMaterial = b1.material
+    private var mat2: PhysicsMaterial = b2.material
 
     /*
      * Types of Collisions
@@ -41,96 +78,153 @@ internal class CollisionSolver(
      * Dynamic vs Static
      * Dynamic vs Dynamic
      */
-    fun solveCollision() {
-        if (b1.static && b2.static) return // Check masses once, cannot both be static
-        if (!recheckCollision()) return
+
+    /**
+     * Resolve this collision by itself.
+     *
+     * @param iterations how many velocity iterations to run
+     */
+    fun solveCollision(iterations: Int = DEFAULT_IMPULSE_ITERATIONS) {
+        prepare()
+        warmStart()
+        repeat(iterations) { solveVelocity() }
+    }
+
+    // Solver Steps
+
+    /**
+     * Correct the bodies' positions and calculate the mass and bounce at each
+     * contact. Should be called once per step before the other steps.
+     */
+    fun prepare() {
+        active = !(b1.static && b2.static) // Check masses once, cannot both be static
+        if (!active) return
 
         normal = manifold.normal
-        tangent = normal.normal()
+        tangent.set(-normal.y, normal.x)
 
-        solveStatic()
-        solveDynamic()
+        correctPositions()
 
-        c1.collisionResolved = true
-        c2.collisionResolved = true
+        // Physics Properties
+        massData.setFrom(b1, b2)
+        updateMaterialData()
+
+        // Swap contacts with last step's and copy matching impulses
+        val numOldContacts = numContacts
+        val swap = oldContacts
+        oldContacts = contacts
+        contacts = swap
+        numContacts = min(manifold.numContacts(), MAX_CONTACTS)
+
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+        val relVel = stack.push()
+        for (i in 0..<numContacts) {
+            val contact = contacts[i]
+            contact.set(manifold.getContact(i), b1, b2)
+            contact.matchImpulses(oldContacts, numOldContacts, WARM_START_DISTANCE)
+            contact.normalMass = 1f / contact.getDenominator(normal, massData)
+            contact.tangentMass = 1f / contact.getDenominator(tangent, massData)
+
+            // Bounce relative to the closing speed before solving
+            val normVel = contact.getRelativeVelocity(b1, b2, relVel).dot(normal)
+            contact.velocityBias =
+                if (normVel < -RESTITUTION_VELOCITY) -matData.coeffRestitution * normVel else 0f
+        }
+        stack.reset(mark)
     }
 
-    /**
-     * Check for collision again and update the manifold if either object has
-     * been modified in a previous collision.
-     *
-     * @return whether the colliders are still colliding
-     */
-    private fun recheckCollision(): Boolean {
-        if (c1.collisionResolved || c2.collisionResolved) {
-            manifold = c1.getContacts(c2) ?: return false
+    /** Apply the impulses accumulated in the last step. */
+    fun warmStart() {
+        if (!active) return
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+        val impulse = stack.push()
+        for (i in 0..<numContacts) {
+            val contact = contacts[i]
+            impulse.set(0f, 0f)
+            impulse.addScaledLocal(normal, contact.normImp).addScaledLocal(tangent, contact.tanImp)
+            contact.applyImpulse(b1, b2, impulse)
         }
-        return true
+        stack.reset(mark)
     }
 
+    /** Run one iteration of normal and friction impulses at each contact. */
+    fun solveVelocity() {
+        if (!active) return
+        val stack = Vec2Stack.get()
+        val mark = stack.mark()
+        val relVel = stack.push()
+        val impulse = stack.push()
+        solveNormalImpulse(relVel, impulse)
+        solveTangentImpulse(relVel, impulse)
+        stack.reset(mark)
+    }
+
+    /** Forget the accumulated impulses when the bodies stop touching. */
+    fun clearContacts() {
+        numContacts = 0
+    }
+
+    // Helper Methods
+
     /**
-     * Correct positions of objects if one or zero colliders has an
-     * infinite-mass rigidbody.
+     * Move the bodies apart along the collision normal, leaving a little
+     * overlap so contacts persist between steps.
      */
-    private fun solveStatic() {
+    private fun correctPositions() {
         val mass1: Float = b1.mass
         val mass2: Float = b2.mass
 
         // Separate objects factoring in mass
+        val correction = max(manifold.depth - PENETRATION_SLOP, 0f) * POSITION_CORRECTION
         val massRatio = mass1 / (mass1 + mass2)
-        val depth1 = manifold.depth * massRatio
-        val depth2 = manifold.depth * (1f - massRatio)
+        val depth1 = correction * massRatio
+        val depth2 = correction * (1f - massRatio)
 
         // Displace bodies to correct position
-        b1?.move(normal * -depth1)
-        b2?.move(normal * depth2)
-    }
-
-    private fun PhysicsBody.move(direction: Vec2) {
-        position.set(position + direction)
+        if (!b1.static) b1?.position?.addScaledLocal(normal, -depth1)
+        if (!b2.static) b2?.position?.addScaledLocal(normal, depth2)
     }
 
-    /** Transfer linear and angular momentum between objects and apply friction. */
-    private fun solveDynamic() {
-        // Physics Properties
-        val massData = MassData.getFrom(b1, b2)
-        val matData = MaterialData.combine(b1.material, b2.material)
-
-        val contacts = Array(manifold.numContacts()) { ContactPoint(manifold.getContact(it), b1.position, b2.position) }
-        calculateNormalImpulse(contacts, massData, matData)
-        calculateTangentImpulse(contacts, massData, matData)
+    /** Combine the bodies' materials, only if they have changed. */
+    private fun updateMaterialData() {
+        val mat1 = b1.material
+        val mat2 = b2.material
+        if (mat1 === this.mat1 && mat2 === this.mat2) return
 
-        for (contact in contacts) {
-            val totalImpulse = (normal * contact.normImp) + (tangent * contact.tanImp)
-            contact.applyImpulse(b1, b2, totalImpulse)
-        }
+        this.mat1 = mat1
+        this.mat2 = mat2
+        matData = MaterialData.combine(mat1, mat2)
     }
 
-    private fun calculateNormalImpulse(contacts: Array<ContactPoint>, massData: MassData, matData: MaterialData) {
-        val cRest = matData.coeffRestitution
-
-        for (contact in contacts) {
-            val relVel = contact.getRelativeVelocity(b1, b2) // Relative velocity, v_rel
+    private fun solveNormalImpulse(relVel: Vec2, impulse: Vec2) {
+        for (i in 0..<numContacts) {
+            val contact = contacts[i]
+            contact.getRelativeVelocity(b1, b2, relVel) // Relative velocity, v_rel
             val normVel = relVel.dot(normal) // Velocity along collision normal, v_n
-            if (normVel > 0f) continue // Skip this point if moving away or stationary
 
-            // Normal (separation) impulse, J_n
-            val denom = contact.getDenominator(normal, massData)
-            contact.normImp = -(1f + cRest) * normVel / (denom * manifold.numContacts())
+            // Normal (separation) impulse, J_n, never pulls bodies together
+            val deltaImp = contact.normalMass * (contact.velocityBias - normVel)
+            val oldImp = contact.normImp
+            contact.normImp = max(oldImp + deltaImp, 0f)
+
+            impulse.set(normal)
+            contact.applyImpulse(b1, b2, impulse.scaleLocal(contact.normImp - oldImp))
         }
     }
 
-    private fun calculateTangentImpulse(contacts: Array<ContactPoint>, massData: MassData, matData: MaterialData) {
+    private fun solveTangentImpulse(relVel: Vec2, impulse: Vec2) {
         val (_, sFric, kFric) = matData
 
-        for (contact in contacts) {
-            val relVel = contact.getRelativeVelocity(b1, b2) // Relative velocity, v_rel (will have changed)
+        for (i in 0..<numContacts) {
+            val contact = contacts[i]
+            contact.getRelativeVelocity(b1, b2, relVel) // Relative velocity, v_rel (will have changed)
             val tanVel = relVel.dot(tangent) // Velocity along collision tangent, v_t
-            if (abs(tanVel) < 0.00005f) continue // Ignore tiny friction impulses
 
             // Tangent (friction) impulse, J_t
-            val denom = contact.getDenominator(tangent, massData)
-            var tanImp = -tanVel / (denom * manifold.numContacts())
+            val oldImp = contact.tanImp
+            var tanImp = oldImp - contact.tangentMass * tanVel
 
             // Coulomb's Law: if exceed static friction, use kinetic friction
             val normImp = contact.normImp
@@ -138,11 +232,19 @@ internal class CollisionSolver(
                 tanImp = sign(tanImp) * normImp * kFric
             }
             contact.tanImp = tanImp
+
+            impulse.set(tangent)
+            contact.applyImpulse(b1, b2, impulse.scaleLocal(tanImp - oldImp))
         }
     }
 
+    internal companion object {
+        /** The number of velocity iterations used when none is given. */
+        internal const val DEFAULT_IMPULSE_ITERATIONS: Int = 4
+    }
+
 }
 
 private fun isStaticFrictionExceeded(tanImp: Float, normImp: Float, sFric: Float): Boolean {
     return abs(tanImp) > abs(normImp * sFric)
-}
\ No newline at end of file
+}
@@ -5,7 +5,8 @@ import mayonez.physics.dynamics.*
 
 /**
  * Describes a contact point between two colliding shapes and stores
- * additional information such as radius and impulse.
+ * additional information such as radius and impulse. Contact points are
+ * reused between collisions to avoid creating new objects every step.
  *
  * Sources
  * - [Chris Hecker](https://www.chrishecker.com/Rigid_Body_Dynamics)
@@ -13,24 +14,91 @@ import mayonez.physics.dynamics.*
  *
  * @author SlavSquatSuperstar
  */
-internal class ContactPoint(private val contactPos: Vec2, b1Pos: Vec2, b2Pos: Vec2) {
+internal class ContactPoint {
+    /** The contact's position in the world. */
+    internal val position: Vec2 = Vec2()
+
     /** Distance to first body center, r1. */
-    private val rad1: Vec2 = contactPos - b1Pos
+    private val rad1: Vec2 = Vec2()
 
     /** Distance to second body center, r2. */
-    private val rad2: Vec2 = contactPos - b2Pos
+    private val rad2: Vec2 = Vec2()
 
-    /** Normal impulse magnitude, J_n. */
+    /** Accumulated normal impulse magnitude, J_n. */
     internal var normImp: Float = 0f
 
-    /** Tangent impulse magnitude, J_t. */
+    /** Accumulated tangent impulse magnitude, J_t. */
     internal var tanImp: Float = 0f
 
-    /** Calculate the relative velocity of two bodies at this contact point. */
-    fun getRelativeVelocity(b1: PhysicsBody?, b2: PhysicsBody?): Vec2 {
-        val vel1 = b1.getPointVelocity(contactPos)
-        val vel2 = b2.getPointVelocity(contactPos)
-        return vel2 - vel1
+    /** The effective mass along the collision normal, 1/denominator. */
+    internal var normalMass: Float = 0f
+
+    /** The effective mass along the collision tangent, 1/denominator. */
+    internal var tangentMass: Float = 0f
+
+    /** The normal velocity the bodies should separate with after bouncing. */
+    internal var velocityBias: Float = 0f
+
+    /**
+     * Move this contact to a new position and clear its impulses.
+     *
+     * @param contactPos the contact position
+     * @param b1 the first body, or null if static
+     * @param b2 the second body, or null if static
+     */
+    fun set(contactPos: Vec2, b1: PhysicsBody?, b2: PhysicsBody?) {
+        position.set(contactPos)
+        rad1.setRadius(contactPos, b1)
+        rad2.setRadius(contactPos, b2)
+        normImp = 0f
+        tanImp = 0f
+    }
+
+    private fun Vec2.setRadius(contactPos: Vec2, body: PhysicsBody?) {
+        if (body == null) this.set(contactPos) // Static bodies have position (0, 0)
+        else this.setDifference(contactPos, body.position)
+    }
+
+    /**
+     * Copy the accumulated impulses from the closest contact in the last step,
+     * if it was close enough to be the same contact.
+     *
+     * @param oldContacts the contacts from the last step
+     * @param numOldContacts how many of the old contacts were used
+     * @param maxDistance how far the contact may have moved
+     */
+    fun matchImpulses(oldContacts: Array<ContactPoint>, numOldContacts: Int, maxDistance: Float) {
+        var closestDistSq = maxDistance * maxDistance
+        for (i in 0..<numOldContacts) {
+            val old = oldContacts[i]
+            val dx = position.x - old.position.x
+            val dy = position.y - old.position.y
+            val distSq = dx * dx + dy * dy
+            if (distSq <= closestDistSq) {
+                closestDistSq = distSq
+                normImp = old.normImp
+                tanImp = old.tanImp
+            }
+        }
+    }
+
+    /**
+     * Calculate the relative velocity of two bodies at this contact point.
+     *
+     * @param b1 the first body
+     * @param b2 the second body
+     * @param result the vector to store the velocity in
+     * @return the result vector
+     */
+    fun getRelativeVelocity(b1: PhysicsBody?, b2: PhysicsBody?, result: Vec2): Vec2 {
+        // v_rel = v_2 - v_1, v_p = v + ω x r
+        val angVel1 = MathUtils.toRadians(-b1.angVelocity)
+        val angVel2 = MathUtils.toRadians(-b2.angVelocity)
+        result.set(
+            (b2.velocityX + rad2.y * angVel2) - (b1.velocityX + rad1.y * angVel1),
+            (b2.velocityY - rad2.x * angVel2) - (b1.velocityY - rad1.x * angVel1)
+        )
+        return result
     }
 
     /**
@@ -39,8 +107,9 @@ internal class ContactPoint(private val contactPos: Vec2, b1Pos: Vec2, b2Pos: Ve
      */
     fun getDenominator(direction: Vec2, massData: MassData): Float {
         val (sumInv, invAng1, invAng2) = massData
-        val dot1Sq = MathUtils.squared(direction.dot(rad1.normal()))
-        val dot2Sq = MathUtils.squared(direction.dot(rad2.normal()))
+        // (r_perp · n)^2 = (r x n)^2
+        val dot1Sq = MathUtils.squared(rad1.cross(direction))
+        val dot2Sq = MathUtils.squared(rad2.cross(direction))
         return sumInv + (invAng1 * dot1Sq) + (invAng2 * dot2Sq)
     }
 
@@ -49,9 +118,18 @@ internal class ContactPoint(private val contactPos: Vec2, b1Pos: Vec2, b2Pos: Ve
      * collision.
      */
     fun applyImpulse(b1: PhysicsBody?, b2: PhysicsBody?, impulse: Vec2) {
-        b1?.applyImpulse(-impulse)
-        b1?.applyAngularImpulse(rad1.cross(-impulse))
-        b2?.applyImpulse(impulse)
-        b2?.applyAngularImpulse(rad2.cross(impulse))
+        // Don't touch static bodies, which may be shared between islands
+        if (!b2.static) {
+            b2?.applyImpulse(impulse)
+            b2?.applyAngularImpulse(rad2.cross(impulse))
+        }
+
+        // Apply the opposite impulse to the first body
+        if (!b1.static) {
+            impulse.negateLocal()
+            b1?.applyImpulse(impulse)
+            b1?.applyAngularImpulse(rad1.cross(impulse))
+            impulse.negateLocal()
+        }
     }
-}
\ No newline at end of file
+}
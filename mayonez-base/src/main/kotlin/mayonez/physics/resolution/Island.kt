@@ -0,0 +1,64 @@
+package mayonez.physics.resolution
+
+import mayonez.physics.dynamics.*
+
+/**
+ * A group of moving bodies connected by contacts in one step. Static bodies
+ * do not join islands together, so collisions in different islands never
+ * touch the same moving body and can be resolved independently.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class Island {
+
+    /** The moving bodies in this island. */
+    internal val bodies: MutableList<PhysicsBody> = ArrayList()
+
+    /** The collisions between bodies in this island, in the order they were found. */
+    internal val solvers: MutableList<CollisionSolver> = ArrayList()
+
+    /** How many velocity iterations to run when solving. */
+    internal var iterations: Int = CollisionSolver.DEFAULT_IMPULSE_ITERATIONS
+
+    /**
+     * Resolve all collisions in this island together, iterating over every
+     * collision so impulses can spread through stacks of bodies.
+     */
+    fun solve() {
+        // Use indices to avoid creating iterators every step
+        for (i in solvers.indices) solvers[i].prepare()
+        for (i in solvers.indices) solvers[i].warmStart()
+        repeat(iterations) {
+            for (i in solvers.indices) solvers[i].solveVelocity()
+        }
+    }
+
+    /**
+     * Put the island to sleep if all its bodies have been resting for long
+     * enough.
+     *
+     * @param linearSpeed the most linear speed considered resting
+     * @param angularSpeed the most angular speed considered resting
+     * @param stepsToSleep how many steps the bodies must rest for
+     * @param wakeFlag the world's flag to set when the island wakes up
+     */
+    fun updateSleep(linearSpeed: Float, angularSpeed: Float, stepsToSleep: Int, wakeFlag: WakeFlag? = null) {
+        var canSleep = true
+        for (i in bodies.indices) {
+            val body = bodies[i]
+            // Check every body so all resting counts are updated
+            if (body !is Rigidbody) canSleep = false
+            else if (body.updateRestingSteps(linearSpeed, angularSpeed) < stepsToSleep) canSleep = false
+        }
+        if (!canSleep) return
+
+        val island = bodies.filterIsInstance<Rigidbody>()
+        for (rb in island) rb.sleep(island, wakeFlag)
+    }
+
+    fun clear() {
+        bodies.clear()
+        solvers.clear()
+    }
+
+}
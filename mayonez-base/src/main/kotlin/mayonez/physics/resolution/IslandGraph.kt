@@ -0,0 +1,126 @@
+package mayonez.physics.resolution
+
+import mayonez.physics.dynamics.*
+import java.util.*
+
+/**
+ * Splits the awake moving bodies in the world into [Island] objects using
+ * the collisions found in each step. Bodies touching each other are joined
+ * with a union-find structure, and islands are reused between steps.
+ *
+ * Islands, and the bodies and collisions inside them, are always listed in
+ * the same order for the same bodies and collisions.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class IslandGraph {
+
+    private val indices: MutableMap<PhysicsBody, Int> = IdentityHashMap() // body -> index in body list
+    private var bodyList: List<PhysicsBody> = emptyList()
+    private var parents: IntArray = IntArray(0) // union-find parent of each body
+    private var islandIndices: IntArray = IntArray(0) // island of each root body
+
+    private val islandPool: MutableList<Island> = ArrayList()
+
+    /** The islands found in the last step. */
+    internal val islands: MutableList<Island> = ArrayList()
+
+    /**
+     * Set the bodies in the world. Only needs to be called when bodies are
+     * added or removed.
+     *
+     * @param bodies all physics bodies
+     */
+    fun setBodies(bodies: List<PhysicsBody>) {
+        bodyList = bodies
+        indices.clear()
+        bodies.forEachIndexed { i, body -> indices[body] = i }
+        if (parents.size < bodies.size) {
+            parents = IntArray(bodies.size)
+            islandIndices = IntArray(bodies.size)
+        }
+    }
+
+    /**
+     * Group the awake moving bodies into islands connected by the given
+     * collisions.
+     *
+     * @param solvers the collisions in this step
+     * @param iterations how many velocity iterations each island runs
+     * @return the islands
+     */
+    fun build(
+        solvers: List<CollisionSolver>,
+        iterations: Int = CollisionSolver.DEFAULT_IMPULSE_ITERATIONS
+    ): List<Island> {
+        for (i in islands.indices) islandPool.add(islands[i]) // addAll() copies the list to an array
+        islands.clear()
+
+        // Start with each body in its own set
+        for (i in bodyList.indices) parents[i] = i
+
+        // Join moving bodies that touch
+        for (s in solvers.indices) {
+            val solver = solvers[s]
+            val i1 = indexOf(solver.b1)
+            val i2 = indexOf(solver.b2)
+            if (i1 >= 0 && i2 >= 0) union(i1, i2)
+        }
+
+        // Create an island for each set with awake bodies
+        islandIndices.fill(-1, 0, bodyList.size)
+        for (i in bodyList.indices) {
+            val body = bodyList[i]
+            if (!body.isMoving()) continue
+            val root = find(i)
+            if (islandIndices[root] < 0) {
+                islandIndices[root] = islands.size
+                islands.add(obtainIsland().also { it.iterations = iterations })
+            }
+            islands[islandIndices[root]].bodies.add(body)
+        }
+
+        // Add each collision to its moving body's island
+        for (s in solvers.indices) {
+            val solver = solvers[s]
+            val index = indexOf(solver.b1).takeIf { it >= 0 } ?: indexOf(solver.b2)
+            if (index < 0) continue
+            islands[islandIndices[find(index)]].solvers.add(solver)
+        }
+        return islands
+    }
+
+    /** Get the body's index if it is awake and moving, or -1. */
+    private fun indexOf(body: PhysicsBody?): Int {
+        if (!body.isMoving()) return -1
+        return indices[body] ?: -1
+    }
+
+    private fun PhysicsBody?.isMoving(): Boolean = (this != null) && !this.static && !this.sleeping
+
+    private fun obtainIsland(): Island {
+        val island = if (islandPool.isEmpty()) Island() else islandPool.removeAt(islandPool.lastIndex)
+        island.clear()
+        return island
+    }
+
+    // Union-Find Methods
+
+    private fun find(index: Int): Int {
+        var i = index
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]] // Path halving
+            i = parents[i]
+        }
+        return i
+    }
+
+    private fun union(i1: Int, i2: Int) {
+        val root1 = find(i1)
+        val root2 = find(i2)
+        // Keep the smaller index as the root so the result doesn't depend on order
+        if (root1 < root2) parents[root2] = root1
+        else if (root2 < root1) parents[root1] = root2
+    }
+
+}
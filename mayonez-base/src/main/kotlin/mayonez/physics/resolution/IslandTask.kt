@@ -0,0 +1,35 @@
+package mayonez.physics.resolution
+
+import java.util.concurrent.*
+
+/** The fewest collisions worth solving on another thread. */
+private const val MIN_SOLVERS_PER_TASK: Int = 32
+
+/**
+ * Resolves the collisions in a range of islands, splitting the range in
+ * half across a [ForkJoinPool] while the range has enough collisions.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class IslandTask(
+    private val islands: List<Island>,
+    private val start: Int,
+    private val end: Int
+) : RecursiveAction() {
+
+    override fun compute() {
+        if (end - start > 1 && countSolvers() >= 2 * MIN_SOLVERS_PER_TASK) {
+            val mid = (start + end) ushr 1
+            invokeAll(IslandTask(islands, start, mid), IslandTask(islands, mid, end))
+        } else {
+            for (i in start..<end) islands[i].solve()
+        }
+    }
+
+    private fun countSolvers(): Int {
+        var count = 0
+        for (i in start..<end) count += islands[i].solvers.size
+        return count
+    }
+
+}
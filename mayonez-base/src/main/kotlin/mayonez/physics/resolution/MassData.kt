@@ -9,18 +9,19 @@ import mayonez.physics.dynamics.*
  */
 internal data class MassData(
     /** The sum of both bodies' inverse masses, 1/m1 + 1/m2. */
-    internal val sumInverseMasses: Float,
+    internal var sumInverseMasses: Float,
     /** The first body's inverse angular mass, 1/I1. */
-    internal val inverseAngMass1: Float,
+    internal var inverseAngMass1: Float,
     /** The second body's inverse angular mass, 1/I2. */
-    internal val inverseAngMass2: Float
+    internal var inverseAngMass2: Float
 ) {
-    companion object {
-        internal fun getFrom(b1: PhysicsBody?, b2: PhysicsBody?): MassData {
-            return MassData(
-                b1.invMass + b2.invMass,
-                b1.invAngMass, b2.invAngMass
-            )
-        }
+    internal constructor() : this(0f, 0f, 0f)
+
+    /** Update the masses from two bodies without creating a new object. */
+    internal fun setFrom(b1: PhysicsBody?, b2: PhysicsBody?) {
+        sumInverseMasses = b1.invMass + b2.invMass
+        inverseAngMass1 = b1.invAngMass
+        inverseAngMass2 = b2.invAngMass
     }
-}
\ No newline at end of file
+
+}
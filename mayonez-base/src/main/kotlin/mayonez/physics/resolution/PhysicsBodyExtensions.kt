@@ -17,12 +17,25 @@ internal val PhysicsBody?.invAngMass: Float
 internal val PhysicsBody?.static: Boolean
     get() = this?.static != false
 
+/** Whether the body is static, sleeping, or missing and will not move. */
+internal val PhysicsBody?.resting: Boolean
+    get() = (this == null) || this.static || this.sleeping
+
 internal val PhysicsBody?.position: Vec2
     get() = this?.position ?: Vec2()
 
 internal val PhysicsBody?.velocity: Vec2
     get() = this?.velocity ?: Vec2()
 
+internal val PhysicsBody?.velocityX: Float
+    get() = this?.velocity?.x ?: 0f
+
+internal val PhysicsBody?.velocityY: Float
+    get() = this?.velocity?.y ?: 0f
+
+internal val PhysicsBody?.angVelocity: Float
+    get() = this?.angVelocity ?: 0f
+
 internal val PhysicsBody?.material: PhysicsMaterial
     get() = this?.material ?: PhysicsMaterial.DEFAULT_MATERIAL
 
@@ -0,0 +1,138 @@
+package mayonez.renderer
+
+import mayonez.math.shapes.*
+import java.util.*
+
+/** How much to extend each side of the view, as a fraction of its size. */
+private const val VIEW_MARGIN: Float = 0.05f
+
+/**
+ * Finds which renderables are inside the camera's view, so renderers can
+ * skip processing and drawing objects that are off-screen. Objects report
+ * their bounds through [Renderable.getWorldBounds], and objects without
+ * bounds are always drawn.
+ *
+ * Transforms can be changed directly without any notification, so each
+ * frame [cull] reads the bounds of every enabled object and tests them
+ * against the view. Culling still costs one pass over the added objects,
+ * but processing, batching, and drawing only see the visible ones. Objects
+ * that change every frame, such as debug shapes, are tested directly with
+ * [isVisible].
+ *
+ * The view is padded by a few percent so thick outlines and objects right at
+ * the edge of the screen are not cut off.
+ *
+ * @param T the type of renderable
+ * @author SlavSquatSuperstar
+ */
+internal class ViewCuller<T : Renderable> {
+
+    private val objects: MutableList<T> = ArrayList() // in added order
+    private val added: MutableSet<T> = Collections.newSetFromMap(IdentityHashMap())
+    private val tempBounds: FloatArray = FloatArray(4)
+
+    // View Fields
+    private var viewMinX: Float = 0f
+    private var viewMinY: Float = 0f
+    private var viewMaxX: Float = 0f
+    private var viewMaxY: Float = 0f
+
+    // Frame Statistics
+    private var numDrawn: Int = 0
+    private var numCulled: Int = 0
+
+    /** How many objects were drawn and culled in the last finished frame. */
+    @Volatile
+    var stats: CullingStats = CullingStats.NONE
+        private set
+
+    // Object Methods
+
+    /**
+     * Add an object to be tested each time [cull] is called.
+     *
+     * @param obj the object
+     */
+    fun add(obj: T) {
+        if (added.add(obj)) objects.add(obj)
+    }
+
+    /**
+     * Stop testing an object.
+     *
+     * @param obj the object
+     */
+    fun remove(obj: T) {
+        if (!added.remove(obj)) return
+        objects.removeAt(objects.indexOfFirst { it === obj })
+    }
+
+    fun clear() {
+        objects.clear()
+        added.clear()
+        stats = CullingStats.NONE
+    }
+
+    /** How many objects have been added. */
+    val size: Int
+        get() = objects.size
+
+    // Frame Methods
+
+    /**
+     * Set the area visible this frame and reset the drawn and culled counts.
+     *
+     * @param view the bounds of the view in world units
+     */
+    fun beginFrame(view: BoundingBox) {
+        val min = view.min()
+        val max = view.max()
+        val marginX = (max.x - min.x) * VIEW_MARGIN
+        val marginY = (max.y - min.y) * VIEW_MARGIN
+        viewMinX = min.x - marginX
+        viewMinY = min.y - marginY
+        viewMaxX = max.x + marginX
+        viewMaxY = max.y + marginY
+        numDrawn = 0
+        numCulled = 0
+    }
+
+    /**
+     * Find the enabled objects inside the view, in the order they were added.
+     *
+     * @param visible the list to add visible objects to
+     */
+    fun cull(visible: MutableList<in T>) {
+        for (i in objects.indices) {
+            val obj = objects[i]
+            if (obj.isEnabled && isVisible(obj)) visible.add(obj)
+        }
+    }
+
+    /**
+     * Test whether an object is inside the view and count it as drawn or
+     * culled.
+     *
+     * @param obj the object
+     * @return if the object should be drawn
+     */
+    fun isVisible(obj: Renderable): Boolean {
+        val bounds = tempBounds
+        val visible = !obj.getWorldBounds(bounds) ||
+                overlapsView(bounds[0], bounds[1], bounds[2], bounds[3])
+        if (visible) numDrawn++ else numCulled++
+        return visible
+    }
+
+    /** Publish the drawn and culled counts for this frame. */
+    fun endFrame() {
+        stats = CullingStats(numDrawn, numCulled)
+    }
+
+    // Helper Methods
+
+    private fun overlapsView(minX: Float, minY: Float, maxX: Float, maxY: Float): Boolean {
+        return minX <= viewMaxX && maxX >= viewMinX && minY <= viewMaxY && maxY >= viewMinY
+    }
+
+}
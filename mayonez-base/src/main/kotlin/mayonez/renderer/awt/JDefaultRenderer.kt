@@ -3,22 +3,28 @@ package mayonez.renderer.awt
 import mayonez.*
 import mayonez.graphics.*
 import mayonez.graphics.debug.*
+import mayonez.graphics.sprites.*
 import mayonez.renderer.*
 import java.awt.*
+import java.awt.geom.*
 
 /**
  * Draws all sprites and debug information onto the screen with Java's AWT
- * library.
+ * library. Objects outside the camera's view are skipped using a
+ * [ViewCuller]. Visible objects can also be copied into a [JRenderSnapshot]
+ * to be drawn on a separate render thread. Only [JSprite]s and [DebugShape]s
+ * can be copied, so the render thread never reads live scene objects.
  *
  * @author SlavSquatSuperstar
  */
 @UsesEngine(EngineType.AWT)
 internal class JDefaultRenderer : SceneRenderer,
-    DebugRenderer {
+    DebugRenderer, SnapshotRenderer {
 
     // Renderer Objects
-    private val objects: MutableList<JRenderable> = ArrayList() // Sprites and shapes
-    private val drawObjects: MutableList<JRenderable> = ArrayList() // Enabled objects
+    private val culler: ViewCuller<JRenderable> = ViewCuller() // Sprites
+    private val shapes: MutableList<DebugShape> = ArrayList() // Debug shapes
+    private val drawObjects: MutableList<JRenderable> = ArrayList() // Visible objects
 
     // Scene Information
     private val windowWidth: Int = Preferences.screenWidth
@@ -27,24 +33,27 @@ internal class JDefaultRenderer : SceneRenderer,
     // Scene Renderer Methods
 
     override fun addRenderable(r: Renderable?) {
-        if (r is JRenderable) objects.add(r)
+        if (r is JRenderable) culler.add(r)
     }
 
     override fun removeRenderable(r: Renderable?) {
-        if (r is JRenderable) objects.remove(r)
+        if (r is JRenderable) culler.remove(r)
     }
 
+    override fun getCullingStats(): CullingStats = culler.stats
+
     // Debug Renderer Methods
 
     override fun addShape(shape: DebugShape?) {
-        if (shape != null) objects.add(shape)
+        if (shape != null) shapes.add(shape)
     }
 
     // Renderer Methods
 
     override fun clear() {
         drawObjects.clear()
-        objects.clear()
+        culler.clear()
+        shapes.clear()
     }
 
     override fun render(g2: Graphics2D?) {
@@ -53,46 +62,72 @@ internal class JDefaultRenderer : SceneRenderer,
         // Draw background
         g2.color = viewport.backgroundColor.toAWT()
         g2.fillRect(0, 0, windowWidth, windowHeight)
-        transformScreen(g2)
-
-        // Crate "batches" from objects and shapes
-        val scale = viewport.cameraScale * viewport.zoom
-        drawObjects.clear()
-        objects.filter { it.isEnabled }
-            .map { if (it is DebugShape) it.adjustStrokeSize(scale) else it }
-            .forEach { drawObjects.add(it) }
+        g2.transform(getScreenTransform(viewport))
 
         // Draw batches
-        drawObjects.sortBy { it.zIndex }
+        collectDrawObjects()
         drawObjects.forEach { it.render(g2) }
 
         // Remove all shapes after drawing
-        objects.removeIf { it is DebugShape }
+        shapes.clear()
 
         g2.transform = oldXf // Reset the transform to its previous state
     }
 
+    // Snapshot Renderer Methods
+
+    override fun captureSnapshot(): RenderSnapshot {
+        val startNanos = System.nanoTime()
+        collectDrawObjects()
+        val commands = ArrayList<JDrawCommand>(drawObjects.size)
+        for (obj in drawObjects) {
+            val command = when (obj) {
+                is JSprite -> obj.snapshot()
+                is DebugShape -> obj.snapshot()
+                else -> throw UnsupportedOperationException(
+                    "Cannot copy ${obj.javaClass.simpleName} into a render snapshot; only sprites and shapes are supported"
+                )
+            }
+            if (command != null) commands.add(command)
+        }
+        shapes.clear()
+
+        return JRenderSnapshot(
+            commands, viewport.backgroundColor.toAWT(), getScreenTransform(viewport),
+            windowWidth, windowHeight, startNanos, System.nanoTime() - startNanos
+        )
+    }
+
     // Pre-Render Methods
 
-    /** Transform the screen and render everything at the new position. */
-    private fun transformScreen(g2: Graphics2D) {
-        val cam = this.viewport
-        translateAndScaleScreen(cam, g2)
-        rotateScreen(cam, g2)
+    /** Crate "batches" from visible objects and shapes, sorted by z-index. */
+    private fun collectDrawObjects() {
+        val scale = viewport.cameraScale * viewport.zoom
+        drawObjects.clear()
+        culler.beginFrame(viewport.viewBounds)
+        culler.cull(drawObjects)
+        shapes.filter { culler.isVisible(it) }
+            .forEach { drawObjects.add(it.adjustStrokeSize(scale)) }
+        culler.endFrame()
+        drawObjects.sortBy { it.zIndex }
     }
 
-    private fun rotateScreen(cam: Viewport, g2: Graphics2D) {
-        val camAngleRad = Math.toRadians(cam.rotation.toDouble())
-        val camCenter = cam.screenCenter
-        g2.rotate(-camAngleRad, camCenter.x.toDouble(), camCenter.y.toDouble())
-    }
+    /** Transform the screen to render everything at the camera's position. */
+    private fun getScreenTransform(cam: Viewport): AffineTransform {
+        val xf = AffineTransform()
 
-    private fun translateAndScaleScreen(cam: Viewport, g2: Graphics2D) {
+        // Translate and scale
         val camOffset = cam.screenOffset
         val camZoom = cam.zoom.toDouble()
         val camScale = cam.cameraScale.toDouble()
-        g2.translate(-camOffset.x * camZoom, -camOffset.y * camZoom)
-        g2.scale(camZoom * camScale, camZoom * camScale)
+        xf.translate(-camOffset.x * camZoom, -camOffset.y * camZoom)
+        xf.scale(camZoom * camScale, camZoom * camScale)
+
+        // Rotate
+        val camAngleRad = Math.toRadians(cam.rotation.toDouble())
+        val camCenter = cam.screenCenter
+        xf.rotate(-camAngleRad, camCenter.x.toDouble(), camCenter.y.toDouble())
+        return xf
     }
 
     // Camera Methods
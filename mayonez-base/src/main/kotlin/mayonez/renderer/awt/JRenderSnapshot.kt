@@ -0,0 +1,85 @@
+package mayonez.renderer.awt
+
+import mayonez.*
+import mayonez.graphics.MColor
+import mayonez.graphics.textures.*
+import mayonez.renderer.*
+import java.awt.*
+import java.awt.geom.*
+
+/**
+ * One object copied into a [JRenderSnapshot], which no longer reads the
+ * object it was copied from.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal fun interface JDrawCommand {
+    fun draw(g2: Graphics2D)
+}
+
+/**
+ * Draws a texture with a transform and color copied from a sprite.
+ *
+ * @param texture the sprite's texture
+ * @param transform the sprite's combined object and sprite transform
+ * @param color the sprite's color
+ */
+internal class JSpriteCommand(
+    private val texture: JTexture, private val transform: Transform, private val color: MColor
+) : JDrawCommand {
+    override fun draw(g2: Graphics2D) {
+        texture.draw(g2, transform, null, color)
+    }
+}
+
+/**
+ * Draws a shape that was already converted to AWT.
+ *
+ * @param shape the shape
+ * @param color the shape's color
+ * @param stroke the outline stroke
+ * @param fill whether to fill the shape or draw its outline
+ */
+internal class JShapeCommand(
+    private val shape: Shape, private val color: Color,
+    private val stroke: Stroke, private val fill: Boolean
+) : JDrawCommand {
+    override fun draw(g2: Graphics2D) {
+        g2.color = color
+        g2.stroke = stroke
+        if (fill) g2.fill(shape) else g2.draw(shape)
+    }
+}
+
+/**
+ * A frame captured by the [JDefaultRenderer], containing the background
+ * color, the camera transform, and the visible objects sorted by z-index.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class JRenderSnapshot(
+    private val commands: List<JDrawCommand>,
+    private val background: Color,
+    private val cameraXf: AffineTransform,
+    private val width: Int,
+    private val height: Int,
+    private val captureTimeNanos: Long,
+    private val copyNanos: Long
+) : RenderSnapshot {
+
+    override fun draw(g2: Graphics2D?) {
+        val oldXf = g2?.transform ?: return
+        g2.color = background
+        g2.fillRect(0, 0, width, height)
+        g2.transform(cameraXf)
+        commands.forEach { it.draw(g2) }
+        g2.transform = oldXf
+    }
+
+    override fun size(): Int = commands.size
+
+    override fun getCaptureTimeNanos(): Long = captureTimeNanos
+
+    override fun getCopyNanos(): Long = copyNanos
+
+}
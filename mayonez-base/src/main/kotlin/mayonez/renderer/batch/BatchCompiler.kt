@@ -0,0 +1,290 @@
+package mayonez.renderer.batch
+
+/** The number of bits in a sort key used for the texture group and primitive. */
+private const val GROUP_BITS: Int = 32
+
+/** The number of bits in a sort key used for the primitive. */
+private const val PRIMITIVE_BITS: Int = 2
+
+/** The most texture groups that fit in a sort key. */
+private const val MAX_GROUPS: Int = 1 shl (GROUP_BITS - PRIMITIVE_BITS - 1)
+
+/**
+ * Sorts the objects drawn in one frame and splits them into render batches
+ * without searching through existing batches for each object.
+ *
+ * Each object gets a packed 64-bit sort key made of its z-index, texture
+ * group, and primitive. Texture groups are numbered in the order each
+ * primitive and texture pair first appears, so objects on the same z-index
+ * keep roughly the order they were added in while objects sharing a texture
+ * end up next to each other. The keys are sorted with a stable radix sort,
+ * then batches are cut in one pass whenever the primitive changes, a batch
+ * is full, or it runs out of texture slots. An object may use more than one
+ * primitive, such as a tessellated shape with many triangles, and takes up
+ * that many places in its batch.
+ *
+ * Batches follow the same z-ordering rules as [MultiZRenderBatch] and
+ * [SingleZRenderBatch]: batches of multi-z primitives may hold a range of
+ * z-indices, and all others hold one z-index. A batch is also cut whenever
+ * the primitive changes, so each batch can be drawn in the order of its
+ * lowest z-index.
+ *
+ * The compiler only works with z-indices, primitives, and texture IDs, so it
+ * does not need an OpenGL context.
+ *
+ * @param maxTextureSlots how many textures each batch can hold
+ * @param isMultiZ whether batches of a primitive can hold more than one z-index
+ * @author SlavSquatSuperstar
+ */
+internal class BatchCompiler(
+    private val maxTextureSlots: Int,
+    private val isMultiZ: (DrawPrimitive) -> Boolean
+) {
+
+    // Object Data
+    private var zIndices: IntArray = IntArray(INITIAL_CAPACITY)
+    private var primitives: Array<DrawPrimitive?> = arrayOfNulls(INITIAL_CAPACITY)
+    private var batchSizes: IntArray = IntArray(INITIAL_CAPACITY)
+    private var textures: IntArray = IntArray(INITIAL_CAPACITY)
+    private var primitiveCounts: IntArray = IntArray(INITIAL_CAPACITY)
+    private val textureGroups: MutableMap<Long, Int> = HashMap() // (primitive, texture) to group
+
+    /** How many objects have been added this frame. */
+    var size: Int = 0
+        private set
+
+    // Sort Data
+    private var keys: LongArray = LongArray(INITIAL_CAPACITY)
+    private var order: IntArray = IntArray(INITIAL_CAPACITY)
+    private var tempKeys: LongArray = LongArray(INITIAL_CAPACITY)
+    private var tempOrder: IntArray = IntArray(INITIAL_CAPACITY)
+    private val counts: IntArray = IntArray(RADIX)
+
+    // Batch Data
+    private val batchPool: MutableList<CompiledBatch> = ArrayList() // reused between frames
+    private var numBatches: Int = 0
+
+    /** The batches cut from the sorted objects, in draw order. */
+    val batches: List<CompiledBatch>
+        get() = batchPool.subList(0, numBatches)
+
+    // Input Methods
+
+    /** Remove all objects and batches from the last frame. */
+    fun clear() {
+        size = 0
+        numBatches = 0
+        textureGroups.clear()
+    }
+
+    /**
+     * Add an object to be batched.
+     *
+     * @param zIndex the object's z-index
+     * @param primitive the object's primitive
+     * @param batchSize the most objects of this type a batch can hold
+     * @param texture the object's texture ID, or 0 if drawing a color
+     * @param count how many primitives the object uses, which should be at most the batch size
+     * @return the object's index, which is used to look up sorted objects
+     */
+    fun add(zIndex: Int, primitive: DrawPrimitive, batchSize: Int, texture: Int, count: Int = 1): Int {
+        if (size == zIndices.size) grow()
+        val index = size++
+        zIndices[index] = zIndex
+        primitives[index] = primitive
+        batchSizes[index] = batchSize
+        textures[index] = texture
+        primitiveCounts[index] = count
+        keys[index] = getSortKey(zIndex, primitive, texture)
+        order[index] = index
+        return index
+    }
+
+    private fun grow() {
+        val capacity = zIndices.size * 2
+        zIndices = zIndices.copyOf(capacity)
+        primitives = primitives.copyOf(capacity)
+        batchSizes = batchSizes.copyOf(capacity)
+        textures = textures.copyOf(capacity)
+        primitiveCounts = primitiveCounts.copyOf(capacity)
+        keys = keys.copyOf(capacity)
+        order = order.copyOf(capacity)
+        tempKeys = LongArray(capacity)
+        tempOrder = IntArray(capacity)
+    }
+
+    /**
+     * Pack an object's z-index, texture group, and primitive into a key that
+     * sorts in draw order when compared as an unsigned number.
+     */
+    private fun getSortKey(zIndex: Int, primitive: DrawPrimitive, texture: Int): Long {
+        val pair = (primitive.ordinal.toLong() shl Int.SIZE_BITS) or (texture.toLong() and 0xFFFFFFFFL)
+        val group = textureGroups.getOrPut(pair) { textureGroups.size }.coerceAtMost(MAX_GROUPS - 1)
+        val zBits = (zIndex xor Int.MIN_VALUE).toLong() and 0xFFFFFFFFL // Flip sign so negatives sort first
+        return (zBits shl GROUP_BITS) or (group.toLong() shl PRIMITIVE_BITS) or primitive.ordinal.toLong()
+    }
+
+    // Compile Methods
+
+    /** Sort the objects added this frame and cut them into batches. */
+    fun compile() {
+        radixSort()
+        cutBatches()
+    }
+
+    /**
+     * Sort the keys one byte at a time, from least to most significant.
+     * Counting sort is stable, so objects with equal keys keep the order
+     * they were added in. Bytes that are the same for every key, such as the
+     * upper bytes of small z-indices, are skipped.
+     */
+    private fun radixSort() {
+        for (shift in 0..<Long.SIZE_BITS step RADIX_BITS) {
+            counts.fill(0)
+            for (i in 0..<size) counts[keys[i].digit(shift)]++
+            if (size == 0 || counts[keys[0].digit(shift)] == size) continue // Already sorted by this byte
+
+            var total = 0
+            for (d in 0..<RADIX) {
+                val count = counts[d]
+                counts[d] = total
+                total += count
+            }
+            for (i in 0..<size) {
+                val pos = counts[keys[i].digit(shift)]++
+                tempKeys[pos] = keys[i]
+                tempOrder[pos] = order[i]
+            }
+
+            // Swap buffers
+            keys = tempKeys.also { tempKeys = keys }
+            order = tempOrder.also { tempOrder = order }
+        }
+    }
+
+    private fun Long.digit(shift: Int): Int = ((this ushr shift) and (RADIX - 1).toLong()).toInt()
+
+    /** Walk through the sorted objects and start a new batch whenever an object doesn't fit. */
+    private fun cutBatches() {
+        var batch: CompiledBatch? = null
+        for (pos in 0..<size) {
+            val index = order[pos]
+            val zIndex = zIndices[index]
+            val primitive = primitives[index]!!
+            val texture = textures[index]
+            val count = primitiveCounts[index]
+            if (batch == null || !batch.canFit(zIndex, primitive, texture, count)) {
+                batch = nextBatch(pos, zIndex, primitive, batchSizes[index])
+            }
+            batch.add(zIndex, texture, count)
+        }
+    }
+
+    private fun nextBatch(start: Int, zIndex: Int, primitive: DrawPrimitive, batchSize: Int): CompiledBatch {
+        if (numBatches == batchPool.size) batchPool.add(CompiledBatch(maxTextureSlots))
+        val batch = batchPool[numBatches++]
+        batch.reset(start, zIndex, primitive, batchSize, isMultiZ(primitive))
+        return batch
+    }
+
+    // Output Methods
+
+    /**
+     * Get the index of the object at a position in draw order.
+     *
+     * @param position the position after sorting, from 0 until [size]
+     * @return the index the object was added with
+     */
+    fun getSortedIndex(position: Int): Int = order[position]
+
+    private companion object {
+        private const val INITIAL_CAPACITY: Int = 64
+        private const val RADIX_BITS: Int = 8
+        private const val RADIX: Int = 1 shl RADIX_BITS
+    }
+
+}
+
+/**
+ * A range of sorted objects that can be drawn together in one render batch.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class CompiledBatch(maxTextureSlots: Int) {
+
+    /** The primitive of all objects in the batch. */
+    var primitive: DrawPrimitive = DrawPrimitive.SPRITE
+        private set
+
+    /** The most primitives the batch can hold. */
+    var capacity: Int = 0
+        private set
+
+    /** The position of the batch's first object after sorting. */
+    var start: Int = 0
+        private set
+
+    /** The position after the batch's last object after sorting. */
+    var end: Int = 0
+        private set
+
+    /** The z-index of the first object, which is the batch's draw order. */
+    var minZIndex: Int = 0
+        private set
+
+    /** The z-index of the last object. */
+    var maxZIndex: Int = 0
+        private set
+
+    /** How many primitives the batch's objects use. */
+    var numPrimitives: Int = 0
+        private set
+
+    private var multiZ: Boolean = false
+    private val textures: IntArray = IntArray(maxTextureSlots)
+    private var numTextures: Int = 0
+
+    /** How many objects are in the batch. */
+    val size: Int
+        get() = end - start
+
+    internal fun reset(start: Int, zIndex: Int, primitive: DrawPrimitive, capacity: Int, multiZ: Boolean) {
+        this.primitive = primitive
+        this.capacity = capacity
+        this.start = start
+        this.end = start
+        this.numPrimitives = 0
+        this.multiZ = multiZ
+        minZIndex = zIndex
+        maxZIndex = zIndex
+        numTextures = 0
+    }
+
+    internal fun canFit(zIndex: Int, primitive: DrawPrimitive, texture: Int, count: Int): Boolean {
+        return (primitive == this.primitive) && (numPrimitives + count <= capacity)
+                && (multiZ || zIndex == minZIndex)
+                && (hasTexture(texture) || numTextures < textures.size)
+    }
+
+    internal fun add(zIndex: Int, texture: Int, count: Int) {
+        if (!hasTexture(texture)) textures[numTextures++] = texture
+        maxZIndex = zIndex
+        numPrimitives += count
+        end++
+    }
+
+    /** Colors always fit. Sorted objects usually share the last texture, so check it first. */
+    private fun hasTexture(texture: Int): Boolean {
+        if (texture == 0) return true
+        if (numTextures > 0 && textures[numTextures - 1] == texture) return true
+        for (i in 0..<numTextures - 1) {
+            if (textures[i] == texture) return true
+        }
+        return false
+    }
+
+    override fun toString(): String {
+        return "CompiledBatch (Type: $primitive, Objects: [$start, $end), Z-Index: [$minZIndex, $maxZIndex])"
+    }
+
+}
@@ -0,0 +1,43 @@
+package mayonez.renderer.batch
+
+import kotlin.math.*
+
+/**
+ * Tracks the smallest range of indices containing every index that changed
+ * since the range was last cleared, so only that part of a buffer needs to
+ * be uploaded.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class DirtyRange {
+
+    /** The first changed index. */
+    var start: Int = Int.MAX_VALUE
+        private set
+
+    /** One past the last changed index. */
+    var end: Int = 0
+        private set
+
+    val isEmpty: Boolean
+        get() = start >= end
+
+    /**
+     * Grow the range to include an index.
+     *
+     * @param index the index that changed
+     */
+    fun mark(index: Int) {
+        start = min(start, index)
+        end = max(end, index + 1)
+    }
+
+    /** Mark everything as unchanged. */
+    fun clear() {
+        start = Int.MAX_VALUE
+        end = 0
+    }
+
+    override fun toString(): String = if (isEmpty) "DirtyRange (Empty)" else "DirtyRange [$start, $end)"
+
+}
@@ -0,0 +1,117 @@
+package mayonez.renderer.batch
+
+import mayonez.graphics.*
+import mayonez.math.*
+import java.nio.*
+
+/**
+ * Stores the per-instance attributes of sprites drawn with instancing, where
+ * every sprite is the same unit quad moved by its own transform.
+ *
+ * Each instance is packed into [INSTANCE_BYTES] bytes:
+ * - a 2x3 transform as three vectors: the x-axis, the y-axis, and the origin
+ * - the color as four unsigned bytes (r, g, b, a)
+ * - the texture coordinate rect as (min u, min v, max u, max v)
+ * - the texture slot
+ *
+ * A sprite with four vertices uses 144 bytes in a regular batch, so this
+ * uploads a third of the data. The transform is found from the sprite's
+ * vertex positions, so it works with any quad whose vertices are in the
+ * order bottom left, bottom right, top right, top left.
+ *
+ * The data is stored in a direct buffer that can be passed to OpenGL, but
+ * this class makes no GL calls itself.
+ *
+ * @param capacity the max number of instances
+ * @author SlavSquatSuperstar
+ */
+internal class InstanceData(val capacity: Int) {
+
+    /** The attributes of all instances. */
+    val data: ByteBuffer = ByteBuffer.allocateDirect(capacity * INSTANCE_BYTES)
+        .order(ByteOrder.nativeOrder())
+
+    /** The number of instances written since the last clear. */
+    var numInstances: Int = 0
+        private set
+
+    val hasRoom: Boolean
+        get() = numInstances < capacity
+
+    /** The size of the buffer in bytes. */
+    val sizeBytes: Long
+        get() = data.capacity().toLong()
+
+    /** The size of the written instances in bytes. */
+    val usedBytes: Int
+        get() = numInstances * INSTANCE_BYTES
+
+    /** Remove all instances. Old data is overwritten rather than cleared. */
+    fun clear() {
+        numInstances = 0
+    }
+
+    /**
+     * Pack the next instance from a quad's vertices.
+     *
+     * @param positions the four vertex positions
+     * @param color the color
+     * @param texCoords the four texture coordinates, in the same order as the positions
+     * @param texSlot the texture slot, or 0 if drawing a color
+     */
+    fun put(positions: Array<out Vec2>, color: Color, texCoords: Array<out Vec2>, texSlot: Int) {
+        if (!hasRoom) throw IndexOutOfBoundsException("Instance buffer is full")
+        val start = numInstances++ * INSTANCE_BYTES
+
+        // Transform from unit quad corners
+        val origin = positions[0]
+        val right = positions[1]
+        val top = positions[3]
+        data.putFloat(start + TRANSFORM_OFFSET, right.x - origin.x)
+        data.putFloat(start + TRANSFORM_OFFSET + 4, right.y - origin.y)
+        data.putFloat(start + TRANSFORM_OFFSET + 8, top.x - origin.x)
+        data.putFloat(start + TRANSFORM_OFFSET + 12, top.y - origin.y)
+        data.putFloat(start + TRANSFORM_OFFSET + 16, origin.x)
+        data.putFloat(start + TRANSFORM_OFFSET + 20, origin.y)
+
+        data.put(start + COLOR_OFFSET, color.red.toByte())
+        data.put(start + COLOR_OFFSET + 1, color.green.toByte())
+        data.put(start + COLOR_OFFSET + 2, color.blue.toByte())
+        data.put(start + COLOR_OFFSET + 3, color.alpha.toByte())
+
+        // Opposite corners give the rect, even if the texture is flipped
+        data.putFloat(start + UV_RECT_OFFSET, texCoords[0].x)
+        data.putFloat(start + UV_RECT_OFFSET + 4, texCoords[0].y)
+        data.putFloat(start + UV_RECT_OFFSET + 8, texCoords[2].x)
+        data.putFloat(start + UV_RECT_OFFSET + 12, texCoords[2].y)
+
+        data.putFloat(start + TEX_SLOT_OFFSET, texSlot.toFloat())
+    }
+
+    /**
+     * Get a buffer containing only the written instances.
+     *
+     * @return a view of the buffer
+     */
+    fun getUsedData(): ByteBuffer {
+        return data.duplicate().position(0).limit(usedBytes)
+    }
+
+    companion object {
+        /** The number of bytes each instance uses. */
+        const val INSTANCE_BYTES: Int = 48
+
+        /** Where the x-axis, y-axis, and origin start in an instance, in bytes. */
+        const val TRANSFORM_OFFSET: Int = 0
+
+        /** Where the packed color starts in an instance, in bytes. */
+        const val COLOR_OFFSET: Int = 24
+
+        /** Where the texture coordinate rect starts in an instance, in bytes. */
+        const val UV_RECT_OFFSET: Int = 28
+
+        /** Where the texture slot starts in an instance, in bytes. */
+        const val TEX_SLOT_OFFSET: Int = 44
+    }
+
+}
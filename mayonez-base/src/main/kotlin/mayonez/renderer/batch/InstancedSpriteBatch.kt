@@ -0,0 +1,178 @@
+package mayonez.renderer.batch
+
+import mayonez.graphics.*
+import mayonez.graphics.textures.*
+import mayonez.renderer.gl.*
+import org.lwjgl.BufferUtils
+import org.lwjgl.opengl.GL11.GL_FLOAT
+import org.lwjgl.opengl.GL11.GL_NONE
+import org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE
+import org.lwjgl.opengl.GL11.GL_UNSIGNED_INT
+import org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER
+import org.lwjgl.opengl.GL15.GL_DYNAMIC_DRAW
+import org.lwjgl.opengl.GL15.GL_STATIC_DRAW
+import org.lwjgl.opengl.GL15.glBindBuffer
+import org.lwjgl.opengl.GL15.glBufferData
+import org.lwjgl.opengl.GL15.glBufferSubData
+import org.lwjgl.opengl.GL15.glDeleteBuffers
+import org.lwjgl.opengl.GL15.glGenBuffers
+import org.lwjgl.opengl.GL20.glEnableVertexAttribArray
+import org.lwjgl.opengl.GL20.glVertexAttribPointer
+import org.lwjgl.opengl.GL31.glDrawElementsInstanced
+import org.lwjgl.opengl.GL33.glVertexAttribDivisor
+
+/**
+ * A render batch that draws sprites as instances of one unit quad. Each
+ * sprite only uploads its transform, color, texture rect, and texture slot
+ * from an [InstanceData], and the quad's vertices and indices are uploaded
+ * once when the batch is created.
+ *
+ * Must be drawn with a shader that reads the instance attributes, such as
+ * `instanced.glsl`.
+ *
+ * @param maxBatchObjects the max number of sprites
+ * @param maxTextureSlots the max number of textures
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.GL)
+internal class InstancedSpriteBatch(
+    val maxBatchObjects: Int, maxTextureSlots: Int
+) : DrawableBatch {
+
+    private val primitive: DrawPrimitive = DrawPrimitive.SPRITE
+
+    // Renderer Data
+    private val instances: InstanceData = InstanceData(maxBatchObjects)
+    private val textures: TextureArray = TextureArray(maxTextureSlots)
+
+    /** The lowest z-index in the batch, which is its draw order. */
+    var minZIndex: Int = 0
+
+    /** The highest z-index in the batch. */
+    var maxZIndex: Int = 0
+
+    // GPU Resources
+    private val vao: VertexArray = VertexArray()
+    private val ibo: IndexBuffer = IndexBuffer(primitive, 1)
+    private var quadVboID: Int = GL_NONE
+    private var instanceVboID: Int = GL_NONE
+
+    init {
+        if (GLHelper.isGLInitialized()) createBatch()
+    }
+
+    private fun createBatch() {
+        vao.generate()
+        ibo.generate()
+        vao.bind()
+
+        // Unit quad, shared by all instances
+        quadVboID = glGenBuffers()
+        glBindBuffer(GL_ARRAY_BUFFER, quadVboID)
+        val corners = BufferUtils.createFloatBuffer(UNIT_QUAD.size).put(UNIT_QUAD).flip()
+        glBufferData(GL_ARRAY_BUFFER, corners, GL_STATIC_DRAW)
+        glVertexAttribPointer(CORNER_LOCATION, 2, GL_FLOAT, false, 2 * Float.SIZE_BYTES, 0L)
+        glEnableVertexAttribArray(CORNER_LOCATION)
+
+        // Per-instance attributes
+        instanceVboID = glGenBuffers()
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboID)
+        glBufferData(GL_ARRAY_BUFFER, instances.sizeBytes, GL_DYNAMIC_DRAW)
+        val transform = InstanceData.TRANSFORM_OFFSET.toLong()
+        setInstanceAttribute(AXIS_X_LOCATION, 2, GL_FLOAT, false, transform)
+        setInstanceAttribute(AXIS_Y_LOCATION, 2, GL_FLOAT, false, transform + 2 * Float.SIZE_BYTES)
+        setInstanceAttribute(ORIGIN_LOCATION, 2, GL_FLOAT, false, transform + 4 * Float.SIZE_BYTES)
+        setInstanceAttribute(COLOR_LOCATION, 4, GL_UNSIGNED_BYTE, true, InstanceData.COLOR_OFFSET.toLong())
+        setInstanceAttribute(UV_RECT_LOCATION, 4, GL_FLOAT, false, InstanceData.UV_RECT_OFFSET.toLong())
+        setInstanceAttribute(TEX_SLOT_LOCATION, 1, GL_FLOAT, false, InstanceData.TEX_SLOT_OFFSET.toLong())
+
+        vao.setElementLayout(ibo)
+    }
+
+    private fun setInstanceAttribute(location: Int, components: Int, type: Int, normalized: Boolean, offset: Long) {
+        glVertexAttribPointer(location, components, type, normalized, InstanceData.INSTANCE_BYTES, offset)
+        glEnableVertexAttribArray(location)
+        glVertexAttribDivisor(location, 1) // Advance once per instance
+    }
+
+    // Sprite Methods
+
+    /**
+     * Add a sprite to the batch. The batch should have room for the sprite
+     * and its texture.
+     *
+     * @param quad the sprite
+     */
+    fun addQuad(quad: GLQuad) {
+        val texture = quad.texture
+        val texCoords = texture?.texCoords ?: GLTexture.DEFAULT_TEX_COORDS
+        instances.put(quad.vertexPositions, quad.color, texCoords, getTextureSlot(texture))
+    }
+
+    private fun getTextureSlot(tex: GLTexture?): Int {
+        if (!textures.containsTexture(tex)) textures.addTexture(tex)
+        return textures.getTextureSlot(tex)
+    }
+
+    /** Remove all sprites and textures from the batch so it can be reused. */
+    fun clearInstances() {
+        instances.clear()
+        textures.clear()
+        maxZIndex = minZIndex
+    }
+
+    // Renderer Methods
+
+    override fun drawBatch() {
+        if (instances.numInstances == 0) return
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboID)
+        glBufferSubData(GL_ARRAY_BUFFER, 0L, instances.getUsedData())
+
+        vao.bind()
+        textures.bindTextures()
+        glDrawElementsInstanced(
+            primitive.drawMode, primitive.elementCount, GL_UNSIGNED_INT,
+            GL_NONE.toLong(), instances.numInstances
+        )
+    }
+
+    override fun getDrawOrder(): Int = minZIndex
+
+    /** Free GPU resources upon stopping the scene. */
+    fun deleteBatch() {
+        clearInstances()
+        glBindBuffer(GL_ARRAY_BUFFER, GL_NONE)
+        ibo.unbind()
+        vao.unbind()
+        textures.unbindTextures()
+
+        glDeleteBuffers(quadVboID)
+        glDeleteBuffers(instanceVboID)
+        quadVboID = GL_NONE
+        instanceVboID = GL_NONE
+        ibo.delete()
+        vao.delete()
+    }
+
+    override fun toString(): String {
+        return String.format(
+            "InstancedSpriteBatch (Capacity: %d/%d, Z-Index: [%d, %d])",
+            instances.numInstances, maxBatchObjects, minZIndex, maxZIndex
+        )
+    }
+
+    private companion object {
+        /** The corners of the unit quad, in the same order as sprite vertices. */
+        private val UNIT_QUAD: FloatArray = floatArrayOf(0f, 0f, 1f, 0f, 1f, 1f, 0f, 1f)
+
+        // Shader Attribute Locations
+        private const val CORNER_LOCATION: Int = 0
+        private const val AXIS_X_LOCATION: Int = 1
+        private const val AXIS_Y_LOCATION: Int = 2
+        private const val ORIGIN_LOCATION: Int = 3
+        private const val COLOR_LOCATION: Int = 4
+        private const val UV_RECT_LOCATION: Int = 5
+        private const val TEX_SLOT_LOCATION: Int = 6
+    }
+
+}
@@ -0,0 +1,181 @@
+package mayonez.renderer.batch
+
+import mayonez.graphics.*
+import mayonez.graphics.textures.*
+import mayonez.math.*
+import mayonez.renderer.gl.*
+import org.joml.Vector4f
+import org.lwjgl.opengl.GL11.GL_NONE
+import org.lwjgl.opengl.GL11.GL_UNSIGNED_INT
+import org.lwjgl.opengl.GL11.glDrawElements
+import org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER
+import org.lwjgl.opengl.GL15.glBufferSubData
+
+/**
+ * A render batch of sprites with the same z-index that keeps its vertices
+ * between frames. Each sprite owns a slot in the batch until it is
+ * removed, and only the slots that changed are uploaded before drawing.
+ *
+ * The batch counts how many sprites use each texture. A texture's slot is
+ * freed once its last sprite is removed, and the other textures keep their
+ * slots, since sprites store their texture slots in their vertices.
+ *
+ * @param maxBatchObjects the max number of sprites
+ * @param maxTextureSlots the max number of textures
+ * @param zIndex the z-index of all sprites in the batch
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.GL)
+internal class RetainedSpriteBatch(
+    maxBatchObjects: Int, maxTextureSlots: Int, val zIndex: Int
+) : DrawableBatch, VertexWriter {
+
+    private val primitive: DrawPrimitive = DrawPrimitive.SPRITE
+
+    // Renderer Data
+    internal val vertexData: RetainedVertexData = RetainedVertexData(primitive, maxBatchObjects)
+    private val textures: TextureArray = TextureArray(maxTextureSlots)
+
+    // GPU Resources
+    private val vao: VertexArray = VertexArray()
+    private val vbo: VertexBuffer = VertexBuffer(primitive, vertexData.sizeBytes)
+    private val ibo: IndexBuffer = IndexBuffer(primitive, maxBatchObjects)
+
+    init {
+        if (GLHelper.isGLInitialized()) {
+            vao.generate()
+            vbo.generate()
+            ibo.generate()
+            vao.setVertexLayout(vbo)
+            vao.setElementLayout(ibo)
+        }
+    }
+
+    // Sprite Methods
+
+    /**
+     * If this batch has room for another sprite with the given texture.
+     *
+     * @param texture the texture, or null if drawing a color
+     * @return if the sprite fits
+     */
+    fun canFit(texture: GLTexture?): Boolean {
+        return vertexData.hasRoom && (textures.containsTexture(texture) || textures.hasRoom())
+    }
+
+    /**
+     * Add a sprite to a free slot and write its vertices.
+     *
+     * @param quad the sprite
+     * @return the sprite's slot
+     */
+    fun addQuad(quad: GLQuad): Int {
+        val slot = vertexData.allocate()
+        textures.retainTexture(quad.texture)
+        writeQuad(slot, quad)
+        return slot
+    }
+
+    /**
+     * Rewrite a sprite's vertices after it has changed.
+     *
+     * @param slot the sprite's slot
+     * @param quad the sprite
+     */
+    fun writeQuad(slot: Int, quad: GLQuad) {
+        vertexData.beginSlot(slot)
+        quad.writeVertices(this)
+    }
+
+    /**
+     * Remove a sprite and free its slot, and free its texture's slot if no
+     * other sprites use it.
+     *
+     * @param slot the sprite's slot
+     * @param texID the ID of the texture the sprite was added with
+     */
+    fun removeQuad(slot: Int, texID: Int) {
+        vertexData.free(slot)
+        textures.releaseTexture(texID)
+        if (vertexData.isEmpty) textures.clear()
+    }
+
+    /** Whether the batch holds no sprites. */
+    val isEmpty: Boolean
+        get() = vertexData.isEmpty
+
+    /** How many frames in a row the batch has held no sprites. */
+    var emptyFrames: Int = 0
+        private set
+
+    /**
+     * Count another frame the batch has been empty, or reset the count if it
+     * holds any sprites.
+     *
+     * @return how many frames in a row the batch has been empty
+     */
+    fun countEmptyFrame(): Int {
+        emptyFrames = if (isEmpty) emptyFrames + 1 else 0
+        return emptyFrames
+    }
+
+    // Vertex Writer Methods
+
+    override fun pushInt(i: Int) {
+        vertexData.put(i.toFloat())
+    }
+
+    override fun pushVec2(v: Vec2) {
+        vertexData.put(v.x)
+        vertexData.put(v.y)
+    }
+
+    override fun pushVec4(v: Vector4f) {
+        vertexData.put(v.x)
+        vertexData.put(v.y)
+        vertexData.put(v.z)
+        vertexData.put(v.w)
+    }
+
+    override fun getTextureSlot(tex: GLTexture?): Int {
+        if (!textures.containsTexture(tex)) textures.addTexture(tex)
+        return textures.getTextureSlot(tex)
+    }
+
+    // Renderer Methods
+
+    override fun drawBatch() {
+        vbo.bind()
+        vertexData.flushDirty { offset, data -> glBufferSubData(GL_ARRAY_BUFFER, offset, data) }
+        if (vertexData.numDrawSlots == 0) return
+
+        vao.bind()
+        textures.bindTextures()
+        glDrawElements(
+            primitive.drawMode, vertexData.numDrawSlots * primitive.elementCount,
+            GL_UNSIGNED_INT, GL_NONE.toLong()
+        )
+    }
+
+    override fun getDrawOrder(): Int = zIndex
+
+    /** Free GPU resources upon stopping the scene. */
+    fun deleteBatch() {
+        vbo.unbind()
+        ibo.unbind()
+        vao.unbind()
+        textures.unbindTextures()
+
+        vbo.delete()
+        ibo.delete()
+        vao.delete()
+    }
+
+    override fun toString(): String {
+        return String.format(
+            "RetainedSpriteBatch (Capacity: %d/%d, Z-Index: %d)",
+            vertexData.numObjects, vertexData.capacity, zIndex
+        )
+    }
+
+}
@@ -0,0 +1,120 @@
+package mayonez.renderer.batch
+
+import java.nio.*
+
+/**
+ * Stores the vertices of a retained batch, where each object keeps the
+ * same slot between frames and is only rewritten when it changes. Tracks
+ * which slots changed so only that part of the buffer is uploaded to the
+ * GPU.
+ *
+ * Freed slots are filled with zeros, so they are drawn as empty shapes
+ * until they are used again. The data is stored in a direct buffer that
+ * can be passed to OpenGL, but this class makes no GL calls itself.
+ *
+ * @param primitive the type of object stored in each slot
+ * @param capacity the max number of objects
+ * @author SlavSquatSuperstar
+ */
+internal class RetainedVertexData(primitive: DrawPrimitive, val capacity: Int) {
+
+    /** The number of floats each object uses. */
+    val floatsPerSlot: Int = primitive.vertexCount * primitive.totalComponents
+
+    /** The vertex components of all slots. */
+    val vertices: FloatBuffer = ByteBuffer.allocateDirect(capacity * floatsPerSlot * Float.SIZE_BYTES)
+        .order(ByteOrder.nativeOrder()).asFloatBuffer()
+
+    private val slots: SlotAllocator = SlotAllocator(capacity)
+    private val dirtySlots: DirtyRange = DirtyRange()
+    private var writeIndex: Int = 0 // next float to write
+    private var writeEnd: Int = 0 // end of the slot being written
+
+    // Slot Methods
+
+    val hasRoom: Boolean
+        get() = slots.hasRoom
+
+    val isEmpty: Boolean
+        get() = slots.isEmpty
+
+    /** The number of slots in use. */
+    val numObjects: Int
+        get() = slots.numUsed
+
+    /** How many slots to draw from the start of the buffer, including any empty slots between objects. */
+    val numDrawSlots: Int
+        get() = slots.highWater
+
+    /** The size of the buffer in bytes. */
+    val sizeBytes: Long
+        get() = vertices.capacity().toLong() * Float.SIZE_BYTES
+
+    /**
+     * Reserve a slot for a new object.
+     *
+     * @return the slot, or -1 if the buffer is full
+     */
+    fun allocate(): Int = slots.allocate()
+
+    /**
+     * Remove an object and clear its vertices.
+     *
+     * @param slot the object's slot
+     */
+    fun free(slot: Int) {
+        if (!slots.isUsed(slot)) return
+        slots.free(slot)
+        val start = slot * floatsPerSlot
+        for (i in start..<start + floatsPerSlot) vertices.put(i, 0f)
+        dirtySlots.mark(slot)
+    }
+
+    // Write Methods
+
+    /**
+     * Start rewriting an object's vertices. The following calls to [put]
+     * write to this slot.
+     *
+     * @param slot the object's slot
+     */
+    fun beginSlot(slot: Int) {
+        writeIndex = slot * floatsPerSlot
+        writeEnd = writeIndex + floatsPerSlot
+        dirtySlots.mark(slot)
+    }
+
+    /**
+     * Write the next vertex component of the current slot.
+     *
+     * @param f the component
+     */
+    fun put(f: Float) {
+        if (writeIndex >= writeEnd) throw IndexOutOfBoundsException("Wrote past the end of the slot")
+        vertices.put(writeIndex++, f)
+    }
+
+    // Upload Methods
+
+    /** Whether any slots have changed since they were last uploaded. */
+    val isDirty: Boolean
+        get() = !dirtySlots.isEmpty
+
+    /**
+     * Pass the part of the buffer that changed to an upload function, then
+     * mark it as unchanged.
+     *
+     * @param upload receives the offset of the changed data in bytes and a
+     *     buffer containing only the changed data
+     */
+    fun flushDirty(upload: (Long, FloatBuffer) -> Unit) {
+        if (dirtySlots.isEmpty) return
+        val start = dirtySlots.start * floatsPerSlot
+        val end = dirtySlots.end * floatsPerSlot
+        val changed = vertices.duplicate()
+        changed.position(start).limit(end)
+        upload(start.toLong() * Float.SIZE_BYTES, changed)
+        dirtySlots.clear()
+    }
+
+}
@@ -0,0 +1,64 @@
+package mayonez.renderer.batch
+
+import java.util.*
+
+/**
+ * Hands out numbered slots in a fixed-size buffer, such as the quads in a
+ * vertex buffer. The lowest free slot is always used first, so used slots
+ * stay packed toward the start of the buffer.
+ *
+ * @param capacity the number of slots
+ * @author SlavSquatSuperstar
+ */
+internal class SlotAllocator(val capacity: Int) {
+
+    private val used: BitSet = BitSet(capacity)
+
+    /** The number of slots in use. */
+    var numUsed: Int = 0
+        private set
+
+    /** One past the highest used slot. Slots at or after this index are all free. */
+    val highWater: Int
+        get() = used.length()
+
+    val hasRoom: Boolean
+        get() = numUsed < capacity
+
+    val isEmpty: Boolean
+        get() = numUsed == 0
+
+    /**
+     * Take the lowest free slot.
+     *
+     * @return the slot index, or -1 if all slots are used
+     */
+    fun allocate(): Int {
+        if (!hasRoom) return -1
+        val slot = used.nextClearBit(0)
+        used.set(slot)
+        numUsed++
+        return slot
+    }
+
+    /**
+     * Return a slot so it can be used again. Does nothing if the slot is not
+     * in use.
+     *
+     * @param slot the slot index
+     */
+    fun free(slot: Int) {
+        if (!isUsed(slot)) return
+        used.clear(slot)
+        numUsed--
+    }
+
+    fun isUsed(slot: Int): Boolean = (slot in 0..<capacity) && used[slot]
+
+    /** Free all slots. */
+    fun clear() {
+        used.clear()
+        numUsed = 0
+    }
+
+}
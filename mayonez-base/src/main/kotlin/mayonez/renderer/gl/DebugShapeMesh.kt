@@ -0,0 +1,236 @@
+package mayonez.renderer.gl
+
+import mayonez.graphics.*
+import mayonez.graphics.debug.*
+import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.renderer.batch.*
+import kotlin.math.*
+
+/**
+ * Caches unit-space tessellations of debug shapes so they are not rebuilt
+ * every frame. Circles and ellipses are drawn as a unit polygon that is
+ * scaled, rotated, and moved for each shape.
+ *
+ * The number of segments depends on the shape's apparent size, and is
+ * rounded up to a multiple of [SEGMENT_STEP] so that small changes in size
+ * or zoom reuse the same tessellation.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class ShapeTessellator {
+
+    private val unitCircles: MutableMap<Int, FloatArray> = HashMap() // segments to vertices
+
+    /** How many unit tessellations are cached. */
+    val size: Int
+        get() = unitCircles.size
+
+    /**
+     * The number of segments needed to draw an ellipse smoothly at the given
+     * zoom.
+     *
+     * @param ellipse the ellipse
+     * @param zoom the camera zoom, in pixels per unit
+     * @return the segment count
+     */
+    fun getSegments(ellipse: Ellipse, zoom: Float): Int {
+        // Apparent circumference in pixels
+        val segments = (ellipse.circumference() * 0.1f * zoom).roundToInt()
+        val rounded = (segments + SEGMENT_STEP - 1) / SEGMENT_STEP * SEGMENT_STEP
+        return rounded.coerceIn(MIN_SEGMENTS, MAX_SEGMENTS)
+    }
+
+    /**
+     * Get the vertices of a regular polygon with radius 1, starting at (1, 0)
+     * and going counterclockwise.
+     *
+     * @param segments the number of vertices
+     * @return the vertices as (x, y) pairs
+     */
+    fun getUnitCircle(segments: Int): FloatArray {
+        return unitCircles.getOrPut(segments) {
+            val angle = 360f / segments
+            FloatArray(segments * 2) {
+                val degrees = angle * (it / 2)
+                if (it % 2 == 0) MathUtils.cos(degrees) else MathUtils.sin(degrees)
+            }
+        }
+    }
+
+    companion object {
+        const val MIN_SEGMENTS: Int = 8
+        const val MAX_SEGMENTS: Int = 256
+        const val SEGMENT_STEP: Int = 8
+    }
+
+}
+
+/**
+ * The triangles of a [DebugShape], written straight to a render batch
+ * without creating any [Edge] or [Triangle] objects. Filled shapes are
+ * split into a fan of triangles, and outlines draw each edge as a quad as
+ * wide as the brush's stroke.
+ *
+ * Meshes are reused between frames, so they only store the vertices of the
+ * last shape they were set to.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class DebugShapeMesh : GLRenderable {
+
+    // Shape Data
+    private var points: FloatArray = FloatArray(INITIAL_POINTS * 2) // (x, y) pairs
+    private var numPoints: Int = 0
+    private var closed: Boolean = true
+    private var fill: Boolean = false
+    private var halfStroke: Float = 0f
+    private var zIndex: Int = 0
+    private val color: GLColor = GLColor()
+
+    /** How many triangles the mesh draws. */
+    var numTriangles: Int = 0
+        private set
+
+    /**
+     * Tessellate a shape in world space.
+     *
+     * @param debugShape the shape
+     * @param zoom the camera zoom, in pixels per unit
+     * @param tessellator the cache of unit tessellations
+     * @return whether the shape fits in a render batch
+     */
+    fun set(debugShape: DebugShape, zoom: Float, tessellator: ShapeTessellator): Boolean {
+        closed = true
+        when (val shape = debugShape.shape) {
+            is Edge -> {
+                setPoints(2)
+                setPoint(0, shape.start.x, shape.start.y)
+                setPoint(1, shape.end.x, shape.end.y)
+                closed = false
+            }
+
+            is MPolygon -> {
+                val vertices = shape.vertices
+                setPoints(vertices.size)
+                for (i in vertices.indices) setPoint(i, vertices[i].x, vertices[i].y)
+            }
+
+            is Ellipse -> setEllipse(shape, tessellator.getUnitCircle(tessellator.getSegments(shape, zoom)))
+            else -> return false
+        }
+
+        fill = debugShape.fill && closed
+        halfStroke = debugShape.strokeSize / zoom * 0.5f // Apparent width in pixels
+        zIndex = debugShape.brush.zIndex
+        val c = debugShape.brush.color
+        color.set(c.red.norm(), c.green.norm(), c.blue.norm(), 1f) // disable transparency
+
+        val numEdges = if (closed) numPoints else numPoints - 1
+        numTriangles = if (fill) numPoints - 2 else numEdges * 2
+        return numTriangles in 1..batchSize
+    }
+
+    private fun setEllipse(ellipse: Ellipse, unitCircle: FloatArray) {
+        val center = ellipse.center()
+        val halfWidth = ellipse.size.x * 0.5f
+        val halfHeight = ellipse.size.y * 0.5f
+        val cosAngle = MathUtils.cos(ellipse.angle)
+        val sinAngle = MathUtils.sin(ellipse.angle)
+
+        setPoints(unitCircle.size / 2)
+        for (i in 0..<numPoints) {
+            val x = unitCircle[2 * i] * halfWidth
+            val y = unitCircle[2 * i + 1] * halfHeight
+            setPoint(i, center.x + x * cosAngle - y * sinAngle, center.y + x * sinAngle + y * cosAngle)
+        }
+    }
+
+    private fun setPoints(count: Int) {
+        if (points.size < count * 2) points = FloatArray(count * 2)
+        numPoints = count
+    }
+
+    private fun setPoint(index: Int, x: Float, y: Float) {
+        points[2 * index] = x
+        points[2 * index + 1] = y
+    }
+
+    // Batch Methods
+
+    override fun pushToBatch(batch: RenderBatch) {
+        writeVertices(batch)
+    }
+
+    /**
+     * Write this mesh's triangles to a batch or other vertex storage.
+     *
+     * @param writer where to write the vertices
+     */
+    fun writeVertices(writer: VertexWriter) {
+        if (fill) writeFill(writer) else writeOutline(writer)
+    }
+
+    /** Split a convex polygon into triangles that share the first vertex. */
+    private fun writeFill(writer: VertexWriter) {
+        for (i in 1..<numPoints - 1) {
+            writer.pushPoint(points[0], points[1])
+            writer.pushPoint(points[2 * i], points[2 * i + 1])
+            writer.pushPoint(points[2 * i + 2], points[2 * i + 3])
+        }
+    }
+
+    /** Draw each edge as a rectangle made of two triangles. */
+    private fun writeOutline(writer: VertexWriter) {
+        val numEdges = if (closed) numPoints else numPoints - 1
+        for (i in 0..<numEdges) {
+            val j = (i + 1) % numPoints
+            val startX = points[2 * i]
+            val startY = points[2 * i + 1]
+            val endX = points[2 * j]
+            val endY = points[2 * j + 1]
+
+            // Offset from the edge to each side of the stroke
+            val length = MathUtils.hypot(endX - startX, endY - startY)
+            val scale = if (length > 0f) halfStroke / length else 0f
+            val offsetX = -(endY - startY) * scale
+            val offsetY = (endX - startX) * scale
+
+            writer.pushPoint(startX - offsetX, startY - offsetY)
+            writer.pushPoint(endX - offsetX, endY - offsetY)
+            writer.pushPoint(endX + offsetX, endY + offsetY)
+
+            writer.pushPoint(startX - offsetX, startY - offsetY)
+            writer.pushPoint(endX + offsetX, endY + offsetY)
+            writer.pushPoint(startX + offsetX, startY + offsetY)
+        }
+    }
+
+    private fun VertexWriter.pushPoint(x: Float, y: Float) {
+        pushVec2(x, y)
+        pushVec4(color)
+    }
+
+    // Renderable Methods
+
+    override fun getBatchSize(): Int = MAX_BATCH_TRIANGLES
+
+    override fun getPrimitiveCount(): Int = numTriangles
+
+    override fun getPrimitive(): DrawPrimitive = DrawPrimitive.TRIANGLE
+
+    override fun getZIndex(): Int = zIndex
+
+    override fun isEnabled(): Boolean = true
+
+    override fun isInUI(): Boolean = false
+
+    override fun toString(): String {
+        return "DebugShapeMesh (Points: $numPoints, Triangles: $numTriangles, Fill: $fill)"
+    }
+
+    private companion object {
+        private const val INITIAL_POINTS: Int = 32
+    }
+
+}
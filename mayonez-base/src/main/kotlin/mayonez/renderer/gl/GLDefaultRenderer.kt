@@ -1,38 +1,76 @@
 package mayonez.renderer.gl
 
+import mayonez.*
 import mayonez.graphics.*
 import mayonez.graphics.debug.*
 import mayonez.graphics.font.*
+import mayonez.graphics.sprites.*
+import mayonez.graphics.textures.*
 import mayonez.math.shapes.*
 import mayonez.renderer.*
 import mayonez.renderer.batch.*
 import mayonez.renderer.shader.*
 
+/** Retained batches that have been empty for more frames than this are deleted. */
+private const val MAX_EMPTY_BATCH_FRAMES: Int = 60
+
 /**
  * Draws all sprites and debug information onto the screen using LWJGL's
  * OpenGL library.
  *
+ * In retained mode, set by [Preferences.retainedRendering], each sprite
+ * keeps its slot in a [RetainedSpriteBatch] between frames and is only
+ * rewritten when it moves or changes. Sprites only change batches when
+ * their z-index or texture ID changes or they are disabled, and batches
+ * left empty for [MAX_EMPTY_BATCH_FRAMES] frames are deleted. Text and
+ * debug shapes are still rebuilt every frame.
+ *
+ * With [Preferences.instancedRendering], sprites and text that are rebuilt
+ * each frame are drawn as instances of one quad using `instancedShader`.
+ *
+ * Sprites, text, and debug shapes outside the camera's view are skipped
+ * before they are processed or batched, using a [ViewCuller].
+ *
+ * Debug shapes are tessellated into reused [DebugShapeMesh]es, and the unit
+ * polygons for circles and ellipses are cached by a [ShapeTessellator].
+ *
  * @author SlavSquatSuperstar
  */
 @UsesEngine(EngineType.GL)
-internal class GLDefaultRenderer(shader: Shader) : GLRenderer(shader),
+internal class GLDefaultRenderer(shader: Shader, instancedShader: Shader?) : GLRenderer(shader, instancedShader),
     SceneRenderer, DebugRenderer {
 
     // Renderer Objects
-    private val objects: MutableList<Renderable> = ArrayList() // Sprites and text
+    private val culler: ViewCuller<Renderable> = ViewCuller() // Sprites and text
+    private val objects: MutableList<Renderable> = ArrayList() // Visible sprites and text
     private val tempObjects: MutableList<Renderable> = ArrayList() // Debug shapes
     private val drawObjects: MutableList<GLRenderable> = ArrayList() // Objects to batch
 
+    // Debug Shapes
+    private val tessellator: ShapeTessellator = ShapeTessellator()
+    private val shapeMeshes: MutableList<DebugShapeMesh> = ArrayList() // reused between frames
+    private var numShapeMeshes: Int = 0
+
+    // Retained Mode
+    private val retainedMode: Boolean = Preferences.retainedRendering
+    private val retainedSprites: MutableMap<Renderable, RetainedSprite> = LinkedHashMap()
+    private val retainedBatches: MutableList<RetainedSpriteBatch> = ArrayList()
+
     // Scene Renderer Methods
 
     override fun addRenderable(r: Renderable?) {
-        if (r.isAccepted()) objects.add(r!!)
+        if (retainedMode && r.isRetained()) retainedSprites[r!!] = RetainedSprite(r as Sprite)
+        else if (r.isAccepted()) culler.add(r!!)
     }
 
     override fun removeRenderable(r: Renderable?) {
-        if (r.isAccepted()) objects.remove(r!!)
+        val retained = retainedSprites.remove(r)
+        if (retained != null) retained.removeFromBatch()
+        else if (r.isAccepted()) culler.remove(r!!)
     }
 
+    override fun getCullingStats(): CullingStats = culler.stats
+
     // Debug Renderer Methods
 
     override fun addShape(shape: DebugShape?) {
@@ -43,9 +81,14 @@ internal class GLDefaultRenderer(shader: Shader) : GLRenderer(shader),
 
     override fun clear() {
         super.clear()
+        retainedBatches.forEach(RetainedSpriteBatch::deleteBatch)
+        retainedBatches.clear()
+        retainedSprites.clear()
+        culler.clear()
         objects.clear()
         tempObjects.clear()
         drawObjects.clear()
+        numShapeMeshes = 0
     }
 
     override fun preRender() {
@@ -53,9 +96,12 @@ internal class GLDefaultRenderer(shader: Shader) : GLRenderer(shader),
 
         // Upload uniforms
         val cam = viewport
-        shader.uploadMat4("uView", cam.viewMatrix)
-        shader.uploadMat4("uProjection", cam.projectionMatrix)
-        shader.uploadIntArray("uTextures", textureSlots)
+        instancedShader?.let {
+            it.bind()
+            it.uploadCameraUniforms(cam)
+            shader.bind()
+        }
+        shader.uploadCameraUniforms(cam)
 
         // Draw background color
         val bgColor = cam.backgroundColor.toGL()
@@ -63,54 +109,84 @@ internal class GLDefaultRenderer(shader: Shader) : GLRenderer(shader),
     }
 
     override fun createBatches() {
-        // Sort objects
-        objects.sortBy { it.zIndex }
-        tempObjects.sortBy { it.zIndex }
+        culler.beginFrame(viewport.viewBounds)
+        updateRetainedSprites()
+
+        // Find visible objects
+        objects.clear()
+        culler.cull(objects)
+        tempObjects.removeIf { !culler.isVisible(it) }
+        culler.endFrame()
 
         // Process objects
-        objects.filter { it.isEnabled }
-            .forEach { it.process() }
+        objects.forEach { it.process() }
         tempObjects.filter { it.isEnabled }
             .forEach { it.process() }
 
-        // Push objects
-        var lastBatch: RenderBatch? = null
-        // Already sorted by primitive
-        drawObjects.sortBy { it.zIndex }
-        drawObjects.forEach {
-            // Create new batch
-            if (lastBatch == null || !lastBatch.canFitObject(it)) {
-                if (lastBatch is MultiZRenderBatch) {
-                    lastBatch.isClosed = true // Don't use this batch anymore
-                }
-                lastBatch = it.getAvailableBatch()
-            }
-            // Push to batch
-            it.pushToBatch(lastBatch)
-            if (lastBatch is MultiZRenderBatch) {
-                lastBatch.maxZIndex = it.zIndex // Update max z-index
+        // Push objects, sorted by z-index
+        pushToBatches(drawObjects)
+    }
+
+    /**
+     * Move sprites whose z-index or texture changed to a new batch, and rewrite
+     * the vertices of sprites that moved. Sprites outside the view are removed
+     * from their batches until they are visible again.
+     */
+    private fun updateRetainedSprites() {
+        for (rs in retainedSprites.values) {
+            if (!rs.sprite.isEnabled || !culler.isVisible(rs.sprite)) {
+                rs.removeFromBatch()
+            } else if (rs.needsNewBatch()) {
+                rs.removeFromBatch()
+                rs.addToBatch(getRetainedBatch(rs.sprite.zIndex, rs.currentTexture))
+            } else {
+                rs.update()
             }
         }
+        pruneRetainedBatches()
     }
 
+    /**
+     * Delete retained batches that have been empty for a while, such as after
+     * all sprites at a z-index were removed or scrolled out of view.
+     */
+    private fun pruneRetainedBatches() {
+        retainedBatches.removeIf { batch ->
+            val unused = batch.countEmptyFrame() > MAX_EMPTY_BATCH_FRAMES
+            if (unused) batch.deleteBatch()
+            unused
+        }
+    }
+
+    /** Find a retained batch with room for a sprite or create a new one. */
+    private fun getRetainedBatch(zIndex: Int, texture: GLTexture?): RetainedSpriteBatch {
+        val batch = retainedBatches.find { it.zIndex == zIndex && it.canFit(texture) }
+        if (batch != null) return batch
+
+        val newBatch = RetainedSpriteBatch(GLQuad.MAX_BATCH_SPRITES, MAX_TEXTURE_SLOTS, zIndex)
+        retainedBatches.add(newBatch)
+        return newBatch
+    }
+
+    override fun getRetainedBatches(): Collection<DrawableBatch> = retainedBatches
+
     override fun postRender() {
         super.postRender()
         tempObjects.clear() // Clear debug shapes after each frame
         drawObjects.clear() // Clear batch objects after each frame
+        objects.clear()
+        numShapeMeshes = 0
     }
 
     // Helper Methods
 
-    override fun GLRenderable.createNewBatch(): RenderBatch {
-        val batch: RenderBatch
-        if (primitive == DrawPrimitive.SPRITE) {
-            batch = MultiZRenderBatch(primitive, batchSize, MAX_TEXTURE_SLOTS)
-            batch.minZIndex = this.zIndex // Set min z-index
-            batch.maxZIndex = this.zIndex // Set initial max z-index
-        } else {
-            batch = SingleZRenderBatch(primitive, batchSize, MAX_TEXTURE_SLOTS, zIndex)
-        }
-        return batch
+    /** Sprites can share batches across z-indices, but shapes cannot. */
+    override fun isMultiZ(primitive: DrawPrimitive): Boolean = (primitive == DrawPrimitive.SPRITE)
+
+    private fun Shader.uploadCameraUniforms(cam: Viewport) {
+        uploadMat4("uView", cam.viewMatrix)
+        uploadMat4("uProjection", cam.projectionMatrix)
+        uploadIntArray("uTextures", textureSlots)
     }
 
     private fun Renderable.process() {
@@ -124,6 +200,14 @@ internal class GLDefaultRenderer(shader: Shader) : GLRenderer(shader),
     private fun DebugShape.processShape() {
         val cam = viewport
         val zoom = cam.zoom * cam.cameraScale
+        val mesh = nextShapeMesh()
+        if (mesh.set(this, zoom, tessellator)) {
+            drawObjects.add(mesh)
+            return
+        }
+
+        // Shape is too large for one batch
+        numShapeMeshes--
         getParts(zoom).forEach { shapePart ->
             if (shapePart is Edge) {
                 drawObjects.addAll(shapePart.getDrawParts(this.brush, zoom))
@@ -133,6 +217,13 @@ internal class GLDefaultRenderer(shader: Shader) : GLRenderer(shader),
         }
     }
 
+    private fun nextShapeMesh(): DebugShapeMesh {
+        if (numShapeMeshes == shapeMeshes.size) shapeMeshes.add(DebugShapeMesh())
+        return shapeMeshes[numShapeMeshes++]
+    }
+
+    private fun Renderable?.isRetained(): Boolean = (this is Sprite) && (this is GLQuad)
+
     private fun Renderable?.isAccepted(): Boolean {
         return (this is GLRenderable) || (this is TextLabel)
     }
@@ -11,10 +11,26 @@ import java.awt.*
  * A base renderer for OpenGL that uploads sprite and shape data to the
  * GPU.
  *
+ * Objects are sorted and split into batches each frame by a
+ * [BatchCompiler]. Batches are kept between frames and reused for objects
+ * with the same primitive and batch size.
+ *
+ * If the renderer has an instanced shader, sprites are drawn in
+ * [InstancedSpriteBatch]es that only upload one transform per sprite, and
+ * all other primitives use regular vertex batches. Both kinds of batches are
+ * drawn in the order the compiler cut them, so objects on the same z-index
+ * are drawn in the same order either way.
+ *
+ * @param shader the shader for vertex batches
+ * @param instancedShader the shader for instanced sprite batches, or null to
+ *     draw sprites with vertex batches
  * @author SlavSquatSuperstar
  */
 @UsesEngine(EngineType.GL)
-abstract class GLRenderer(protected val shader: Shader) : Renderer {
+abstract class GLRenderer(
+    protected val shader: Shader,
+    protected val instancedShader: Shader? = null
+) : Renderer {
 
     companion object {
         @JvmStatic
@@ -22,28 +38,60 @@ abstract class GLRenderer(protected val shader: Shader) : Renderer {
     }
 
     // GPU Resources
-    private val batches: MutableList<RenderBatch> = ArrayList()
+    private val allBatches: MutableList<RenderBatch> = ArrayList() // all batches created
+    private val freeBatches: MutableMap<Long, ArrayDeque<MultiZRenderBatch>> = HashMap() // unused batches by type
+    private val batches: MutableList<MultiZRenderBatch> = ArrayList() // batches used this frame
+    private val allInstancedBatches: MutableList<InstancedSpriteBatch> = ArrayList()
+    private val freeInstancedBatches: ArrayDeque<InstancedSpriteBatch> = ArrayDeque()
+    private val instancedBatches: MutableList<InstancedSpriteBatch> = ArrayList() // instanced batches used this frame
+    private val frameBatches: MutableList<DrawableBatch> = ArrayList() // vertex and instanced batches in compiled order
     protected val textureSlots: IntArray = IntArray(MAX_TEXTURE_SLOTS) { it }
+    private val drawBatches: MutableList<DrawableBatch> = ArrayList() // all batches in draw order
+    private val compiler: BatchCompiler = BatchCompiler(MAX_TEXTURE_SLOTS) { isMultiZ(it) }
 
     // Renderer Methods
 
     override fun clear() {
-        batches.forEach(RenderBatch::deleteBatch)
+        allBatches.forEach(RenderBatch::deleteBatch)
+        allBatches.clear()
+        freeBatches.clear()
         batches.clear()
+        allInstancedBatches.forEach(InstancedSpriteBatch::deleteBatch)
+        allInstancedBatches.clear()
+        freeInstancedBatches.clear()
+        instancedBatches.clear()
+        frameBatches.clear()
     }
 
     override fun render(g2: Graphics2D?) {
         // Re-buffer objects
         preRender() // Prepare batches
-        batches.forEach(RenderBatch::clearVertices)
+        recycleBatches()
         createBatches()
 
         // Draw objects
-        batches.sortBy(RenderBatch::getDrawOrder) // Sort batches by z-index
-        batches.forEach(RenderBatch::drawBatch)
+        drawBatches.clear()
+        drawBatches.addAll(getRetainedBatches()) // Draw retained batches first at the same z-index
+        drawBatches.addAll(frameBatches) // Keep the compiler's order at the same z-index
+        drawBatches.sortBy(DrawableBatch::getDrawOrder) // Sort batches by z-index, keeping order for ties
+        drawAllBatches()
         postRender()
     }
 
+    /** Draw the batches in order, switching shaders between vertex and instanced batches. */
+    private fun drawAllBatches() {
+        var boundShader = shader
+        for (batch in drawBatches) {
+            val batchShader = if (batch is InstancedSpriteBatch) instancedShader!! else shader
+            if (batchShader !== boundShader) {
+                batchShader.bind()
+                boundShader = batchShader
+            }
+            batch.drawBatch()
+        }
+        if (boundShader !== shader) shader.bind()
+    }
+
     /** Clear the screen and upload resources to the GPU. */
     protected open fun preRender() {
         shader.bind() // TODO may be better to bind shader for each object
@@ -52,6 +100,12 @@ abstract class GLRenderer(protected val shader: Shader) : Renderer {
     /** Sort image data into render batches. */
     protected abstract fun createBatches()
 
+    /**
+     * Get the batches that keep their vertices between frames, which are
+     * drawn alongside the batches rebuilt each frame.
+     */
+    protected open fun getRetainedBatches(): Collection<DrawableBatch> = emptyList()
+
     /** Finish drawing and free resources from the GPU. */
     protected open fun postRender() {
         shader.unbind() // Unbind everything
@@ -64,25 +118,92 @@ abstract class GLRenderer(protected val shader: Shader) : Renderer {
 
     // Batch Helper Methods
 
-    // TODO see Cherno renderer class
     /**
-     * Gets an available render batch for this object or creates a new one it all
-     * batches are full.
+     * Sort objects by z-index and texture and push them to as few batches as
+     * possible.
+     *
+     * @param objects the objects to draw this frame
      */
-    protected fun GLRenderable.getAvailableBatch(): RenderBatch {
-        val batch = batches.find { it.canFitObject(this) }
-        if (batch != null) {
-            return batch
-        } else {
-            val newBatch = this.createNewBatch()
-            batches.add(newBatch)
-            return newBatch
+    protected fun pushToBatches(objects: List<GLRenderable>) {
+        compiler.clear()
+        for (obj in objects) {
+            compiler.add(obj.zIndex, obj.primitive, obj.getBatchCapacity(), obj.texture?.texID ?: 0, obj.primitiveCount)
+        }
+        compiler.compile()
+
+        for (compiled in compiler.batches) {
+            if (isInstanced(compiled.primitive)) {
+                pushToInstancedBatch(objects, compiled)
+                continue
+            }
+            val batch = getFreeBatch(compiled.primitive, compiled.capacity)
+            batch.minZIndex = compiled.minZIndex
+            batch.maxZIndex = compiled.maxZIndex
+            for (pos in compiled.start..<compiled.end) {
+                objects[compiler.getSortedIndex(pos)].pushToBatch(batch)
+            }
+            batches.add(batch)
+            frameBatches.add(batch)
         }
     }
 
+    private fun pushToInstancedBatch(objects: List<GLRenderable>, compiled: CompiledBatch) {
+        val batch = freeInstancedBatches.removeLastOrNull()
+            ?: InstancedSpriteBatch(GLQuad.MAX_BATCH_INSTANCES, MAX_TEXTURE_SLOTS).also { allInstancedBatches.add(it) }
+        batch.minZIndex = compiled.minZIndex
+        batch.maxZIndex = compiled.maxZIndex
+        for (pos in compiled.start..<compiled.end) {
+            batch.addQuad(objects[compiler.getSortedIndex(pos)] as GLQuad)
+        }
+        instancedBatches.add(batch)
+        frameBatches.add(batch)
+    }
+
+    /** Whether objects of this primitive are drawn with instancing. */
+    private fun isInstanced(primitive: DrawPrimitive): Boolean {
+        return (instancedShader != null) && (primitive == DrawPrimitive.SPRITE)
+    }
+
+    /** The most objects of this type a batch can hold, which is higher for instanced sprites. */
+    private fun GLRenderable.getBatchCapacity(): Int {
+        return if (isInstanced(primitive)) GLQuad.MAX_BATCH_INSTANCES else batchSize
+    }
+
     /**
-     * Creates a new render batch that can draw this object.
+     * Whether batches of this primitive can hold objects with different
+     * z-indices, like a [MultiZRenderBatch], or only one z-index, like a
+     * [SingleZRenderBatch].
      */
-    abstract fun GLRenderable.createNewBatch(): RenderBatch
+    protected open fun isMultiZ(primitive: DrawPrimitive): Boolean = true
+
+    /** Empty the batches used last frame so they can be reused. */
+    private fun recycleBatches() {
+        for (batch in batches) {
+            batch.clearVertices()
+            freeBatches.getOrPut(getPoolKey(batch.primitive, batch.maxBatchObjects)) { ArrayDeque() }.addLast(batch)
+        }
+        batches.clear()
+
+        for (batch in instancedBatches) {
+            batch.clearInstances()
+            freeInstancedBatches.addLast(batch)
+        }
+        instancedBatches.clear()
+        frameBatches.clear()
+    }
+
+    /** Get an unused batch for objects of this type or create a new one. */
+    private fun getFreeBatch(primitive: DrawPrimitive, capacity: Int): MultiZRenderBatch {
+        val batch = freeBatches[getPoolKey(primitive, capacity)]?.removeLastOrNull()
+        if (batch != null) return batch
+
+        val newBatch = MultiZRenderBatch(primitive, capacity, MAX_TEXTURE_SLOTS)
+        allBatches.add(newBatch)
+        return newBatch
+    }
+
+    private fun getPoolKey(primitive: DrawPrimitive, capacity: Int): Long {
+        return (primitive.ordinal.toLong() shl Int.SIZE_BITS) or capacity.toLong()
+    }
 
 }
\ No newline at end of file
@@ -46,27 +46,12 @@ internal class GLUIRenderer(shader: Shader) : GLRenderer(shader), UIRenderer {
     }
 
     override fun createBatches() {
-        // Sort objects
-        objects.sortBy { it.zIndex }
-
         // Process objects
         objects.filter { it.isEnabled }
             .forEach { it.process() }
 
-        // Push objects
-        var lastBatch: RenderBatch? = null
-        // Already sorted by z-index
-        drawObjects.forEach {
-            // Create new batch
-            if (lastBatch == null || !lastBatch.canFitObject(it)) {
-                lastBatch = it.getAvailableBatch()
-            }
-            // Push to batch
-            it.pushToBatch(lastBatch)
-            if (lastBatch is MultiZRenderBatch) {
-                lastBatch.maxZIndex = it.zIndex // Update max z-index
-            }
-        }
+        // Push objects, sorted by z-index
+        pushToBatches(drawObjects)
     }
 
     override fun postRender() {
@@ -75,13 +60,6 @@ internal class GLUIRenderer(shader: Shader) : GLRenderer(shader), UIRenderer {
 
     // Helper Functions
 
-    override fun GLRenderable.createNewBatch(): RenderBatch {
-        val batch = MultiZRenderBatch(primitive, batchSize, MAX_TEXTURE_SLOTS)
-        batch.minZIndex = this.zIndex // Set min z-index
-        batch.maxZIndex = this.zIndex // Set initial max z-index
-        return batch
-    }
-
     private fun Renderable.process() {
         when (this) {
             is GLRenderable -> drawObjects.add(this)
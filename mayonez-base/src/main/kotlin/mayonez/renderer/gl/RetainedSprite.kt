@@ -0,0 +1,117 @@
+package mayonez.renderer.gl
+
+import mayonez.graphics.*
+import mayonez.graphics.sprites.*
+import mayonez.graphics.textures.*
+import mayonez.renderer.batch.*
+
+/** The number of values that determine where a sprite's vertices are. */
+private const val POSE_SIZE: Int = 10
+
+/**
+ * Remembers which [RetainedSpriteBatch] slot holds a sprite and what the
+ * sprite looked like when its vertices were last written. Sprites have no
+ * change events, so the renderer compares the sprite's transforms, color,
+ * texture, and z-index to their saved values every frame instead.
+ *
+ * Textures are compared by their texture IDs, since a batch stores IDs.
+ * A sprite that switches to another texture with the same ID, such as a
+ * different sprite in the same sheet, stays in its batch and only has its
+ * vertices rewritten.
+ *
+ * @param sprite the sprite, which must be a [GLQuad]
+ * @author SlavSquatSuperstar
+ */
+@UsesEngine(EngineType.GL)
+internal class RetainedSprite(val sprite: Sprite) {
+
+    private val quad: GLQuad = sprite as GLQuad
+
+    /** The batch holding this sprite, or null if it is not being drawn. */
+    var batch: RetainedSpriteBatch? = null
+        private set
+    private var slot: Int = -1
+
+    // Saved State
+    private var zIndex: Int = 0
+    private var texture: GLTexture? = null
+    private var texID: Int = 0 // 0 if drawing a color
+    private val pose: FloatArray = FloatArray(POSE_SIZE)
+    private val currentPose: FloatArray = FloatArray(POSE_SIZE)
+    private var color: Int = 0 // RGBA value
+
+    /** The texture the sprite currently draws. */
+    val currentTexture: GLTexture?
+        get() = quad.texture
+
+    /**
+     * Whether the sprite must be moved to a different batch because it is
+     * not in one or its z-index or texture ID changed.
+     */
+    fun needsNewBatch(): Boolean {
+        return (batch == null) || (sprite.zIndex != zIndex) || (quad.texture.getID() != texID)
+    }
+
+    /**
+     * Add the sprite to a batch and write its vertices.
+     *
+     * @param batch a batch with room for the sprite
+     */
+    fun addToBatch(batch: RetainedSpriteBatch) {
+        this.batch = batch
+        zIndex = sprite.zIndex
+        texture = quad.texture
+        texID = texture.getID()
+        readPose(pose)
+        color = sprite.getColor().getRGBAValue()
+        slot = batch.addQuad(quad)
+    }
+
+    /** Remove the sprite from its batch, if any. */
+    fun removeFromBatch() {
+        batch?.removeQuad(slot, texID)
+        batch = null
+        slot = -1
+    }
+
+    /**
+     * Rewrite the sprite's vertices if it has moved, changed color, or changed
+     * to another texture with the same ID.
+     */
+    fun update() {
+        val batch = batch ?: return
+        readPose(currentPose)
+        val currentColor = sprite.getColor().getRGBAValue()
+        val currentTexture = quad.texture
+        if (currentPose.contentEquals(pose) && currentColor == color && currentTexture === texture) return
+
+        currentPose.copyInto(pose)
+        color = currentColor
+        texture = currentTexture
+        batch.writeQuad(slot, quad)
+    }
+
+    /** Store the position, rotation, and scale of the sprite and its object. */
+    private fun readPose(values: FloatArray) {
+        val objXf = sprite.renderTransform
+        values[0] = objXf.position.x
+        values[1] = objXf.position.y
+        values[2] = objXf.rotation
+        values[3] = objXf.scale.x
+        values[4] = objXf.scale.y
+
+        val spriteXf = sprite.getSpriteTransform()
+        if (spriteXf != null) {
+            values[5] = spriteXf.position.x
+            values[6] = spriteXf.position.y
+            values[7] = spriteXf.rotation
+            values[8] = spriteXf.scale.x
+            values[9] = spriteXf.scale.y
+        } else {
+            values.fill(0f, 5, POSE_SIZE)
+        }
+    }
+
+}
+
+private fun GLTexture?.getID(): Int = this?.getTexID() ?: 0
@@ -0,0 +1,56 @@
+#type vertex
+#version 400 core
+
+// Sprites drawn as instances of a unit quad
+
+layout (location=0) in vec2 aCorner;
+
+// Per-instance attributes
+layout (location=1) in vec2 aAxisX;
+layout (location=2) in vec2 aAxisY;
+layout (location=3) in vec2 aOrigin;
+layout (location=4) in vec4 aColor;
+layout (location=5) in vec4 aUVRect; // (min u, min v, max u, max v)
+layout (location=6) in float aTexID;
+
+uniform mat4 uView;
+uniform mat4 uProjection;
+
+out vec4 fColor;
+out vec2 fTexCoords;
+out float fTexID;
+
+void main()
+{
+    fColor = aColor;
+    fTexCoords = mix(aUVRect.xy, aUVRect.zw, aCorner);
+    fTexID = aTexID;
+
+    vec2 position = aOrigin + aCorner.x * aAxisX + aCorner.y * aAxisY;
+    gl_Position = uProjection * uView * vec4(position, 0.0, 1.0);
+}
+
+#type fragment
+#version 400 core
+
+in vec4 fColor;
+in vec2 fTexCoords;
+in float fTexID;
+
+uniform sampler2D uTextures[8];
+
+out vec4 color;
+
+void main()
+{
+    // Apply color to texture
+    if (fTexID > 0)
+    {
+        color = fColor * texture(uTextures[int(fTexID) - 1], fTexCoords);
+    }
+    // Draw plain color
+    else
+    {
+        color = fColor;
+    }
+}
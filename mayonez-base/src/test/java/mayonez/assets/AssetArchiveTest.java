@@ -0,0 +1,109 @@
+package mayonez.assets;
+
+import mayonez.assets.text.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link mayonez.assets.AssetArchive} class.
+ *
+ * @author SlavSquatSuperstar
+ */
+class AssetArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AssetArchive writeArchive(Map<String, byte[]> contents) throws IOException {
+        var file = tempDir.resolve("assets.pak").toFile();
+        AssetArchive.write(file, contents);
+        return AssetArchive.open(file);
+    }
+
+    @Test
+    void writtenArchiveReadsSameContents() throws IOException {
+        var archive = writeArchive(Map.of(
+                "assets/a.txt", "hello".getBytes(StandardCharsets.UTF_8),
+                "assets/images/b.bin", new byte[]{1, 2, 3, 4, 5, 6, 7},
+                "assets/empty.txt", new byte[0]
+        ));
+        assertEquals(3, archive.getSize());
+        assertEquals(Set.of("assets/a.txt", "assets/images/b.bin", "assets/empty.txt"), archive.getPaths());
+
+        var buffer = archive.getContents("assets/images/b.bin");
+        assertNotNull(buffer);
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7}, bytes);
+        assertEquals(0, archive.getContents("assets/empty.txt").remaining());
+    }
+
+    @Test
+    void contentsAreReadOnlyMappedViews() throws IOException {
+        var archive = writeArchive(Map.of("assets/a.txt", new byte[]{1, 2}));
+        var buffer = archive.getContents("assets/a.txt");
+        assertNotNull(buffer);
+        assertTrue(buffer.isDirect());
+        assertTrue(buffer.isReadOnly());
+    }
+
+    @Test
+    void missingAssetReturnsNull() throws IOException {
+        var archive = writeArchive(Map.of("assets/a.txt", new byte[]{1}));
+        assertFalse(archive.contains("assets/b.txt"));
+        assertNull(archive.getContents("assets/b.txt"));
+    }
+
+    @Test
+    void invalidArchiveThrowsException() throws IOException {
+        var file = tempDir.resolve("bad.pak");
+        Files.write(file, "not an asset archive".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> AssetArchive.open(file.toFile()));
+    }
+
+    @Test
+    void packedFolderAndJarEarlierSourceWins() throws IOException {
+        var folder = tempDir.resolve("resources");
+        Files.createDirectories(folder.resolve("assets/images"));
+        Files.write(folder.resolve("assets/a.txt"), new byte[]{1});
+        Files.write(folder.resolve("assets/images/b.bin"), new byte[]{2});
+        Files.write(folder.resolve("other.txt"), new byte[]{3}); // Not under assets
+
+        var jar = tempDir.resolve("lib.jar");
+        try (var out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("assets/a.txt"));
+            out.write(new byte[]{4});
+            out.putNextEntry(new ZipEntry("assets/c.txt"));
+            out.write(new byte[]{5});
+        }
+
+        var file = tempDir.resolve("packed.pak").toFile();
+        assertEquals(3, AssetArchive.pack(file, List.of(folder.toFile(), jar.toFile())));
+        var archive = AssetArchive.open(file);
+        assertEquals(Set.of("assets/a.txt", "assets/images/b.bin", "assets/c.txt"), archive.getPaths());
+        assertEquals(1, archive.getContents("assets/a.txt").get()); // Folder came first
+        assertEquals(5, archive.getContents("assets/c.txt").get());
+    }
+
+    @Test
+    void archiveFilePathStreamsContents() throws IOException {
+        var archive = writeArchive(Map.of("assets/a.txt", "line 1\r\nline 2\n".getBytes(StandardCharsets.UTF_8)));
+        var path = new ArchiveFilePath("assets/a.txt", archive);
+        assertTrue(path.isReadable());
+        assertFalse(path.isWritable());
+        try (var stream = path.openInputStream()) {
+            assertArrayEquals(new String[]{"line 1", "line 2"}, TextIOUtils.readLines(stream));
+        }
+        assertArrayEquals(new String[]{"line 1", "line 2"}, TextIOUtils.readLines(path.getByteBuffer()));
+        assertEquals("line 1\nline 2\n", TextIOUtils.readText(path.getByteBuffer()));
+    }
+
+}
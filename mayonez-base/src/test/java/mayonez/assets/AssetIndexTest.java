@@ -0,0 +1,63 @@
+package mayonez.assets;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link mayonez.assets.AssetIndex} class.
+ *
+ * @author SlavSquatSuperstar
+ */
+class AssetIndexTest {
+
+    private static final String HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    @Test
+    void writtenIndexReadsSameEntries() throws IOException {
+        var index = new AssetIndex(List.of(
+                new AssetIndex.Entry("assets/b.txt", 12L, "txt", HASH),
+                new AssetIndex.Entry("assets/a.png", 340L, "png", HASH)
+        ));
+        var writer = new StringWriter();
+        index.write(writer);
+
+        var readIndex = AssetIndex.read(new BufferedReader(new StringReader(writer.toString())));
+        assertEquals(2, readIndex.getSize());
+        assertEquals(List.copyOf(index.getEntries()), List.copyOf(readIndex.getEntries()));
+        assertEquals("assets/a.png", readIndex.getEntries().iterator().next().getPath()); // Sorted
+    }
+
+    @Test
+    void commentsAndBlankLinesSkipped() throws IOException {
+        var text = "# header\n\nassets/a.txt\t5\ttxt\t%s\n".formatted(HASH);
+        var index = AssetIndex.read(new BufferedReader(new StringReader(text)));
+        assertEquals(1, index.getSize());
+        var entry = index.get("assets/a.txt");
+        assertNotNull(entry);
+        assertEquals(5L, entry.getSize());
+        assertEquals("txt", entry.getType());
+    }
+
+    @Test
+    void malformedLineThrowsException() {
+        var text = "assets/a.txt\tfive\ttxt\t%s\n".formatted(HASH);
+        assertThrows(IOException.class, () -> AssetIndex.read(new BufferedReader(new StringReader(text))));
+    }
+
+    @Test
+    void pathsFoundInsideFolder() {
+        var index = new AssetIndex(List.of(
+                new AssetIndex.Entry("assets/images/a.png", 1L, "png", HASH),
+                new AssetIndex.Entry("assets/images/sub/b.png", 1L, "png", HASH),
+                new AssetIndex.Entry("assets/imagesextra/c.png", 1L, "png", HASH),
+                new AssetIndex.Entry("assets/text/d.txt", 1L, "txt", HASH)
+        ));
+        assertEquals(List.of("assets/images/a.png", "assets/images/sub/b.png"), index.getPaths("assets/images"));
+        assertEquals(4, index.getPaths("assets/").size());
+    }
+
+}
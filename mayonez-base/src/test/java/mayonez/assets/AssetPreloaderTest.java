@@ -0,0 +1,128 @@
+package mayonez.assets;
+
+import mayonez.assets.image.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link mayonez.assets.AssetPreloader} class.
+ *
+ * @author SlavSquatSuperstar
+ */
+class AssetPreloaderTest {
+
+    private static final long TIMEOUT_MILLIS = 5000L;
+
+    @BeforeEach
+    void reloadAssets() {
+        Assets.clearAssets();
+        Assets.scanResources("testassets/");
+    }
+
+    @Test
+    void preloadFolderStoresAllAssets() {
+        var preloader = new AssetPreloader(2, 4)
+                .addFolder("testassets/images", AWTImageData.class, "png", "jpg");
+        preloader.start();
+        runUntilDone(preloader);
+
+        assertEquals(4, preloader.getNumAssets());
+        assertTrue(preloader.getFailures().isEmpty());
+        assertEquals(1f, preloader.getProgress());
+        for (var filename : Assets.getAssetNames("testassets/images")) {
+            assertInstanceOf(AWTImageData.class, Assets.getAsset(filename));
+        }
+    }
+
+    @Test
+    void unreadableAssetsAreReported() {
+        var preloader = new AssetPreloader(1, 4)
+                .add("testassets/text/foo.txt", FailingAsset.class)
+                .add("testassets/text/properties.txt", TestAsset.class);
+        preloader.start();
+        runUntilDone(preloader);
+
+        assertEquals(1, preloader.getFailures().size());
+        assertEquals("testassets/text/foo.txt", preloader.getFailures().get(0).getFilename());
+        assertInstanceOf(TestAsset.class, Assets.getAsset("testassets/text/properties.txt"));
+    }
+
+    @Test
+    void deferredAssetsFinishInBatchesOnCallingThread() throws InterruptedException {
+        var preloader = new AssetPreloader(2, 1)
+                .add("testassets/text/foo.txt", DeferredTestAsset.class)
+                .add("testassets/text/properties.txt", DeferredTestAsset.class)
+                .add("testassets/text/engines.csv", DeferredTestAsset.class);
+        preloader.start();
+
+        var start = System.currentTimeMillis();
+        while (preloader.getNumAssetsRead() < 3) {
+            assertTrue(System.currentTimeMillis() - start < TIMEOUT_MILLIS, "Preloading timed out");
+            Thread.sleep(1L);
+        }
+
+        assertFalse(preloader.update());
+        assertEquals(1, preloader.getNumAssetsCompleted());
+        assertFalse(preloader.update());
+        assertTrue(preloader.update());
+
+        var asset = (DeferredTestAsset) Assets.getAsset("testassets/text/foo.txt");
+        assertNotNull(asset);
+        assertFalse(asset.needsFinishing());
+        assertSame(Thread.currentThread(), asset.finishingThread);
+    }
+
+    @Test
+    void alreadyLoadedAssetsAreNotReadAgain() {
+        var original = Assets.getAsset("testassets/text/properties.txt", TestAsset.class);
+        var preloader = new AssetPreloader().add("testassets/text/properties.txt", TestAsset.class);
+        preloader.start();
+        assertTrue(preloader.update());
+        assertSame(original, Assets.getAsset("testassets/text/properties.txt"));
+    }
+
+    private static void runUntilDone(AssetPreloader preloader) {
+        var start = System.currentTimeMillis();
+        while (!preloader.update()) {
+            assertTrue(System.currentTimeMillis() - start < TIMEOUT_MILLIS, "Preloading timed out");
+            Thread.onSpinWait();
+        }
+    }
+
+    // Test Asset Classes
+
+    private static class TestAsset extends Asset {
+        public TestAsset(String filename) {
+            super(filename);
+        }
+    }
+
+    private static class FailingAsset extends Asset {
+        public FailingAsset(String filename) throws IOException {
+            super(filename);
+            throw new IOException("Cannot read " + filename);
+        }
+    }
+
+    private static class DeferredTestAsset extends Asset implements DeferredAsset {
+        private Thread finishingThread;
+
+        public DeferredTestAsset(String filename) {
+            super(filename);
+        }
+
+        @Override
+        public boolean needsFinishing() {
+            return finishingThread == null;
+        }
+
+        @Override
+        public void finishLoading() {
+            finishingThread = Thread.currentThread();
+        }
+    }
+
+}
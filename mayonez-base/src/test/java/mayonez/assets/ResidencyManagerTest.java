@@ -0,0 +1,129 @@
+package mayonez.assets;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link mayonez.assets.ResidencyManager} class.
+ *
+ * @author SlavSquatSuperstar
+ */
+class ResidencyManagerTest {
+
+    private ResidencyManager residency;
+
+    @BeforeEach
+    void setUp() {
+        residency = new ResidencyManager();
+        residency.setCpuBudget(250L);
+    }
+
+    @Test
+    void underBudgetEvictsNothing() {
+        var a = new TestAsset(100L);
+        var b = new TestAsset(100L);
+        residency.track(a);
+        residency.track(b);
+        residency.trim();
+
+        assertEquals(0, residency.trim());
+        assertEquals(200L, residency.getStats().getCpuBytes());
+        assertEquals(2, residency.getStats().getResidentAssets());
+    }
+
+    @Test
+    void overBudgetEvictsLeastRecentlyUsed() {
+        var a = new TestAsset(100L);
+        var b = new TestAsset(100L);
+        var c = new TestAsset(100L);
+        residency.track(a);
+        residency.trim();
+        residency.track(b);
+        residency.trim();
+        residency.track(c);
+
+        assertEquals(1, residency.trim()); // c was used this frame
+        assertTrue(a.evicted);
+        assertFalse(b.evicted);
+        assertEquals(200L, residency.getStats().getCpuBytes());
+        assertEquals(1L, residency.getStats().getEvictions());
+    }
+
+    @Test
+    void referencedAssetsNotEvicted() {
+        var a = new TestAsset(200L);
+        var b = new TestAsset(200L);
+        residency.track(a);
+        residency.track(b);
+        residency.acquire(a);
+        residency.acquire(b);
+        residency.trim();
+
+        assertEquals(0, residency.trim());
+        residency.release(a);
+        assertEquals(1, residency.trim());
+        assertTrue(a.evicted);
+        assertEquals(0, residency.getRefCount(a));
+        assertEquals(1, residency.getRefCount(b));
+    }
+
+    @Test
+    void trimAdvancesFrame() {
+        var frame = residency.getFrame();
+        residency.trim();
+        assertEquals(frame + 1, residency.getFrame());
+    }
+
+    @Test
+    void touchedAssetsNotEvicted() {
+        var a = new TestAsset(300L);
+        residency.track(a);
+        residency.trim();
+        residency.touch(a);
+        assertEquals(0, residency.trim());
+        assertEquals(1, residency.trim()); // Not used last frame
+    }
+
+    @Test
+    void trackAfterEvictionCountsReload() {
+        var a = new TestAsset(300L);
+        residency.track(a);
+        residency.trim();
+        residency.trim();
+        assertEquals(0L, residency.getStats().getCpuBytes());
+
+        a.evicted = false; // Read again
+        residency.track(a);
+        var stats = residency.getStats();
+        assertEquals(300L, stats.getCpuBytes());
+        assertEquals(1L, stats.getReloads());
+    }
+
+    private static class TestAsset implements ResidentAsset {
+        private final long bytes;
+        private boolean evicted;
+
+        private TestAsset(long bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long getResidentCpuBytes() {
+            return evicted ? 0L : bytes;
+        }
+
+        @Override
+        public long getResidentGpuBytes() {
+            return 0L;
+        }
+
+        @Override
+        public boolean evict() {
+            if (evicted) return false;
+            evicted = true;
+            return true;
+        }
+    }
+
+}
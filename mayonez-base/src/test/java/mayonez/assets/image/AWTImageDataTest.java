@@ -102,6 +102,23 @@ class AWTImageDataTest {
         assertColorsRoughlyEqual(Colors.BLACK, image.getPixelColor(0, 0));
     }
 
+    // Bulk Pixels
+
+    @Test
+    void transparentPngBulkPixelsCorrect() {
+        testBulkPixelsMatchPixelColors(getImage(TRANSPARENT_PNG));
+    }
+
+    @Test
+    void opaqueJpgBulkPixelsCorrect() {
+        testBulkPixelsMatchPixelColors(getImage(OPAQUE_JPG));
+    }
+
+    @Test
+    void opaquePngCanSetBulkPixels() {
+        testSetBulkPixels(getImage(OPAQUE_PNG));
+    }
+
     // Sub-Image
     @Test
     void subImagePixelsCorrect() {
@@ -29,6 +29,27 @@ final class ImageTestUtils {
         }
     }
 
+    static void testBulkPixelsMatchPixelColors(ImageData image) {
+        var pixels = image.getPixels();
+        for (var y = 0; y < image.getHeight(); y++) {
+            for (var x = 0; x < image.getWidth(); x++) {
+                var pixel = pixels[x + y * image.getWidth()];
+                assertEquals(image.getPixelColor(x, y).getRGBAValue(), pixel, "Pixel (%d, %d)".formatted(x, y));
+            }
+        }
+    }
+
+    static void testSetBulkPixels(ImageData image) {
+        var region = new int[]{0xFF000000, 0xFFFF0000, 0xFF00FF00, 0xFF0000FF};
+        image.setPixels(1, 2, 2, 2, region, 0, 2);
+        assertEquals(new Color(255, 0, 0), image.getPixelColor(2, 2));
+        assertEquals(new Color(0, 0, 255), image.getPixelColor(2, 3));
+
+        var row = image.getRow(3, new int[image.getWidth()]);
+        assertEquals(0xFF00FF00, row[1]);
+        assertEquals(0xFF0000FF, row[2]);
+    }
+
     static void assertColorsRoughlyEqual(Color expected, Color actual) {
         assertEquals(expected.getRed(), actual.getRed(), 1);
         assertEquals(expected.getGreen(), actual.getGreen(), 1);
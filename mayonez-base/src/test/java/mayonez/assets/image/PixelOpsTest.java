@@ -0,0 +1,66 @@
+package mayonez.assets.image;
+
+import mayonez.graphics.*;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PixelOps} class.
+ *
+ * @author SlavSquatSuperstar
+ */
+class PixelOpsTest {
+
+    @Test
+    void recolorMatchesColorCombine() {
+        var tint = new Color(200, 100, 50, 128);
+        var colors = new Color[]{
+                new Color(255, 255, 255, 255), new Color(0, 0, 0, 0),
+                new Color(17, 128, 254, 1), new Color(3, 77, 190, 255)
+        };
+        var pixels = new int[colors.length];
+        for (var i = 0; i < colors.length; i++) pixels[i] = colors[i].getRGBAValue();
+
+        PixelOps.recolor(pixels, tint.getRGBAValue());
+        for (var i = 0; i < colors.length; i++) {
+            assertEquals(colors[i].combine(tint), new Color(pixels[i]));
+        }
+    }
+
+    @Test
+    void premultiplyScalesByAlpha() {
+        var pixels = new int[]{
+                new Color(255, 128, 10, 255).getRGBAValue(),
+                new Color(255, 128, 10, 0).getRGBAValue(),
+                new Color(255, 128, 10, 128).getRGBAValue()
+        };
+        PixelOps.premultiply(pixels);
+        assertEquals(new Color(255, 128, 10, 255), new Color(pixels[0]));
+        assertEquals(new Color(0, 0, 0, 0), new Color(pixels[1]));
+        assertEquals(new Color(128, 64, 5, 128), new Color(pixels[2]));
+    }
+
+    @Test
+    void lastFilledColumnFound() {
+        // 4x3 image, with a region of 3x2 starting at (1, 1)
+        var pixels = new int[]{
+                0xFF000000, 0, 0, 0xFF000000,
+                0, 0, 0x01000000, 0xFF000000,
+                0, 0, 0, 0
+        };
+        assertEquals(1, PixelOps.findLastFilledColumn(pixels, 4, 1, 1, 2, 2));
+        assertEquals(2, PixelOps.findLastFilledColumn(pixels, 4, 1, 1, 3, 2));
+        assertEquals(-1, PixelOps.findLastFilledColumn(pixels, 4, 0, 1, 2, 2));
+        assertTrue(PixelOps.isColumnBlank(pixels, 4, 1, 0, 3));
+        assertFalse(PixelOps.isColumnBlank(pixels, 4, 3, 0, 2));
+    }
+
+    @Test
+    void flipVerticallySwapsRows() {
+        var pixels = new int[]{1, 2, 3, 4, 5, 6};
+        PixelOps.flipVertically(pixels, 2, 3);
+        assertArrayEquals(new int[]{5, 6, 3, 4, 1, 2}, pixels);
+    }
+
+}
@@ -37,6 +37,27 @@ class LauncherTest {
         assertFalse(launcher.getUseGL());
     }
 
+    @Test
+    void headlessUsesAWT() {
+        launcher = new Launcher(new String[]{"--engine", "headless", "--frames", "120"});
+        assertFalse(launcher.getUseGL());
+        assertTrue(launcher.getHeadless());
+        assertEquals(120, launcher.getMaxFrames());
+    }
+
+    @Test
+    void noFramesRunsUntilStopped() {
+        launcher = new Launcher(new String[]{"--engine", "awt"});
+        assertFalse(launcher.getHeadless());
+        assertEquals(0, launcher.getMaxFrames());
+    }
+
+    @Test
+    void invalidFramesThrowsException() {
+        launcher = new Launcher(new String[]{"--frames", "many"});
+        assertThrows(IllegalArgumentException.class, launcher::getMaxFrames);
+    }
+
     @Test
     void invalidArgValueThrowsException() {
         launcher = new Launcher(new String[]{"--engine", "vk"});
@@ -0,0 +1,93 @@
+package mayonez.graphics.textures;
+
+import mayonez.graphics.*;
+import mayonez.graphics.Color;
+import org.junit.jupiter.api.*;
+
+import java.awt.image.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link mayonez.graphics.textures.TintedImageCache} class.
+ *
+ * @author SlavSquatSuperstar
+ */
+class TintedImageCacheTest {
+
+    private TintedImageCache cache;
+    private BufferedImage image;
+
+    @BeforeEach
+    void createCache() {
+        cache = new TintedImageCache(2);
+        image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) image.setRGB(x, y, 0xFFFFFFFF);
+        }
+    }
+
+    @Test
+    void sameTintReusesImage() {
+        var red = new Color(255, 0, 0);
+        var first = cache.getImage(image, red, null);
+        var second = cache.getImage(image, new Color(255, 0, 0), null);
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void tintRecolorsCopy() {
+        var recolored = cache.getImage(image, new Color(255, 0, 0), null);
+        assertNotSame(image, recolored);
+        assertEquals(0xFFFF0000, recolored.getRGB(0, 0));
+        assertEquals(0xFFFFFFFF, image.getRGB(0, 0)); // Original unchanged
+    }
+
+    @Test
+    void whiteOrNullTintReturnsSource() {
+        assertSame(image, cache.getImage(image, null, null));
+        assertSame(image, cache.getImage(image, Colors.WHITE, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedImageRemoved() {
+        var red = new Color(255, 0, 0);
+        var green = new Color(0, 255, 0);
+        var blue = new Color(0, 0, 255);
+        var redImage = cache.getImage(image, red, null);
+        cache.getImage(image, green, null);
+        cache.getImage(image, red, null); // Use red again
+        cache.getImage(image, blue, null); // Remove green
+
+        assertEquals(2, cache.size());
+        assertSame(redImage, cache.getImage(image, red, null));
+        cache.getImage(image, green, null);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void removedSourceDropsItsImages() {
+        var other = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        var red = new Color(255, 0, 0);
+        var redImage = cache.getImage(image, red, null);
+        cache.getImage(other, red, null);
+
+        cache.remove(image);
+        assertEquals(1, cache.size());
+        assertNotSame(redImage, cache.getImage(image, red, null)); // Recolored again
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void zeroCapacityStoresNothing() {
+        cache.setCapacity(0);
+        var red = new Color(255, 0, 0);
+        assertNotSame(cache.getImage(image, red, null), cache.getImage(image, red, null));
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+}
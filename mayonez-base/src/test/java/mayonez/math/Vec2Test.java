@@ -89,6 +89,49 @@ class Vec2Test {
         assertEquals(v.div(0), new Vec2(0));
     }
 
+    // In-Place Arithmetic
+
+    @Test
+    void inPlaceAdditionModifiesVector() {
+        var v = new Vec2(1, 2);
+        var result = v.addLocal(new Vec2(3, 4)).subLocal(new Vec2(1, 1));
+        assertSame(v, result);
+        assertEquals(new Vec2(3, 5), v);
+    }
+
+    @Test
+    void inPlaceScaledAdditionCorrect() {
+        var v = new Vec2(1, 2);
+        v.addScaledLocal(new Vec2(3, 4), 0.5f);
+        assertEquals(new Vec2(2.5f, 4), v);
+        v.scaleLocal(2).negateLocal();
+        assertEquals(new Vec2(-5, -8), v);
+    }
+
+    @Test
+    void inPlaceRotationMatchesRotate() {
+        var v = new Vec2(3, 4);
+        var expected = v.rotate(30);
+        v.rotateLocal(30);
+        assertEquals(expected, v);
+    }
+
+    @Test
+    void inPlaceUnitVectorCorrect() {
+        assertEquals(new Vec2(0.6f, 0.8f), new Vec2(3, 4).unitLocal());
+        assertEquals(new Vec2(), new Vec2().unitLocal());
+    }
+
+    @Test
+    void setSumAndDifferenceCorrect() {
+        var v1 = new Vec2(1, 2);
+        var v2 = new Vec2(3, 4);
+        var result = new Vec2();
+        assertEquals(new Vec2(4, 6), result.setSum(v1, v2));
+        assertEquals(new Vec2(-2, -2), result.setDifference(v1, v2));
+        assertEquals(new Vec2(0, 0), v1.setDifference(v1, v1)); // Aliased operand
+    }
+
     // Unit Vectors
 
     @Test
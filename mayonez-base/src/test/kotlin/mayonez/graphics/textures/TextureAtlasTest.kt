@@ -0,0 +1,116 @@
+package mayonez.graphics.textures
+
+import mayonez.math.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+import org.lwjgl.BufferUtils
+import java.nio.ByteBuffer
+
+/**
+ * Unit tests for the [mayonez.graphics.textures.SkylinePacker],
+ * [mayonez.graphics.textures.AtlasPage], and
+ * [mayonez.graphics.textures.AtlasRegion] classes.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class TextureAtlasTest {
+
+    // Packer Tests
+
+    @Test
+    fun packedRectanglesDoNotOverlap() {
+        val packer = SkylinePacker(256, 256)
+        val sizes = List(60) { Pair(8 + (it * 7) % 40, 8 + (it * 13) % 30) }
+        val rects = sizes.mapNotNull { (w, h) -> packer.insert(w, h)?.let { intArrayOf(it[0], it[1], w, h) } }
+        assertEquals(sizes.size, rects.size)
+
+        for (r in rects) {
+            assertTrue(r[0] >= 0 && r[1] >= 0 && r[0] + r[2] <= 256 && r[1] + r[3] <= 256)
+        }
+        for (i in rects.indices) {
+            for (j in i + 1..<rects.size) assertFalse(rects[i].overlaps(rects[j]), "Rects $i and $j overlap")
+        }
+        assertEquals(sizes.sumOf { it.first * it.second }.toLong(), packer.usedArea)
+    }
+
+    @Test
+    fun packerFillsBinExactly() {
+        val packer = SkylinePacker(64, 64)
+        repeat(16) { assertNotNull(packer.insert(16, 16)) }
+        assertEquals(1f, packer.occupancy)
+        assertNull(packer.insert(1, 1))
+    }
+
+    @Test
+    fun packerRejectsTooLargeRectangles() {
+        val packer = SkylinePacker(64, 64)
+        assertNull(packer.insert(65, 10))
+        assertNull(packer.insert(10, 65))
+        assertEquals(0L, packer.usedArea)
+    }
+
+    // Page Tests
+
+    @Test
+    fun imageCopiedWithPadding() {
+        val page = AtlasPage(16, 16, 1)
+        val image = rgbImage(2, 2) { x, y -> byteArrayOf((10 * x + 1).toByte(), (10 * y + 1).toByte(), 7) }
+        val region = page.add(image, 2, 2, 3)!!
+        assertEquals(AtlasRegion(1, 1, 2, 2, 16, 16), region)
+
+        // Image and opaque alpha
+        assertArrayEquals(byteArrayOf(11, 11, 7, -1), page.pixelAt(2, 2))
+        // Edge pixels extend into the padding
+        assertArrayEquals(page.pixelAt(1, 1), page.pixelAt(0, 0))
+        assertArrayEquals(page.pixelAt(2, 1), page.pixelAt(3, 0))
+        assertArrayEquals(page.pixelAt(2, 2), page.pixelAt(3, 3))
+    }
+
+    @Test
+    fun fullPageRejectsImage() {
+        val page = AtlasPage(8, 8, 1)
+        assertNotNull(page.add(rgbImage(6, 6) { _, _ -> byteArrayOf(0, 0, 0) }, 6, 6, 3))
+        assertNull(page.add(rgbImage(1, 1) { _, _ -> byteArrayOf(0, 0, 0) }, 1, 1, 3))
+        assertEquals(1, page.numImages)
+    }
+
+    // Region Tests
+
+    @Test
+    fun texCoordsRemappedToRegion() {
+        val region = AtlasRegion(10, 20, 30, 40, 100, 100)
+        val coords = region.remap(arrayOf(Vec2(0f, 0f), Vec2(1f, 1f), Vec2(0.5f, 0.5f)))
+        assertEquals(Vec2(0.1f, 0.2f), coords[0])
+        assertEquals(Vec2(0.4f, 0.6f), coords[1])
+        assertEquals(Vec2(0.25f, 0.4f), coords[2])
+    }
+
+    @Test
+    fun regionTexCoordsCoverRegion() {
+        val region = AtlasRegion(0, 50, 50, 50, 100, 100)
+        val coords = region.getTexCoords()
+        assertEquals(Vec2(0f, 0.5f), coords[0])
+        assertEquals(Vec2(0.5f, 1f), coords[2])
+    }
+
+    // Helper Methods
+
+    private fun IntArray.overlaps(other: IntArray): Boolean {
+        return this[0] < other[0] + other[2] && other[0] < this[0] + this[2]
+                && this[1] < other[1] + other[3] && other[1] < this[1] + this[3]
+    }
+
+    private fun rgbImage(width: Int, height: Int, pixel: (Int, Int) -> ByteArray): ByteBuffer {
+        val buffer = BufferUtils.createByteBuffer(width * height * 3)
+        for (y in 0..<height) {
+            for (x in 0..<width) buffer.put(pixel(x, y))
+        }
+        return buffer.flip()
+    }
+
+    private fun AtlasPage.pixelAt(x: Int, y: Int): ByteArray {
+        val index = (y * width + x) * 4
+        return ByteArray(4) { pixels.get(index + it) }
+    }
+
+}
@@ -0,0 +1,40 @@
+package mayonez.headless
+
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.headless.FrameTimes] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class FrameTimesTest {
+
+    @Test
+    fun percentilesUseNearestRank() {
+        // 1 to 100 ms, shuffled
+        val nanos = LongArray(100) { (it + 1) * 1_000_000L }.apply { shuffle() }
+        val times = FrameTimes(nanos)
+        assertEquals(50.0, times.percentileMillis(50.0))
+        assertEquals(90.0, times.percentileMillis(90.0))
+        assertEquals(99.0, times.percentileMillis(99.0))
+        assertEquals(100.0, times.percentileMillis(100.0))
+        assertEquals(1.0, times.percentileMillis(0.0))
+    }
+
+    @Test
+    fun meanAndMax() {
+        val times = FrameTimes(longArrayOf(2_000_000L, 4_000_000L, 9_000_000L))
+        assertEquals(5.0, times.meanMillis, 1e-9)
+        assertEquals(9.0, times.maxMillis)
+        assertEquals(3, times.numFrames)
+    }
+
+    @Test
+    fun noFramesIsZero() {
+        val times = FrameTimes(LongArray(0))
+        assertEquals(0.0, times.percentileMillis(50.0))
+        assertEquals(0.0, times.meanMillis)
+    }
+
+}
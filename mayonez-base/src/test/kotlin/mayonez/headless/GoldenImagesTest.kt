@@ -0,0 +1,89 @@
+package mayonez.headless
+
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.io.TempDir
+import java.awt.image.*
+import java.io.File
+
+/**
+ * Unit tests for the [mayonez.headless.GoldenImages] and
+ * [mayonez.headless.ImageDiff] classes.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class GoldenImagesTest {
+
+    @TempDir
+    lateinit var directory: File
+
+    @Test
+    fun smallDifferencesWithinTolerance() {
+        val expected = createImage(0x808080)
+        val actual = createImage(0x848080)
+        val diff = ImageDiff.compare(expected, actual, 8)
+        assertEquals(0, diff.mismatchedPixels)
+        assertEquals(4, diff.maxChannelDiff)
+    }
+
+    @Test
+    fun changedPixelsCounted() {
+        val expected = createImage(0x000000)
+        val actual = createImage(0x000000)
+        actual.setRGB(1, 2, 0xFF0000)
+        actual.setRGB(3, 3, 0x00FF00)
+        val diff = ImageDiff.compare(expected, actual, 8)
+        assertEquals(2, diff.mismatchedPixels)
+        assertEquals(255, diff.maxChannelDiff)
+        assertEquals(2f / 16f, diff.mismatchedFraction)
+    }
+
+    @Test
+    fun differentSizesNeverMatch() {
+        val diff = ImageDiff.compare(createImage(0), BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB), 255)
+        assertEquals(diff.totalPixels, diff.mismatchedPixels)
+    }
+
+    @Test
+    fun missingImageFails() {
+        val golden = GoldenImages(directory)
+        val result = golden.check("frame", createImage(0x336699))
+        assertFalse(result.passed)
+        assertNull(result.diff)
+        assertFalse(File(directory, "frame.png").exists())
+    }
+
+    @Test
+    fun updatedImageRecorded() {
+        val golden = GoldenImages(directory)
+        val result = golden.check("frame", createImage(0x336699), true)
+        assertTrue(result.passed)
+        assertNull(result.diff)
+        assertTrue(File(directory, "frame.png").exists())
+
+        assertTrue(golden.check("frame", createImage(0x336699)).passed)
+    }
+
+    @Test
+    fun changedFrameFails() {
+        val golden = GoldenImages(directory, 8, 0f)
+        golden.check("frame", createImage(0x000000), true)
+
+        val changed = createImage(0x000000)
+        changed.setRGB(0, 0, 0xFFFFFF)
+        val result = golden.check("frame", changed)
+        assertFalse(result.passed)
+        assertEquals(1, result.diff?.mismatchedPixels)
+
+        // Update expected image
+        assertTrue(golden.check("frame", changed, true).passed)
+        assertTrue(golden.check("frame", changed).passed)
+    }
+
+    private fun createImage(rgb: Int): BufferedImage {
+        val image = BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB)
+        for (y in 0..<4) for (x in 0..<4) image.setRGB(x, y, rgb)
+        return image
+    }
+
+}
@@ -0,0 +1,91 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.physics.colliders.*
+import mayonez.physics.dynamics.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Checks that integrating rigidbodies in a batch in a
+ * [mayonez.physics.DefaultPhysicsWorld] gives the same results as
+ * integrating them one at a time, while collisions change their velocities
+ * between steps.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class BatchIntegrationTest {
+
+    private val dt = 1f / 60f
+
+    @Test
+    fun batchIntegrationMatchesPerBody() {
+        val perBody = createPile()
+        val batched = createPile()
+        batched.world.batchIntegration = true
+
+        repeat(120) {
+            perBody.world.step(dt)
+            batched.world.step(dt)
+        }
+        assertPilesMatch(perBody, batched)
+    }
+
+    @Test
+    fun disablingBatchIntegrationKeepsState() {
+        val perBody = createPile()
+        val batched = createPile()
+        batched.world.batchIntegration = true
+
+        repeat(60) {
+            perBody.world.step(dt)
+            batched.world.step(dt)
+        }
+        batched.world.batchIntegration = false
+        repeat(60) {
+            perBody.world.step(dt)
+            batched.world.step(dt)
+        }
+        assertPilesMatch(perBody, batched)
+    }
+
+    private fun assertPilesMatch(expectedPile: Pile, actualPile: Pile) {
+        for (i in expectedPile.bodies.indices) {
+            val expected = expectedPile.bodies[i]
+            val actual = actualPile.bodies[i]
+            assertEquals(expected.position.x, actual.position.x)
+            assertEquals(expected.position.y, actual.position.y)
+            assertEquals(expected.rotation, actual.rotation)
+            assertEquals(expected.velocity, actual.velocity)
+            assertEquals(expected.angVelocity, actual.angVelocity)
+        }
+    }
+
+    private class Pile(val world: PhysicsWorld, val bodies: List<Rigidbody>)
+
+    /** Create a pile of boxes and balls overlapping each other on the ground. */
+    private fun createPile(): Pile {
+        Random.setSeed(0L)
+        val world = DefaultPhysicsWorld()
+        val ground = BoxCollider(Vec2(100f, 2f))
+        GameObject("Ground", Vec2(0f, -1f)).addComponent(ground)
+        world.addCollisionBody(ground)
+
+        val bodies = List(100) {
+            val collider = if (it % 2 == 0) BoxCollider(Vec2(1f)) else BallCollider(0.5f)
+            val rb = Rigidbody(1f, 0.1f, 0.1f)
+            val position = Random.randomVector(-10f, 10f, 0f, 10f)
+            GameObject("Body $it", Transform(position, Random.randomAngle())).apply {
+                addComponent(rb)
+                addComponent(collider)
+            }
+            collider.physicsBody = rb
+            world.addPhysicsBody(rb)
+            world.addCollisionBody(collider)
+            rb
+        }
+        return Pile(world, bodies)
+    }
+
+}
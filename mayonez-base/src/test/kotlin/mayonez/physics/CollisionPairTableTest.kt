@@ -0,0 +1,96 @@
+package mayonez.physics
+
+import mayonez.math.*
+import mayonez.physics.colliders.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.physics.CollisionPairTable] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class CollisionPairTableTest {
+
+    private lateinit var table: CollisionPairTable
+    private lateinit var c1: CollisionBody
+    private lateinit var c2: CollisionBody
+    private lateinit var c3: CollisionBody
+
+    @BeforeEach
+    fun createTable() {
+        table = CollisionPairTable()
+        c1 = BoxCollider(Vec2(1f))
+        c2 = BoxCollider(Vec2(1f))
+        c3 = BallCollider(1f)
+    }
+
+    @Test
+    fun pairKeyDoesNotDependOnOrder() {
+        assertEquals(CollisionListener.getPairKey(c1, c2), CollisionListener.getPairKey(c2, c1))
+        assertNotEquals(CollisionListener.getPairKey(c1, c2), CollisionListener.getPairKey(c1, c3))
+        assertEquals(CollisionListener(c1, c2), CollisionListener(c2, c1))
+    }
+
+    @Test
+    fun pairLookedUpInEitherOrder() {
+        val lis = CollisionListener(c1, c2)
+        assertTrue(table.add(lis))
+        assertSame(lis, table[c1, c2])
+        assertSame(lis, table[c2, c1])
+        assertTrue(table.contains(c2, c1))
+        assertFalse(table.contains(c1, c3))
+    }
+
+    @Test
+    fun duplicatePairNotAdded() {
+        table.add(CollisionListener(c1, c2))
+        assertFalse(table.add(CollisionListener(c2, c1)))
+        assertEquals(1, table.size)
+    }
+
+    @Test
+    fun removingBodyRemovesOnlyItsPairs() {
+        table.add(CollisionListener(c1, c2))
+        table.add(CollisionListener(c1, c3))
+        table.add(CollisionListener(c2, c3))
+
+        table.remove(c1)
+        assertEquals(1, table.size)
+        assertFalse(table.contains(c1, c2))
+        assertFalse(table.contains(c1, c3))
+        assertTrue(table.contains(c2, c3))
+
+        table.remove(c3)
+        assertEquals(0, table.size)
+    }
+
+    @Test
+    fun removingBodyDropsEmptyBodies() {
+        table.add(CollisionListener(c1, c2))
+        table.add(CollisionListener(c1, c3))
+        assertEquals(3, table.bodyCount)
+
+        table.remove(c1)
+        assertEquals(0, table.bodyCount)
+        assertTrue(table.getPairs(c2).isEmpty())
+    }
+
+    @Test
+    fun removingPairEvictsOnlyThatPair() {
+        val lis = CollisionListener(c1, c3)
+        table.add(CollisionListener(c1, c2))
+        table.add(lis)
+
+        assertFalse(table.remove(CollisionListener(c2, c3)))
+        assertTrue(table.remove(lis))
+        assertFalse(lis in table)
+        assertEquals(listOf(CollisionListener(c1, c2)), table.toList())
+        assertEquals(2, table.bodyCount) // c3 has no pairs left
+
+        table.remove(c2)
+        assertEquals(0, table.size)
+        assertEquals(0, table.bodyCount)
+    }
+
+}
@@ -0,0 +1,66 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.physics.colliders.*
+import mayonez.physics.dynamics.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Checks that finding contacts in parallel in a [mayonez.physics.DefaultPhysicsWorld]
+ * gives the same results as finding them on one thread.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class ParallelNarrowPhaseTest {
+
+    private val dt = 1f / 60f
+
+    @Test
+    fun parallelNarrowPhaseMatchesSerial() {
+        val serial = createPile()
+        val parallel = createPile()
+        parallel.world.parallelNarrowPhase = true
+
+        repeat(120) {
+            serial.world.step(dt)
+            parallel.world.step(dt)
+        }
+
+        for (i in serial.bodies.indices) {
+            val expected = serial.bodies[i]
+            val actual = parallel.bodies[i]
+            assertEquals(expected.position.x, actual.position.x)
+            assertEquals(expected.position.y, actual.position.y)
+            assertEquals(expected.rotation, actual.rotation)
+        }
+    }
+
+    private class Pile(val world: PhysicsWorld, val bodies: List<Rigidbody>)
+
+    /** Create a pile of boxes and balls overlapping each other on the ground. */
+    private fun createPile(): Pile {
+        Random.setSeed(0L)
+        val world = DefaultPhysicsWorld()
+        val ground = BoxCollider(Vec2(100f, 2f))
+        GameObject("Ground", Vec2(0f, -1f)).addComponent(ground)
+        world.addCollisionBody(ground)
+
+        val bodies = List(300) {
+            val collider = if (it % 2 == 0) BoxCollider(Vec2(1f)) else BallCollider(0.5f)
+            val rb = Rigidbody(1f)
+            val position = Random.randomVector(-20f, 20f, 0f, 10f)
+            GameObject("Body $it", Transform(position, Random.randomAngle())).apply {
+                addComponent(rb)
+                addComponent(collider)
+            }
+            collider.physicsBody = rb
+            world.addPhysicsBody(rb)
+            world.addCollisionBody(collider)
+            rb
+        }
+        return Pile(world, bodies)
+    }
+
+}
@@ -0,0 +1,105 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.physics.colliders.*
+import mayonez.physics.dynamics.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.physics.PhysicsThread] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class PhysicsThreadTest {
+
+    @Test
+    fun threadedStepsMatchFixedSteps() {
+        val (world, rb) = createFallingBody()
+        val thread = PhysicsThread(world, 1000) { true }
+        thread.start()
+        waitForSteps(thread, 20)
+        thread.stop()
+
+        // Same number of steps on this thread
+        val (expectedWorld, expected) = createFallingBody()
+        repeat(thread.stepCount.toInt()) { expectedWorld.step(thread.timeStep) }
+        assertEquals(expected.position.y, rb.position.y)
+        assertEquals(expected.velocity.y, rb.velocity.y)
+    }
+
+    @Test
+    fun noStepsWhilePaused() {
+        val (world, rb) = createFallingBody()
+        val thread = PhysicsThread(world, 1000) { false }
+        thread.start()
+        Thread.sleep(20)
+        thread.stop()
+        assertEquals(0L, thread.stepCount)
+        assertEquals(Vec2(), rb.position)
+    }
+
+    @Test
+    fun interpolatedPoseBetweenSteps() {
+        val (world, rb) = createFallingBody()
+        val thread = PhysicsThread(world, 1000) { true }
+        thread.start()
+        waitForSteps(thread, 5)
+        thread.runLocked {
+            thread.interpolate()
+            val renderY = rb.gameObject.renderTransform.position.y
+            assertTrue(renderY <= 0f && renderY >= rb.position.y)
+        }
+        thread.stop()
+        assertSame(rb.gameObject.transform, rb.gameObject.renderTransform)
+    }
+
+    @Test
+    fun collisionEventsSentOnGameThread() {
+        val world = DefaultPhysicsWorld()
+        val ground = BoxCollider(Vec2(10f, 1f))
+        GameObject("Ground", Vec2(0f, -0.5f)).addComponent(ground)
+        world.addCollisionBody(ground)
+
+        val rb = Rigidbody(1f)
+        val box = BoxCollider(Vec2(1f))
+        GameObject("Box", Vec2(0f, 0.45f)).apply { // Already touching the ground
+            addComponent(rb)
+            addComponent(box)
+        }
+        box.physicsBody = rb
+        world.addPhysicsBody(rb)
+        world.addCollisionBody(box)
+
+        val callbackThreads = ArrayList<Thread>() // Only touched while holding the lock
+        box.addCollisionCallback { callbackThreads.add(Thread.currentThread()) }
+
+        val thread = PhysicsThread(world, 1000) { true }
+        thread.start()
+        waitForSteps(thread, 5)
+        thread.runLocked {
+            assertTrue(callbackThreads.isEmpty())
+            world.sendCollisionEvents()
+        }
+        thread.stop()
+        assertFalse(callbackThreads.isEmpty())
+        assertTrue(callbackThreads.all { it === Thread.currentThread() })
+    }
+
+    private fun createFallingBody(): Pair<PhysicsWorld, Rigidbody> {
+        val world = DefaultPhysicsWorld()
+        world.allowSleep = false
+        val rb = Rigidbody(1f)
+        GameObject("Body").addComponent(rb)
+        world.addPhysicsBody(rb)
+        return Pair(world, rb)
+    }
+
+    private fun waitForSteps(thread: PhysicsThread, steps: Long) {
+        val timeout = System.currentTimeMillis() + 5000
+        while (thread.stepCount < steps && System.currentTimeMillis() < timeout) Thread.sleep(1)
+        assertTrue(thread.stepCount >= steps)
+    }
+
+}
@@ -0,0 +1,110 @@
+package mayonez.physics
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.physics.colliders.*
+import mayonez.physics.raycast.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Checks that raycasts and queries in a [mayonez.physics.DefaultPhysicsWorld]
+ * find the same bodies as testing every collider.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class PhysicsWorldQueryTest {
+
+    private lateinit var world: PhysicsWorld
+    private lateinit var colliders: List<Collider>
+    private lateinit var ground: Collider
+
+    @BeforeEach
+    fun createWorld() {
+        Random.setSeed(0L)
+        world = DefaultPhysicsWorld()
+        ground = BoxCollider(Vec2(200f, 2f))
+        GameObject("Ground", Vec2(0f, -1f)).addComponent(ground)
+        world.addCollisionBody(ground)
+
+        colliders = List(500) {
+            val collider = if (it % 2 == 0) BoxCollider(Vec2(1f)) else BallCollider(0.5f)
+            val position = Random.randomVector(-50f, 50f, 0f, 50f)
+            GameObject("Body $it", Transform(position, Random.randomAngle())).addComponent(collider)
+            world.addCollisionBody(collider)
+            collider
+        }
+    }
+
+    @Test
+    fun raycastFindsClosestHit() {
+        repeat(200) {
+            val ray = Ray(Random.randomVector(-60f, 60f, -5f, 60f), Random.randomVector(-1f, 1f, -1f, 1f))
+            val limit = if (it % 2 == 0) 0f else 20f
+            val expected = allColliders()
+                .mapNotNull { c -> Raycasts.raycast(c.getShape(), ray, limit)?.let { info -> RaycastHit(c, info) } }
+                .minByOrNull { hit -> hit.distance }
+
+            val actual = world.raycast(ray, limit)
+            assertEquals(expected?.distance, actual?.distance)
+            assertEquals(expected?.body, actual?.body)
+        }
+    }
+
+    @Test
+    fun raycastAllFindsEveryHit() {
+        val ray = Ray(Vec2(-60f, 10f), Vec2(1f, 0f))
+        val expected = allColliders().filter { Raycasts.raycast(it.getShape(), ray, 0f) != null }.toSet()
+        val hits = world.raycastAll(ray, 0f)
+        assertEquals(expected, hits.map { it.body }.toSet())
+        assertEquals(hits.sortedBy { it.distance }, hits)
+    }
+
+    @Test
+    fun raycastSkipsMaskedLayers() {
+        val scene = object : Scene("Query Scene") {}
+        colliders.forEach { it.gameObject.layer = scene.getLayer(1) }
+        colliders[0].transform.position.set(0f, 55f) // Above all other bodies
+        val ray = Ray(Vec2(0f, 60f), Vec2(0f, -1f))
+
+        assertSame(ground, world.raycast(ray, 0f, 1 shl 2)?.body) // Ground has no layer
+        assertSame(colliders[0], world.raycast(ray, 0f, 1 shl 1)?.body)
+    }
+
+    @Test
+    fun queryAABBFindsOverlappingBounds() {
+        val box = BoundingBox(Vec2(5f, 10f), Vec2(10f, 8f))
+        val expected = allColliders().filter {
+            val bounds = it.getMinBounds()
+            box.xInterval.min <= bounds.xInterval.max && bounds.xInterval.min <= box.xInterval.max
+                    && box.yInterval.min <= bounds.yInterval.max && bounds.yInterval.min <= box.yInterval.max
+        }
+        assertEquals(expected, world.queryAABB(box))
+    }
+
+    @Test
+    fun queryPointFindsContainingShapes() {
+        repeat(100) {
+            val point = Random.randomVector(-50f, 50f, -2f, 50f)
+            val expected = allColliders().filter { point in it }
+            assertEquals(expected, world.queryPoint(point))
+        }
+    }
+
+    @Test
+    fun queriesSeeBodiesAfterStep() {
+        val body = colliders[0]
+        val start = Vec2(body.center())
+        assertTrue(body in world.queryPoint(start))
+
+        body.transform.move(Vec2(500f, 0f))
+        world.step(0f)
+        assertFalse(body in world.queryPoint(start))
+        assertTrue(body in world.queryPoint(body.center()))
+    }
+
+    /** All colliders in the order they were added to the world. */
+    private fun allColliders(): List<Collider> = listOf(ground) + colliders
+
+}
@@ -0,0 +1,93 @@
+package mayonez.physics.broadphase
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.physics.colliders.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.physics.broadphase.BroadPhase] implementations,
+ * which are checked against [mayonez.physics.broadphase.BruteForceBroadPhase].
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class BroadPhaseTest {
+
+    private lateinit var bodies: List<CollisionBody>
+
+    @BeforeEach
+    fun createBodies() {
+        Random.setSeed(0L)
+        bodies = List(200) {
+            val position = Random.randomVector(-50f, 50f, -50f, 50f)
+            val collider = if (it % 2 == 0) {
+                BoxCollider(Random.randomVector(1f, 5f, 1f, 5f))
+            } else {
+                BallCollider(Random.randomFloat(0.5f, 2.5f))
+            }
+            collider.transform = Transform(position, Random.randomAngle())
+            collider
+        }
+    }
+
+    @Test
+    fun sweepAndPruneFindsSamePairsAsBruteForce() {
+        val broadPhase = SweepAndPruneBroadPhase()
+        assertEquals(getOverlappingPairs(BruteForceBroadPhase()), getOverlappingPairs(broadPhase))
+    }
+
+    @Test
+    fun sweepAndPruneFindsSamePairsAfterMoving() {
+        val broadPhase = SweepAndPruneBroadPhase()
+        getOverlappingPairs(broadPhase)
+        bodies.forEach { (it as Collider).transform.move(Random.randomVector(-5f, 5f, -5f, 5f)) }
+        assertEquals(getOverlappingPairs(BruteForceBroadPhase()), getOverlappingPairs(broadPhase))
+    }
+
+    @Test
+    fun spatialHashFindsSamePairsAsBruteForce() {
+        val broadPhase = SpatialHashBroadPhase(4f)
+        assertEquals(getOverlappingPairs(BruteForceBroadPhase()), getOverlappingPairs(broadPhase))
+    }
+
+    @Test
+    fun spatialHashFindsLargeBodyPairs() {
+        val ground = BoxCollider(Vec2(200f, 4f))
+        ground.transform = Transform(Vec2(0f, -50f))
+        bodies = bodies + ground
+
+        val broadPhase = SpatialHashBroadPhase(1f)
+        assertEquals(getOverlappingPairs(BruteForceBroadPhase()), getOverlappingPairs(broadPhase))
+    }
+
+    @Test
+    fun broadPhasesDoNotReportDuplicates() {
+        for (broadPhase in listOf(SweepAndPruneBroadPhase(), SpatialHashBroadPhase(4f))) {
+            val pairs = ArrayList<Set<CollisionBody>>()
+            broadPhase.findPairs(bodies) { b1, b2 ->
+                assertNotSame(b1, b2)
+                pairs.add(setOf(b1, b2))
+            }
+            assertEquals(pairs.size, pairs.toSet().size)
+        }
+    }
+
+    // Helper Methods
+
+    private fun getOverlappingPairs(broadPhase: BroadPhase): Set<Set<CollisionBody>> {
+        val pairs = HashSet<Set<CollisionBody>>()
+        broadPhase.findPairs(bodies) { b1, b2 ->
+            if (b1.overlaps(b2)) pairs.add(setOf(b1, b2))
+        }
+        return pairs
+    }
+
+    private fun CollisionBody.overlaps(other: CollisionBody): Boolean {
+        val box1 = this.getMinBounds()
+        val box2 = other.getMinBounds()
+        return (box1.min().x <= box2.max().x) && (box2.min().x <= box1.max().x)
+                && (box1.min().y <= box2.max().y) && (box2.min().y <= box1.max().y)
+    }
+
+}
@@ -0,0 +1,81 @@
+package mayonez.physics.colliders
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.physics.*
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+/**
+ * Unit tests for the world shape cache in the
+ * [mayonez.physics.colliders.Collider] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class ColliderTest {
+
+    private lateinit var box: BoxCollider
+    private lateinit var hexagon: PolygonCollider
+
+    @BeforeEach
+    fun createColliders() {
+        box = BoxCollider(Vec2(2f))
+        hexagon = PolygonCollider(6, 1f)
+    }
+
+    @Test
+    fun unchangedTransformReusesShape() {
+        val shape = box.getShape()
+        val bounds = box.getMinBounds()
+        Assertions.assertSame(shape, box.getShape())
+        Assertions.assertSame(bounds, box.getMinBounds())
+    }
+
+    @Test
+    fun movedTransformRebuildsShape() {
+        val shape = box.getShape()
+        box.transform.move(Vec2(1f, 0f))
+        Assertions.assertNotSame(shape, box.getShape())
+        Assertions.assertEquals(Vec2(1f, 0f), box.getShape().center())
+    }
+
+    @Test
+    fun mutatedPositionRebuildsShape() {
+        box.getShape()
+        box.transform.position.set(0f, 3f) // Modify vector directly
+        Assertions.assertEquals(Vec2(0f, 3f), box.getShape().center())
+        Assertions.assertEquals(Vec2(0f, 3f), box.getMinBounds().center())
+    }
+
+    @Test
+    fun replacedTransformRebuildsShape() {
+        box.getShape()
+        box.transform = Transform(Vec2(-2f, 0f))
+        Assertions.assertEquals(Vec2(-2f, 0f), box.getShape().center())
+    }
+
+    @Test
+    fun scaledTransformChangesMass() {
+        val mass = box.getMass(1f)
+        box.transform.scale(Vec2(2f))
+        Assertions.assertEquals(mass * 4f, box.getMass(1f), MathUtils.FLOAT_EPSILON)
+    }
+
+    @Test
+    fun transformedPolygonMatchesShapeTransforms() {
+        val xf = Transform(Vec2(1f, 2f), 30f, Vec2(2f, 3f))
+        hexagon.transform = xf
+        val expected = Polygon(Vec2(), 6, 1f).rotate(30f).scale(Vec2(2f, 3f)).translate(Vec2(1f, 2f))
+        CollisionTestUtils.assertVerticesEqual(expected.vertices, hexagon.getVertices())
+    }
+
+    @Test
+    fun reflectedPolygonKeepsCounterclockwiseOrder() {
+        hexagon.transform = Transform.scaleInstance(Vec2(-1f, 1f))
+        val vertices = hexagon.getVertices()
+        Assertions.assertTrue((vertices[1] - vertices[0]).cross(vertices[2] - vertices[1]) > 0f)
+    }
+
+}
@@ -25,7 +25,7 @@ internal class SATTest {
 
     @BeforeEach
     fun createSAT() {
-        sat = SATDetector()
+        sat = SATDetector
     }
 
     // Rectangle Tests
@@ -81,7 +81,7 @@ internal class SATTest {
     }
 
     private fun testContacts(pen: Penetration?, shape1: Shape, shape2: Shape, count: Int): Manifold? {
-        val man = ClippingManifoldSolver().getContacts(shape1, shape2, pen)
+        val man = ClippingManifoldSolver.getContacts(shape1, shape2, pen)
         assertNotNull(man)
         assertEquals(count, man!!.numContacts())
         return man
@@ -0,0 +1,119 @@
+package mayonez.physics.dynamics
+
+import mayonez.math.*
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+
+/**
+ * Unit tests for the [mayonez.physics.dynamics.RigidbodyStore] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class RigidbodyStoreTest {
+
+    private val dt = 1f / 60f
+    private val gravity = Vec2(0f, -9.81f)
+
+    @Test
+    fun batchedIntegrationMatchesPerBody() {
+        val expected = createBodies()
+        val actual = createBodies()
+        val store = RigidbodyStore(2) // Force arrays to grow
+        actual.forEach(store::add)
+
+        repeat(120) { step ->
+            if (step % 10 == 0) {
+                expected.forEachIndexed { i, rb -> rb.applyForces(i) }
+                actual.forEachIndexed { i, rb -> rb.applyForces(i) }
+            }
+            expected.forEach {
+                it.integrateForce(dt, gravity)
+                it.integrateVelocity(dt)
+            }
+            store.integrate(dt, gravity)
+        }
+
+        for (i in expected.indices) {
+            Assertions.assertEquals(expected[i].position, actual[i].position)
+            Assertions.assertEquals(expected[i].velocity, actual[i].velocity)
+            Assertions.assertEquals(expected[i].rotation, actual[i].rotation, 1e-3f)
+            Assertions.assertEquals(expected[i].angVelocity, actual[i].angVelocity, 1e-3f)
+        }
+    }
+
+    @Test
+    fun staticBodiesNotIntegrated() {
+        val store = RigidbodyStore()
+        val static = Rigidbody(0f)
+        store.add(static)
+        store.add(Rigidbody(1f))
+        store.integrate(dt, gravity)
+
+        Assertions.assertEquals(1, store.numDynamicBodies)
+        Assertions.assertEquals(Vec2(), static.position)
+        Assertions.assertEquals(Vec2(), static.velocity)
+    }
+
+    @Test
+    fun removedBodyNotIntegrated() {
+        val store = RigidbodyStore()
+        val rb = Rigidbody(1f)
+        store.add(rb)
+        store.remove(rb)
+        store.integrate(dt, gravity)
+        Assertions.assertEquals(Vec2(), rb.velocity)
+    }
+
+    @Test
+    fun lentVelocityReadBackNextStep() {
+        val store = RigidbodyStore()
+        val rb = Rigidbody(1f).setFollowsGravity(false)
+        store.add(rb)
+        rb.velocity.x = 60f // Modify vector directly
+        store.integrate(dt, gravity)
+        Assertions.assertEquals(Vec2(1f, 0f), rb.position)
+    }
+
+    @Test
+    fun propertyChangesCopiedToStore() {
+        val store = RigidbodyStore()
+        val rb = Rigidbody(1f)
+        store.add(rb)
+        rb.setFollowsGravity(false)
+        store.integrate(dt, gravity)
+        Assertions.assertEquals(Vec2(), rb.velocity)
+    }
+
+    @Test
+    fun removedBodyKeepsState() {
+        val store = RigidbodyStore()
+        val rb = Rigidbody(1f)
+        store.add(rb)
+        rb.applyForce(Vec2(60f, 0f))
+        rb.applyTorque(1f)
+        store.integrate(dt, gravity)
+        val velocity = Vec2(rb.velocity)
+        val angVelocity = rb.angVelocity
+
+        store.remove(rb)
+        Assertions.assertEquals(0, store.size)
+        Assertions.assertEquals(velocity, rb.velocity)
+        Assertions.assertEquals(angVelocity, rb.angVelocity)
+    }
+
+    private fun createBodies(): List<Rigidbody> {
+        return listOf(
+            Rigidbody(1f),
+            Rigidbody(2f, 0.2f, 0.1f),
+            Rigidbody(3f).setFollowsGravity(false),
+            Rigidbody(0.5f, 0.5f, 0f).setFixedRotation(true),
+            Rigidbody(4f, 0.1f, 0.3f)
+        )
+    }
+
+    private fun Rigidbody.applyForces(i: Int) {
+        applyForce(Vec2(i.toFloat(), 2f - i))
+        applyTorque(0.5f * i)
+    }
+
+}
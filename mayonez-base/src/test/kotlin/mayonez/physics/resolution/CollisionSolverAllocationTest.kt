@@ -0,0 +1,162 @@
+package mayonez.physics.resolution
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.physics.*
+import mayonez.physics.colliders.*
+import mayonez.physics.dynamics.*
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.lang.management.*
+
+/**
+ * Checks that integrating rigidbodies, resolving collisions, and stepping a
+ * [mayonez.physics.DefaultPhysicsWorld] do not create any new objects once
+ * the scene has warmed up.
+ *
+ * World steps are checked with bodies both awake and asleep, so the
+ * narrowphase must reuse its manifolds and scratch vectors while bodies are
+ * touching.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class CollisionSolverAllocationTest {
+
+    private val warmupSteps = 1000
+    private val measuredSteps = 10000
+    private val measuredWindows = 3
+    private val dt = 1f / 60f
+    private val gravity = Vec2(0f, -9.8f)
+
+    private lateinit var ground: BoxCollider
+
+    @BeforeEach
+    fun createGround() {
+        ground = BoxCollider(Vec2(20f, 1f))
+        GameObject("Ground", Vec2(0f, 0f)).addComponent(ground)
+    }
+
+    @Test
+    fun integratingBodyDoesNotAllocate() {
+        val rb = Rigidbody(1f, 0.1f, 0.1f)
+        val force = Vec2(1f, 0f)
+        rb.angVelocity = 45f
+        val bytes = measureAllocatedBytes {
+            rb.applyForce(force)
+            rb.integrateForce(dt, gravity)
+            rb.integrateVelocity(dt)
+        }
+        assertNoAllocations(bytes)
+    }
+
+    @Test
+    fun solvingBoxContactDoesNotAllocate() {
+        val box = BoxCollider(Vec2(1f))
+        assertSolverDoesNotAllocate(box, Vec2(0.5f, 0.9f), 15f)
+    }
+
+    @Test
+    fun solvingBallContactDoesNotAllocate() {
+        val ball = BallCollider(Vec2(1f))
+        assertSolverDoesNotAllocate(ball, Vec2(0f, 0.9f), 0f)
+    }
+
+    private fun assertSolverDoesNotAllocate(collider: Collider, position: Vec2, rotation: Float) {
+        val rb = Rigidbody(1f)
+        GameObject("Body", Transform(position, rotation)).apply {
+            addComponent(rb)
+            addComponent(collider)
+        }
+        collider.physicsBody = rb
+
+        val solver = CollisionSolver(collider, ground)
+        solver.manifold = collider.getContacts(ground)!!
+
+        val bytes = measureAllocatedBytes {
+            rb.position.set(position)
+            rb.velocity.set(1f, -5f)
+            rb.angVelocity = 0f
+            solver.solveCollision()
+        }
+        assertNoAllocations(bytes)
+    }
+
+    @Test
+    fun steppingSleepingBoxSceneDoesNotAllocate() {
+        val world = createScene(BoxCollider(Vec2(1f)))
+        val bytes = measureAllocatedBytes { world.step(dt) }
+        Assertions.assertTrue(world.physicsBodies.all { it.sleeping }, "Scene did not come to rest")
+        assertNoAllocations(bytes)
+    }
+
+    @Test
+    fun steppingSleepingBallSceneDoesNotAllocate() {
+        val world = createScene(BallCollider(Vec2(1f)))
+        val bytes = measureAllocatedBytes { world.step(dt) }
+        Assertions.assertTrue(world.physicsBodies.all { it.sleeping }, "Scene did not come to rest")
+        assertNoAllocations(bytes)
+    }
+
+    @Test
+    fun steppingAwakeBoxSceneDoesNotAllocate() {
+        val world = createScene(BoxCollider(Vec2(1f)))
+        world.allowSleep = false
+        val bytes = measureAllocatedBytes { world.step(dt) }
+        Assertions.assertTrue(world.physicsBodies.none { it.sleeping }, "Scene fell asleep")
+        assertNoAllocations(bytes)
+    }
+
+    @Test
+    fun steppingAwakeBallSceneDoesNotAllocate() {
+        val world = createScene(BallCollider(Vec2(1f)))
+        world.allowSleep = false
+        val bytes = measureAllocatedBytes { world.step(dt) }
+        Assertions.assertTrue(world.physicsBodies.none { it.sleeping }, "Scene fell asleep")
+        assertNoAllocations(bytes)
+    }
+
+    /** Create a world with one body dropped onto the ground. */
+    private fun createScene(collider: Collider): PhysicsWorld {
+        val world = DefaultPhysicsWorld()
+        world.addCollisionBody(ground)
+
+        val rb = Rigidbody(1f)
+        GameObject("Body", Vec2(0f, 1.5f)).apply {
+            addComponent(rb)
+            addComponent(collider)
+        }
+        collider.physicsBody = rb
+        world.addPhysicsBody(rb)
+        world.addCollisionBody(collider)
+        return world
+    }
+
+    /**
+     * Measure the bytes allocated over a window of steps after warming up.
+     *
+     * Late JIT compilations can occasionally allocate a few bytes on the test
+     * thread, so up to [measuredWindows] windows are measured and the smallest
+     * is returned. A step that allocates anything would make every window
+     * nonzero.
+     */
+    private fun measureAllocatedBytes(step: () -> Unit): Long {
+        repeat(warmupSteps) { step() }
+        val bean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        val threadID = Thread.currentThread().id
+        var minBytes = Long.MAX_VALUE
+        for (window in 0..<measuredWindows) {
+            val start = bean.getThreadAllocatedBytes(threadID)
+            for (i in 0..<measuredSteps) step()
+            minBytes = minOf(minBytes, bean.getThreadAllocatedBytes(threadID) - start)
+            if (minBytes == 0L) break
+        }
+        return minBytes
+    }
+
+    /** Check that nothing was allocated in any of the measured steps. */
+    private fun assertNoAllocations(bytes: Long) {
+        Assertions.assertEquals(0L, bytes) { "Allocated $bytes bytes over $measuredSteps steps" }
+    }
+
+}
@@ -0,0 +1,153 @@
+package mayonez.physics.resolution
+
+import mayonez.*
+import mayonez.math.*
+import mayonez.physics.*
+import mayonez.physics.colliders.*
+import mayonez.physics.dynamics.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.physics.resolution.IslandGraph] and
+ * [mayonez.physics.resolution.Island] classes.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class IslandGraphTest {
+
+    private lateinit var graph: IslandGraph
+    private lateinit var bodies: List<Rigidbody>
+    private lateinit var colliders: List<Collider>
+    private lateinit var ground: Collider
+
+    @BeforeEach
+    fun createBodies() {
+        graph = IslandGraph()
+        ground = BoxCollider(Vec2(1f))
+        GameObject("Ground").addComponent(ground)
+
+        bodies = List(4) { Rigidbody(1f) }
+        colliders = bodies.mapIndexed { i, rb ->
+            val collider = BoxCollider(Vec2(1f))
+            GameObject("Body $i").apply {
+                addComponent(rb)
+                addComponent(collider)
+            }
+            collider.physicsBody = rb
+            collider
+        }
+        graph.setBodies(bodies)
+    }
+
+    @Test
+    fun touchingBodiesShareIsland() {
+        val islands = graph.build(listOf(solver(0, 1), solver(1, 2)))
+        assertEquals(2, islands.size)
+        assertEquals(bodies.subList(0, 3), islands[0].bodies)
+        assertEquals(2, islands[0].solvers.size)
+        assertEquals(listOf(bodies[3]), islands[1].bodies)
+        assertTrue(islands[1].solvers.isEmpty())
+    }
+
+    @Test
+    fun staticBodyDoesNotJoinIslands() {
+        val ground0 = CollisionSolver(colliders[0], ground)
+        val ground1 = CollisionSolver(ground, colliders[1])
+        val islands = graph.build(listOf(ground0, ground1))
+        assertEquals(4, islands.size)
+        assertEquals(listOf(ground0), islands[0].solvers)
+        assertEquals(listOf(ground1), islands[1].solvers)
+    }
+
+    @Test
+    fun sleepingBodiesLeftOutOfIslands() {
+        val island = graph.build(listOf(solver(0, 1)))[0]
+        repeat(10) { island.updateSleep(0.1f, 1f, 10) }
+        assertTrue(bodies[0].sleeping)
+        assertTrue(bodies[1].sleeping)
+        assertFalse(bodies[2].sleeping)
+
+        val islands = graph.build(emptyList())
+        assertEquals(listOf(bodies[2]), islands[0].bodies)
+        assertEquals(listOf(bodies[3]), islands[1].bodies)
+    }
+
+    @Test
+    fun movingIslandDoesNotSleep() {
+        bodies[1].velocity = Vec2(1f, 0f)
+        val island = graph.build(listOf(solver(0, 1)))[0]
+        repeat(10) { island.updateSleep(0.1f, 1f, 10) }
+        assertFalse(bodies[0].sleeping)
+        assertFalse(bodies[1].sleeping)
+    }
+
+    @Test
+    fun applyingForceWakesWholeIsland() {
+        val island = graph.build(listOf(solver(0, 1)))[0]
+        repeat(10) { island.updateSleep(0.1f, 1f, 10) }
+        bodies[0].applyForce(Vec2(1f, 0f))
+        assertFalse(bodies[0].sleeping)
+        assertFalse(bodies[1].sleeping)
+    }
+
+    @Test
+    fun wakingIslandSetsOnlyItsOwnFlag() {
+        val islands = graph.build(listOf(solver(0, 1)))
+        val flag = WakeFlag()
+        val otherFlag = WakeFlag()
+        repeat(10) {
+            islands[0].updateSleep(0.1f, 1f, 10, flag)
+            islands[2].updateSleep(0.1f, 1f, 10, otherFlag)
+        }
+        assertFalse(flag.woke)
+
+        bodies[0].applyForce(Vec2(1f, 0f))
+        assertTrue(flag.clear())
+        assertFalse(flag.woke)
+        assertFalse(otherFlag.woke)
+        assertTrue(bodies[3].sleeping)
+    }
+
+    @Test
+    fun movingTransformWakesWholeIsland() {
+        val island = graph.build(listOf(solver(0, 1)))[0]
+        repeat(10) { island.updateSleep(0.1f, 1f, 10) }
+        bodies[0].transform.move(Vec2(1f, 0f))
+        bodies[0].integrateForce(1f / 60f, Vec2(0f, -9.8f))
+        assertFalse(bodies[0].sleeping)
+        assertFalse(bodies[1].sleeping)
+    }
+
+    @Test
+    fun changingVelocityComponentWakesBody() {
+        val island = graph.build(listOf(solver(0, 1)))[0]
+        repeat(10) { island.updateSleep(0.1f, 1f, 10) }
+        bodies[1].velocity.x = 2f
+        bodies[1].integrateForce(1f / 60f, Vec2(0f, -9.8f))
+        assertFalse(bodies[1].sleeping)
+        assertEquals(2f, bodies[1].velocity.x)
+    }
+
+    @Test
+    fun sleepingBodyMovedOffGroundFalls() {
+        val world = DefaultPhysicsWorld()
+        val floor = BoxCollider(Vec2(4f, 1f))
+        GameObject("Floor", Vec2(0f, -0.5f)).addComponent(floor)
+        world.addCollisionBody(floor)
+        world.addPhysicsBody(bodies[0])
+        world.addCollisionBody(colliders[0])
+        bodies[0].position = Vec2(0f, 0.5f)
+
+        repeat(300) { world.step(1f / 60f) }
+        assertTrue(bodies[0].sleeping)
+
+        bodies[0].transform.move(Vec2(10f, 0f)) // Off the edge of the floor
+        repeat(10) { world.step(1f / 60f) }
+        assertFalse(bodies[0].sleeping)
+        assertTrue(bodies[0].position.y < 0.5f)
+    }
+
+    private fun solver(i1: Int, i2: Int): CollisionSolver = CollisionSolver(colliders[i1], colliders[i2])
+
+}
@@ -0,0 +1,129 @@
+package mayonez.renderer
+
+import mayonez.math.*
+import mayonez.math.shapes.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.renderer.ViewCuller] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class ViewCullerTest {
+
+    private val view = BoundingBox(Vec2(0f), Vec2(20f)) // (-10, -10) to (10, 10)
+
+    @Test
+    fun onlyObjectsInViewAreVisible() {
+        val culler = ViewCuller<TestRenderable>()
+        val inside = TestRenderable(0f, 0f)
+        val edge = TestRenderable(10.4f, 0f) // Overlaps the edge
+        val outside = TestRenderable(50f, 50f)
+        listOf(inside, edge, outside).forEach(culler::add)
+
+        assertEquals(listOf(inside, edge), cullFrame(culler))
+        assertEquals(CullingStats(2, 1), culler.stats)
+    }
+
+    @Test
+    fun movedObjectsChangeVisibility() {
+        val culler = ViewCuller<TestRenderable>()
+        val obj = TestRenderable(50f, 0f)
+        culler.add(obj)
+        assertTrue(cullFrame(culler).isEmpty())
+
+        obj.x = 5f
+        assertEquals(listOf(obj), cullFrame(culler))
+
+        obj.x = -50f
+        assertTrue(cullFrame(culler).isEmpty())
+    }
+
+    @Test
+    fun visibleObjectsKeepAddedOrder() {
+        val culler = ViewCuller<TestRenderable>()
+        val objects = List(20) { TestRenderable(it - 10f, 9f - it) }
+        objects.forEach(culler::add)
+        assertEquals(objects, cullFrame(culler))
+    }
+
+    @Test
+    fun largeAndUnboundedObjectsAreVisible() {
+        val culler = ViewCuller<TestRenderable>()
+        val background = TestRenderable(0f, 0f, size = 1000f)
+        val unbounded = TestRenderable(0f, 0f, bounded = false)
+        culler.add(background)
+        culler.add(unbounded)
+        assertEquals(listOf(background, unbounded), cullFrame(culler))
+    }
+
+    @Test
+    fun disabledAndRemovedObjectsNotCounted() {
+        val culler = ViewCuller<TestRenderable>()
+        val disabled = TestRenderable(0f, 0f).apply { enabled = false }
+        val removed = TestRenderable(1f, 1f)
+        culler.add(disabled)
+        culler.add(removed)
+        culler.remove(removed)
+
+        assertTrue(cullFrame(culler).isEmpty())
+        assertEquals(CullingStats.NONE, culler.stats)
+        assertEquals(1, culler.size)
+    }
+
+    @Test
+    fun unaddedObjectsTestedDirectly() {
+        val culler = ViewCuller<TestRenderable>()
+        culler.beginFrame(view)
+        assertTrue(culler.isVisible(TestRenderable(0f, 0f)))
+        assertFalse(culler.isVisible(TestRenderable(0f, -30f)))
+        culler.endFrame()
+        assertEquals(CullingStats(1, 1), culler.stats)
+    }
+
+    @Test
+    fun zoomingOutShowsMoreObjects() {
+        val culler = ViewCuller<TestRenderable>()
+        val objects = List(10) { TestRenderable(it * 100f, 0f) }
+        objects.forEach(culler::add)
+        assertEquals(1, cullFrame(culler).size)
+
+        culler.beginFrame(BoundingBox(Vec2(500f, 0f), Vec2(2000f))) // Zoom out 100x
+        val visible = ArrayList<TestRenderable>()
+        culler.cull(visible)
+        assertEquals(objects, visible)
+    }
+
+    private fun cullFrame(culler: ViewCuller<TestRenderable>): List<TestRenderable> {
+        val visible = ArrayList<TestRenderable>()
+        culler.beginFrame(view)
+        culler.cull(visible)
+        culler.endFrame()
+        return visible
+    }
+
+}
+
+private class TestRenderable(
+    var x: Float, var y: Float, val size: Float = 1f, val bounded: Boolean = true
+) : Renderable {
+
+    var enabled: Boolean = true
+
+    override fun getZIndex(): Int = 0
+
+    override fun isEnabled(): Boolean = enabled
+
+    override fun isInUI(): Boolean = false
+
+    override fun getWorldBounds(bounds: FloatArray): Boolean {
+        if (!bounded) return false
+        bounds[0] = x - size * 0.5f
+        bounds[1] = y - size * 0.5f
+        bounds[2] = x + size * 0.5f
+        bounds[3] = y + size * 0.5f
+        return true
+    }
+
+}
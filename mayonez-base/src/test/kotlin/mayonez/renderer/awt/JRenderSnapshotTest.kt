@@ -0,0 +1,69 @@
+package mayonez.renderer.awt
+
+import mayonez.graphics.Colors
+import mayonez.graphics.debug.*
+import mayonez.graphics.toAWT
+import mayonez.math.*
+import mayonez.math.shapes.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+import java.awt.geom.*
+import java.awt.image.*
+
+/**
+ * Unit tests for the [mayonez.renderer.awt.JRenderSnapshot] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class JRenderSnapshotTest {
+
+    private val red = Colors.RED.toAWT().rgb
+    private val blue = Colors.BLUE.toAWT().rgb
+
+    @Test
+    fun snapshotDrawsBackgroundAndShapes() {
+        val snapshot = createSnapshot(Vec2(5f, 5f), AffineTransform())
+        val image = draw(snapshot)
+        assertEquals(red, image.getRGB(5, 5))
+        assertEquals(blue, image.getRGB(0, 0))
+        assertEquals(1, snapshot.size())
+    }
+
+    @Test
+    fun snapshotIgnoresChangesToOriginalShape() {
+        val center = Vec2(5f, 5f)
+        val snapshot = createSnapshot(center, AffineTransform())
+        center.set(50f, 50f)
+        assertEquals(red, draw(snapshot).getRGB(5, 5))
+    }
+
+    @Test
+    fun snapshotAppliesCameraTransform() {
+        val snapshot = createSnapshot(Vec2(2f, 2f), AffineTransform.getTranslateInstance(2.0, 0.0))
+        val image = draw(snapshot)
+        assertEquals(red, image.getRGB(4, 2))
+        assertEquals(blue, image.getRGB(1, 2))
+    }
+
+    private fun createSnapshot(center: Vec2, cameraXf: AffineTransform): JRenderSnapshot {
+        val shape = DebugShape(Rectangle(center, Vec2(2f, 2f)), ShapeBrush.createSolidBrush(Colors.RED))
+        val command = shape.snapshot()!!
+        return JRenderSnapshot(
+            listOf(command), Colors.BLUE.toAWT(), cameraXf,
+            SIZE, SIZE, System.nanoTime(), 0L
+        )
+    }
+
+    private fun draw(snapshot: JRenderSnapshot): BufferedImage {
+        val image = BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB)
+        val g2 = image.createGraphics()
+        snapshot.draw(g2)
+        g2.dispose()
+        return image
+    }
+
+    private companion object {
+        private const val SIZE: Int = 10
+    }
+
+}
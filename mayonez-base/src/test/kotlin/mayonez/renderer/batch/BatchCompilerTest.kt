@@ -0,0 +1,122 @@
+package mayonez.renderer.batch
+
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.renderer.batch.BatchCompiler] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class BatchCompilerTest {
+
+    private val sprite = DrawPrimitive.SPRITE
+    private val line = DrawPrimitive.LINE
+    private val compiler = BatchCompiler(MAX_TEXTURE_SLOTS) { it == DrawPrimitive.SPRITE }
+
+    @Test
+    fun objectsSortedByZIndex() {
+        val zIndices = listOf(3, -2, 0, 70000, -70000, 1, 0)
+        zIndices.forEach { compiler.add(it, sprite, 100, 0) }
+        compiler.compile()
+        assertEquals(zIndices.sorted(), sortedIndices().map { zIndices[it] })
+    }
+
+    @Test
+    fun equalKeysKeepAddedOrder() {
+        repeat(10) { compiler.add(it % 2, sprite, 100, 0) }
+        compiler.compile()
+        assertEquals(listOf(0, 2, 4, 6, 8, 1, 3, 5, 7, 9), sortedIndices())
+    }
+
+    @Test
+    fun texturesGroupedInFirstSeenOrder() {
+        listOf(5, 3, 5, 3, 0).forEach { compiler.add(0, sprite, 100, it) }
+        compiler.compile()
+        assertEquals(listOf(0, 2, 1, 3, 4), sortedIndices())
+        assertEquals(1, compiler.batches.size)
+    }
+
+    @Test
+    fun batchCutWhenFull() {
+        repeat(250) { compiler.add(0, sprite, 100, 0) }
+        compiler.compile()
+        assertEquals(listOf(100, 100, 50), compiler.batches.map { it.size })
+    }
+
+    @Test
+    fun objectsWithManyPrimitivesFillBatch() {
+        repeat(5) { compiler.add(0, DrawPrimitive.TRIANGLE, 1000, 0, 300) }
+        compiler.compile()
+        assertEquals(listOf(3, 2), compiler.batches.map { it.size })
+        assertEquals(listOf(900, 600), compiler.batches.map { it.numPrimitives })
+    }
+
+    @Test
+    fun batchCutWhenOutOfTextureSlots() {
+        for (tex in 1..MAX_TEXTURE_SLOTS + 1) compiler.add(0, sprite, 100, tex)
+        compiler.add(0, sprite, 100, 0) // Colors always fit
+        compiler.compile()
+        assertEquals(listOf(MAX_TEXTURE_SLOTS, 2), compiler.batches.map { it.size })
+    }
+
+    @Test
+    fun spritesShareBatchesAcrossZIndices() {
+        compiler.add(0, sprite, 100, 1)
+        compiler.add(1, sprite, 100, 1)
+        compiler.add(2, sprite, 100, 2)
+        compiler.compile()
+
+        val batch = compiler.batches.single()
+        assertEquals(0, batch.minZIndex)
+        assertEquals(2, batch.maxZIndex)
+    }
+
+    @Test
+    fun shapesCutAtEachZIndex() {
+        compiler.add(0, line, 500, 0)
+        compiler.add(1, line, 500, 0)
+        compiler.compile()
+        assertEquals(listOf(0, 1), compiler.batches.map { it.minZIndex })
+    }
+
+    @Test
+    fun interleavedPrimitivesKeepZOrder() {
+        // Added in reverse z-order
+        compiler.add(2, sprite, 100, 0)
+        compiler.add(1, line, 500, 0)
+        compiler.add(0, sprite, 100, 0)
+        compiler.compile()
+
+        val batches = compiler.batches
+        assertEquals(listOf(sprite, line, sprite), batches.map { it.primitive })
+        assertEquals(listOf(0, 1, 2), batches.map { it.minZIndex })
+    }
+
+    @Test
+    fun shapesAddedAfterSpritesDrawnOnTop() {
+        compiler.add(0, sprite, 100, 0)
+        compiler.add(0, line, 500, 0)
+        compiler.add(0, sprite, 100, 0)
+        compiler.compile()
+        assertEquals(listOf(sprite, line), compiler.batches.map { it.primitive })
+        assertEquals(listOf(0, 2, 1), sortedIndices())
+    }
+
+    @Test
+    fun clearRemovesLastFrame() {
+        repeat(5) { compiler.add(it, sprite, 100, 0) }
+        compiler.compile()
+        compiler.clear()
+        compiler.compile()
+        assertEquals(0, compiler.size)
+        assertTrue(compiler.batches.isEmpty())
+    }
+
+    private fun sortedIndices(): List<Int> = List(compiler.size) { compiler.getSortedIndex(it) }
+
+    private companion object {
+        private const val MAX_TEXTURE_SLOTS: Int = 8
+    }
+
+}
@@ -0,0 +1,109 @@
+package mayonez.renderer.batch
+
+import mayonez.graphics.*
+import mayonez.math.*
+import mayonez.math.shapes.*
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.renderer.batch.InstanceData] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class InstanceDataTest {
+
+    private lateinit var data: InstanceData
+    private val texCoords = Rectangle.rectangleVerticesMinMax(Vec2(0.25f, 0.5f), Vec2(0.75f, 1f))
+
+    @BeforeEach
+    fun createData() {
+        data = InstanceData(10)
+    }
+
+    @Test
+    fun instanceSmallerThanSpriteVertices() {
+        val vertexBytes = DrawPrimitive.SPRITE.let { it.vertexCount * it.totalComponents * Float.SIZE_BYTES }
+        assertEquals(144, vertexBytes)
+        assertEquals(48, InstanceData.INSTANCE_BYTES)
+        assertEquals(10L * InstanceData.INSTANCE_BYTES, data.sizeBytes)
+    }
+
+    @Test
+    fun transformRebuildsRotatedQuad() {
+        val positions = Rectangle(Vec2(3f, -2f), Vec2(4f, 2f), 30f).vertices
+        data.put(positions, Colors.WHITE, texCoords, 0)
+
+        val corners = listOf(Vec2(0f, 0f), Vec2(1f, 0f), Vec2(1f, 1f), Vec2(0f, 1f))
+        for (i in corners.indices) {
+            assertEquals(positions[i], transform(0, corners[i]))
+        }
+    }
+
+    @Test
+    fun colorPackedAsBytes() {
+        data.put(quad(), Color(255, 128, 0, 64), texCoords, 0)
+        val start = InstanceData.COLOR_OFFSET
+        assertEquals(255, data.data.get(start).toInt() and 0xFF)
+        assertEquals(128, data.data.get(start + 1).toInt() and 0xFF)
+        assertEquals(0, data.data.get(start + 2).toInt() and 0xFF)
+        assertEquals(64, data.data.get(start + 3).toInt() and 0xFF)
+    }
+
+    @Test
+    fun texCoordsAndSlotPacked() {
+        data.put(quad(), Colors.WHITE, texCoords, 3)
+        val start = InstanceData.UV_RECT_OFFSET
+        assertEquals(0.25f, data.data.getFloat(start))
+        assertEquals(0.5f, data.data.getFloat(start + 4))
+        assertEquals(0.75f, data.data.getFloat(start + 8))
+        assertEquals(1f, data.data.getFloat(start + 12))
+        assertEquals(3f, data.data.getFloat(InstanceData.TEX_SLOT_OFFSET))
+    }
+
+    @Test
+    fun flippedTexCoordsKeepOrder() {
+        // Flip horizontally
+        val flipped = arrayOf(texCoords[1], texCoords[0], texCoords[3], texCoords[2])
+        data.put(quad(), Colors.WHITE, flipped, 1)
+        val start = InstanceData.UV_RECT_OFFSET
+        assertEquals(0.75f, data.data.getFloat(start))
+        assertEquals(0.25f, data.data.getFloat(start + 8))
+    }
+
+    @Test
+    fun usedDataCoversWrittenInstances() {
+        repeat(3) { data.put(quad(), Colors.WHITE, texCoords, 0) }
+        val used = data.getUsedData()
+        assertEquals(0, used.position())
+        assertEquals(3 * InstanceData.INSTANCE_BYTES, used.limit())
+    }
+
+    @Test
+    fun fullBufferThrows() {
+        repeat(10) { data.put(quad(), Colors.WHITE, texCoords, 0) }
+        assertFalse(data.hasRoom)
+        assertThrows(IndexOutOfBoundsException::class.java) {
+            data.put(quad(), Colors.WHITE, texCoords, 0)
+        }
+
+        data.clear()
+        assertTrue(data.hasRoom)
+        assertEquals(0, data.numInstances)
+    }
+
+    // Helper Methods
+
+    private fun quad(): Array<Vec2> = Rectangle.rectangleVerticesMinMax(Vec2(0f), Vec2(1f))
+
+    /** Apply an instance's transform to a unit quad corner, like the shader. */
+    private fun transform(instance: Int, corner: Vec2): Vec2 {
+        val start = instance * InstanceData.INSTANCE_BYTES + InstanceData.TRANSFORM_OFFSET
+        val buf = data.data
+        val axisX = Vec2(buf.getFloat(start), buf.getFloat(start + 4))
+        val axisY = Vec2(buf.getFloat(start + 8), buf.getFloat(start + 12))
+        val origin = Vec2(buf.getFloat(start + 16), buf.getFloat(start + 20))
+        return origin + axisX * corner.x + axisY * corner.y
+    }
+
+}
@@ -0,0 +1,89 @@
+package mayonez.renderer.batch
+
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.renderer.batch.RetainedVertexData] class.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class RetainedVertexDataTest {
+
+    private lateinit var data: RetainedVertexData
+    private var floats: Int = 0
+
+    @BeforeEach
+    fun createData() {
+        data = RetainedVertexData(DrawPrimitive.SPRITE, 10)
+        floats = data.floatsPerSlot
+    }
+
+    @Test
+    fun slotSizeMatchesPrimitive() {
+        assertEquals(4 * 9, floats) // 4 vertices with position, color, UV, and slot
+        assertEquals(10L * floats * Float.SIZE_BYTES, data.sizeBytes)
+    }
+
+    @Test
+    fun writeFillsOnlyItsSlot() {
+        val slot = data.allocate()
+        writeSlot(slot, 1f)
+        assertThrows(IndexOutOfBoundsException::class.java) { data.put(1f) }
+        assertEquals(1f, data.vertices[floats - 1])
+        assertEquals(0f, data.vertices[floats])
+    }
+
+    @Test
+    fun flushUploadsOnlyChangedSlots() {
+        repeat(5) { writeSlot(data.allocate(), 1f) }
+        flush()
+
+        writeSlot(1, 2f)
+        writeSlot(3, 3f)
+        val (offset, count) = flush()
+        assertEquals(1L * floats * Float.SIZE_BYTES, offset)
+        assertEquals(3 * floats, count) // Slots 1 to 3
+
+        assertFalse(data.isDirty)
+        assertNull(flushOrNull())
+    }
+
+    @Test
+    fun freedSlotClearedAndUploaded() {
+        repeat(3) { writeSlot(data.allocate(), 1f) }
+        flush()
+
+        data.free(1)
+        assertEquals(0f, data.vertices[floats])
+        val (offset, count) = flush()
+        assertEquals(1L * floats * Float.SIZE_BYTES, offset)
+        assertEquals(floats, count)
+        assertEquals(3, data.numDrawSlots)
+        assertEquals(2, data.numObjects)
+    }
+
+    @Test
+    fun flushedDataMatchesSlots() {
+        repeat(2) { writeSlot(data.allocate(), it + 1f) }
+        data.flushDirty { _, buffer ->
+            assertEquals(1f, buffer.get())
+            buffer.position(buffer.position() + floats - 1)
+            assertEquals(2f, buffer.get())
+        }
+    }
+
+    private fun writeSlot(slot: Int, value: Float) {
+        data.beginSlot(slot)
+        repeat(floats) { data.put(value) }
+    }
+
+    private fun flush(): Pair<Long, Int> = flushOrNull()!!
+
+    private fun flushOrNull(): Pair<Long, Int>? {
+        var result: Pair<Long, Int>? = null
+        data.flushDirty { offset, buffer -> result = Pair(offset, buffer.remaining()) }
+        return result
+    }
+
+}
@@ -0,0 +1,69 @@
+package mayonez.renderer.batch
+
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.renderer.batch.SlotAllocator] and
+ * [mayonez.renderer.batch.DirtyRange] classes.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class SlotAllocatorTest {
+
+    @Test
+    fun slotsAllocatedInOrder() {
+        val slots = SlotAllocator(4)
+        assertEquals(listOf(0, 1, 2, 3), List(4) { slots.allocate() })
+        assertFalse(slots.hasRoom)
+        assertEquals(-1, slots.allocate())
+    }
+
+    @Test
+    fun freedSlotReusedFirst() {
+        val slots = SlotAllocator(4)
+        repeat(3) { slots.allocate() }
+        slots.free(1)
+        assertEquals(2, slots.numUsed)
+        assertEquals(1, slots.allocate())
+        assertEquals(3, slots.allocate())
+    }
+
+    @Test
+    fun highWaterShrinksWhenLastSlotFreed() {
+        val slots = SlotAllocator(4)
+        repeat(3) { slots.allocate() }
+        assertEquals(3, slots.highWater)
+        slots.free(1)
+        assertEquals(3, slots.highWater) // Gap still drawn
+        slots.free(2)
+        assertEquals(1, slots.highWater)
+        slots.free(0)
+        assertTrue(slots.isEmpty)
+        assertEquals(0, slots.highWater)
+    }
+
+    @Test
+    fun freeingUnusedSlotDoesNothing() {
+        val slots = SlotAllocator(4)
+        slots.allocate()
+        slots.free(2)
+        slots.free(-1)
+        slots.free(10)
+        assertEquals(1, slots.numUsed)
+    }
+
+    @Test
+    fun dirtyRangeCoversAllMarks() {
+        val range = DirtyRange()
+        assertTrue(range.isEmpty)
+        range.mark(5)
+        range.mark(2)
+        range.mark(3)
+        assertEquals(2, range.start)
+        assertEquals(6, range.end)
+        range.clear()
+        assertTrue(range.isEmpty)
+    }
+
+}
@@ -0,0 +1,150 @@
+package mayonez.renderer.gl
+
+import mayonez.graphics.*
+import mayonez.graphics.debug.*
+import mayonez.graphics.textures.*
+import mayonez.math.*
+import mayonez.math.shapes.*
+import mayonez.renderer.batch.*
+import org.joml.Vector4f
+import org.junit.jupiter.api.*
+import org.junit.jupiter.api.Assertions.*
+
+/**
+ * Unit tests for the [mayonez.renderer.gl.DebugShapeMesh] and
+ * [mayonez.renderer.gl.ShapeTessellator] classes.
+ *
+ * @author SlavSquatSuperstar
+ */
+internal class DebugShapeMeshTest {
+
+    private val tessellator = ShapeTessellator()
+    private val mesh = DebugShapeMesh()
+    private val solid = ShapeBrush.createSolidBrush(Colors.RED)
+    private val outline = ShapeBrush.createOutlineBrush(Colors.RED).setStrokeSize(2f)
+
+    @Test
+    fun filledPolygonMatchesFanTriangles() {
+        val rect = Rectangle(Vec2(1f, 2f), Vec2(4f, 2f), 30f)
+        assertTrue(mesh.set(DebugShape(rect, solid), 1f, tessellator))
+        assertEquals(2, mesh.numTriangles)
+
+        assertPositionsEqual(fanVertices(rect.vertices), writePositions())
+    }
+
+    @Test
+    fun edgeDrawnAsQuadWithStrokeWidth() {
+        val edge = Edge(Vec2(0f, 0f), Vec2(4f, 0f))
+        assertTrue(mesh.set(DebugShape(edge, outline), 1f, tessellator))
+        assertEquals(2, mesh.numTriangles)
+
+        val positions = writePositions()
+        assertEquals(6, positions.size)
+        assertEquals(-1f, positions.minOf { it.y }, TOLERANCE)
+        assertEquals(1f, positions.maxOf { it.y }, TOLERANCE)
+        assertEquals(4f, positions.maxOf { it.x }, TOLERANCE)
+    }
+
+    @Test
+    fun strokeScalesWithZoom() {
+        val edge = Edge(Vec2(0f, 0f), Vec2(4f, 0f))
+        mesh.set(DebugShape(edge, outline), 2f, tessellator)
+        assertEquals(0.5f, writePositions().maxOf { it.y }, TOLERANCE)
+    }
+
+    @Test
+    fun outlineDrawsEveryEdge() {
+        val triangle = Triangle(Vec2(0f, 0f), Vec2(1f, 0f), Vec2(0f, 1f))
+        assertTrue(mesh.set(DebugShape(triangle, outline), 1f, tessellator))
+        assertEquals(6, mesh.numTriangles)
+        assertEquals(18, writePositions().size)
+    }
+
+    @Test
+    fun circleVerticesOnCircle() {
+        val circle = Circle(Vec2(5f, -3f), 2f)
+        assertTrue(mesh.set(DebugShape(circle, solid), 10f, tessellator))
+        val segments = tessellator.getSegments(circle, 10f)
+        assertEquals(segments - 2, mesh.numTriangles)
+        for (pos in writePositions()) {
+            assertEquals(2f, pos.distance(Vec2(5f, -3f)), TOLERANCE)
+        }
+    }
+
+    @Test
+    fun rotatedEllipseMatchesPolygon() {
+        val ellipse = Ellipse(Vec2(1f, 1f), Vec2(4f, 2f), 45f)
+        mesh.set(DebugShape(ellipse, solid), 1f, tessellator)
+        val segments = tessellator.getSegments(ellipse, 1f)
+
+        // Polygon.scale and rotate re-sort the vertices, so transform each one
+        val unitCircle = Polygon.regularPolygonVertices(Vec2(0f), segments, 1f)
+        val vertices = Array(segments) { (unitCircle[it] * Vec2(2f, 1f)).rotate(45f) + Vec2(1f, 1f) }
+        assertPositionsEqual(fanVertices(vertices), writePositions())
+    }
+
+    @Test
+    fun similarSizesShareTessellation() {
+        val small = Circle(Vec2(0f), 100f)
+        val larger = Circle(Vec2(0f), 101f)
+        assertEquals(tessellator.getSegments(small, 1f), tessellator.getSegments(larger, 1f))
+
+        val segments = tessellator.getSegments(small, 1f)
+        assertEquals(0, segments % ShapeTessellator.SEGMENT_STEP)
+        assertSame(tessellator.getUnitCircle(segments), tessellator.getUnitCircle(segments))
+        assertEquals(1, tessellator.size)
+    }
+
+    @Test
+    fun segmentsClamped() {
+        assertEquals(ShapeTessellator.MIN_SEGMENTS, tessellator.getSegments(Circle(Vec2(0f), 0.01f), 1f))
+        assertEquals(ShapeTessellator.MAX_SEGMENTS, tessellator.getSegments(Circle(Vec2(0f), 1e4f), 1f))
+    }
+
+    @Test
+    fun largeShapeDoesNotFitBatch() {
+        val vertices = Polygon.regularPolygonVertices(Vec2(0f), 600, 1f)
+        assertFalse(mesh.set(DebugShape(Polygon(false, *vertices), outline), 1f, tessellator))
+    }
+
+    // Helper Methods
+
+    /** The vertices of triangles sharing the first vertex, in order. */
+    private fun fanVertices(vertices: Array<Vec2>): List<Vec2> {
+        return (1..<vertices.size - 1).flatMap { listOf(vertices[0], vertices[it], vertices[it + 1]) }
+    }
+
+    private fun assertPositionsEqual(expected: List<Vec2>, actual: List<Vec2>) {
+        assertEquals(expected.size, actual.size)
+        for (i in expected.indices) {
+            assertEquals(expected[i].x, actual[i].x, TOLERANCE)
+            assertEquals(expected[i].y, actual[i].y, TOLERANCE)
+        }
+    }
+
+    private fun writePositions(): List<Vec2> {
+        val writer = PositionWriter()
+        mesh.writeVertices(writer)
+        return writer.positions
+    }
+
+    /** Records vertex positions and ignores other components. */
+    private class PositionWriter : VertexWriter {
+        val positions: MutableList<Vec2> = ArrayList()
+
+        override fun pushInt(i: Int) {}
+
+        override fun pushVec2(v: Vec2) {
+            positions.add(v)
+        }
+
+        override fun pushVec4(v: Vector4f) {}
+
+        override fun getTextureSlot(tex: GLTexture?): Int = 0
+    }
+
+    private companion object {
+        private const val TOLERANCE: Float = 1e-4f
+    }
+
+}
@@ -45,6 +45,32 @@ tasks {
         }
     }
 
+    // Run with ./gradlew :mayonez-demos:renderBenchmark, or add -PbenchmarkArgs="--frames 300 --update"
+    register<JavaExec>("renderBenchmark") {
+        group = "Verification"
+        description = "Renders a demo scene offscreen, reports frame times, and checks frames against golden images."
+        dependsOn("copyDefaultPreferences")
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass = "slavsquatsuperstar.demos.RenderBenchmark"
+        findProperty("benchmarkArgs")?.let { args(it.toString().split(" ")) }
+    }
+
+    // Pack all assets into one file that can be memory-mapped, and place it next to the jar as assets.pak
+    // The engine's AssetArchive writes the archive, so the build and the engine use the same format
+    register<JavaExec>("packAssets") {
+        group = "Packaging"
+        description = "Packs all assets on the runtime classpath into a single archive."
+        val sources = files("src/main/resources", configurations.runtimeClasspath)
+        val archiveFile = layout.buildDirectory.file("assets.pak")
+        inputs.files(sources).withPathSensitivity(PathSensitivity.RELATIVE)
+        outputs.file(archiveFile)
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass = "mayonez.assets.AssetArchive"
+        argumentProviders.add(CommandLineArgumentProvider {
+            listOf(archiveFile.get().asFile.path) + sources.files.map { it.path }
+        })
+    }
+
     // Copy preference files
 
     compileJava {
@@ -55,6 +81,10 @@ tasks {
         dependsOn("copyDefaultPreferences")
     }
 
+    named("generateAssetIndex") {
+        dependsOn("copyDefaultPreferences")
+    }
+
     // Source: https://discuss.gradle.org/t/gradle-copy-task-dont-overrite-uptodatewhen/26785/2
     register<Copy>("copyDefaultPreferences") {
         group = "Packaging"
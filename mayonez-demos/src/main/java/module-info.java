@@ -1,3 +1,4 @@
 module mayonez.demos {
+    requires java.desktop;
     requires mayonez.base;
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package slavsquatsuperstar.demos;
+
+import mayonez.headless.*;
+import slavsquatsuperstar.demos.renderer.RendererTestScene;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A class with a main method that renders a demo scene offscreen without
+ * opening a window, then reports the frame times and checks some frames
+ * against stored golden images.
+ * <p>
+ * Arguments:
+ * <ul>
+ *     <li>{@code --frames <count>}: how many frames to time (default 600)</li>
+ *     <li>{@code --warmup <count>}: how many frames to run before timing (default 60)</li>
+ *     <li>{@code --golden <folder>}: where the golden images are stored (default "golden")</li>
+ *     <li>{@code --update}: save the captured frames as the new golden images</li>
+ * </ul>
+ * Exits with code 1 if any frame does not match its golden image or has no
+ * golden image.
+ *
+ * @author SlavSquatSuperstar
+ */
+public class RenderBenchmark {
+
+    private final static int DEFAULT_FRAMES = 600;
+    private final static int DEFAULT_WARMUP_FRAMES = 60;
+    private final static String DEFAULT_GOLDEN_FOLDER = "golden";
+    private final static String SCENE_NAME = "Render Batch Test";
+
+    public static void main(String[] args) {
+        var argsList = Arrays.asList(args);
+        var frames = getIntArg(argsList, "--frames", DEFAULT_FRAMES);
+        var warmupFrames = getIntArg(argsList, "--warmup", DEFAULT_WARMUP_FRAMES);
+        var goldenFolder = getArg(argsList, "--golden", DEFAULT_GOLDEN_FOLDER);
+        var update = argsList.contains("--update");
+
+        FrameHarness.configure(); // Must be called before creating scenes
+        var scene = new RendererTestScene(SCENE_NAME);
+        var golden = new GoldenImages(new File(goldenFolder, "render_batch_test"));
+        var results = new ArrayList<GoldenImages.Result>();
+
+        // Check the first, middle, and last frames
+        var captureFrames = new HashSet<>(List.of(0, frames / 2, frames - 1));
+        var times = new FrameHarness().run(scene, frames, warmupFrames, captureFrames, (frame, image) -> {
+            try {
+                results.add(golden.check("frame_" + frame, image, update));
+            } catch (IOException e) {
+                System.err.println("Could not check frame " + frame + ": " + e.getMessage());
+                results.add(new GoldenImages.Result("frame_" + frame, null, false));
+            }
+        });
+
+        System.out.println(times);
+        results.forEach(System.out::println);
+        var failed = results.stream().anyMatch(result -> !result.getPassed());
+        if (results.stream().anyMatch(result -> !result.getPassed() && result.getDiff() == null)) {
+            System.out.println("Run with --update to record missing golden images");
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static String getArg(List<String> args, String flag, String defaultValue) {
+        var index = args.indexOf(flag);
+        if (index < 0 || index + 1 >= args.size()) return defaultValue;
+        return args.get(index + 1);
+    }
+
+    private static int getIntArg(List<String> args, String flag, int defaultValue) {
+        try {
+            return Math.max(0, Integer.parseInt(getArg(args, flag, String.valueOf(defaultValue))));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+}